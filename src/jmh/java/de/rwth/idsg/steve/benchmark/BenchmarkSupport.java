@@ -0,0 +1,66 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.benchmark;
+
+import de.rwth.idsg.steve.config.SteveProperties;
+import de.rwth.idsg.steve.metrics.OcppMetrics;
+import de.rwth.idsg.steve.ocpp.OcppVersion;
+import de.rwth.idsg.steve.ocpp.ws.TypeStore;
+import de.rwth.idsg.steve.ocpp.ws.ocpp12.Ocpp12TypeStore;
+import de.rwth.idsg.steve.ocpp.ws.ocpp15.Ocpp15TypeStore;
+import de.rwth.idsg.steve.ocpp.ws.ocpp16.Ocpp16TypeStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.adapter.standard.StandardWebSocketSession;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.util.Map;
+
+/**
+ * Shared setup of the benchmarks, so that they do not need a Spring context.
+ */
+final class BenchmarkSupport {
+
+    private BenchmarkSupport() { }
+
+    static TypeStore typeStore(OcppVersion version) {
+        return switch (version) {
+            case V_12 -> Ocpp12TypeStore.INSTANCE;
+            case V_15 -> Ocpp15TypeStore.INSTANCE;
+            case V_16 -> Ocpp16TypeStore.INSTANCE;
+        };
+    }
+
+    /**
+     * A session that is never opened. The stores only use it as key and for its id, and the sent messages are
+     * discarded.
+     */
+    static WebSocketSession newSession() {
+        return new WebSocketSessionDecorator(new StandardWebSocketSession(new HttpHeaders(), Map.of(), null, null)) {
+            @Override
+            public void sendMessage(WebSocketMessage<?> message) { }
+        };
+    }
+
+    static OcppMetrics newMetrics() {
+        return new OcppMetrics(new SimpleMeterRegistry(), new SteveProperties());
+    }
+}
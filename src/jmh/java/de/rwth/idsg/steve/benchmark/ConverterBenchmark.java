@@ -0,0 +1,163 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.benchmark;
+
+import de.rwth.idsg.steve.ocpp.OcppVersion;
+import de.rwth.idsg.steve.ocpp.converter.Server12to15Impl;
+import de.rwth.idsg.steve.ocpp.converter.Server15to16Impl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Messages of OCPP 1.2 and 1.5 charge points are converted up to 1.6 before they are processed, and the responses
+ * are converted back down. These are the single steps of Server12to15Impl and Server15to16Impl.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConverterBenchmark {
+
+    private static final String PACKAGE_12 = ocpp.cs._2010._08.ObjectFactory.class.getPackage().getName();
+    private static final String PACKAGE_15 = ocpp.cs._2012._06.ObjectFactory.class.getPackage().getName();
+    private static final String PACKAGE_16 = ocpp.cs._2015._10.ObjectFactory.class.getPackage().getName();
+
+    @Param({"Heartbeat", "BootNotification", "StatusNotification", "MeterValues", "StartTransaction", "StopTransaction"})
+    private String action;
+
+    private Supplier<Object> request12to15;
+    private Supplier<Object> request15to16;
+    private Supplier<Object> response16to15;
+    private Supplier<Object> response15to12;
+
+    @Setup
+    public void setup() throws ClassNotFoundException {
+        OcppCorpus corpus12 = OcppCorpus.load(OcppVersion.V_12);
+        OcppCorpus corpus15 = OcppCorpus.load(OcppVersion.V_15);
+        OcppCorpus corpus16 = OcppCorpus.load(OcppVersion.V_16);
+
+        Object request12 = corpus12.readRequest(action, Class.forName(PACKAGE_12 + "." + action + "Request"));
+        Object request15 = corpus15.readRequest(action, Class.forName(PACKAGE_15 + "." + action + "Request"));
+        Object response16 = corpus16.readResponse(action, Class.forName(PACKAGE_16 + "." + action + "Response"));
+        Object response15 = corpus15.readResponse(action, Class.forName(PACKAGE_15 + "." + action + "Response"));
+
+        request12to15 = bind(request12, request12to15Converter());
+        request15to16 = bind(request15, request15to16Converter());
+        response16to15 = bind(response16, response16to15Converter());
+        response15to12 = bind(response15, response15to12Converter());
+    }
+
+    @Benchmark
+    public Object request12to15() {
+        return request12to15.get();
+    }
+
+    @Benchmark
+    public Object request15to16() {
+        return request15to16.get();
+    }
+
+    @Benchmark
+    public Object response16to15() {
+        return response16to15.get();
+    }
+
+    @Benchmark
+    public Object response15to12() {
+        return response15to12.get();
+    }
+
+    // -------------------------------------------------------------------------
+    // Private helpers
+    // -------------------------------------------------------------------------
+
+    private static Supplier<Object> bind(Object input, Function<Object, Object> converter) {
+        return () -> converter.apply(input);
+    }
+
+    /**
+     * The converters are overloaded per message type, so that the static type has to be selected per action.
+     */
+    private Function<Object, Object> request12to15Converter() {
+        Server12to15Impl c = Server12to15Impl.SINGLETON;
+        return switch (action) {
+            case "Heartbeat" -> r -> c.convertRequest((ocpp.cs._2010._08.HeartbeatRequest) r);
+            case "BootNotification" -> r -> c.convertRequest((ocpp.cs._2010._08.BootNotificationRequest) r);
+            case "StatusNotification" -> r -> c.convertRequest((ocpp.cs._2010._08.StatusNotificationRequest) r);
+            case "MeterValues" -> r -> c.convertRequest((ocpp.cs._2010._08.MeterValuesRequest) r);
+            case "StartTransaction" -> r -> c.convertRequest((ocpp.cs._2010._08.StartTransactionRequest) r);
+            case "StopTransaction" -> r -> c.convertRequest((ocpp.cs._2010._08.StopTransactionRequest) r);
+            default -> throw new IllegalArgumentException(action);
+        };
+    }
+
+    private Function<Object, Object> request15to16Converter() {
+        Server15to16Impl c = Server15to16Impl.SINGLETON;
+        return switch (action) {
+            case "Heartbeat" -> r -> c.convertRequest((ocpp.cs._2012._06.HeartbeatRequest) r);
+            case "BootNotification" -> r -> c.convertRequest((ocpp.cs._2012._06.BootNotificationRequest) r);
+            case "StatusNotification" -> r -> c.convertRequest((ocpp.cs._2012._06.StatusNotificationRequest) r);
+            case "MeterValues" -> r -> c.convertRequest((ocpp.cs._2012._06.MeterValuesRequest) r);
+            case "StartTransaction" -> r -> c.convertRequest((ocpp.cs._2012._06.StartTransactionRequest) r);
+            case "StopTransaction" -> r -> c.convertRequest((ocpp.cs._2012._06.StopTransactionRequest) r);
+            default -> throw new IllegalArgumentException(action);
+        };
+    }
+
+    private Function<Object, Object> response16to15Converter() {
+        Server15to16Impl c = Server15to16Impl.SINGLETON;
+        return switch (action) {
+            case "Heartbeat" -> r -> c.convertResponse((ocpp.cs._2015._10.HeartbeatResponse) r);
+            case "BootNotification" -> r -> c.convertResponse((ocpp.cs._2015._10.BootNotificationResponse) r);
+            case "StatusNotification" -> r -> c.convertResponse((ocpp.cs._2015._10.StatusNotificationResponse) r);
+            case "MeterValues" -> r -> c.convertResponse((ocpp.cs._2015._10.MeterValuesResponse) r);
+            case "StartTransaction" -> r -> c.convertResponse((ocpp.cs._2015._10.StartTransactionResponse) r);
+            case "StopTransaction" -> r -> c.convertResponse((ocpp.cs._2015._10.StopTransactionResponse) r);
+            default -> throw new IllegalArgumentException(action);
+        };
+    }
+
+    private Function<Object, Object> response15to12Converter() {
+        Server12to15Impl c = Server12to15Impl.SINGLETON;
+        return switch (action) {
+            case "Heartbeat" -> r -> c.convertResponse((ocpp.cs._2012._06.HeartbeatResponse) r);
+            case "BootNotification" -> r -> c.convertResponse((ocpp.cs._2012._06.BootNotificationResponse) r);
+            case "StatusNotification" -> r -> c.convertResponse((ocpp.cs._2012._06.StatusNotificationResponse) r);
+            case "MeterValues" -> r -> c.convertResponse((ocpp.cs._2012._06.MeterValuesResponse) r);
+            case "StartTransaction" -> r -> c.convertResponse((ocpp.cs._2012._06.StartTransactionResponse) r);
+            case "StopTransaction" -> r -> c.convertResponse((ocpp.cs._2012._06.StopTransactionResponse) r);
+            default -> throw new IllegalArgumentException(action);
+        };
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.benchmark;
+
+import de.rwth.idsg.steve.config.SteveProperties;
+import de.rwth.idsg.steve.ocpp.OcppVersion;
+import de.rwth.idsg.steve.ocpp.ws.FutureResponseContextStoreImpl;
+import de.rwth.idsg.steve.ocpp.ws.data.CommunicationContext;
+import de.rwth.idsg.steve.ocpp.ws.data.OcppJsonMessage;
+import de.rwth.idsg.steve.ocpp.ws.pipeline.Deserializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Incoming CALL string --> OcppJsonCall with the typed request payload, as the first step of the incoming pipeline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DeserializerBenchmark {
+
+    @Param({"V_12", "V_15", "V_16"})
+    private OcppVersion version;
+
+    @Param({"Heartbeat", "BootNotification", "StatusNotification", "MeterValues", "StartTransaction", "StopTransaction"})
+    private String action;
+
+    private Deserializer deserializer;
+    private WebSocketSession session;
+    private String incomingString;
+
+    @Setup
+    public void setup() {
+        deserializer = new Deserializer(
+                new FutureResponseContextStoreImpl(BenchmarkSupport.newMetrics(), null, new SteveProperties()),
+                BenchmarkSupport.typeStore(version)
+        );
+        session = BenchmarkSupport.newSession();
+        incomingString = OcppCorpus.load(version).getCall(action, "19223201");
+    }
+
+    @Benchmark
+    public OcppJsonMessage deserialize() {
+        CommunicationContext context = new CommunicationContext(session, "CP-1");
+        context.setIncomingString(incomingString);
+        deserializer.accept(context);
+        return context.getIncomingMessage();
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.benchmark;
+
+import de.rwth.idsg.steve.config.SteveProperties;
+import de.rwth.idsg.steve.metrics.OutgoingCallTiming;
+import de.rwth.idsg.steve.ocpp.OcppTransport;
+import de.rwth.idsg.steve.ocpp.OcppVersion;
+import de.rwth.idsg.steve.ocpp.ws.FutureResponseContextStoreImpl;
+import de.rwth.idsg.steve.ocpp.ws.data.CommunicationContext;
+import de.rwth.idsg.steve.ocpp.ws.data.FutureResponseContext;
+import de.rwth.idsg.steve.ocpp.ws.data.OcppJsonCall;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An outgoing call as seen by FutureResponseContextStoreImpl: the context is stored when the CALL is sent and taken
+ * out again when the CALL_RESULT arrives. The sessions discard the sent messages.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FutureResponseContextStoreBenchmark {
+
+    @Param({"100", "10000"})
+    private int sessions;
+
+    /**
+     * Calls per session that are waiting for a response already
+     */
+    @Param({"0", "10"})
+    private int pending;
+
+    private FutureResponseContextStoreImpl store;
+    private WebSocketSession[] sessionArray;
+    private FutureResponseContext context;
+
+    /**
+     * Message ids are unique per thread, so that concurrent callers do not take each other's contexts
+     */
+    @State(Scope.Thread)
+    public static class MessageIds {
+        private final String prefix = UUID.randomUUID().toString();
+        private long counter;
+
+        String next() {
+            return prefix + counter++;
+        }
+    }
+
+    @Setup
+    public void setup() {
+        // room for the pending calls and the measured one, so that nothing is queued
+        SteveProperties properties = new SteveProperties();
+        properties.getCallQueue().setMaxInFlight(pending + 1);
+
+        // not started, the timeout check is not scheduled
+        store = new FutureResponseContextStoreImpl(BenchmarkSupport.newMetrics(), null, properties);
+
+        // the benchmark only measures the store, the timing is never recorded
+        var timing = new OutgoingCallTiming("CP-1", OcppTransport.JSON, OcppVersion.V_16, "Reset");
+        context = new FutureResponseContext(null, ocpp.cp._2015._10.ResetResponse.class, timing);
+
+        sessionArray = new WebSocketSession[sessions];
+        for (int i = 0; i < sessions; i++) {
+            sessionArray[i] = BenchmarkSupport.newSession();
+            store.addSession(sessionArray[i]);
+            for (int j = 0; j < pending; j++) {
+                store.send(newCall(sessionArray[i], UUID.randomUUID().toString()));
+            }
+        }
+    }
+
+    @Benchmark
+    public FutureResponseContext sendAndGet(MessageIds ids) {
+        return sendAndGet(ids.next());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public FutureResponseContext sendAndGetContended(MessageIds ids) {
+        return sendAndGet(ids.next());
+    }
+
+    private FutureResponseContext sendAndGet(String messageId) {
+        WebSocketSession session = sessionArray[ThreadLocalRandom.current().nextInt(sessionArray.length)];
+        store.send(newCall(session, messageId));
+        return store.get(session, messageId);
+    }
+
+    private CommunicationContext newCall(WebSocketSession session, String messageId) {
+        OcppJsonCall call = new OcppJsonCall();
+        call.setMessageId(messageId);
+        call.setAction("Reset");
+
+        CommunicationContext ctx = new CommunicationContext(session, "CP-1");
+        ctx.setOutgoingMessage(call);
+        ctx.setOutgoingString("[2,\"" + messageId + "\",\"Reset\",{\"type\":\"Soft\"}]");
+        ctx.setFutureResponseContext(context);
+        return ctx;
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import de.rwth.idsg.steve.ocpp.OcppVersion;
+import de.rwth.idsg.steve.ocpp.ws.JsonObjectMapper;
+import de.rwth.idsg.steve.ocpp.ws.data.MessageType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Realistic charge point messages of one OCPP version, as found in /corpus/{ocpp version}.json. Each file contains
+ * a request and a response payload per action.
+ */
+public final class OcppCorpus {
+
+    private final ObjectMapper mapper = JsonObjectMapper.INSTANCE.getMapper();
+    private final JsonNode root;
+
+    private OcppCorpus(JsonNode root) {
+        this.root = root;
+    }
+
+    public static OcppCorpus load(OcppVersion version) {
+        String path = "/corpus/" + version.getValue() + ".json";
+        try (InputStream in = OcppCorpus.class.getResourceAsStream(path)) {
+            if (in == null) {
+                throw new IllegalStateException("Corpus not found: " + path);
+            }
+            return new OcppCorpus(JsonObjectMapper.INSTANCE.getMapper().readTree(in));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public JsonNode getRequest(String action) {
+        return get(action, "request");
+    }
+
+    public JsonNode getResponse(String action) {
+        return get(action, "response");
+    }
+
+    /**
+     * The request of the action as incoming CALL message: [2, "messageId", "action", {payload}]
+     */
+    public String getCall(String action, String messageId) {
+        ArrayNode call = mapper.createArrayNode()
+                               .add(MessageType.CALL.getTypeNr())
+                               .add(messageId)
+                               .add(action)
+                               .add(getRequest(action));
+        try {
+            return mapper.writeValueAsString(call);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public <T> T readRequest(String action, Class<T> clazz) {
+        return read(getRequest(action), clazz);
+    }
+
+    public <T> T readResponse(String action, Class<T> clazz) {
+        return read(getResponse(action), clazz);
+    }
+
+    private JsonNode get(String action, String field) {
+        JsonNode node = root.path(action).get(field);
+        if (node == null) {
+            throw new IllegalArgumentException("No " + field + " for action " + action + " in corpus");
+        }
+        return node;
+    }
+
+    private <T> T read(JsonNode node, Class<T> clazz) {
+        try {
+            return mapper.treeToValue(node, clazz);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.benchmark;
+
+import de.rwth.idsg.ocpp.jaxb.ResponseType;
+import de.rwth.idsg.steve.ocpp.OcppVersion;
+import de.rwth.idsg.steve.ocpp.ws.data.CommunicationContext;
+import de.rwth.idsg.steve.ocpp.ws.data.OcppJsonResult;
+import de.rwth.idsg.steve.ocpp.ws.pipeline.Serializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Outgoing OcppJsonResult with the typed response payload --> CALL_RESULT string, as the last step of the incoming
+ * pipeline.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializerBenchmark {
+
+    @Param({"V_12", "V_15", "V_16"})
+    private OcppVersion version;
+
+    @Param({"Heartbeat", "BootNotification", "StatusNotification", "MeterValues", "StartTransaction", "StopTransaction"})
+    private String action;
+
+    private WebSocketSession session;
+    private OcppJsonResult result;
+
+    @Setup
+    public void setup() throws ClassNotFoundException {
+        // the response class is next to the request class
+        String requestClassName = BenchmarkSupport.typeStore(version).findRequestClass(action).getName();
+        Class<? extends ResponseType> responseClass = Class.forName(requestClassName.replaceAll("Request$", "Response"))
+                                                           .asSubclass(ResponseType.class);
+
+        result = new OcppJsonResult();
+        result.setMessageId("19223201");
+        result.setPayload(OcppCorpus.load(version).readResponse(action, responseClass));
+
+        session = BenchmarkSupport.newSession();
+    }
+
+    @Benchmark
+    public String serialize() {
+        CommunicationContext context = new CommunicationContext(session, "CP-1");
+        context.setOutgoingMessage(result);
+        Serializer.INSTANCE.accept(context);
+        return context.getOutgoingString();
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.benchmark;
+
+import de.rwth.idsg.steve.ocpp.ws.SessionContextStoreImpl;
+import de.rwth.idsg.steve.ocpp.ws.custom.WsSessionSelectStrategyEnum;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Session lookups for outgoing calls and connects/disconnects of SessionContextStoreImpl, with many stations and
+ * with concurrent callers (which contend for the striped locks).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SessionContextStoreBenchmark {
+
+    @Param({"100", "10000"})
+    private int stations;
+
+    @Param({"1", "3"})
+    private int sessionsPerStation;
+
+    @Param({"ALWAYS_LAST", "ROUND_ROBIN"})
+    private WsSessionSelectStrategyEnum strategy;
+
+    private ScheduledExecutorService executor;
+    private ScheduledFuture<?> pingSchedule;
+
+    private SessionContextStoreImpl store;
+    private String[] chargeBoxIds;
+
+    @Setup
+    public void setup() {
+        // remove(..) cancels the ping task, so there has to be one. it will never run.
+        executor = new ScheduledThreadPoolExecutor(1);
+        pingSchedule = executor.schedule(() -> { }, 1, TimeUnit.DAYS);
+
+        store = new SessionContextStoreImpl(strategy);
+        chargeBoxIds = new String[stations];
+        for (int i = 0; i < stations; i++) {
+            chargeBoxIds[i] = "CP-" + i;
+            for (int j = 0; j < sessionsPerStation; j++) {
+                store.add(chargeBoxIds[i], BenchmarkSupport.newSession(), pingSchedule);
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public WebSocketSession getSession() {
+        return store.getSession(randomChargeBoxId());
+    }
+
+    @Benchmark
+    @Threads(4)
+    public WebSocketSession getSessionContended() {
+        return store.getSession(randomChargeBoxId());
+    }
+
+    /**
+     * A reconnect of a station: a new session is added and removed again, so that the store does not grow.
+     */
+    @Benchmark
+    public void addAndRemove() {
+        String chargeBoxId = randomChargeBoxId();
+        WebSocketSession session = BenchmarkSupport.newSession();
+        store.add(chargeBoxId, session, pingSchedule);
+        store.remove(chargeBoxId, session);
+    }
+
+    private String randomChargeBoxId() {
+        return chargeBoxIds[ThreadLocalRandom.current().nextInt(chargeBoxIds.length)];
+    }
+}
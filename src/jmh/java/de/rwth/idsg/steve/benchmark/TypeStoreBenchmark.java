@@ -0,0 +1,100 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.benchmark;
+
+import de.rwth.idsg.ocpp.jaxb.RequestType;
+import de.rwth.idsg.steve.ocpp.OcppVersion;
+import de.rwth.idsg.steve.ocpp.ws.TypeStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lookups of AbstractTypeStore: action --> request class for incoming calls, and request --> (action, response class)
+ * for outgoing calls.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TypeStoreBenchmark {
+
+    private static final String[] ACTIONS = {
+            "Heartbeat", "BootNotification", "StatusNotification", "MeterValues", "StartTransaction",
+            "StopTransaction", "Authorize", "DiagnosticsStatusNotification", "FirmwareStatusNotification"
+    };
+
+    private static final String[] OUTGOING_ACTIONS = {
+            "Reset", "ClearCache", "ChangeAvailability", "RemoteStartTransaction", "RemoteStopTransaction",
+            "UnlockConnector", "ChangeConfiguration", "GetDiagnostics", "UpdateFirmware"
+    };
+
+    @Param({"V_12", "V_15", "V_16"})
+    private OcppVersion version;
+
+    private TypeStore typeStore;
+    private RequestType[] outgoingRequests;
+
+    @Setup
+    public void setup() throws ReflectiveOperationException {
+        typeStore = BenchmarkSupport.typeStore(version);
+
+        String packageName = switch (version) {
+            case V_12 -> ocpp.cp._2010._08.ObjectFactory.class.getPackage().getName();
+            case V_15 -> ocpp.cp._2012._06.ObjectFactory.class.getPackage().getName();
+            case V_16 -> ocpp.cp._2015._10.ObjectFactory.class.getPackage().getName();
+        };
+
+        outgoingRequests = new RequestType[OUTGOING_ACTIONS.length];
+        for (int i = 0; i < OUTGOING_ACTIONS.length; i++) {
+            Class<?> clazz = Class.forName(packageName + "." + OUTGOING_ACTIONS[i] + "Request");
+            outgoingRequests[i] = (RequestType) clazz.getDeclaredConstructor().newInstance();
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(9)
+    public void findRequestClass(Blackhole bh) {
+        for (String action : ACTIONS) {
+            bh.consume(typeStore.findRequestClass(action));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(9)
+    public void findActionResponse(Blackhole bh) {
+        for (RequestType request : outgoingRequests) {
+            bh.consume(typeStore.findActionResponse(request));
+        }
+    }
+}
@@ -24,10 +24,14 @@ import com.fasterxml.jackson.databind.SerializationFeature;
 import com.mysql.cj.conf.PropertyKey;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import de.rwth.idsg.steve.metrics.DbQueryListener;
+import de.rwth.idsg.steve.metrics.DbTimeListener;
+import de.rwth.idsg.steve.repository.memory.InMemoryDatabase;
 import de.rwth.idsg.steve.service.DummyReleaseCheckService;
 import de.rwth.idsg.steve.service.GithubReleaseCheckService;
 import de.rwth.idsg.steve.service.ReleaseCheckService;
 import de.rwth.idsg.steve.utils.InternetChecker;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.jooq.DSLContext;
 import org.jooq.SQLDialect;
@@ -40,6 +44,8 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
 import org.springframework.format.support.FormattingConversionService;
 import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
@@ -76,7 +82,7 @@ public class BeanConfiguration implements WebMvcConfigurer {
      * https://github.com/brettwooldridge/HikariCP/wiki/MySQL-Configuration
      */
     @Bean
-    public HikariDataSource dataSource(DataSourceProperties properties) {
+    public HikariDataSource dataSource(DataSourceProperties properties, Environment environment) {
         HikariConfig hc = new HikariConfig();
 
         // set standard params
@@ -96,6 +102,12 @@ public class BeanConfiguration implements WebMvcConfigurer {
         // https://github.com/steve-community/steve/issues/736
         hc.setMaxLifetime(580_000);
 
+        // without a database, the pool must neither fail at startup nor keep connecting in the background
+        if (environment.acceptsProfiles(Profiles.of(InMemoryDatabase.PROFILE))) {
+            hc.setInitializationFailTimeout(-1);
+            hc.setMinimumIdle(0);
+        }
+
         return new HikariDataSource(hc);
     }
 
@@ -113,7 +125,8 @@ public class BeanConfiguration implements WebMvcConfigurer {
      */
     @Bean
     public DSLContext dslContext(DataSource dataSource,
-                                 SteveProperties steveProperties) {
+                                 SteveProperties steveProperties,
+                                 MeterRegistry meterRegistry) {
         Settings settings = new Settings()
                 // Normally, the records are "attached" to the Configuration that created (i.e. fetch/insert) them.
                 // This means that they hold an internal reference to the same database connection that was used.
@@ -127,7 +140,13 @@ public class BeanConfiguration implements WebMvcConfigurer {
         org.jooq.Configuration conf = new DefaultConfiguration()
                 .set(SQLDialect.MYSQL)
                 .set(new DataSourceConnectionProvider(dataSource))
-                .set(settings);
+                .set(settings)
+                .set(
+                    // for the metrics of the OCPP messages
+                    new DbTimeListener(),
+                    // for the metrics and the slow query log per repository method
+                    new DbQueryListener(meterRegistry, steveProperties.getJooq())
+                );
 
         return DSL.using(conf);
     }
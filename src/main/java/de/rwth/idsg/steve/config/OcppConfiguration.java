@@ -18,10 +18,13 @@
  */
 package de.rwth.idsg.steve.config;
 
+import de.rwth.idsg.steve.metrics.OcppMetrics;
+import de.rwth.idsg.steve.ocpp.OcppVersion;
 import de.rwth.idsg.steve.ocpp.soap.LoggingFeatureProxy;
 import de.rwth.idsg.steve.ocpp.soap.MediatorInInterceptor;
 import de.rwth.idsg.steve.ocpp.soap.MessageHeaderInterceptor;
 import de.rwth.idsg.steve.ocpp.soap.MessageIdInterceptor;
+import de.rwth.idsg.steve.ocpp.soap.MetricsFeature;
 import lombok.RequiredArgsConstructor;
 import org.apache.cxf.Bus;
 import org.apache.cxf.feature.Feature;
@@ -49,22 +52,23 @@ public class OcppConfiguration {
     private final ocpp.cs._2012._06.CentralSystemService ocpp15Server;
     private final ocpp.cs._2015._10.CentralSystemService ocpp16Server;
     private final MessageHeaderInterceptor messageHeaderInterceptor;
+    private final OcppMetrics ocppMetrics;
 
     private final MessageIdInterceptor messageIdInterceptor = new MessageIdInterceptor();
 
     @Bean
     public EndpointImpl ocpp12Endpoint() {
-        return createDefaultEndpoint(ocpp12Server, "/CentralSystemServiceOCPP12");
+        return createDefaultEndpoint(ocpp12Server, "/CentralSystemServiceOCPP12", OcppVersion.V_12);
     }
 
     @Bean
     public EndpointImpl ocpp15Endpoint() {
-        return createDefaultEndpoint(ocpp15Server, "/CentralSystemServiceOCPP15");
+        return createDefaultEndpoint(ocpp15Server, "/CentralSystemServiceOCPP15", OcppVersion.V_15);
     }
 
     @Bean
     public EndpointImpl ocpp16Endpoint() {
-        return createDefaultEndpoint(ocpp16Server, "/CentralSystemServiceOCPP16");
+        return createDefaultEndpoint(ocpp16Server, "/CentralSystemServiceOCPP16", OcppVersion.V_16);
     }
 
     /**
@@ -80,9 +84,10 @@ public class OcppConfiguration {
         );
     }
 
-    private EndpointImpl createDefaultEndpoint(Object serviceBean, String address) {
+    private EndpointImpl createDefaultEndpoint(Object serviceBean, String address, OcppVersion version) {
         return createEndpoint(
-            serviceBean, address, List.of(messageIdInterceptor, messageHeaderInterceptor), List.of(LoggingFeatureProxy.INSTANCE.get())
+            serviceBean, address, List.of(messageIdInterceptor, messageHeaderInterceptor),
+            List.of(LoggingFeatureProxy.INSTANCE.get(), new MetricsFeature(ocppMetrics, version))
         );
     }
 
@@ -22,6 +22,11 @@ import de.rwth.idsg.steve.ocpp.ws.custom.WsSessionSelectStrategyEnum;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * @author Sevket Goekay <sevketgokay@gmail.com>
@@ -47,10 +52,33 @@ public class SteveProperties {
     Auth auth = new Auth();
     Jooq jooq = new Jooq();
     Ocpp ocpp = new Ocpp();
+    CallQueue callQueue = new CallQueue();
+    OfflineCommands offlineCommands = new OfflineCommands();
+    Soap soap = new Soap();
+    Deletion deletion = new Deletion();
+    EnergyRollup energyRollup = new EnergyRollup();
+    MeterValueBackfill meterValueBackfill = new MeterValueBackfill();
+    Metrics metrics = new Metrics();
+    FlightRecording flightRecording = new FlightRecording();
+    FanOut fanOut = new FanOut();
+    Tasks tasks = new Tasks();
+    Events events = new Events();
+    Mail mail = new Mail();
+    Webhooks webhooks = new Webhooks();
 
     @Data
     public static class Jooq {
         boolean executiveLogging;
+
+        /**
+         * Statements slower than this are logged (without the bind values)
+         */
+        Duration slowQueryThreshold = Duration.ofMillis(500);
+
+        /**
+         * At most this many slow statements are logged per minute, 0 for no limit
+         */
+        int slowQueryLogsPerMinute = 10;
     }
 
     @Data
@@ -67,4 +95,196 @@ public class SteveProperties {
         boolean autoRegisterUnknownStations;
         String chargeBoxIdValidationRegex;
     }
+
+    /**
+     * Outgoing calls to a JSON station are sent one after another: a call waits in the queue of the connection,
+     * while maxInFlight calls have no response yet. OCPP allows only one. At most maxQueued calls wait per
+     * connection (0 for no limit), further calls are failed right away. A call that has no response after
+     * responseTimeout is failed, so that the calls behind it are not stuck.
+     */
+    @Data
+    public static class CallQueue {
+        int maxInFlight = 1;
+        int maxQueued = 1_000;
+        Duration responseTimeout = Duration.ofMinutes(1);
+    }
+
+    /**
+     * If enabled, the commands for JSON stations that are not connected are stored in the database, instead of
+     * failing right away. They are sent in order when the station connects, at most callsPerSecond over all stations
+     * (0 for no limit). Commands that were not sent within ttl are failed.
+     */
+    @Data
+    public static class OfflineCommands {
+        boolean enabled;
+        Duration ttl = Duration.ofHours(24);
+        double callsPerSecond = 10;
+    }
+
+    /**
+     * Outgoing calls to SOAP stations are made with the non-blocking HTTP client of CXF, such that a call does not
+     * occupy a thread while it waits for the response. The client keeps at most maxConnections (and
+     * maxConnectionsPerHost per station address) open. With keepAlive, a connection is reused for the next call to
+     * the same station, until it was idle for connectionMaxIdle. ioThreads = 0 means one per processor. The client
+     * proxies are cached per station, at most clientCacheSize per OCPP version, until they were not used for
+     * clientCacheExpiry.
+     */
+    @Data
+    public static class Soap {
+        int maxConnections = 5_000;
+        int maxConnectionsPerHost = 1_000;
+        boolean keepAlive = true;
+        Duration connectionMaxIdle = Duration.ofMinutes(1);
+        int ioThreads = 0;
+        int clientCacheSize = 5_000;
+        Duration clientCacheExpiry = Duration.ofHours(1);
+    }
+
+    /**
+     * Charge points are deleted in the background. Their history is purged in chunks of this many rows, with a
+     * pause between the chunks, so that the deletion does not compete with ingest for locks and I/O.
+     */
+    @Data
+    public static class Deletion {
+        int chunkSize = 5_000;
+        Duration pause = Duration.ofMillis(500);
+    }
+
+    /**
+     * The meter values that were stored before they were classified on arrival are classified in the background,
+     * in chunks of about this many rows of one connector, with a pause between the chunks.
+     */
+    @Data
+    public static class MeterValueBackfill {
+        int chunkSize = 5_000;
+        Duration pause = Duration.ofMillis(500);
+    }
+
+    /**
+     * Energy and duration of stopped transactions are rolled up in the background, at most this many transactions
+     * per run. Stopped transactions that were missed (e.g. during a restart) are picked up after the start. A
+     * transaction that could not be rolled up maxAttempts times is skipped until the next start.
+     */
+    @Data
+    public static class EnergyRollup {
+        int chunkSize = 500;
+        Duration pause = Duration.ofSeconds(5);
+        int maxAttempts = 5;
+    }
+
+    /**
+     * Objective for the round-trip time of outgoing calls to stations. Slower calls are counted as violations in
+     * the latency view of the stations, and the histogram of the round-trip times has a bucket at this value.
+     * The latency view covers the calls of the last one to two windows.
+     */
+    @Data
+    public static class Metrics {
+        Duration outgoingCallSlo = Duration.ofSeconds(5);
+        Duration stationStatsWindow = Duration.ofMinutes(15);
+    }
+
+    /**
+     * Limits of the flight recordings that can be started from the web interface. A recording stops by itself after
+     * the duration, and the oldest data is dropped when the recording grows beyond the size.
+     */
+    @Data
+    public static class FlightRecording {
+        Duration maxDuration = Duration.ofMinutes(30);
+        DataSize maxSize = DataSize.ofMegabytes(100);
+    }
+
+    /**
+     * Calls of a task with many stations are made in parallel, in one lane per transport
+     */
+    @Data
+    public static class FanOut {
+        FanOutLane soap = new FanOutLane();
+        FanOutLane json = new FanOutLane();
+    }
+
+    /**
+     * At most this many calls are started at the same time, and at most this many per second (0 for no limit)
+     */
+    @Data
+    public static class FanOutLane {
+        int concurrency = 16;
+        double callsPerSecond = 0;
+    }
+
+    /**
+     * The tasks of the operation pages are kept in memory. A finished task is compacted to a summary after
+     * compactAfter, and removed after finishedRetention. An unfinished task (e.g. of a station that never answered)
+     * is removed after unfinishedRetention. Beyond maxCount, the oldest tasks are removed first, finished ones before
+     * unfinished ones. With audit, the results of every task are written to the database before they are compacted
+     * or removed.
+     */
+    @Data
+    public static class Tasks {
+        int maxCount = 1_000;
+        Duration compactAfter = Duration.ofMinutes(10);
+        Duration finishedRetention = Duration.ofHours(24);
+        Duration unfinishedRetention = Duration.ofHours(24);
+        boolean audit;
+    }
+
+    /**
+     * Domain events of the stations (e.g. transaction started) are delivered to the listeners (e.g. notifications)
+     * in the background, in batches of at most maxBatchSize. At most queueCapacity events wait for delivery. When the
+     * queue is full, the publisher waits at most maxPublishWait (zero for not at all), and the event is dropped
+     * otherwise. Every listener has its own queue of at most listenerQueueCapacity batches, so that a slow listener
+     * does not hold up the others, but only drops its own batches.
+     */
+    @Data
+    public static class Events {
+        int queueCapacity = 10_000;
+        int maxBatchSize = 100;
+        Duration maxPublishWait = Duration.ZERO;
+        int listenerQueueCapacity = 100;
+    }
+
+    /**
+     * Notification mails for the same recipients within digestWindow (zero for none) are merged into one, which lists
+     * at most maxDigestSize of them. At most queueCapacity mails wait to be sent. A mail that could not be sent is
+     * tried again after retryBackoff, which doubles with every attempt, at most maxAttempts times in total. The SMTP
+     * connection is kept open for the next mail, until it was idle for connectionMaxIdle (zero for connecting for every
+     * mail).
+     */
+    @Data
+    public static class Mail {
+        Duration digestWindow = Duration.ofMinutes(1);
+        int maxDigestSize = 50;
+        int queueCapacity = 1_000;
+        int maxAttempts = 5;
+        Duration retryBackoff = Duration.ofSeconds(30);
+        Duration connectionMaxIdle = Duration.ofMinutes(1);
+    }
+
+    /**
+     * The domain events of the stations (transactions, status notifications, meter values, connections) are sent to
+     * the targets as JSON arrays of at most batchSize events. A target gets only the listed event types (all, if
+     * none are listed), and, if it has a secret, the HMAC-SHA256 of the body in the X-SteVe-Signature header. The
+     * events wait in the database until their target accepted them, which is checked every pollInterval. A batch that
+     * failed is tried again after retryBackoff, which doubles with every attempt up to maxBackoff. The events are
+     * dropped after maxAttempts (zero for never). At most maxEvents (zero for no limit) wait per target, the oldest
+     * ones are dropped beyond that.
+     */
+    @Data
+    public static class Webhooks {
+        List<Target> targets = new ArrayList<>();
+        int batchSize = 100;
+        Duration pollInterval = Duration.ofSeconds(5);
+        Duration requestTimeout = Duration.ofSeconds(10);
+        Duration retryBackoff = Duration.ofSeconds(10);
+        Duration maxBackoff = Duration.ofMinutes(10);
+        int maxAttempts = 0;
+        int maxEvents = 100_000;
+
+        @Data
+        public static class Target {
+            String name;
+            String url;
+            List<String> events = new ArrayList<>();
+            String secret;
+        }
+    }
 }
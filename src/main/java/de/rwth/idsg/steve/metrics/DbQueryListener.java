@@ -0,0 +1,170 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.metrics;
+
+import com.google.common.util.concurrent.RateLimiter;
+import de.rwth.idsg.steve.config.SteveProperties;
+import de.rwth.idsg.steve.metrics.jfr.DbWriteBatchEvent;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.Nullable;
+import org.jooq.ExecuteContext;
+import org.jooq.ExecuteListener;
+import org.jooq.ExecuteType;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Times every statement and tags it with the method of SteVe that issued it (e.g.
+ * "OcppServerRepositoryImpl.insertTransaction"), so that the hotspots in the database can be found without
+ * logging all statements (see steve.jooq.executive-logging).
+ *
+ * Statements slower than the threshold are logged, but at most a few times per minute (unless the limit is 0), in
+ * order not to flood the log when the database is slow as a whole. The SQL is logged with placeholders only, since
+ * the bind values contain personal data like OCPP tags.
+ *
+ * Batches are additionally emitted as JFR events, when a flight recording is running.
+ */
+@Slf4j
+public class DbQueryListener implements ExecuteListener {
+
+    /**
+     * Execution time of statements, tagged with the calling method, the type (read, write, batch...) and the
+     * outcome (success or error)
+     */
+    public static final String DB_QUERIES = "steve.db.queries";
+
+    private static final String START_KEY = DbQueryListener.class.getName() + ".start";
+    private static final String CALLER_KEY = DbQueryListener.class.getName() + ".caller";
+    private static final String EVENT_KEY = DbQueryListener.class.getName() + ".event";
+
+    private static final String PACKAGE_PREFIX = "de.rwth.idsg.steve.";
+    private static final String UNKNOWN_CALLER = "unknown";
+
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+
+    private final Meter.MeterProvider<Timer> queries;
+    private final long slowQueryThresholdNanos;
+    @Nullable private final RateLimiter slowQueryLogLimiter;
+    private final AtomicLong suppressedSlowQueryLogs = new AtomicLong();
+
+    public DbQueryListener(MeterRegistry registry, SteveProperties.Jooq properties) {
+        this.queries = Timer.builder(DB_QUERIES)
+                            .description("Execution time of database statements")
+                            .publishPercentileHistogram()
+                            .withRegistry(registry);
+
+        this.slowQueryThresholdNanos = properties.getSlowQueryThreshold().toNanos();
+        this.slowQueryLogLimiter = properties.getSlowQueryLogsPerMinute() > 0
+            ? RateLimiter.create(properties.getSlowQueryLogsPerMinute() / 60.0)
+            : null;
+    }
+
+    @Override
+    public void start(ExecuteContext ctx) {
+        ctx.data(CALLER_KEY, findCaller());
+
+        if (ctx.type() == ExecuteType.BATCH) {
+            DbWriteBatchEvent event = new DbWriteBatchEvent();
+            event.begin();
+            ctx.data(EVENT_KEY, event);
+        }
+
+        ctx.data(START_KEY, System.nanoTime());
+    }
+
+    @Override
+    public void end(ExecuteContext ctx) {
+        Object start = ctx.data(START_KEY);
+        if (start == null) {
+            return;
+        }
+
+        long nanos = System.nanoTime() - (Long) start;
+        String caller = (String) ctx.data(CALLER_KEY);
+
+        Tags tags = Tags.of(
+            "method", caller,
+            "type", ctx.type().name().toLowerCase(),
+            "outcome", ctx.exception() == null ? "success" : "error"
+        );
+        queries.withTags(tags).record(nanos, TimeUnit.NANOSECONDS);
+
+        if (nanos > slowQueryThresholdNanos) {
+            logSlowQuery(ctx, caller, nanos);
+        }
+
+        if (ctx.data(EVENT_KEY) instanceof DbWriteBatchEvent event && event.shouldCommit()) {
+            event.method = caller;
+            event.statements = ctx.batchRows().length;
+            event.rows = Arrays.stream(ctx.batchRows()).sum();
+            event.commit();
+        }
+    }
+
+    private void logSlowQuery(ExecuteContext ctx, String caller, long nanos) {
+        if (slowQueryLogLimiter != null && !slowQueryLogLimiter.tryAcquire()) {
+            suppressedSlowQueryLogs.incrementAndGet();
+            return;
+        }
+
+        String sql = ctx.batchSQL().length > 1
+            ? ctx.batchSQL().length + " statements, first: " + ctx.batchSQL()[0]
+            : ctx.sql();
+
+        log.warn("Slow query in {} took {} ms (rows: {}, slow queries not logged since the last one: {}): {}",
+            caller, TimeUnit.NANOSECONDS.toMillis(nanos), ctx.rows(), suppressedSlowQueryLogs.getAndSet(0), sql);
+    }
+
+    /**
+     * The first method of SteVe in the call stack. Lambdas (e.g. in ctx.transaction(...)) are attributed to the
+     * method they are defined in.
+     */
+    private static String findCaller() {
+        return STACK_WALKER.walk(frames -> frames.filter(f -> f.getClassName().startsWith(PACKAGE_PREFIX))
+                                                 .filter(f -> !f.getClassName().startsWith(DbQueryListener.class.getPackageName()))
+                                                 .findFirst()
+                                                 .map(DbQueryListener::toCaller)
+                                                 .orElse(UNKNOWN_CALLER));
+    }
+
+    private static String toCaller(StackWalker.StackFrame frame) {
+        String className = frame.getClassName();
+        String simpleName = className.substring(className.lastIndexOf('.') + 1);
+
+        // nested class: keep the outer class only
+        int dollar = simpleName.indexOf('$');
+        if (dollar > 0) {
+            simpleName = simpleName.substring(0, dollar);
+        }
+
+        // lambda$insertTransaction$3 -> insertTransaction
+        String methodName = frame.getMethodName();
+        if (methodName.startsWith("lambda$")) {
+            methodName = methodName.split("\\$")[1];
+        }
+
+        return simpleName + "." + methodName;
+    }
+}
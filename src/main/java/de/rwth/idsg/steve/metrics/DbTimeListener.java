@@ -0,0 +1,71 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.metrics;
+
+import org.jooq.ExecuteContext;
+import org.jooq.ExecuteListener;
+
+/**
+ * Sums up the time the current thread spends in jOOQ queries (from rendering the SQL until the result is fetched),
+ * while tracking is started. This way, we can tell how much of the processing time of an OCPP message goes to the
+ * database without passing a stopwatch through all the layers.
+ */
+public class DbTimeListener implements ExecuteListener {
+
+    private static final String START_KEY = DbTimeListener.class.getName() + ".start";
+
+    private static final ThreadLocal<long[]> TRACKED_NANOS = new ThreadLocal<>();
+
+    /**
+     * Must be followed by {@link #stopTracking()} on the same thread, also when the tracked work fails. Otherwise,
+     * the tracking stays on the (pooled) thread and adds the queries of whatever runs there next.
+     */
+    public static void startTracking() {
+        TRACKED_NANOS.set(new long[1]);
+    }
+
+    public static boolean isTracking() {
+        return TRACKED_NANOS.get() != null;
+    }
+
+    /**
+     * @return the time in nanoseconds since {@link #startTracking()}, or 0 if tracking was not started
+     */
+    public static long stopTracking() {
+        long[] nanos = TRACKED_NANOS.get();
+        TRACKED_NANOS.remove();
+        return nanos == null ? 0 : nanos[0];
+    }
+
+    @Override
+    public void start(ExecuteContext ctx) {
+        if (isTracking()) {
+            ctx.data(START_KEY, System.nanoTime());
+        }
+    }
+
+    @Override
+    public void end(ExecuteContext ctx) {
+        long[] nanos = TRACKED_NANOS.get();
+        Object start = ctx.data(START_KEY);
+        if (nanos != null && start != null) {
+            nanos[0] += System.nanoTime() - (Long) start;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.metrics;
+
+import de.rwth.idsg.steve.metrics.jfr.OcppMessageEvent;
+import de.rwth.idsg.steve.ocpp.OcppTransport;
+import de.rwth.idsg.steve.ocpp.OcppVersion;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Collects the durations of the processing phases of one incoming OCPP call. The phases are measured one after
+ * another, each one ends where the next begins. A phase that did not happen (e.g. dispatch, when the message
+ * could not be deserialized) stays at -1 and is not recorded.
+ *
+ * The JFR event of the call is started together with the timing, and committed when the timing is recorded.
+ */
+@Getter
+public class IncomingCallTiming {
+
+    public static final String UNKNOWN_ACTION = "unknown";
+
+    private final OcppTransport transport;
+    private final OcppVersion version;
+
+    private final long startNanos = System.nanoTime();
+    private long lastNanos = startNanos;
+
+    @Setter private String action = UNKNOWN_ACTION;
+    @Setter private boolean error;
+    @Setter private String chargeBoxId;
+    @Setter private long size = -1;
+
+    private final OcppMessageEvent event = new OcppMessageEvent();
+
+    private long deserializeNanos = -1;
+    private long dispatchNanos = -1;
+    private long dbNanos = -1;
+    private long serializeNanos = -1;
+
+    public IncomingCallTiming(OcppTransport transport, OcppVersion version) {
+        this.transport = transport;
+        this.version = version;
+        event.begin();
+    }
+
+    public void deserialized() {
+        deserializeNanos = lap();
+    }
+
+    /**
+     * @param dbNanos the part of the dispatch time that was spent in the database
+     */
+    public void dispatched(long dbNanos) {
+        this.dispatchNanos = lap();
+        this.dbNanos = dbNanos;
+    }
+
+    /**
+     * Serialization and sending of the response
+     */
+    public void serialized() {
+        serializeNanos = lap();
+    }
+
+    public boolean isDeserialized() {
+        return deserializeNanos >= 0;
+    }
+
+    public boolean isDispatched() {
+        return dispatchNanos >= 0;
+    }
+
+    public long getTotalNanos() {
+        return lastNanos - startNanos;
+    }
+
+    private long lap() {
+        long now = System.nanoTime();
+        long duration = now - lastNanos;
+        lastNanos = now;
+        return duration;
+    }
+}
@@ -0,0 +1,328 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.metrics;
+
+import de.rwth.idsg.steve.config.SteveProperties;
+import de.rwth.idsg.steve.metrics.jfr.OcppMessageEvent;
+import de.rwth.idsg.steve.metrics.jfr.OutgoingCallEvent;
+import de.rwth.idsg.steve.web.dto.StationLatencyQueryForm;
+import io.micrometer.core.instrument.Clock;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.joda.time.DateTime;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Metrics of the OCPP communication, exposed together with the other Micrometer metrics (e.g. JVM, HTTP) at the
+ * Prometheus endpoint of the actuator.
+ *
+ * All timers are tagged with transport, version and action, and publish a histogram, so that percentiles can be
+ * aggregated over instances. The count of a timer is the number of messages.
+ *
+ * Additionally, the round trips of outgoing calls are summed up per station in memory (see
+ * {@link #getSlowestStations(StationLatencyQueryForm)}), since a tag per station would make the number of
+ * time series grow with the number of stations. These sums cover the last one to two windows of the configured
+ * length, such that a slow period is forgotten after some time. A station is forgotten when it has no calls within
+ * two windows, when its WebSocket connection is closed or when it is deleted.
+ *
+ * When a flight recording is running, the calls are emitted as JFR events, too.
+ */
+@Component
+public class OcppMetrics {
+
+    /**
+     * Whole processing of incoming calls, from receiving the request until the response is sent. Additionally
+     * tagged with the outcome (success or error).
+     */
+    public static final String INCOMING_CALLS = "steve.ocpp.incoming.calls";
+
+    /**
+     * Processing phases of incoming calls, tagged with the phase: deserialize, dispatch, db and serialize.
+     * "db" is the part of "dispatch" that was spent in the database, and "serialize" includes sending.
+     */
+    public static final String INCOMING_PHASES = "steve.ocpp.incoming.phases";
+
+    /**
+     * Round trips of outgoing calls, from handing the request to the transport until the response arrives.
+     * Additionally tagged with the outcome (success, error or timeout). The histogram has a bucket at the
+     * configured objective, such that the share of calls within the objective can be read directly.
+     */
+    public static final String OUTGOING_CALLS = "steve.ocpp.outgoing.calls";
+
+    /**
+     * Outgoing calls that wait in the queue of a station, because an earlier call has no response yet
+     */
+    public static final String OUTGOING_QUEUE_SIZE = "steve.ocpp.outgoing.queue.size";
+
+    /**
+     * Time that the queued outgoing calls waited, until they were sent (or failed, if the connection was closed)
+     */
+    public static final String OUTGOING_QUEUE_WAIT = "steve.ocpp.outgoing.queue.wait";
+
+    private final Meter.MeterProvider<Timer> incomingCalls;
+    private final Meter.MeterProvider<Timer> incomingPhases;
+    private final Meter.MeterProvider<Timer> outgoingCalls;
+    private final Timer outgoingQueueWait;
+    private final AtomicInteger outgoingQueueSize = new AtomicInteger();
+
+    private final Clock clock;
+    private final long outgoingSloNanos;
+    private final long stationStatsWindowNanos;
+    private final Map<String, StationStats> stationStats = new ConcurrentHashMap<>();
+
+    public OcppMetrics(MeterRegistry registry, SteveProperties steveProperties) {
+        Duration outgoingSlo = steveProperties.getMetrics().getOutgoingCallSlo();
+        this.outgoingSloNanos = outgoingSlo.toNanos();
+        this.stationStatsWindowNanos = steveProperties.getMetrics().getStationStatsWindow().toNanos();
+        this.clock = registry.config().clock();
+
+        this.incomingCalls = Timer.builder(INCOMING_CALLS)
+                                  .description("Processing time of incoming OCPP calls")
+                                  .publishPercentileHistogram()
+                                  .withRegistry(registry);
+
+        this.incomingPhases = Timer.builder(INCOMING_PHASES)
+                                   .description("Processing time of incoming OCPP calls per phase")
+                                   .publishPercentileHistogram()
+                                   .withRegistry(registry);
+
+        this.outgoingCalls = Timer.builder(OUTGOING_CALLS)
+                                  .description("Round-trip time of outgoing OCPP calls")
+                                  .publishPercentileHistogram()
+                                  .serviceLevelObjectives(outgoingSlo)
+                                  .withRegistry(registry);
+
+        this.outgoingQueueWait = Timer.builder(OUTGOING_QUEUE_WAIT)
+                                      .description("Wait time of outgoing OCPP calls in the queue of the station")
+                                      .publishPercentileHistogram()
+                                      .register(registry);
+
+        Gauge.builder(OUTGOING_QUEUE_SIZE, outgoingQueueSize, AtomicInteger::get)
+             .description("Outgoing OCPP calls in the queues of the stations")
+             .register(registry);
+    }
+
+    public void record(IncomingCallTiming timing) {
+        Tags tags = Tags.of(
+            "transport", timing.getTransport().name(),
+            "version", timing.getVersion().getValue(),
+            "action", timing.getAction()
+        );
+
+        incomingCalls.withTags(tags.and("outcome", timing.isError() ? "error" : "success"))
+                     .record(timing.getTotalNanos(), TimeUnit.NANOSECONDS);
+
+        recordPhase(tags, "deserialize", timing.getDeserializeNanos());
+        recordPhase(tags, "dispatch", timing.getDispatchNanos());
+        recordPhase(tags, "db", timing.getDbNanos());
+        recordPhase(tags, "serialize", timing.getSerializeNanos());
+
+        OcppMessageEvent event = timing.getEvent();
+        if (event.shouldCommit()) {
+            event.chargeBoxId = timing.getChargeBoxId();
+            event.transport = timing.getTransport().name();
+            event.version = timing.getVersion().getValue();
+            event.action = timing.getAction();
+            event.size = timing.getSize();
+            event.error = timing.isError();
+            event.commit();
+        }
+    }
+
+    private void recordPhase(Tags tags, String phase, long nanos) {
+        if (nanos >= 0) {
+            incomingPhases.withTags(tags.and("phase", phase)).record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void record(OutgoingCallTiming timing, OutgoingCallTiming.Outcome outcome) {
+        long nanos = timing.getElapsedNanos();
+
+        Tags tags = Tags.of(
+            "transport", timing.getTransport().name(),
+            "version", timing.getVersion().getValue(),
+            "action", timing.getAction(),
+            "outcome", outcome.name().toLowerCase()
+        );
+
+        outgoingCalls.withTags(tags).record(nanos, TimeUnit.NANOSECONDS);
+
+        // within compute, so that the station is not forgotten at the same time (see getSlowestStations)
+        long now = clock.monotonicTime();
+        stationStats.compute(timing.getChargeBoxId(), (chargeBoxId, stats) -> {
+            StationStats current = (stats == null) ? new StationStats(now) : stats;
+            current.add(timing, outcome, nanos, outgoingSloNanos, now, stationStatsWindowNanos);
+            return current;
+        });
+
+        OutgoingCallEvent event = timing.getEvent();
+        if (event.shouldCommit()) {
+            event.chargeBoxId = timing.getChargeBoxId();
+            event.transport = timing.getTransport().name();
+            event.version = timing.getVersion().getValue();
+            event.action = timing.getAction();
+            event.outcome = outcome.name().toLowerCase();
+            event.commit();
+        }
+    }
+
+    public void callQueued() {
+        outgoingQueueSize.incrementAndGet();
+    }
+
+    public void callLeftQueue(long waitNanos) {
+        outgoingQueueSize.decrementAndGet();
+        outgoingQueueWait.record(waitNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void removeStation(String chargeBoxId) {
+        stationStats.remove(chargeBoxId);
+    }
+
+    public List<StationLatency> getSlowestStations(StationLatencyQueryForm form) {
+        long now = clock.monotonicTime();
+        for (String chargeBoxId : stationStats.keySet()) {
+            stationStats.computeIfPresent(chargeBoxId,
+                (k, stats) -> stats.rotate(now, stationStatsWindowNanos) ? stats : null);
+        }
+
+        Comparator<StationLatency> comparator = switch (form.getOrderBy()) {
+            case MEAN -> Comparator.comparingDouble(StationLatency::getMeanMillis);
+            case MAX -> Comparator.comparingDouble(StationLatency::getMaxMillis);
+            case FAILURE_RATE -> Comparator.comparingDouble(StationLatency::getFailureRate);
+        };
+
+        return stationStats.entrySet()
+                           .stream()
+                           .map(e -> e.getValue().toLatency(e.getKey()))
+                           .sorted(comparator.reversed())
+                           .limit(form.getLimit())
+                           .toList();
+    }
+
+    // -------------------------------------------------------------------------
+    // Private helpers
+    // -------------------------------------------------------------------------
+
+    private static class StationStats {
+        private OutgoingCallTiming last;
+        private long lastNanos;
+        private DateTime lastTimestamp;
+
+        private Window current = new Window();
+        private Window previous = new Window();
+        private long currentStart;
+
+        private StationStats(long now) {
+            this.currentStart = now;
+        }
+
+        private synchronized void add(OutgoingCallTiming timing, OutgoingCallTiming.Outcome outcome, long nanos,
+                                      long sloNanos, long now, long windowNanos) {
+            rotate(now, windowNanos);
+
+            last = timing;
+            lastNanos = nanos;
+            lastTimestamp = DateTime.now();
+
+            current.add(outcome, nanos, sloNanos);
+        }
+
+        /**
+         * @return false, if there was no call within the last two windows
+         */
+        private synchronized boolean rotate(long now, long windowNanos) {
+            long elapsed = now - currentStart;
+
+            if (elapsed >= 2 * windowNanos) {
+                previous = new Window();
+                current = new Window();
+                currentStart = now;
+            } else if (elapsed >= windowNanos) {
+                previous = current;
+                current = new Window();
+                currentStart += windowNanos;
+            }
+
+            return previous.count + current.count > 0;
+        }
+
+        private synchronized StationLatency toLatency(String chargeBoxId) {
+            long count = previous.count + current.count;
+            long errorCount = previous.errorCount + current.errorCount;
+            long timeoutCount = previous.timeoutCount + current.timeoutCount;
+            long totalNanos = previous.totalNanos + current.totalNanos;
+
+            return StationLatency.builder()
+                                 .chargeBoxId(chargeBoxId)
+                                 .transport(last.getTransport())
+                                 .version(last.getVersion().getValue())
+                                 .count(count)
+                                 .errorCount(errorCount)
+                                 .timeoutCount(timeoutCount)
+                                 .sloViolationCount(previous.sloViolationCount + current.sloViolationCount)
+                                 .failureRate((double) (errorCount + timeoutCount) / count)
+                                 .meanMillis(toMillis(totalNanos / count))
+                                 .maxMillis(toMillis(Math.max(previous.maxNanos, current.maxNanos)))
+                                 .lastMillis(toMillis(lastNanos))
+                                 .lastTimestamp(lastTimestamp)
+                                 .build();
+        }
+
+        private static double toMillis(long nanos) {
+            return nanos / 1_000_000d;
+        }
+    }
+
+    private static class Window {
+        private long count;
+        private long errorCount;
+        private long timeoutCount;
+        private long sloViolationCount;
+        private long totalNanos;
+        private long maxNanos;
+
+        private void add(OutgoingCallTiming.Outcome outcome, long nanos, long sloNanos) {
+            count++;
+            totalNanos += nanos;
+            maxNanos = Math.max(maxNanos, nanos);
+
+            switch (outcome) {
+                case SUCCESS -> { }
+                case ERROR -> errorCount++;
+                case TIMEOUT -> timeoutCount++;
+            }
+
+            if (outcome != OutgoingCallTiming.Outcome.SUCCESS || nanos > sloNanos) {
+                sloViolationCount++;
+            }
+        }
+    }
+}
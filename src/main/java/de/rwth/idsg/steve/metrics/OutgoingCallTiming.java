@@ -0,0 +1,83 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.metrics;
+
+import de.rwth.idsg.steve.metrics.jfr.OutgoingCallEvent;
+import de.rwth.idsg.steve.ocpp.CommunicationTask;
+import de.rwth.idsg.steve.ocpp.OcppTransport;
+import de.rwth.idsg.steve.ocpp.OcppVersion;
+import lombok.Getter;
+
+/**
+ * Round trip of one outgoing OCPP call to a station, from handing the request to the transport until the
+ * response (or error) arrives. The JFR event of the call is started together with the timing, and committed when
+ * the timing is recorded.
+ */
+@Getter
+public class OutgoingCallTiming {
+
+    private final String chargeBoxId;
+    private final OcppTransport transport;
+    private final OcppVersion version;
+    private final String action;
+
+    private volatile long startNanos = System.nanoTime();
+    private final OutgoingCallEvent event = new OutgoingCallEvent();
+
+    public OutgoingCallTiming(String chargeBoxId, OcppTransport transport, OcppVersion version, String action) {
+        this.chargeBoxId = chargeBoxId;
+        this.transport = transport;
+        this.version = version;
+        this.action = action;
+        event.begin();
+    }
+
+    public OutgoingCallTiming(String chargeBoxId, OcppTransport transport, OcppVersion version,
+                              CommunicationTask<?, ?> task) {
+        this(chargeBoxId, transport, version, actionOf(task));
+    }
+
+    public long getElapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    /**
+     * For a call that waited in the queue of the station: the round trip (and the JFR event) starts when the call
+     * leaves the queue
+     */
+    public void restart() {
+        startNanos = System.nanoTime();
+        event.begin();
+    }
+
+    /**
+     * The action of a task, e.g. "RemoteStartTransaction" for RemoteStartTransactionTask. This is used for SOAP,
+     * where we do not have the action name at hand. The tasks are named after the actions.
+     */
+    private static String actionOf(CommunicationTask<?, ?> task) {
+        String s = task.getClass().getSimpleName();
+        return s.endsWith("Task") ? s.substring(0, s.length() - 4) : s;
+    }
+
+    public enum Outcome {
+        SUCCESS,    // Response of the station (SOAP response, CALLRESULT)
+        ERROR,      // Response of the station that is an error (SOAP fault, CALLERROR), or the call could not be sent
+        TIMEOUT     // No response in time (SOAP), or the connection was closed before a response arrived (JSON)
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.metrics;
+
+import de.rwth.idsg.steve.ocpp.OcppTransport;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+import org.joda.time.DateTime;
+
+/**
+ * Round-trip times of the outgoing calls to one station within the last one to two windows (see OcppMetrics)
+ */
+@Getter
+@Builder
+@ToString
+public final class StationLatency {
+
+    @Schema(description = "The identifier of the chargebox (i.e. charging station)")
+    private final String chargeBoxId;
+
+    @Schema(description = "Transport of the latest call")
+    private final OcppTransport transport;
+
+    @Schema(description = "OCPP version of the latest call")
+    private final String version;
+
+    @Schema(description = "Number of calls")
+    private final long count;
+
+    @Schema(description = "Number of calls that were answered with an error or could not be sent")
+    private final long errorCount;
+
+    @Schema(description = "Number of calls that were not answered in time")
+    private final long timeoutCount;
+
+    @Schema(description = "Number of calls that were slower than the objective, or not successful")
+    private final long sloViolationCount;
+
+    @Schema(description = "Share of the calls that were not successful (errors and timeouts), between 0 and 1")
+    private final double failureRate;
+
+    @Schema(description = "Mean round-trip time in milliseconds")
+    private final double meanMillis;
+
+    @Schema(description = "Maximum round-trip time in milliseconds")
+    private final double maxMillis;
+
+    @Schema(description = "Round-trip time of the latest call in milliseconds")
+    private final double lastMillis;
+
+    @Schema(description = "Timestamp of the latest call")
+    private final DateTime lastTimestamp;
+}
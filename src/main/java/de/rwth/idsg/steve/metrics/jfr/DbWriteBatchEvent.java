@@ -0,0 +1,48 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Execution of a batch of write statements (e.g. meter values of a message)
+ */
+@Name("steve.DbWriteBatch")
+@Label("Database Write Batch")
+@Description("Execution of a batch of write statements")
+@Category({"SteVe", "Database"})
+@StackTrace(false)
+public class DbWriteBatchEvent extends Event {
+
+    @Label("Method")
+    @Description("Method of SteVe that issued the batch")
+    public String method;
+
+    @Label("Statements")
+    public int statements;
+
+    @Label("Rows")
+    @Description("Number of affected rows")
+    public int rows;
+}
@@ -0,0 +1,57 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Processing of an incoming OCPP call, from receiving the request until the response is sent
+ */
+@Name("steve.OcppMessage")
+@Label("OCPP Message")
+@Description("Processing of an incoming OCPP call")
+@Category({"SteVe", "OCPP"})
+@StackTrace(false)
+public class OcppMessageEvent extends Event {
+
+    @Label("Charge Box ID")
+    public String chargeBoxId;
+
+    @Label("Transport")
+    public String transport;
+
+    @Label("Version")
+    public String version;
+
+    @Label("Action")
+    public String action;
+
+    @Label("Size")
+    @Description("Length of the request: characters for JSON, bytes for SOAP. -1, if not known")
+    public long size = -1;
+
+    @Label("Error")
+    @Description("Whether the response is an error")
+    public boolean error;
+}
@@ -0,0 +1,54 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.metrics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A station opened or closed a WebSocket connection
+ */
+@Name("steve.WebSocketConnection")
+@Label("WebSocket Connection")
+@Description("A station opened or closed a WebSocket connection")
+@Category({"SteVe", "OCPP"})
+@StackTrace(false)
+public class WebSocketConnectionEvent extends Event {
+
+    @Label("Charge Box ID")
+    public String chargeBoxId;
+
+    @Label("Version")
+    public String version;
+
+    @Label("Session ID")
+    public String sessionId;
+
+    @Label("Connected")
+    @Description("true when the connection was opened, false when it was closed")
+    public boolean connected;
+
+    @Label("Close Code")
+    @Description("Status code of the close frame. -1, if the connection was opened")
+    public int closeCode = -1;
+}
@@ -35,6 +35,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
@@ -63,12 +64,20 @@ public abstract class CommunicationTask<S extends ChargePointSelection, RESPONSE
     private final AtomicInteger errorCount = new AtomicInteger(0);
     private final AtomicInteger responseCount = new AtomicInteger(0);
 
+    /**
+     * The calls to stations that did not start yet are skipped, and count as errors
+     */
+    private volatile boolean cancelled;
+
     @Getter(AccessLevel.NONE) // disable getter generation
     private final Object lockObject = new Object();
 
     // The default initial capacity is 10. We probably won't need that much.
     private final ArrayList<OcppCallback<RESPONSE>> callbackList = new ArrayList<>(2);
 
+    @Getter(AccessLevel.NONE)
+    private final List<ResultListener> resultListeners = new CopyOnWriteArrayList<>();
+
     public CommunicationTask(S params) {
         this(params, TaskOrigin.INTERNAL, "SteVe");
     }
@@ -99,6 +108,18 @@ public abstract class CommunicationTask<S extends ChargePointSelection, RESPONSE
         callbackList.add(cb);
     }
 
+    public void addResultListener(ResultListener listener) {
+        resultListeners.add(listener);
+    }
+
+    public void removeResultListener(ResultListener listener) {
+        resultListeners.remove(listener);
+    }
+
+    public void cancel() {
+        cancelled = true;
+    }
+
     public boolean isFinished() {
         synchronized (lockObject) {
             return endTimestamp != null;
@@ -106,23 +127,39 @@ public abstract class CommunicationTask<S extends ChargePointSelection, RESPONSE
     }
 
     public void addNewResponse(String chargeBoxId, String response) {
-        resultMap.get(chargeBoxId).setResponse(response);
+        RequestResult result = resultMap.get(chargeBoxId);
+        result.setResponse(response);
 
         synchronized (lockObject) {
             if (resultSize == (errorCount.get() + responseCount.incrementAndGet())) {
                 endTimestamp = DateTime.now();
             }
         }
+
+        notifyResultListeners(chargeBoxId, result);
     }
 
     public void addNewError(String chargeBoxId, String errorMessage) {
-        resultMap.get(chargeBoxId).setErrorMessage(errorMessage);
+        RequestResult result = resultMap.get(chargeBoxId);
+        result.setErrorMessage(errorMessage);
 
         synchronized (lockObject) {
             if (resultSize == (errorCount.incrementAndGet() + responseCount.get())) {
                 endTimestamp = DateTime.now();
             }
         }
+
+        notifyResultListeners(chargeBoxId, result);
+    }
+
+    private void notifyResultListeners(String chargeBoxId, RequestResult result) {
+        for (ResultListener listener : resultListeners) {
+            try {
+                listener.onResult(chargeBoxId, result);
+            } catch (Exception e) {
+                log.error("Exception occurred in ResultListener", e);
+            }
+        }
     }
 
     public void success(String chargeBoxId, RESPONSE response) {
@@ -167,6 +204,14 @@ public abstract class CommunicationTask<S extends ChargePointSelection, RESPONSE
     // Classes
     // -------------------------------------------------------------------------
 
+    /**
+     * Is called after the result of a station is stored and counted, in the thread that received it. Therefore, it
+     * must not block.
+     */
+    public interface ResultListener {
+        void onResult(String chargeBoxId, RequestResult result);
+    }
+
     public abstract class DefaultOcppCallback<RES> implements OcppCallback<RES> {
 
         public abstract void success(String chargeBoxId, RES response);
@@ -18,7 +18,12 @@
  */
 package de.rwth.idsg.steve.ocpp.soap;
 
+import com.google.common.base.Throwables;
+import de.rwth.idsg.steve.metrics.OcppMetrics;
+import de.rwth.idsg.steve.metrics.OutgoingCallTiming;
 import de.rwth.idsg.steve.ocpp.ChargePointServiceInvoker;
+import de.rwth.idsg.steve.ocpp.CommunicationTask;
+import de.rwth.idsg.steve.ocpp.OcppTransport;
 import de.rwth.idsg.steve.ocpp.task.CancelReservationTask;
 import de.rwth.idsg.steve.ocpp.task.ChangeAvailabilityTask;
 import de.rwth.idsg.steve.ocpp.task.ChangeConfigurationTask;
@@ -39,9 +44,17 @@ import de.rwth.idsg.steve.ocpp.task.TriggerMessageTask;
 import de.rwth.idsg.steve.ocpp.task.UnlockConnectorTask;
 import de.rwth.idsg.steve.ocpp.task.UpdateFirmwareTask;
 import de.rwth.idsg.steve.repository.dto.ChargePointSelect;
+import de.rwth.idsg.steve.repository.impl.EndpointAddressCache;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import jakarta.xml.ws.AsyncHandler;
+import jakarta.xml.ws.Response;
+import java.net.SocketTimeoutException;
+import java.net.http.HttpTimeoutException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+
 /**
  * @author Sevket Goekay <sevketgokay@gmail.com>
  * @since 05.01.2025
@@ -57,7 +70,13 @@ public class ChargePointServiceSoapInvoker implements ChargePointServiceInvoker
     private final ClientProviderWithCache<ocpp.cp._2012._06.ChargePointService> soapV15Helper;
     private final ClientProviderWithCache<ocpp.cp._2015._10.ChargePointService> soapV16Helper;
 
-    public ChargePointServiceSoapInvoker(ClientProvider clientProvider) {
+    private final OcppMetrics ocppMetrics;
+    private final EndpointAddressCache endpointAddressCache;
+
+    public ChargePointServiceSoapInvoker(ClientProvider clientProvider, OcppMetrics ocppMetrics,
+                                         EndpointAddressCache endpointAddressCache) {
+        this.ocppMetrics = ocppMetrics;
+        this.endpointAddressCache = endpointAddressCache;
         this.soapV12Helper = new ClientProviderWithCache<>(clientProvider);
         this.soapV15Helper = new ClientProviderWithCache<>(clientProvider);
         this.soapV16Helper = new ClientProviderWithCache<>(clientProvider);
@@ -69,80 +88,80 @@ public class ChargePointServiceSoapInvoker implements ChargePointServiceInvoker
 
     public void reset(ChargePointSelect cp, ResetTask task) {
         switch (cp.getOcppProtocol().getVersion()) {
-            case V_12 -> createV12(cp).resetAsync(task.getOcpp12Request(), cp.getChargeBoxId(), task.getOcpp12Handler(cp.getChargeBoxId()));
-            case V_15 -> createV15(cp).resetAsync(task.getOcpp15Request(), cp.getChargeBoxId(), task.getOcpp15Handler(cp.getChargeBoxId()));
-            case V_16 -> createV16(cp).resetAsync(task.getOcpp16Request(), cp.getChargeBoxId(), task.getOcpp16Handler(cp.getChargeBoxId()));
+            case V_12 -> createV12(cp).resetAsync(task.getOcpp12Request(), cp.getChargeBoxId(), timed(cp, task, task.getOcpp12Handler(cp.getChargeBoxId())));
+            case V_15 -> createV15(cp).resetAsync(task.getOcpp15Request(), cp.getChargeBoxId(), timed(cp, task, task.getOcpp15Handler(cp.getChargeBoxId())));
+            case V_16 -> createV16(cp).resetAsync(task.getOcpp16Request(), cp.getChargeBoxId(), timed(cp, task, task.getOcpp16Handler(cp.getChargeBoxId())));
         }
     }
 
     @Override
     public void clearCache(ChargePointSelect cp, ClearCacheTask task) {
         switch (cp.getOcppProtocol().getVersion()) {
-            case V_12 -> createV12(cp).clearCacheAsync(task.getOcpp12Request(), cp.getChargeBoxId(), task.getOcpp12Handler(cp.getChargeBoxId()));
-            case V_15 -> createV15(cp).clearCacheAsync(task.getOcpp15Request(), cp.getChargeBoxId(), task.getOcpp15Handler(cp.getChargeBoxId()));
-            case V_16 -> createV16(cp).clearCacheAsync(task.getOcpp16Request(), cp.getChargeBoxId(), task.getOcpp16Handler(cp.getChargeBoxId()));
+            case V_12 -> createV12(cp).clearCacheAsync(task.getOcpp12Request(), cp.getChargeBoxId(), timed(cp, task, task.getOcpp12Handler(cp.getChargeBoxId())));
+            case V_15 -> createV15(cp).clearCacheAsync(task.getOcpp15Request(), cp.getChargeBoxId(), timed(cp, task, task.getOcpp15Handler(cp.getChargeBoxId())));
+            case V_16 -> createV16(cp).clearCacheAsync(task.getOcpp16Request(), cp.getChargeBoxId(), timed(cp, task, task.getOcpp16Handler(cp.getChargeBoxId())));
         }
     }
 
     @Override
     public void getDiagnostics(ChargePointSelect cp, GetDiagnosticsTask task) {
         switch (cp.getOcppProtocol().getVersion()) {
-            case V_12 -> createV12(cp).getDiagnosticsAsync(task.getOcpp12Request(), cp.getChargeBoxId(), task.getOcpp12Handler(cp.getChargeBoxId()));
-            case V_15 -> createV15(cp).getDiagnosticsAsync(task.getOcpp15Request(), cp.getChargeBoxId(), task.getOcpp15Handler(cp.getChargeBoxId()));
-            case V_16 -> createV16(cp).getDiagnosticsAsync(task.getOcpp16Request(), cp.getChargeBoxId(), task.getOcpp16Handler(cp.getChargeBoxId()));
+            case V_12 -> createV12(cp).getDiagnosticsAsync(task.getOcpp12Request(), cp.getChargeBoxId(), timed(cp, task, task.getOcpp12Handler(cp.getChargeBoxId())));
+            case V_15 -> createV15(cp).getDiagnosticsAsync(task.getOcpp15Request(), cp.getChargeBoxId(), timed(cp, task, task.getOcpp15Handler(cp.getChargeBoxId())));
+            case V_16 -> createV16(cp).getDiagnosticsAsync(task.getOcpp16Request(), cp.getChargeBoxId(), timed(cp, task, task.getOcpp16Handler(cp.getChargeBoxId())));
         }
     }
 
     @Override
     public void updateFirmware(ChargePointSelect cp, UpdateFirmwareTask task) {
         switch (cp.getOcppProtocol().getVersion()) {
-            case V_12 -> createV12(cp).updateFirmwareAsync(task.getOcpp12Request(), cp.getChargeBoxId(), task.getOcpp12Handler(cp.getChargeBoxId()));
-            case V_15 -> createV15(cp).updateFirmwareAsync(task.getOcpp15Request(), cp.getChargeBoxId(), task.getOcpp15Handler(cp.getChargeBoxId()));
-            case V_16 -> createV16(cp).updateFirmwareAsync(task.getOcpp16Request(), cp.getChargeBoxId(), task.getOcpp16Handler(cp.getChargeBoxId()));
+            case V_12 -> createV12(cp).updateFirmwareAsync(task.getOcpp12Request(), cp.getChargeBoxId(), timed(cp, task, task.getOcpp12Handler(cp.getChargeBoxId())));
+            case V_15 -> createV15(cp).updateFirmwareAsync(task.getOcpp15Request(), cp.getChargeBoxId(), timed(cp, task, task.getOcpp15Handler(cp.getChargeBoxId())));
+            case V_16 -> createV16(cp).updateFirmwareAsync(task.getOcpp16Request(), cp.getChargeBoxId(), timed(cp, task, task.getOcpp16Handler(cp.getChargeBoxId())));
         }
     }
 
     @Override
     public void unlockConnector(ChargePointSelect cp, UnlockConnectorTask task) {
         switch (cp.getOcppProtocol().getVersion()) {
-            case V_12 -> createV12(cp).unlockConnectorAsync(task.getOcpp12Request(), cp.getChargeBoxId(), task.getOcpp12Handler(cp.getChargeBoxId()));
-            case V_15 -> createV15(cp).unlockConnectorAsync(task.getOcpp15Request(), cp.getChargeBoxId(), task.getOcpp15Handler(cp.getChargeBoxId()));
-            case V_16 -> createV16(cp).unlockConnectorAsync(task.getOcpp16Request(), cp.getChargeBoxId(), task.getOcpp16Handler(cp.getChargeBoxId()));
+            case V_12 -> createV12(cp).unlockConnectorAsync(task.getOcpp12Request(), cp.getChargeBoxId(), timed(cp, task, task.getOcpp12Handler(cp.getChargeBoxId())));
+            case V_15 -> createV15(cp).unlockConnectorAsync(task.getOcpp15Request(), cp.getChargeBoxId(), timed(cp, task, task.getOcpp15Handler(cp.getChargeBoxId())));
+            case V_16 -> createV16(cp).unlockConnectorAsync(task.getOcpp16Request(), cp.getChargeBoxId(), timed(cp, task, task.getOcpp16Handler(cp.getChargeBoxId())));
         }
     }
 
     public void changeAvailability(ChargePointSelect cp, ChangeAvailabilityTask task) {
         switch (cp.getOcppProtocol().getVersion()) {
-            case V_12 -> createV12(cp).changeAvailabilityAsync(task.getOcpp12Request(), cp.getChargeBoxId(), task.getOcpp12Handler(cp.getChargeBoxId()));
-            case V_15 -> createV15(cp).changeAvailabilityAsync(task.getOcpp15Request(), cp.getChargeBoxId(), task.getOcpp15Handler(cp.getChargeBoxId()));
-            case V_16 -> createV16(cp).changeAvailabilityAsync(task.getOcpp16Request(), cp.getChargeBoxId(), task.getOcpp16Handler(cp.getChargeBoxId()));
+            case V_12 -> createV12(cp).changeAvailabilityAsync(task.getOcpp12Request(), cp.getChargeBoxId(), timed(cp, task, task.getOcpp12Handler(cp.getChargeBoxId())));
+            case V_15 -> createV15(cp).changeAvailabilityAsync(task.getOcpp15Request(), cp.getChargeBoxId(), timed(cp, task, task.getOcpp15Handler(cp.getChargeBoxId())));
+            case V_16 -> createV16(cp).changeAvailabilityAsync(task.getOcpp16Request(), cp.getChargeBoxId(), timed(cp, task, task.getOcpp16Handler(cp.getChargeBoxId())));
         }
     }
 
     @Override
     public void changeConfiguration(ChargePointSelect cp, ChangeConfigurationTask task) {
         switch (cp.getOcppProtocol().getVersion()) {
-            case V_12 -> createV12(cp).changeConfigurationAsync(task.getOcpp12Request(), cp.getChargeBoxId(), task.getOcpp12Handler(cp.getChargeBoxId()));
-            case V_15 -> createV15(cp).changeConfigurationAsync(task.getOcpp15Request(), cp.getChargeBoxId(), task.getOcpp15Handler(cp.getChargeBoxId()));
-            case V_16 -> createV16(cp).changeConfigurationAsync(task.getOcpp16Request(), cp.getChargeBoxId(), task.getOcpp16Handler(cp.getChargeBoxId()));
+            case V_12 -> createV12(cp).changeConfigurationAsync(task.getOcpp12Request(), cp.getChargeBoxId(), timed(cp, task, task.getOcpp12Handler(cp.getChargeBoxId())));
+            case V_15 -> createV15(cp).changeConfigurationAsync(task.getOcpp15Request(), cp.getChargeBoxId(), timed(cp, task, task.getOcpp15Handler(cp.getChargeBoxId())));
+            case V_16 -> createV16(cp).changeConfigurationAsync(task.getOcpp16Request(), cp.getChargeBoxId(), timed(cp, task, task.getOcpp16Handler(cp.getChargeBoxId())));
         }
     }
 
     @Override
     public void remoteStartTransaction(ChargePointSelect cp, RemoteStartTransactionTask task) {
         switch (cp.getOcppProtocol().getVersion()) {
-            case V_12 -> createV12(cp).remoteStartTransactionAsync(task.getOcpp12Request(), cp.getChargeBoxId(), task.getOcpp12Handler(cp.getChargeBoxId()));
-            case V_15 -> createV15(cp).remoteStartTransactionAsync(task.getOcpp15Request(), cp.getChargeBoxId(), task.getOcpp15Handler(cp.getChargeBoxId()));
-            case V_16 -> createV16(cp).remoteStartTransactionAsync(task.getOcpp16Request(), cp.getChargeBoxId(), task.getOcpp16Handler(cp.getChargeBoxId()));
+            case V_12 -> createV12(cp).remoteStartTransactionAsync(task.getOcpp12Request(), cp.getChargeBoxId(), timed(cp, task, task.getOcpp12Handler(cp.getChargeBoxId())));
+            case V_15 -> createV15(cp).remoteStartTransactionAsync(task.getOcpp15Request(), cp.getChargeBoxId(), timed(cp, task, task.getOcpp15Handler(cp.getChargeBoxId())));
+            case V_16 -> createV16(cp).remoteStartTransactionAsync(task.getOcpp16Request(), cp.getChargeBoxId(), timed(cp, task, task.getOcpp16Handler(cp.getChargeBoxId())));
         }
     }
 
     @Override
     public void remoteStopTransaction(ChargePointSelect cp, RemoteStopTransactionTask task) {
         switch (cp.getOcppProtocol().getVersion()) {
-            case V_12 -> createV12(cp).remoteStopTransactionAsync(task.getOcpp12Request(), cp.getChargeBoxId(), task.getOcpp12Handler(cp.getChargeBoxId()));
-            case V_15 -> createV15(cp).remoteStopTransactionAsync(task.getOcpp15Request(), cp.getChargeBoxId(), task.getOcpp15Handler(cp.getChargeBoxId()));
-            case V_16 -> createV16(cp).remoteStopTransactionAsync(task.getOcpp16Request(), cp.getChargeBoxId(), task.getOcpp16Handler(cp.getChargeBoxId()));
+            case V_12 -> createV12(cp).remoteStopTransactionAsync(task.getOcpp12Request(), cp.getChargeBoxId(), timed(cp, task, task.getOcpp12Handler(cp.getChargeBoxId())));
+            case V_15 -> createV15(cp).remoteStopTransactionAsync(task.getOcpp15Request(), cp.getChargeBoxId(), timed(cp, task, task.getOcpp15Handler(cp.getChargeBoxId())));
+            case V_16 -> createV16(cp).remoteStopTransactionAsync(task.getOcpp16Request(), cp.getChargeBoxId(), timed(cp, task, task.getOcpp16Handler(cp.getChargeBoxId())));
         }
     }
 
@@ -154,8 +173,8 @@ public class ChargePointServiceSoapInvoker implements ChargePointServiceInvoker
     public void dataTransfer(ChargePointSelect cp, DataTransferTask task) {
         switch (cp.getOcppProtocol().getVersion()) {
             case V_12 -> task.failed(cp.getChargeBoxId(), EXCEPTION_V12);
-            case V_15 -> createV15(cp).dataTransferAsync(task.getOcpp15Request(), cp.getChargeBoxId(), task.getOcpp15Handler(cp.getChargeBoxId()));
-            case V_16 -> createV16(cp).dataTransferAsync(task.getOcpp16Request(), cp.getChargeBoxId(), task.getOcpp16Handler(cp.getChargeBoxId()));
+            case V_15 -> createV15(cp).dataTransferAsync(task.getOcpp15Request(), cp.getChargeBoxId(), timed(cp, task, task.getOcpp15Handler(cp.getChargeBoxId())));
+            case V_16 -> createV16(cp).dataTransferAsync(task.getOcpp16Request(), cp.getChargeBoxId(), timed(cp, task, task.getOcpp16Handler(cp.getChargeBoxId())));
         }
     }
 
@@ -163,8 +182,8 @@ public class ChargePointServiceSoapInvoker implements ChargePointServiceInvoker
     public void getConfiguration(ChargePointSelect cp, GetConfigurationTask task) {
         switch (cp.getOcppProtocol().getVersion()) {
             case V_12 -> task.failed(cp.getChargeBoxId(), EXCEPTION_V12);
-            case V_15 -> createV15(cp).getConfigurationAsync(task.getOcpp15Request(), cp.getChargeBoxId(), task.getOcpp15Handler(cp.getChargeBoxId()));
-            case V_16 -> createV16(cp).getConfigurationAsync(task.getOcpp16Request(), cp.getChargeBoxId(), task.getOcpp16Handler(cp.getChargeBoxId()));
+            case V_15 -> createV15(cp).getConfigurationAsync(task.getOcpp15Request(), cp.getChargeBoxId(), timed(cp, task, task.getOcpp15Handler(cp.getChargeBoxId())));
+            case V_16 -> createV16(cp).getConfigurationAsync(task.getOcpp16Request(), cp.getChargeBoxId(), timed(cp, task, task.getOcpp16Handler(cp.getChargeBoxId())));
         }
     }
 
@@ -172,8 +191,8 @@ public class ChargePointServiceSoapInvoker implements ChargePointServiceInvoker
     public void getLocalListVersion(ChargePointSelect cp, GetLocalListVersionTask task) {
         switch (cp.getOcppProtocol().getVersion()) {
             case V_12 -> task.failed(cp.getChargeBoxId(), EXCEPTION_V12);
-            case V_15 -> createV15(cp).getLocalListVersionAsync(task.getOcpp15Request(), cp.getChargeBoxId(), task.getOcpp15Handler(cp.getChargeBoxId()));
-            case V_16 -> createV16(cp).getLocalListVersionAsync(task.getOcpp16Request(), cp.getChargeBoxId(), task.getOcpp16Handler(cp.getChargeBoxId()));
+            case V_15 -> createV15(cp).getLocalListVersionAsync(task.getOcpp15Request(), cp.getChargeBoxId(), timed(cp, task, task.getOcpp15Handler(cp.getChargeBoxId())));
+            case V_16 -> createV16(cp).getLocalListVersionAsync(task.getOcpp16Request(), cp.getChargeBoxId(), timed(cp, task, task.getOcpp16Handler(cp.getChargeBoxId())));
         }
     }
 
@@ -181,8 +200,8 @@ public class ChargePointServiceSoapInvoker implements ChargePointServiceInvoker
     public void sendLocalList(ChargePointSelect cp, SendLocalListTask task) {
         switch (cp.getOcppProtocol().getVersion()) {
             case V_12 -> task.failed(cp.getChargeBoxId(), EXCEPTION_V12);
-            case V_15 -> createV15(cp).sendLocalListAsync(task.getOcpp15Request(), cp.getChargeBoxId(), task.getOcpp15Handler(cp.getChargeBoxId()));
-            case V_16 -> createV16(cp).sendLocalListAsync(task.getOcpp16Request(), cp.getChargeBoxId(), task.getOcpp16Handler(cp.getChargeBoxId()));
+            case V_15 -> createV15(cp).sendLocalListAsync(task.getOcpp15Request(), cp.getChargeBoxId(), timed(cp, task, task.getOcpp15Handler(cp.getChargeBoxId())));
+            case V_16 -> createV16(cp).sendLocalListAsync(task.getOcpp16Request(), cp.getChargeBoxId(), timed(cp, task, task.getOcpp16Handler(cp.getChargeBoxId())));
         }
     }
 
@@ -190,8 +209,8 @@ public class ChargePointServiceSoapInvoker implements ChargePointServiceInvoker
     public void reserveNow(ChargePointSelect cp, ReserveNowTask task) {
         switch (cp.getOcppProtocol().getVersion()) {
             case V_12 -> task.failed(cp.getChargeBoxId(), EXCEPTION_V12);
-            case V_15 -> createV15(cp).reserveNowAsync(task.getOcpp15Request(), cp.getChargeBoxId(), task.getOcpp15Handler(cp.getChargeBoxId()));
-            case V_16 -> createV16(cp).reserveNowAsync(task.getOcpp16Request(), cp.getChargeBoxId(), task.getOcpp16Handler(cp.getChargeBoxId()));
+            case V_15 -> createV15(cp).reserveNowAsync(task.getOcpp15Request(), cp.getChargeBoxId(), timed(cp, task, task.getOcpp15Handler(cp.getChargeBoxId())));
+            case V_16 -> createV16(cp).reserveNowAsync(task.getOcpp16Request(), cp.getChargeBoxId(), timed(cp, task, task.getOcpp16Handler(cp.getChargeBoxId())));
         }
     }
 
@@ -199,8 +218,8 @@ public class ChargePointServiceSoapInvoker implements ChargePointServiceInvoker
     public void cancelReservation(ChargePointSelect cp, CancelReservationTask task) {
         switch (cp.getOcppProtocol().getVersion()) {
             case V_12 -> task.failed(cp.getChargeBoxId(), EXCEPTION_V12);
-            case V_15 -> createV15(cp).cancelReservationAsync(task.getOcpp15Request(), cp.getChargeBoxId(), task.getOcpp15Handler(cp.getChargeBoxId()));
-            case V_16 -> createV16(cp).cancelReservationAsync(task.getOcpp16Request(), cp.getChargeBoxId(), task.getOcpp16Handler(cp.getChargeBoxId()));
+            case V_15 -> createV15(cp).cancelReservationAsync(task.getOcpp15Request(), cp.getChargeBoxId(), timed(cp, task, task.getOcpp15Handler(cp.getChargeBoxId())));
+            case V_16 -> createV16(cp).cancelReservationAsync(task.getOcpp16Request(), cp.getChargeBoxId(), timed(cp, task, task.getOcpp16Handler(cp.getChargeBoxId())));
         }
     }
 
@@ -213,7 +232,7 @@ public class ChargePointServiceSoapInvoker implements ChargePointServiceInvoker
         switch (cp.getOcppProtocol().getVersion()) {
             case V_12 -> task.failed(cp.getChargeBoxId(), EXCEPTION_V12);
             case V_15 -> task.failed(cp.getChargeBoxId(), EXCEPTION_V15);
-            case V_16 -> createV16(cp).clearChargingProfileAsync(task.getOcpp16Request(), cp.getChargeBoxId(), task.getOcpp16Handler(cp.getChargeBoxId()));
+            case V_16 -> createV16(cp).clearChargingProfileAsync(task.getOcpp16Request(), cp.getChargeBoxId(), timed(cp, task, task.getOcpp16Handler(cp.getChargeBoxId())));
         }
     }
 
@@ -222,7 +241,7 @@ public class ChargePointServiceSoapInvoker implements ChargePointServiceInvoker
         switch (cp.getOcppProtocol().getVersion()) {
             case V_12 -> task.failed(cp.getChargeBoxId(), EXCEPTION_V12);
             case V_15 -> task.failed(cp.getChargeBoxId(), EXCEPTION_V15);
-            case V_16 -> createV16(cp).setChargingProfileAsync(task.getOcpp16Request(), cp.getChargeBoxId(), task.getOcpp16Handler(cp.getChargeBoxId()));
+            case V_16 -> createV16(cp).setChargingProfileAsync(task.getOcpp16Request(), cp.getChargeBoxId(), timed(cp, task, task.getOcpp16Handler(cp.getChargeBoxId())));
         }
     }
 
@@ -231,7 +250,7 @@ public class ChargePointServiceSoapInvoker implements ChargePointServiceInvoker
         switch (cp.getOcppProtocol().getVersion()) {
             case V_12 -> task.failed(cp.getChargeBoxId(), EXCEPTION_V12);
             case V_15 -> task.failed(cp.getChargeBoxId(), EXCEPTION_V15);
-            case V_16 -> createV16(cp).getCompositeScheduleAsync(task.getOcpp16Request(), cp.getChargeBoxId(), task.getOcpp16Handler(cp.getChargeBoxId()));
+            case V_16 -> createV16(cp).getCompositeScheduleAsync(task.getOcpp16Request(), cp.getChargeBoxId(), timed(cp, task, task.getOcpp16Handler(cp.getChargeBoxId())));
         }
     }
 
@@ -240,7 +259,7 @@ public class ChargePointServiceSoapInvoker implements ChargePointServiceInvoker
         switch (cp.getOcppProtocol().getVersion()) {
             case V_12 -> task.failed(cp.getChargeBoxId(), EXCEPTION_V12);
             case V_15 -> task.failed(cp.getChargeBoxId(), EXCEPTION_V15);
-            case V_16 -> createV16(cp).triggerMessageAsync(task.getOcpp16Request(), cp.getChargeBoxId(), task.getOcpp16Handler(cp.getChargeBoxId()));
+            case V_16 -> createV16(cp).triggerMessageAsync(task.getOcpp16Request(), cp.getChargeBoxId(), timed(cp, task, task.getOcpp16Handler(cp.getChargeBoxId())));
         }
     }
 
@@ -249,14 +268,49 @@ public class ChargePointServiceSoapInvoker implements ChargePointServiceInvoker
     // -------------------------------------------------------------------------
 
     private ocpp.cp._2010._08.ChargePointService createV12(ChargePointSelect cp) {
-        return soapV12Helper.createClient(ocpp.cp._2010._08.ChargePointService.class, cp.getEndpointAddress());
+        return soapV12Helper.createClient(ocpp.cp._2010._08.ChargePointService.class, getEndpointAddress(cp));
     }
 
     private ocpp.cp._2012._06.ChargePointService createV15(ChargePointSelect cp) {
-        return soapV15Helper.createClient(ocpp.cp._2012._06.ChargePointService.class, cp.getEndpointAddress());
+        return soapV15Helper.createClient(ocpp.cp._2012._06.ChargePointService.class, getEndpointAddress(cp));
     }
 
     private ocpp.cp._2015._10.ChargePointService createV16(ChargePointSelect cp) {
-        return soapV16Helper.createClient(ocpp.cp._2015._10.ChargePointService.class, cp.getEndpointAddress());
+        return soapV16Helper.createClient(ocpp.cp._2015._10.ChargePointService.class, getEndpointAddress(cp));
+    }
+
+    /**
+     * The selection might be older than the last message of the station, e.g. if it comes from a web page
+     */
+    private String getEndpointAddress(ChargePointSelect cp) {
+        return endpointAddressCache.getOrDefault(cp.getChargeBoxId(), cp.getEndpointAddress());
+    }
+
+    /**
+     * Records the round trip, when the response (or the exception) arrives, before handing it over to the task
+     */
+    private <T> AsyncHandler<T> timed(ChargePointSelect cp, CommunicationTask<?, ?> task, AsyncHandler<T> handler) {
+        var timing = new OutgoingCallTiming(cp.getChargeBoxId(), OcppTransport.SOAP, cp.getOcppProtocol().getVersion(), task);
+        return res -> {
+            ocppMetrics.record(timing, getOutcome(res));
+            handler.handleResponse(res);
+        };
+    }
+
+    private static OutgoingCallTiming.Outcome getOutcome(Response<?> res) {
+        try {
+            res.get();
+            return OutgoingCallTiming.Outcome.SUCCESS;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return OutgoingCallTiming.Outcome.ERROR;
+        } catch (ExecutionException e) {
+            boolean timeout = Throwables.getCausalChain(e)
+                                        .stream()
+                                        .anyMatch(t -> t instanceof SocketTimeoutException
+                                            || t instanceof HttpTimeoutException
+                                            || t instanceof TimeoutException);
+            return timeout ? OutgoingCallTiming.Outcome.TIMEOUT : OutgoingCallTiming.Outcome.ERROR;
+        }
     }
 }
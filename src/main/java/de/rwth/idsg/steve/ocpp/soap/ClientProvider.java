@@ -19,11 +19,18 @@
 package de.rwth.idsg.steve.ocpp.soap;
 
 import com.oneandone.compositejks.SslContextBuilder;
+import de.rwth.idsg.steve.config.SteveProperties;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.cxf.Bus;
 import org.apache.cxf.configuration.jsse.TLSClientParameters;
 import org.apache.cxf.endpoint.Client;
 import org.apache.cxf.frontend.ClientProxy;
 import org.apache.cxf.jaxws.JaxWsProxyFactoryBean;
 import org.apache.cxf.transport.http.HTTPConduit;
+import org.apache.cxf.transport.http.HTTPConduitFactory;
+import org.apache.cxf.transport.http.asyncclient.hc5.AsyncHTTPConduitFactory;
+import org.apache.cxf.transports.http.configuration.ConnectionType;
 import org.apache.cxf.ws.addressing.WSAddressingFeature;
 import org.jetbrains.annotations.Nullable;
 import org.springframework.boot.autoconfigure.web.ServerProperties;
@@ -32,23 +39,36 @@ import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 
 import jakarta.xml.ws.soap.SOAPBinding;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
+ * The clients use the asynchronous HTTP conduit of CXF (see {@link SteveProperties.Soap}). It is used only if the TLS
+ * parameters have an SSLContext, not an SSLSocketFactory, otherwise CXF falls back to the blocking conduit.
+ *
  * @author Sevket Goekay <sevketgokay@gmail.com>
  * @since 21.10.2015
  */
+@Slf4j
 @Component
 public class ClientProvider {
 
+    private final Bus bus;
+    @Getter private final SteveProperties.Soap properties;
     @Nullable private final TLSClientParameters tlsClientParams;
 
-    public ClientProvider(ServerProperties serverProperties) {
+    public ClientProvider(ServerProperties serverProperties, Bus bus, SteveProperties steveProperties) {
+        this.bus = bus;
+        this.properties = steveProperties.getSoap();
+
         Ssl ssl = serverProperties.getSsl();
         try {
             tlsClientParams = create(ssl);
         } catch (Exception e) {
             throw new RuntimeException(e);
         }
+
+        configureConduitFactory();
     }
 
     public <T> T createClient(Class<T> clazz, String endpointAddress) {
@@ -56,17 +76,41 @@ public class ClientProvider {
         bean.setServiceClass(clazz);
         T clientObject = clazz.cast(bean.create());
 
+        Client client = ClientProxy.getClient(clientObject);
+        HTTPConduit http = (HTTPConduit) client.getConduit();
+        http.getClient().setConnection(properties.isKeepAlive() ? ConnectionType.KEEP_ALIVE : ConnectionType.CLOSE);
+
         if (tlsClientParams != null) {
-            Client client = ClientProxy.getClient(clientObject);
-            HTTPConduit http = (HTTPConduit) client.getConduit();
             http.setTlsClientParameters(tlsClientParams);
         }
 
         return clientObject;
     }
 
-    private static JaxWsProxyFactoryBean getBean(String endpointAddress) {
+    /**
+     * The pool of the asynchronous conduit is shared by all clients of the bus
+     */
+    private void configureConduitFactory() {
+        Map<String, Object> settings = new HashMap<>();
+        settings.put(AsyncHTTPConduitFactory.USE_POLICY, AsyncHTTPConduitFactory.UseAsyncPolicy.ALWAYS);
+        settings.put(AsyncHTTPConduitFactory.MAX_CONNECTIONS, properties.getMaxConnections());
+        settings.put(AsyncHTTPConduitFactory.MAX_PER_HOST_CONNECTIONS, properties.getMaxConnectionsPerHost());
+        settings.put(AsyncHTTPConduitFactory.SO_KEEPALIVE, properties.isKeepAlive());
+        settings.put(AsyncHTTPConduitFactory.CONNECTION_MAX_IDLE, (int) properties.getConnectionMaxIdle().toMillis());
+        if (properties.getIoThreads() > 0) {
+            settings.put(AsyncHTTPConduitFactory.THREAD_COUNT, properties.getIoThreads());
+        }
+
+        if (bus.getExtension(HTTPConduitFactory.class) instanceof AsyncHTTPConduitFactory factory) {
+            factory.update(settings);
+        } else {
+            log.warn("The asynchronous HTTP conduit of CXF is not available. SOAP calls will block a thread each");
+        }
+    }
+
+    private JaxWsProxyFactoryBean getBean(String endpointAddress) {
         JaxWsProxyFactoryBean f = new JaxWsProxyFactoryBean();
+        f.setBus(bus);
         f.setBindingId(SOAPBinding.SOAP12HTTP_BINDING);
         f.getFeatures().add(LoggingFeatureProxy.INSTANCE.get());
         f.getFeatures().add(new WSAddressingFeature());
@@ -87,16 +131,15 @@ public class ClientProvider {
             return null;
         }
 
-        var socketFactory = SslContextBuilder.builder()
+        var sslContext = SslContextBuilder.builder()
             .keyStoreFromFile(keyStorePath, keyStorePwd)
             .usingTLS()
             .usingDefaultAlgorithm()
             .usingKeyManagerPasswordFromKeyStore()
-            .buildMergedWithSystem()
-            .getSocketFactory();
+            .buildMergedWithSystem();
 
         var tlsClientParams = new TLSClientParameters();
-        tlsClientParams.setSSLSocketFactory(socketFactory);
+        tlsClientParams.setSslContext(sslContext);
         return tlsClientParams;
     }
 }
@@ -22,7 +22,6 @@ import com.google.common.cache.Cache;
 import com.google.common.cache.CacheBuilder;
 
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.TimeUnit;
 
 /**
  * http://cxf.apache.org/faq.html#FAQ-AreJAX-WSclientproxiesthreadsafe?
@@ -38,8 +37,8 @@ public class ClientProviderWithCache<T> {
     public ClientProviderWithCache(ClientProvider delegate) {
         this.delegate = delegate;
         this.cache = CacheBuilder.newBuilder()
-                                 .maximumSize(500)
-                                 .expireAfterAccess(1, TimeUnit.HOURS)
+                                 .maximumSize(delegate.getProperties().getClientCacheSize())
+                                 .expireAfterAccess(delegate.getProperties().getClientCacheExpiry())
                                  .build();
     }
 
@@ -29,62 +29,95 @@ import org.apache.cxf.phase.AbstractPhaseInterceptor;
 import org.apache.cxf.phase.Phase;
 import org.apache.cxf.staxutils.DepthXMLStreamReader;
 import org.apache.cxf.staxutils.StaxUtils;
+import org.jetbrains.annotations.Nullable;
 
 import javax.xml.stream.XMLStreamConstants;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamReader;
-import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
+ * Routes the messages of the router endpoint to the endpoint of their OCPP version, which is identified by the
+ * namespace of the message.
+ *
+ * Usually, the namespace is found in the first bytes of the message: the SOAP header contains chargeBoxIdentity in
+ * the namespace of the version, and otherwise the body follows shortly. Only these bytes are read, and put back in
+ * front of the stream, so that the message is parsed once, by the target endpoint. If no namespace (or more than
+ * one) is found within the first {@link #SNIFF_LIMIT} bytes, or the encoding is not ASCII-compatible, the whole
+ * message is read, and the namespace of its body determined with a StAX reader.
+ *
  * Taken from http://cxf.apache.org/docs/service-routing.html and modified.
  */
 @Slf4j
 public class MediatorInInterceptor extends AbstractPhaseInterceptor<SoapMessage> {
 
+    static final int SNIFF_LIMIT = 8 * 1024;
+
+    private static final Set<Charset> ASCII_COMPATIBLE = Set.of(
+        StandardCharsets.UTF_8, StandardCharsets.US_ASCII, StandardCharsets.ISO_8859_1
+    );
+
     private final Map<String, Server> actualServers;
+    private final Map<String, byte[]> namespaceBytes;
 
     public MediatorInInterceptor(List<EndpointImpl> endpoints) {
         super(Phase.POST_STREAM);
         super.addBefore(StaxInInterceptor.class.getName());
         actualServers = initServerLookupMap(endpoints);
+        namespaceBytes = toBytes(actualServers.keySet());
     }
 
     public final void handleMessage(SoapMessage message) {
-        String schemaNamespace = "";
+        String schemaNamespace = null;
 
-        // Scan the incoming message for its schema namespace
         try {
-            // Create a buffered stream so that we get back the original stream after scanning
             InputStream is = message.getContent(InputStream.class);
-            BufferedInputStream bis = new BufferedInputStream(is);
-            bis.mark(bis.available());
-            message.setContent(InputStream.class, bis);
-
             String encoding = (String) message.get(Message.ENCODING);
-            XMLStreamReader reader = StaxUtils.createXMLStreamReader(bis, encoding);
-            DepthXMLStreamReader xmlReader = new DepthXMLStreamReader(reader);
-
-            if (xmlReader.nextTag() == XMLStreamConstants.START_ELEMENT) {
-                SoapVersion soapVersion = message.getVersion();
-                // Advance just past header
-                StaxUtils.toNextTag(xmlReader, soapVersion.getBody());
-                // Past body
-                xmlReader.nextTag();
+
+            byte[] buffer = new byte[SNIFF_LIMIT];
+            int length = 0;
+
+            if (isAsciiCompatible(encoding)) {
+                int n;
+                while (schemaNamespace == null
+                    && length < buffer.length
+                    && (n = is.read(buffer, length, buffer.length - length)) != -1) {
+                    length += n;
+                    schemaNamespace = findNamespace(namespaceBytes, buffer, length);
+                }
+            }
+
+            if (schemaNamespace != null) {
+                // Put the read bytes back in front of the rest, without parsing anything
+                message.setContent(InputStream.class,
+                    new SequenceInputStream(new ByteArrayInputStream(buffer, 0, length), is));
+            } else {
+                ByteArrayOutputStream bos = new ByteArrayOutputStream(Math.max(length, 1024));
+                bos.write(buffer, 0, length);
+                is.transferTo(bos);
+                byte[] all = bos.toByteArray();
+
+                message.setContent(InputStream.class, new ByteArrayInputStream(all));
+                schemaNamespace = getBodyNamespace(message, new ByteArrayInputStream(all), encoding);
             }
-            schemaNamespace = xmlReader.getName().getNamespaceURI();
-            bis.reset();
 
         } catch (IOException | XMLStreamException ex) {
             log.error("Exception happened", ex);
         }
 
         // We redirect the message to the actual OCPP service
-        Server targetServer = actualServers.get(schemaNamespace);
+        Server targetServer = schemaNamespace == null ? null : actualServers.get(schemaNamespace);
 
         // Redirect the request
         if (targetServer == null) {
@@ -97,6 +130,70 @@ public class MediatorInInterceptor extends AbstractPhaseInterceptor<SoapMessage>
         message.getInterceptorChain().abort();
     }
 
+    /**
+     * @return the namespace, if exactly one of them occurs in the first length bytes
+     */
+    @Nullable
+    static String findNamespace(Map<String, byte[]> namespaceBytes, byte[] buffer, int length) {
+        String found = null;
+        for (Map.Entry<String, byte[]> entry : namespaceBytes.entrySet()) {
+            if (indexOf(buffer, length, entry.getValue()) != -1) {
+                if (found != null) {
+                    return null;
+                }
+                found = entry.getKey();
+            }
+        }
+        return found;
+    }
+
+    static Map<String, byte[]> toBytes(Collection<String> namespaces) {
+        Map<String, byte[]> map = new HashMap<>();
+        for (String namespace : namespaces) {
+            map.put(namespace, namespace.getBytes(StandardCharsets.US_ASCII));
+        }
+        return map;
+    }
+
+    private static int indexOf(byte[] buffer, int length, byte[] target) {
+        outer:
+        for (int i = 0; i <= length - target.length; i++) {
+            for (int j = 0; j < target.length; j++) {
+                if (buffer[i + j] != target[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    private static boolean isAsciiCompatible(@Nullable String encoding) {
+        if (encoding == null) {
+            return true;
+        }
+        try {
+            return ASCII_COMPATIBLE.contains(Charset.forName(encoding));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static String getBodyNamespace(SoapMessage message, InputStream is, String encoding)
+            throws XMLStreamException {
+        XMLStreamReader reader = StaxUtils.createXMLStreamReader(is, encoding);
+        DepthXMLStreamReader xmlReader = new DepthXMLStreamReader(reader);
+
+        if (xmlReader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            SoapVersion soapVersion = message.getVersion();
+            // Advance just past header
+            StaxUtils.toNextTag(xmlReader, soapVersion.getBody());
+            // Past body
+            xmlReader.nextTag();
+        }
+        return xmlReader.getName().getNamespaceURI();
+    }
+
     /**
      * Iterate over all available servers registered on the bus and build a map
      * consisting of (namespace, server) pairs for later lookup, so we can
@@ -21,6 +21,7 @@ package de.rwth.idsg.steve.ocpp.soap;
 import de.rwth.idsg.steve.ocpp.OcppProtocol;
 import de.rwth.idsg.steve.repository.OcppServerRepository;
 import de.rwth.idsg.steve.repository.impl.ChargePointRepositoryImpl;
+import de.rwth.idsg.steve.repository.impl.EndpointAddressCache;
 import de.rwth.idsg.steve.service.ChargePointRegistrationService;
 import lombok.extern.slf4j.Slf4j;
 import ocpp.cs._2015._10.RegistrationStatus;
@@ -36,6 +37,7 @@ import org.apache.cxf.service.model.MessagePartInfo;
 import org.apache.cxf.ws.addressing.AddressingProperties;
 import org.apache.cxf.ws.addressing.ContextUtils;
 import org.apache.cxf.ws.addressing.EndpointReferenceType;
+import org.jetbrains.annotations.Nullable;
 import org.springframework.core.task.TaskExecutor;
 import org.springframework.stereotype.Component;
 
@@ -51,6 +53,8 @@ import static org.apache.cxf.ws.addressing.JAXWSAConstants.ADDRESSING_PROPERTIES
  * And the absence of the field is not a deal breaker anymore. But, as a side effect, the user will not be able
  * to send commands to the charging station, since the DB call to list the charge points will filter it out. See
  * {@link ChargePointRepositoryImpl#getChargePointSelect(OcppProtocol, java.util.List)}.
+ * Since the address rarely changes, it is written to DB only when it differs from the last known one in
+ * {@link EndpointAddressCache} (or with a BootNotification), instead of once per message.
  *
  * @author Sevket Goekay <sevketgokay@gmail.com>
  * @since 15.06.2015
@@ -62,17 +66,20 @@ public class MessageHeaderInterceptor extends AbstractPhaseInterceptor<Message>
     private final OcppServerRepository ocppServerRepository;
     private final ChargePointRegistrationService chargePointRegistrationService;
     private final TaskExecutor taskExecutor;
+    private final EndpointAddressCache endpointAddressCache;
 
     private static final String BOOT_OPERATION_NAME = "BootNotification";
     private static final String CHARGEBOX_ID_HEADER = "ChargeBoxIdentity";
 
     public MessageHeaderInterceptor(OcppServerRepository ocppServerRepository,
                                     ChargePointRegistrationService chargePointRegistrationService,
-                                    TaskExecutor taskExecutor) {
+                                    TaskExecutor taskExecutor,
+                                    EndpointAddressCache endpointAddressCache) {
         super(Phase.PRE_INVOKE);
         this.ocppServerRepository = ocppServerRepository;
         this.chargePointRegistrationService = chargePointRegistrationService;
         this.taskExecutor = taskExecutor;
+        this.endpointAddressCache = endpointAddressCache;
     }
 
     @Override
@@ -84,11 +91,13 @@ public class MessageHeaderInterceptor extends AbstractPhaseInterceptor<Message>
         // -------------------------------------------------------------------------
 
         QName opName = message.getExchange().getBindingOperationInfo().getOperationInfo().getName();
+        boolean isBoot = BOOT_OPERATION_NAME.equals(opName.getLocalPart());
 
-        if (!BOOT_OPERATION_NAME.equals(opName.getLocalPart())) {
+        if (!isBoot) {
             Optional<RegistrationStatus> status = chargePointRegistrationService.getRegistrationStatus(chargeBoxId);
             boolean allow = status.isPresent() && status.get() != RegistrationStatus.REJECTED;
             if (!allow) {
+                endpointAddressCache.remove(chargeBoxId);
                 throw createAuthFault(opName);
             }
         }
@@ -97,19 +106,42 @@ public class MessageHeaderInterceptor extends AbstractPhaseInterceptor<Message>
         // 2. update endpoint
         // -------------------------------------------------------------------------
 
+        String endpointAddress = getEndpointAddress(message);
+        if (endpointAddress == null) {
+            return;
+        }
+
+        // always for BootNotification, since the address in DB might have been reset in the meantime (e.g. by the
+        // deletion of the station) without the cache knowing it
+        boolean changed = endpointAddressCache.update(chargeBoxId, endpointAddress);
+        if (!changed && !isBoot) {
+            return;
+        }
+
         taskExecutor.execute(() -> {
             try {
-                String endpointAddress = getEndpointAddress(message);
-                if (endpointAddress != null) {
-                    ocppServerRepository.updateEndpointAddress(chargeBoxId, endpointAddress);
-                }
+                // the latest one, since the writes of two quick changes might be executed in any order
+                String latest = endpointAddressCache.getOrDefault(chargeBoxId, endpointAddress);
+                ocppServerRepository.updateEndpointAddress(chargeBoxId, latest);
             } catch (Exception e) {
                 log.error("Exception occurred", e);
+                // so that the next message tries again
+                endpointAddressCache.remove(chargeBoxId, endpointAddress);
             }
         });
     }
 
     private String getChargeBoxId(Message message) {
+        String chargeBoxId = findChargeBoxId(message);
+        if (chargeBoxId == null) {
+            // should not happen
+            throw createSpecFault(message.getExchange().getBindingOperationInfo().getOperationInfo().getName());
+        }
+        return chargeBoxId;
+    }
+
+    @Nullable
+    static String findChargeBoxId(Message message) {
         MessageContentsList lst = MessageContentsList.getContentsList(message);
         if (lst != null) {
             MessageInfo mi = (MessageInfo) message.get("org.apache.cxf.service.model.MessageInfo");
@@ -119,11 +151,11 @@ public class MessageHeaderInterceptor extends AbstractPhaseInterceptor<Message>
                 }
             }
         }
-        // should not happen
-        throw createSpecFault(message.getExchange().getBindingOperationInfo().getOperationInfo().getName());
+        return null;
     }
 
-    private String getEndpointAddress(Message message) {
+    @Nullable
+    private static String getEndpointAddress(Message message) {
         AddressingProperties addressProp = (AddressingProperties) message.get(ADDRESSING_PROPERTIES_INBOUND);
         if (addressProp == null) {
             return null;
@@ -0,0 +1,173 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.ocpp.soap;
+
+import de.rwth.idsg.steve.metrics.DbTimeListener;
+import de.rwth.idsg.steve.metrics.IncomingCallTiming;
+import de.rwth.idsg.steve.metrics.OcppMetrics;
+import de.rwth.idsg.steve.ocpp.OcppTransport;
+import de.rwth.idsg.steve.ocpp.OcppVersion;
+import lombok.RequiredArgsConstructor;
+import org.apache.cxf.Bus;
+import org.apache.cxf.feature.AbstractFeature;
+import org.apache.cxf.interceptor.InterceptorProvider;
+import org.apache.cxf.interceptor.MessageSenderInterceptor;
+import org.apache.cxf.message.Exchange;
+import org.apache.cxf.message.Message;
+import org.apache.cxf.phase.AbstractPhaseInterceptor;
+import org.apache.cxf.phase.Phase;
+import org.apache.cxf.service.model.BindingOperationInfo;
+import org.apache.cxf.transport.http.AbstractHTTPDestination;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * The SOAP counterpart of the measurements in IncomingPipeline. The phases are delimited by interceptors:
+ *
+ * - deserialize: from receiving the request until the service method is about to be invoked
+ * - dispatch: invocation of the service method (the database time is tracked on the invoking thread)
+ * - serialize: from the start of the out (or out fault) chain until the response is sent
+ */
+@RequiredArgsConstructor
+public class MetricsFeature extends AbstractFeature {
+
+    private final OcppMetrics ocppMetrics;
+    private final OcppVersion version;
+
+    @Override
+    protected void initializeProvider(InterceptorProvider provider, Bus bus) {
+        provider.getInInterceptors().add(new ReceiveInterceptor());
+        provider.getInInterceptors().add(new PreInvokeInterceptor());
+
+        OutSetupInterceptor outSetupInterceptor = new OutSetupInterceptor();
+        SentInterceptor sentInterceptor = new SentInterceptor();
+
+        provider.getOutInterceptors().add(outSetupInterceptor);
+        provider.getOutInterceptors().add(sentInterceptor);
+        provider.getOutFaultInterceptors().add(outSetupInterceptor);
+        provider.getOutFaultInterceptors().add(sentInterceptor);
+    }
+
+    private static IncomingCallTiming getTiming(Message message) {
+        return message.getExchange().get(IncomingCallTiming.class);
+    }
+
+    private class ReceiveInterceptor extends AbstractPhaseInterceptor<Message> {
+
+        private ReceiveInterceptor() {
+            super(Phase.RECEIVE);
+        }
+
+        @Override
+        public void handleMessage(Message message) {
+            IncomingCallTiming timing = new IncomingCallTiming(OcppTransport.SOAP, version);
+
+            if (message.get(AbstractHTTPDestination.HTTP_REQUEST) instanceof HttpServletRequest request) {
+                timing.setSize(request.getContentLengthLong());
+            }
+
+            message.getExchange().put(IncomingCallTiming.class, timing);
+        }
+    }
+
+    private static class PreInvokeInterceptor extends AbstractPhaseInterceptor<Message> {
+
+        private PreInvokeInterceptor() {
+            super(Phase.PRE_INVOKE);
+        }
+
+        @Override
+        public void handleMessage(Message message) {
+            IncomingCallTiming timing = getTiming(message);
+            if (timing == null) {
+                return;
+            }
+
+            timing.deserialized();
+
+            BindingOperationInfo operation = message.getExchange().getBindingOperationInfo();
+            if (operation != null) {
+                timing.setAction(operation.getName().getLocalPart());
+            }
+            timing.setChargeBoxId(MessageHeaderInterceptor.findChargeBoxId(message));
+
+            DbTimeListener.startTracking();
+        }
+
+        /**
+         * Called when the invocation (or an interceptor after this one) failed, before the out fault chain runs.
+         * This also happens when there is no out fault chain, so that the tracking does not stay on the thread.
+         */
+        @Override
+        public void handleFault(Message message) {
+            long dbNanos = DbTimeListener.stopTracking();
+
+            IncomingCallTiming timing = getTiming(message);
+            if (timing != null && timing.isDeserialized()) {
+                timing.dispatched(dbNanos);
+                timing.setError(true);
+            }
+        }
+    }
+
+    private static class OutSetupInterceptor extends AbstractPhaseInterceptor<Message> {
+
+        private OutSetupInterceptor() {
+            super(Phase.SETUP);
+        }
+
+        @Override
+        public void handleMessage(Message message) {
+            IncomingCallTiming timing = getTiming(message);
+            if (timing == null) {
+                return;
+            }
+
+            // a fault before the invocation (e.g. unmarshalling failed) ends the deserialize phase. a fault of the
+            // invocation already ended the dispatch phase in PreInvokeInterceptor.handleFault
+            if (!timing.isDeserialized()) {
+                timing.deserialized();
+            } else if (!timing.isDispatched()) {
+                timing.dispatched(DbTimeListener.stopTracking());
+            }
+
+            Exchange exchange = message.getExchange();
+            timing.setError(timing.isError() || message == exchange.getOutFaultMessage());
+        }
+    }
+
+    private class SentInterceptor extends AbstractPhaseInterceptor<Message> {
+
+        private SentInterceptor() {
+            super(Phase.PREPARE_SEND_ENDING);
+            addAfter(MessageSenderInterceptor.MessageSenderEndingInterceptor.class.getName());
+        }
+
+        @Override
+        public void handleMessage(Message message) {
+            IncomingCallTiming timing = getTiming(message);
+            if (timing == null) {
+                return;
+            }
+
+            timing.serialized();
+            ocppMetrics.record(timing);
+        }
+    }
+}
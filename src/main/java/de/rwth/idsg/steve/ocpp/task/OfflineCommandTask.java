@@ -0,0 +1,93 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.ocpp.task;
+
+import de.rwth.idsg.ocpp.jaxb.RequestType;
+import de.rwth.idsg.ocpp.jaxb.ResponseType;
+import de.rwth.idsg.steve.ocpp.CommunicationTask;
+import de.rwth.idsg.steve.ocpp.OcppCallback;
+import de.rwth.idsg.steve.ocpp.ws.JsonObjectMapper;
+import de.rwth.idsg.steve.repository.dto.ChargePointSelect;
+import de.rwth.idsg.steve.web.dto.ocpp.ChargePointSelection;
+
+import jakarta.xml.ws.AsyncHandler;
+import java.util.Collections;
+
+/**
+ * A stored command of a station that was not connected, whose original task was lost with a restart of SteVe (see
+ * {@link de.rwth.idsg.steve.ocpp.ws.OfflineCommandQueue}). The request is sent as it was stored, and the response is
+ * recorded as JSON. The callbacks of the original task (e.g. the ones that update a reservation) are lost as well.
+ */
+public class OfflineCommandTask extends CommunicationTask<ChargePointSelection, String> {
+
+    private final RequestType request;
+
+    public OfflineCommandTask(ChargePointSelect cps, RequestType request) {
+        super(() -> Collections.singletonList(cps));
+        this.request = request;
+    }
+
+    @Override
+    public OcppCallback<String> defaultCallback() {
+        return new StringOcppCallback();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T extends RequestType> T getOcpp12Request() {
+        return (T) request;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T extends RequestType> T getOcpp15Request() {
+        return (T) request;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T extends RequestType> T getOcpp16Request() {
+        return (T) request;
+    }
+
+    @Override
+    public <T extends ResponseType> AsyncHandler<T> getOcpp12Handler(String chargeBoxId) {
+        return recordAsJson(chargeBoxId);
+    }
+
+    @Override
+    public <T extends ResponseType> AsyncHandler<T> getOcpp15Handler(String chargeBoxId) {
+        return recordAsJson(chargeBoxId);
+    }
+
+    @Override
+    public <T extends ResponseType> AsyncHandler<T> getOcpp16Handler(String chargeBoxId) {
+        return recordAsJson(chargeBoxId);
+    }
+
+    private <T extends ResponseType> AsyncHandler<T> recordAsJson(String chargeBoxId) {
+        return res -> {
+            try {
+                success(chargeBoxId, JsonObjectMapper.INSTANCE.getMapper().writeValueAsString(res.get()));
+            } catch (Exception e) {
+                failed(chargeBoxId, e);
+            }
+        };
+    }
+}
@@ -21,6 +21,8 @@ package de.rwth.idsg.steve.ocpp.ws;
 import com.google.common.base.Strings;
 import de.rwth.idsg.steve.config.SteveProperties;
 import de.rwth.idsg.steve.config.WebSocketConfiguration;
+import de.rwth.idsg.steve.metrics.OcppMetrics;
+import de.rwth.idsg.steve.metrics.jfr.WebSocketConnectionEvent;
 import de.rwth.idsg.steve.ocpp.OcppTransport;
 import de.rwth.idsg.steve.ocpp.OcppVersion;
 import de.rwth.idsg.steve.ocpp.ws.data.CommunicationContext;
@@ -29,12 +31,12 @@ import de.rwth.idsg.steve.ocpp.ws.pipeline.Deserializer;
 import de.rwth.idsg.steve.ocpp.ws.pipeline.IncomingPipeline;
 import de.rwth.idsg.steve.ocpp.ws.pipeline.OcppCallHandler;
 import de.rwth.idsg.steve.repository.OcppServerRepository;
+import de.rwth.idsg.steve.service.notification.DomainEventBus;
 import de.rwth.idsg.steve.service.notification.OcppStationWebSocketConnected;
 import de.rwth.idsg.steve.service.notification.OcppStationWebSocketDisconnected;
 import org.joda.time.DateTime;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.TaskScheduler;
 import org.springframework.web.socket.BinaryMessage;
 import org.springframework.web.socket.CloseStatus;
@@ -75,17 +77,19 @@ public abstract class AbstractWebSocketEndpoint extends ConcurrentWebSocketHandl
     public AbstractWebSocketEndpoint(TaskScheduler taskScheduler,
                                      OcppServerRepository ocppServerRepository,
                                      FutureResponseContextStore futureResponseContextStore,
-                                     ApplicationEventPublisher applicationEventPublisher,
+                                     DomainEventBus domainEventBus,
                                      SteveProperties steveProperties,
+                                     OcppMetrics ocppMetrics,
                                      AbstractTypeStore typeStore) {
         this.taskScheduler = taskScheduler;
         this.ocppServerRepository = ocppServerRepository;
         this.futureResponseContextStore = futureResponseContextStore;
-        this.pipeline = new IncomingPipeline(new Deserializer(futureResponseContextStore, typeStore), this);
+        this.pipeline = new IncomingPipeline(new Deserializer(futureResponseContextStore, typeStore), this, ocppMetrics, getVersion());
         this.sessionContextStore = new SessionContextStoreImpl(steveProperties.getOcpp().getWsSessionSelectStrategy());
 
-        connectedCallbackList.add((chargeBoxId) -> applicationEventPublisher.publishEvent(new OcppStationWebSocketConnected(chargeBoxId)));
-        disconnectedCallbackList.add((chargeBoxId) -> applicationEventPublisher.publishEvent(new OcppStationWebSocketDisconnected(chargeBoxId)));
+        connectedCallbackList.add((chargeBoxId) -> domainEventBus.publish(new OcppStationWebSocketConnected(chargeBoxId)));
+        disconnectedCallbackList.add((chargeBoxId) -> domainEventBus.publish(new OcppStationWebSocketDisconnected(chargeBoxId)));
+        disconnectedCallbackList.add(ocppMetrics::removeStation);
     }
 
     public abstract OcppVersion getVersion();
@@ -144,6 +148,7 @@ public abstract class AbstractWebSocketEndpoint extends ConcurrentWebSocketHandl
         String chargeBoxId = getChargeBoxId(session);
 
         WebSocketLogger.connected(chargeBoxId, session);
+        commitConnectionEvent(chargeBoxId, session, null);
         ocppServerRepository.updateOcppProtocol(chargeBoxId, getVersion().toProtocol(OcppTransport.JSON));
 
         // Just to keep the connection alive, such that the servers do not close
@@ -175,6 +180,7 @@ public abstract class AbstractWebSocketEndpoint extends ConcurrentWebSocketHandl
         String chargeBoxId = getChargeBoxId(session);
 
         WebSocketLogger.closed(chargeBoxId, session, closeStatus);
+        commitConnectionEvent(chargeBoxId, session, closeStatus);
 
         futureResponseContextStore.removeSession(session);
 
@@ -210,6 +216,18 @@ public abstract class AbstractWebSocketEndpoint extends ConcurrentWebSocketHandl
         return (String) session.getAttributes().get(CHARGEBOX_ID_KEY);
     }
 
+    private void commitConnectionEvent(String chargeBoxId, WebSocketSession session, CloseStatus closeStatus) {
+        WebSocketConnectionEvent event = new WebSocketConnectionEvent();
+        if (event.shouldCommit()) {
+            event.chargeBoxId = chargeBoxId;
+            event.version = getVersion().getValue();
+            event.sessionId = session.getId();
+            event.connected = (closeStatus == null);
+            event.closeCode = (closeStatus == null) ? -1 : closeStatus.getCode();
+            event.commit();
+        }
+    }
+
     protected void registerConnectedCallback(Consumer<String> consumer) {
         connectedCallbackList.add(consumer);
     }
@@ -230,6 +248,10 @@ public abstract class AbstractWebSocketEndpoint extends ConcurrentWebSocketHandl
         return sessionContextStore.getACopy();
     }
 
+    public boolean isConnected(String chargeBoxId) {
+        return sessionContextStore.getSize(chargeBoxId) > 0;
+    }
+
     public WebSocketSession getSession(String chargeBoxId) {
         return sessionContextStore.getSession(chargeBoxId);
     }
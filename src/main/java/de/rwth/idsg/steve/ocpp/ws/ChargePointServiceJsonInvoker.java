@@ -20,7 +20,10 @@ package de.rwth.idsg.steve.ocpp.ws;
 
 import de.rwth.idsg.ocpp.jaxb.RequestType;
 import de.rwth.idsg.steve.SteveException;
+import de.rwth.idsg.steve.metrics.OcppMetrics;
+import de.rwth.idsg.steve.metrics.OutgoingCallTiming;
 import de.rwth.idsg.steve.ocpp.CommunicationTask;
+import de.rwth.idsg.steve.ocpp.OcppTransport;
 import de.rwth.idsg.steve.ocpp.ws.data.ActionResponsePair;
 import de.rwth.idsg.steve.ocpp.ws.data.CommunicationContext;
 import de.rwth.idsg.steve.ocpp.ws.data.FutureResponseContext;
@@ -33,10 +36,14 @@ import de.rwth.idsg.steve.ocpp.ws.ocpp16.Ocpp16TypeStore;
 import de.rwth.idsg.steve.ocpp.ws.ocpp16.Ocpp16WebSocketEndpoint;
 import de.rwth.idsg.steve.ocpp.ws.pipeline.OutgoingCallPipeline;
 import de.rwth.idsg.steve.repository.dto.ChargePointSelect;
+import de.rwth.idsg.steve.service.notification.DomainEventListener;
+import de.rwth.idsg.steve.service.notification.OcppStationWebSocketConnected;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.web.socket.WebSocketSession;
 
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -46,9 +53,11 @@ import java.util.UUID;
 @Slf4j
 @Service
 @RequiredArgsConstructor
-public class ChargePointServiceJsonInvoker {
+public class ChargePointServiceJsonInvoker implements DomainEventListener {
 
     private final OutgoingCallPipeline outgoingCallPipeline;
+    private final OcppMetrics ocppMetrics;
+    private final OfflineCommandQueue offlineCommandQueue;
 
     private final Ocpp12WebSocketEndpoint ocpp12WebSocketEndpoint;
     private final Ocpp15WebSocketEndpoint ocpp15WebSocketEndpoint;
@@ -67,46 +76,133 @@ public class ChargePointServiceJsonInvoker {
         }
     }
 
+    /**
+     * Sends the stored commands of a station that was not connected
+     */
+    @Override
+    public void onEvents(List<Object> events) {
+        if (!offlineCommandQueue.isEnabled()) {
+            return;
+        }
+        for (Object event : events) {
+            if (event instanceof OcppStationWebSocketConnected e) {
+                offlineCommandQueue.flush(e.getChargeBoxId(), this::sendStored);
+            }
+        }
+    }
+
+    /**
+     * A dropped event would keep the stored commands until the next connection of the station. The flush itself
+     * runs in the background.
+     */
+    @Override
+    public boolean isSynchronous() {
+        return true;
+    }
+
+    @Override
+    public boolean isInterestedIn(Class<?> eventType) {
+        return eventType == OcppStationWebSocketConnected.class;
+    }
+
+    /**
+     * Does not go through {@link #run}: for a station that disconnected again, that would store the command once more,
+     * behind the ones stored after it. Returning false keeps it at its place in the queue instead.
+     */
+    private boolean sendStored(ChargePointSelect cps, CommunicationTask<?, ?> task) {
+        WebSocketSession session;
+        try {
+            session = getEndpoint(cps).getSession(cps.getChargeBoxId());
+        } catch (SteveException e) {
+            return false;
+        }
+
+        try {
+            RequestType request = getRequest(cps, task);
+            send(cps, task, findActionResponse(cps, request), request, session);
+        } catch (Exception e) {
+            log.error("Exception occurred", e);
+            task.failed(cps.getChargeBoxId(), e);
+        }
+        return true;
+    }
+
     /**
      * Actual processing
      */
     private void run(ChargePointSelect cps, CommunicationTask task) {
         var chargeBoxId = cps.getChargeBoxId();
 
-        var endpoint = switch (cps.getOcppProtocol().getVersion()) {
-            case V_12 -> ocpp12WebSocketEndpoint;
-            case V_15 -> ocpp15WebSocketEndpoint;
-            case V_16 -> ocpp16WebSocketEndpoint;
-        };
+        var endpoint = getEndpoint(cps);
 
-        var typeStore = switch (cps.getOcppProtocol().getVersion()) {
-            case V_12 -> Ocpp12TypeStore.INSTANCE;
-            case V_15 -> Ocpp15TypeStore.INSTANCE;
-            case V_16 -> Ocpp16TypeStore.INSTANCE;
-        };
+        RequestType request = getRequest(cps, task);
+        ActionResponsePair pair = findActionResponse(cps, request);
 
-        RequestType request = switch (cps.getOcppProtocol().getVersion()) {
-            case V_12 -> task.getOcpp12Request();
-            case V_15 -> task.getOcpp15Request();
-            case V_16 -> task.getOcpp16Request();
-        };
+        if (offlineCommandQueue.isEnabled() && !endpoint.isConnected(chargeBoxId)) {
+            offlineCommandQueue.add(cps, task, request);
 
-        ActionResponsePair pair = typeStore.findActionResponse(request);
-        if (pair == null) {
-            throw new SteveException("Action name is not found");
+            // The station might have connected in the meantime, after the stored commands were sent
+            if (endpoint.isConnected(chargeBoxId)) {
+                offlineCommandQueue.flush(chargeBoxId, this::sendStored);
+            }
+            return;
         }
 
+        send(cps, task, pair, request, endpoint.getSession(chargeBoxId));
+    }
+
+    private void send(ChargePointSelect cps, CommunicationTask<?, ?> task, ActionResponsePair pair,
+                      RequestType request, WebSocketSession session) {
+        var chargeBoxId = cps.getChargeBoxId();
+
         OcppJsonCall call = new OcppJsonCall();
         call.setMessageId(UUID.randomUUID().toString());
         call.setPayload(request);
         call.setAction(pair.getAction());
 
-        FutureResponseContext frc = new FutureResponseContext(task, pair.getResponseClass());
+        var timing = new OutgoingCallTiming(chargeBoxId, OcppTransport.JSON, cps.getOcppProtocol().getVersion(),
+            pair.getAction());
+        FutureResponseContext frc = new FutureResponseContext(task, pair.getResponseClass(), timing);
 
-        CommunicationContext context = new CommunicationContext(endpoint.getSession(chargeBoxId), chargeBoxId);
+        CommunicationContext context = new CommunicationContext(session, chargeBoxId);
         context.setOutgoingMessage(call);
         context.setFutureResponseContext(frc);
 
-        outgoingCallPipeline.accept(context);
+        try {
+            outgoingCallPipeline.accept(context);
+        } catch (Exception e) {
+            ocppMetrics.record(timing, OutgoingCallTiming.Outcome.ERROR);
+            throw e;
+        }
+    }
+
+    private static RequestType getRequest(ChargePointSelect cps, CommunicationTask<?, ?> task) {
+        return switch (cps.getOcppProtocol().getVersion()) {
+            case V_12 -> task.getOcpp12Request();
+            case V_15 -> task.getOcpp15Request();
+            case V_16 -> task.getOcpp16Request();
+        };
+    }
+
+    private static ActionResponsePair findActionResponse(ChargePointSelect cps, RequestType request) {
+        var typeStore = switch (cps.getOcppProtocol().getVersion()) {
+            case V_12 -> Ocpp12TypeStore.INSTANCE;
+            case V_15 -> Ocpp15TypeStore.INSTANCE;
+            case V_16 -> Ocpp16TypeStore.INSTANCE;
+        };
+
+        ActionResponsePair pair = typeStore.findActionResponse(request);
+        if (pair == null) {
+            throw new SteveException("Action name is not found");
+        }
+        return pair;
+    }
+
+    private AbstractWebSocketEndpoint getEndpoint(ChargePointSelect cps) {
+        return switch (cps.getOcppProtocol().getVersion()) {
+            case V_12 -> ocpp12WebSocketEndpoint;
+            case V_15 -> ocpp15WebSocketEndpoint;
+            case V_16 -> ocpp16WebSocketEndpoint;
+        };
     }
 }
@@ -18,6 +18,7 @@
  */
 package de.rwth.idsg.steve.ocpp.ws;
 
+import de.rwth.idsg.steve.ocpp.ws.data.CommunicationContext;
 import de.rwth.idsg.steve.ocpp.ws.data.FutureResponseContext;
 import org.jetbrains.annotations.Nullable;
 import org.springframework.web.socket.WebSocketSession;
@@ -32,7 +33,21 @@ public interface FutureResponseContextStore {
 
     void removeSession(WebSocketSession session);
 
-    void add(WebSocketSession session, String messageId, FutureResponseContext context);
+    /**
+     * Sends the serialized call of the context, or queues it, if the session has the maximum number of calls without
+     * response already. A queued call is sent when a response to an earlier call arrives (see {@link #get}).
+     *
+     * Throws, if the call could not be sent right away. A queued call that cannot be sent later is failed in its
+     * task instead.
+     */
+    void send(CommunicationContext context);
 
+    /**
+     * Removes the context of the call with the messageId, such that the next queued call of the session is sent
+     */
     @Nullable FutureResponseContext get(WebSocketSession session, String messageId);
+
+    int getPendingCount(WebSocketSession session);
+
+    int getQueuedCount(WebSocketSession session);
 }
@@ -18,21 +18,43 @@
  */
 package de.rwth.idsg.steve.ocpp.ws;
 
+import de.rwth.idsg.steve.SteveException;
+import de.rwth.idsg.steve.config.SteveProperties;
+import de.rwth.idsg.steve.metrics.OcppMetrics;
+import de.rwth.idsg.steve.metrics.OutgoingCallTiming;
+import de.rwth.idsg.steve.ocpp.ws.data.CommunicationContext;
 import de.rwth.idsg.steve.ocpp.ws.data.FutureResponseContext;
-import lombok.AccessLevel;
+import de.rwth.idsg.steve.ocpp.ws.pipeline.Sender;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.jetbrains.annotations.Nullable;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.stereotype.Service;
 import org.springframework.web.socket.WebSocketSession;
 
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.function.BiFunction;
+import java.util.concurrent.ScheduledFuture;
 
 /**
  * Presumption: The responses must be sent using the same connection as the requests!
  *
+ * OCPP allows only one call without response per connection, and many stations reject or drop the others. Therefore,
+ * the calls of a connection are sent one after another: a call waits in the queue of the connection, while the
+ * configured maximum of calls has no response yet (see {@link SteveProperties.CallQueue}).
+ *
+ * When the connection is removed, its calls are closed under the same lock that adds calls. This way, a call that is
+ * sent concurrently is either failed with the others, or rejected, but never left behind in the removed calls.
+ *
  * @author Sevket Goekay <sevketgokay@gmail.com>
  * @since 21.03.2015
  */
@@ -40,56 +62,275 @@ import java.util.function.BiFunction;
 @Service
 public class FutureResponseContextStoreImpl implements FutureResponseContextStore {
 
-    // We store for each chargeBox connection, multiple pairs of (messageId, context)
-    // (session, (messageId, context))
-    private final Map<WebSocketSession, Map<String, FutureResponseContext>> lookupTable = new ConcurrentHashMap<>();
+    private static final Duration TIMEOUT_CHECK_INTERVAL = Duration.ofSeconds(1);
+
+    // We store for each chargeBox connection, the calls without response and the queued calls
+    private final Map<WebSocketSession, SessionCalls> lookupTable = new ConcurrentHashMap<>();
+
+    private final OcppMetrics ocppMetrics;
+    private final TaskScheduler taskScheduler;
+    private final int maxInFlight;
+    private final int maxQueued;
+    private final Duration responseTimeout;
+
+    private ScheduledFuture<?> scheduledFuture;
+
+    public FutureResponseContextStoreImpl(OcppMetrics ocppMetrics, TaskScheduler taskScheduler,
+                                          SteveProperties steveProperties) {
+        this.ocppMetrics = ocppMetrics;
+        this.taskScheduler = taskScheduler;
+        this.maxInFlight = Math.max(1, steveProperties.getCallQueue().getMaxInFlight());
+        this.maxQueued = steveProperties.getCallQueue().getMaxQueued();
+        this.responseTimeout = steveProperties.getCallQueue().getResponseTimeout();
+    }
+
+    @EventListener
+    public synchronized void afterStart(ContextRefreshedEvent event) {
+        if (scheduledFuture == null && responseTimeout.isPositive()) {
+            scheduledFuture = taskScheduler.scheduleWithFixedDelay(this::failOverdueCalls, TIMEOUT_CHECK_INTERVAL);
+        }
+    }
 
     @Override
     public void addSession(WebSocketSession session) {
-        addIfAbsent(session);
+        lookupTable.computeIfAbsent(session, innerSession -> {
+            log.debug("Creating new store for sessionId '{}'", innerSession.getId());
+            return new SessionCalls();
+        });
     }
 
     @Override
     public void removeSession(WebSocketSession session) {
         log.debug("Deleting the store for sessionId '{}'", session.getId());
-        lookupTable.remove(session);
+        SessionCalls calls = lookupTable.remove(session);
+        if (calls == null) {
+            return;
+        }
+
+        // From now on, new calls are rejected
+        calls.close();
+
+        // The calls that are still waiting for a response will not get one anymore
+        for (PendingCall pending : calls.removePending()) {
+            ocppMetrics.record(pending.context.getTiming(), OutgoingCallTiming.Outcome.TIMEOUT);
+            pending.context.getTask().failed(pending.context.getTiming().getChargeBoxId(),
+                new SteveException("The connection was closed before a response arrived"));
+        }
+
+        // ... and the queued calls cannot be sent anymore
+        for (QueuedCall queued : calls.removeQueued()) {
+            ocppMetrics.callLeftQueue(System.nanoTime() - queued.queuedNanos);
+            fail(queued.context, OutgoingCallTiming.Outcome.ERROR,
+                 new SteveException("The connection was closed before the call could be sent"));
+        }
     }
 
     @Override
-    public void add(WebSocketSession session, String messageId, FutureResponseContext context) {
-        Map<String, FutureResponseContext> map = addIfAbsent(session);
-        map.put(messageId, context);
-        log.debug("Store size for sessionId '{}': {}", session.getId(), map.size());
+    public void send(CommunicationContext context) {
+        SessionCalls calls = lookupTable.get(context.getSession());
+        if (calls == null) {
+            throw new SteveException("The connection of '%s' is closed", context.getChargeBoxId());
+        }
+
+        if (!calls.offer(context)) {
+            ocppMetrics.callQueued();
+            log.debug("Queued the call for sessionId '{}'", context.getSession().getId());
+            return;
+        }
+
+        try {
+            Sender.INSTANCE.accept(context);
+        } catch (RuntimeException e) {
+            calls.remove(context.getOutgoingMessage().getMessageId());
+            sendNext(calls);
+            throw e;
+        }
     }
 
     @Nullable
     @Override
     public FutureResponseContext get(WebSocketSession session, String messageId) {
-        RemoveFunction removeFunction = new RemoveFunction(messageId);
-        lookupTable.computeIfPresent(session, removeFunction);
-        return removeFunction.removedContext;
+        SessionCalls calls = lookupTable.get(session);
+        if (calls == null) {
+            return null;
+        }
+
+        FutureResponseContext context = calls.remove(messageId);
+        if (context != null) {
+            sendNext(calls);
+        }
+        return context;
     }
 
-    private Map<String, FutureResponseContext> addIfAbsent(WebSocketSession session) {
-        return lookupTable.computeIfAbsent(session, innerSession -> {
-            log.debug("Creating new store for sessionId '{}'", innerSession.getId());
-            return new ConcurrentHashMap<>();
-        });
+    @Override
+    public int getPendingCount(WebSocketSession session) {
+        SessionCalls calls = lookupTable.get(session);
+        return calls == null ? 0 : calls.getPendingCount();
+    }
+
+    @Override
+    public int getQueuedCount(WebSocketSession session) {
+        SessionCalls calls = lookupTable.get(session);
+        return calls == null ? 0 : calls.getQueuedCount();
+    }
+
+    // -------------------------------------------------------------------------
+    // Private helpers
+    // -------------------------------------------------------------------------
+
+    /**
+     * Sends the queued calls, as long as there is room. Called after a call was removed, which frees one slot
+     * usually, unless the next call cannot be sent either.
+     */
+    private void sendNext(SessionCalls calls) {
+        QueuedCall next;
+        while ((next = calls.poll()) != null) {
+            ocppMetrics.callLeftQueue(System.nanoTime() - next.queuedNanos);
+            next.context.getFutureResponseContext().getTiming().restart();
+
+            try {
+                Sender.INSTANCE.accept(next.context);
+            } catch (Exception e) {
+                calls.remove(next.context.getOutgoingMessage().getMessageId());
+                fail(next.context, OutgoingCallTiming.Outcome.ERROR, e);
+            }
+        }
+    }
+
+    void failOverdueCalls() {
+        long sentBefore = System.nanoTime() - responseTimeout.toNanos();
+
+        for (SessionCalls calls : lookupTable.values()) {
+            List<PendingCall> overdue = calls.removeOverdue(sentBefore);
+            if (overdue.isEmpty()) {
+                continue;
+            }
+
+            for (PendingCall pending : overdue) {
+                String chargeBoxId = pending.context.getTiming().getChargeBoxId();
+                log.warn("No response of '{}' within {}. Failing the call, and sending the next one", chargeBoxId,
+                    responseTimeout);
+
+                ocppMetrics.record(pending.context.getTiming(), OutgoingCallTiming.Outcome.TIMEOUT);
+                pending.context.getTask().failed(chargeBoxId,
+                    new SteveException("No response of the station within %s", responseTimeout));
+            }
+            sendNext(calls);
+        }
+    }
+
+    private void fail(CommunicationContext context, OutgoingCallTiming.Outcome outcome, Exception e) {
+        log.error("Exception occurred", e);
+        ocppMetrics.record(context.getFutureResponseContext().getTiming(), outcome);
+        context.getFutureResponseContext().getTask().failed(context.getChargeBoxId(), e);
     }
 
-    @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
-    private static class RemoveFunction implements
-            BiFunction<WebSocketSession, Map<String, FutureResponseContext>, Map<String, FutureResponseContext>> {
+    private final class SessionCalls {
+
+        // in the order of sending, such that the overdue calls are at the beginning
+        private final Map<String, PendingCall> pending = new LinkedHashMap<>();
+        private final Deque<QueuedCall> queue = new ArrayDeque<>();
+        private boolean closed;
+
+        /**
+         * @return true, if the call may be sent right away. false, if it was queued
+         */
+        private synchronized boolean offer(CommunicationContext context) {
+            if (closed) {
+                throw new SteveException("The connection of '%s' is closed", context.getChargeBoxId());
+            }
+
+            if (queue.isEmpty() && pending.size() < maxInFlight) {
+                addPending(context);
+                return true;
+            }
+
+            if (maxQueued > 0 && queue.size() >= maxQueued) {
+                throw new SteveException("The queue of '%s' is full with %s calls", context.getChargeBoxId(),
+                    maxQueued);
+            }
+
+            queue.add(new QueuedCall(context, System.nanoTime()));
+            return false;
+        }
+
+        private synchronized void close() {
+            closed = true;
+        }
+
+        /**
+         * The next queued call, if there is room for it. It counts as pending already.
+         */
+        @Nullable
+        private synchronized QueuedCall poll() {
+            if (closed || pending.size() >= maxInFlight) {
+                return null;
+            }
 
-        private final String messageId;
-        @Nullable private FutureResponseContext removedContext;
+            QueuedCall next = queue.poll();
+            if (next != null) {
+                addPending(next.context);
+            }
+            return next;
+        }
+
+        @Nullable
+        private synchronized FutureResponseContext remove(String messageId) {
+            PendingCall call = pending.remove(messageId);
+            log.debug("Store size: {} pending, {} queued", pending.size(), queue.size());
+            return call == null ? null : call.context;
+        }
+
+        private synchronized List<PendingCall> removeOverdue(long sentBefore) {
+            List<PendingCall> overdue = new ArrayList<>();
+
+            Iterator<PendingCall> it = pending.values().iterator();
+            while (it.hasNext()) {
+                PendingCall call = it.next();
+                if (call.sentNanos - sentBefore >= 0) {
+                    break;
+                }
+                overdue.add(call);
+                it.remove();
+            }
+            return overdue;
+        }
+
+        private synchronized List<PendingCall> removePending() {
+            List<PendingCall> list = new ArrayList<>(pending.values());
+            pending.clear();
+            return list;
+        }
+
+        private synchronized List<QueuedCall> removeQueued() {
+            List<QueuedCall> list = new ArrayList<>(queue);
+            queue.clear();
+            return list;
+        }
+
+        private synchronized int getPendingCount() {
+            return pending.size();
+        }
+
+        private synchronized int getQueuedCount() {
+            return queue.size();
+        }
 
-        @Override
-        public Map<String, FutureResponseContext> apply(WebSocketSession session,
-                                                        Map<String, FutureResponseContext> map) {
-            removedContext = map.remove(messageId);
-            log.debug("Store size for sessionId '{}': {}", session.getId(), map.size());
-            return map;
+        private void addPending(CommunicationContext context) {
+            pending.put(context.getOutgoingMessage().getMessageId(),
+                        new PendingCall(context.getFutureResponseContext(), System.nanoTime()));
         }
     }
+
+    @RequiredArgsConstructor
+    private static class PendingCall {
+        private final FutureResponseContext context;
+        private final long sentNanos;
+    }
+
+    @RequiredArgsConstructor
+    private static class QueuedCall {
+        private final CommunicationContext context;
+        private final long queuedNanos;
+    }
 }
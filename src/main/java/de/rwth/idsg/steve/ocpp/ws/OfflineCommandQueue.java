@@ -0,0 +1,282 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.ocpp.ws;
+
+import com.google.common.util.concurrent.RateLimiter;
+import de.rwth.idsg.ocpp.jaxb.RequestType;
+import de.rwth.idsg.steve.SteveException;
+import de.rwth.idsg.steve.config.SteveProperties;
+import de.rwth.idsg.steve.ocpp.CommunicationTask;
+import de.rwth.idsg.steve.ocpp.OcppTransport;
+import de.rwth.idsg.steve.ocpp.task.OfflineCommandTask;
+import de.rwth.idsg.steve.repository.OfflineCommandRepository;
+import de.rwth.idsg.steve.repository.TaskStore;
+import de.rwth.idsg.steve.repository.dto.ChargePointSelect;
+import de.rwth.idsg.steve.repository.dto.OfflineCommand;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.Nullable;
+import org.joda.time.DateTime;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * Store-and-forward of the commands for JSON stations that are not connected (see
+ * {@link SteveProperties.OfflineCommands}).
+ *
+ * The commands are stored in the database, such that they survive a restart. Their tasks are only kept in memory:
+ * the result of a command that was stored before a restart is recorded in a new {@link OfflineCommandTask}. When a
+ * station connects, its commands are sent one after another in the background, and deleted once they are handed to
+ * the connection.
+ */
+@Slf4j
+@Service
+public class OfflineCommandQueue implements DisposableBean {
+
+    private static final int FLUSH_CHUNK_SIZE = 100;
+    private static final Duration EXPIRY_CHECK_INTERVAL = Duration.ofMinutes(1);
+
+    private final OfflineCommandRepository offlineCommandRepository;
+    private final TaskStore taskStore;
+    private final TaskScheduler taskScheduler;
+    private final SteveProperties.OfflineCommands properties;
+
+    @Nullable private final ThreadPoolTaskExecutor executor;
+    @Nullable private final RateLimiter rateLimiter;
+
+    // The tasks of the stored commands, since the start of SteVe
+    private final Map<Integer, StoredCommand> storedCommands = new ConcurrentHashMap<>();
+
+    // Flushes that were requested per station. A flush that is requested while one runs is not lost, but makes the
+    // running one look for new commands again.
+    private final Map<String, Integer> flushRequests = new ConcurrentHashMap<>();
+
+    private ScheduledFuture<?> scheduledFuture;
+
+    public OfflineCommandQueue(OfflineCommandRepository offlineCommandRepository, TaskStore taskStore,
+                               TaskScheduler taskScheduler, SteveProperties steveProperties) {
+        this.offlineCommandRepository = offlineCommandRepository;
+        this.taskStore = taskStore;
+        this.taskScheduler = taskScheduler;
+        this.properties = steveProperties.getOfflineCommands();
+
+        // without the feature, there is nothing to send
+        if (properties.isEnabled()) {
+            executor = new ThreadPoolTaskExecutor();
+            executor.setCorePoolSize(4);
+            executor.setAllowCoreThreadTimeOut(true);
+            executor.setThreadNamePrefix("SteVe-Offline-");
+            executor.initialize();
+        } else {
+            executor = null;
+        }
+
+        rateLimiter = properties.getCallsPerSecond() > 0
+            ? RateLimiter.create(properties.getCallsPerSecond())
+            : null;
+    }
+
+    @EventListener
+    public synchronized void afterStart(ContextRefreshedEvent event) {
+        if (scheduledFuture == null && properties.isEnabled()) {
+            scheduledFuture = taskScheduler.scheduleWithFixedDelay(this::removeExpired, EXPIRY_CHECK_INTERVAL);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public void add(ChargePointSelect cps, CommunicationTask<?, ?> task, RequestType request) {
+        String payload;
+        try {
+            payload = JsonObjectMapper.INSTANCE.getMapper().writeValueAsString(request);
+        } catch (IOException e) {
+            throw new SteveException("Could not store the command", e);
+        }
+
+        DateTime now = DateTime.now();
+        DateTime expiry = now.plus(properties.getTtl().toMillis());
+
+        OfflineCommand command = OfflineCommand.builder()
+                                               .chargeBoxId(cps.getChargeBoxId())
+                                               .version(cps.getOcppProtocol().getVersion())
+                                               .operationName(task.getOperationName())
+                                               .requestClass(request.getClass().getName())
+                                               .requestPayload(payload)
+                                               .createdTimestamp(now)
+                                               .expiryTimestamp(expiry)
+                                               .build();
+
+        int offlineCommandPk = offlineCommandRepository.insert(command);
+        storedCommands.put(offlineCommandPk, new StoredCommand(cps.getChargeBoxId(), task));
+
+        log.info("'{}' is not connected. Stored the command '{}' until {}", cps.getChargeBoxId(),
+            task.getOperationName(), expiry);
+    }
+
+    /**
+     * Sends the stored commands of the station in the background, in the order they were stored
+     */
+    public void flush(String chargeBoxId, Sender sender) {
+        if (executor == null) {
+            return;
+        }
+
+        if (flushRequests.merge(chargeBoxId, 1, Integer::sum) == 1) {
+            executor.execute(() -> runFlush(chargeBoxId, sender));
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Private helpers
+    // -------------------------------------------------------------------------
+
+    private void runFlush(String chargeBoxId, Sender sender) {
+        do {
+            try {
+                sendAll(chargeBoxId, sender);
+            } catch (Exception e) {
+                log.error("Exception occurred while sending the stored commands of '{}'", chargeBoxId, e);
+            }
+        } while (flushRequests.compute(chargeBoxId, (k, v) -> v == 1 ? null : 1) != null);
+    }
+
+    private void sendAll(String chargeBoxId, Sender sender) {
+        List<OfflineCommand> commands;
+        do {
+            commands = offlineCommandRepository.getCommands(chargeBoxId, FLUSH_CHUNK_SIZE);
+            for (OfflineCommand command : commands) {
+                if (!send(command, sender)) {
+                    log.info("'{}' disconnected. The remaining commands are sent when it connects again",
+                        chargeBoxId);
+                    return;
+                }
+            }
+        } while (commands.size() == FLUSH_CHUNK_SIZE);
+    }
+
+    /**
+     * @return false, if the station is not connected anymore
+     */
+    private boolean send(OfflineCommand command, Sender sender) {
+        int offlineCommandPk = command.getOfflineCommandPk();
+        String chargeBoxId = command.getChargeBoxId();
+        ChargePointSelect cps = new ChargePointSelect(command.getVersion().toProtocol(OcppTransport.JSON), chargeBoxId);
+
+        StoredCommand stored = storedCommands.get(offlineCommandPk);
+
+        CommunicationTask<?, ?> task;
+        if (stored != null) {
+            task = stored.task;
+            if (task.isCancelled()) {
+                remove(offlineCommandPk);
+                task.failed(chargeBoxId, new SteveException("The task was cancelled"));
+                return true;
+            }
+        } else {
+            try {
+                task = new OfflineCommandTask(cps, readRequest(command));
+            } catch (Exception e) {
+                log.error("Could not read the stored command {}. Deleting it", command, e);
+                remove(offlineCommandPk);
+                return true;
+            }
+        }
+
+        if (rateLimiter != null) {
+            rateLimiter.acquire();
+        }
+
+        if (!sender.send(cps, task)) {
+            return false;
+        }
+
+        if (stored == null) {
+            taskStore.add(task);
+        }
+        remove(offlineCommandPk);
+        return true;
+    }
+
+    private void remove(int offlineCommandPk) {
+        offlineCommandRepository.delete(offlineCommandPk);
+        storedCommands.remove(offlineCommandPk);
+    }
+
+    void removeExpired() {
+        try {
+            List<Integer> expired = offlineCommandRepository.getExpired(DateTime.now());
+            if (expired.isEmpty()) {
+                return;
+            }
+
+            offlineCommandRepository.delete(expired);
+            log.info("Deleted {} stored commands, whose stations did not connect within {}", expired.size(),
+                properties.getTtl());
+
+            for (Integer offlineCommandPk : expired) {
+                StoredCommand stored = storedCommands.remove(offlineCommandPk);
+                if (stored != null) {
+                    stored.task.failed(stored.chargeBoxId,
+                        new SteveException("The station did not connect within %s", properties.getTtl()));
+                }
+            }
+        } catch (Exception e) {
+            log.error("Exception occurred while deleting the expired commands", e);
+        }
+    }
+
+    private static RequestType readRequest(OfflineCommand command) throws Exception {
+        Class<?> requestClass = Class.forName(command.getRequestClass());
+        return (RequestType) JsonObjectMapper.INSTANCE.getMapper().readValue(command.getRequestPayload(), requestClass);
+    }
+
+    @RequiredArgsConstructor
+    private static class StoredCommand {
+        private final String chargeBoxId;
+        private final CommunicationTask<?, ?> task;
+    }
+
+    public interface Sender {
+
+        /**
+         * @return false, if the station is not connected (anymore). The command stays stored then.
+         */
+        boolean send(ChargePointSelect cps, CommunicationTask<?, ?> task);
+    }
+}
@@ -19,6 +19,7 @@
 package de.rwth.idsg.steve.ocpp.ws.data;
 
 import de.rwth.idsg.ocpp.jaxb.ResponseType;
+import de.rwth.idsg.steve.metrics.OutgoingCallTiming;
 import de.rwth.idsg.steve.ocpp.CommunicationTask;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
@@ -34,4 +35,5 @@ import lombok.Setter;
 public class FutureResponseContext {
     private final CommunicationTask task;
     private final Class<? extends ResponseType> responseClass;
+    private final OutgoingCallTiming timing;
 }
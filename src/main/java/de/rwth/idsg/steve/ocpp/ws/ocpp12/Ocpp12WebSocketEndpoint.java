@@ -21,12 +21,14 @@ package de.rwth.idsg.steve.ocpp.ws.ocpp12;
 import de.rwth.idsg.ocpp.jaxb.RequestType;
 import de.rwth.idsg.ocpp.jaxb.ResponseType;
 import de.rwth.idsg.steve.config.SteveProperties;
+import de.rwth.idsg.steve.metrics.OcppMetrics;
 import de.rwth.idsg.steve.ocpp.OcppProtocol;
 import de.rwth.idsg.steve.ocpp.OcppVersion;
 import de.rwth.idsg.steve.ocpp.soap.CentralSystemService12_SoapServer;
 import de.rwth.idsg.steve.ocpp.ws.AbstractWebSocketEndpoint;
 import de.rwth.idsg.steve.ocpp.ws.FutureResponseContextStore;
 import de.rwth.idsg.steve.repository.OcppServerRepository;
+import de.rwth.idsg.steve.service.notification.DomainEventBus;
 import ocpp.cs._2010._08.AuthorizeRequest;
 import ocpp.cs._2010._08.BootNotificationRequest;
 import ocpp.cs._2010._08.DiagnosticsStatusNotificationRequest;
@@ -36,7 +38,6 @@ import ocpp.cs._2010._08.MeterValuesRequest;
 import ocpp.cs._2010._08.StartTransactionRequest;
 import ocpp.cs._2010._08.StatusNotificationRequest;
 import ocpp.cs._2010._08.StopTransactionRequest;
-import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.TaskScheduler;
 import org.springframework.stereotype.Component;
 
@@ -52,10 +53,11 @@ public class Ocpp12WebSocketEndpoint extends AbstractWebSocketEndpoint {
     public Ocpp12WebSocketEndpoint(TaskScheduler taskScheduler,
                                    OcppServerRepository ocppServerRepository,
                                    FutureResponseContextStore futureResponseContextStore,
-                                   ApplicationEventPublisher applicationEventPublisher,
+                                   DomainEventBus domainEventBus,
                                    CentralSystemService12_SoapServer server,
-                                   SteveProperties steveProperties) {
-        super(taskScheduler, ocppServerRepository, futureResponseContextStore, applicationEventPublisher, steveProperties, Ocpp12TypeStore.INSTANCE);
+                                   SteveProperties steveProperties,
+                                   OcppMetrics ocppMetrics) {
+        super(taskScheduler, ocppServerRepository, futureResponseContextStore, domainEventBus, steveProperties, ocppMetrics, Ocpp12TypeStore.INSTANCE);
         this.server = server;
     }
 
@@ -21,12 +21,14 @@ package de.rwth.idsg.steve.ocpp.ws.ocpp16;
 import de.rwth.idsg.ocpp.jaxb.RequestType;
 import de.rwth.idsg.ocpp.jaxb.ResponseType;
 import de.rwth.idsg.steve.config.SteveProperties;
+import de.rwth.idsg.steve.metrics.OcppMetrics;
 import de.rwth.idsg.steve.ocpp.OcppProtocol;
 import de.rwth.idsg.steve.ocpp.OcppVersion;
 import de.rwth.idsg.steve.ocpp.soap.CentralSystemService16_SoapServer;
 import de.rwth.idsg.steve.ocpp.ws.AbstractWebSocketEndpoint;
 import de.rwth.idsg.steve.ocpp.ws.FutureResponseContextStore;
 import de.rwth.idsg.steve.repository.OcppServerRepository;
+import de.rwth.idsg.steve.service.notification.DomainEventBus;
 import ocpp.cs._2015._10.AuthorizeRequest;
 import ocpp.cs._2015._10.BootNotificationRequest;
 import ocpp.cs._2015._10.DataTransferRequest;
@@ -37,7 +39,6 @@ import ocpp.cs._2015._10.MeterValuesRequest;
 import ocpp.cs._2015._10.StartTransactionRequest;
 import ocpp.cs._2015._10.StatusNotificationRequest;
 import ocpp.cs._2015._10.StopTransactionRequest;
-import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.scheduling.TaskScheduler;
 import org.springframework.stereotype.Component;
 
@@ -53,10 +54,11 @@ public class Ocpp16WebSocketEndpoint extends AbstractWebSocketEndpoint {
     public Ocpp16WebSocketEndpoint(TaskScheduler taskScheduler,
                                    OcppServerRepository ocppServerRepository,
                                    FutureResponseContextStore futureResponseContextStore,
-                                   ApplicationEventPublisher applicationEventPublisher,
+                                   DomainEventBus domainEventBus,
                                    CentralSystemService16_SoapServer server,
-                                   SteveProperties steveProperties) {
-        super(taskScheduler, ocppServerRepository, futureResponseContextStore, applicationEventPublisher, steveProperties, Ocpp16TypeStore.INSTANCE);
+                                   SteveProperties steveProperties,
+                                   OcppMetrics ocppMetrics) {
+        super(taskScheduler, ocppServerRepository, futureResponseContextStore, domainEventBus, steveProperties, ocppMetrics, Ocpp16TypeStore.INSTANCE);
         this.server = server;
     }
 
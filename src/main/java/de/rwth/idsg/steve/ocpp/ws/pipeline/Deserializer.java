@@ -176,6 +176,7 @@ public class Deserializer implements Consumer<CommunicationContext> {
         result.setPayload(res);
 
         context.setIncomingMessage(result);
+        context.setFutureResponseContext(responseContext);
         context.createResultHandler(responseContext.getTask());
     }
 
@@ -228,6 +229,7 @@ public class Deserializer implements Consumer<CommunicationContext> {
         error.setErrorDetails(details);
 
         context.setIncomingMessage(error);
+        context.setFutureResponseContext(responseContext);
         context.createErrorHandler(responseContext.getTask());
     }
 
@@ -18,6 +18,12 @@
  */
 package de.rwth.idsg.steve.ocpp.ws.pipeline;
 
+import de.rwth.idsg.steve.metrics.DbTimeListener;
+import de.rwth.idsg.steve.metrics.IncomingCallTiming;
+import de.rwth.idsg.steve.metrics.OcppMetrics;
+import de.rwth.idsg.steve.metrics.OutgoingCallTiming;
+import de.rwth.idsg.steve.ocpp.OcppTransport;
+import de.rwth.idsg.steve.ocpp.OcppVersion;
 import de.rwth.idsg.steve.ocpp.ws.data.CommunicationContext;
 import de.rwth.idsg.steve.ocpp.ws.data.OcppJsonCall;
 import de.rwth.idsg.steve.ocpp.ws.data.OcppJsonError;
@@ -43,30 +49,61 @@ public class IncomingPipeline implements Consumer<CommunicationContext> {
 
     private final Deserializer deserializer;
     private final OcppCallHandler handler;
+    private final OcppMetrics ocppMetrics;
+    private final OcppVersion version;
 
     @Override
     public void accept(CommunicationContext context) {
+        IncomingCallTiming timing = new IncomingCallTiming(OcppTransport.JSON, version);
+        timing.setChargeBoxId(context.getChargeBoxId());
+        timing.setSize(context.getIncomingString().length());
+
         deserializer.accept(context);
+        timing.deserialized();
 
         // When the incoming could not be deserialized
         if (context.isSetOutgoingError()) {
             serializer.accept(context);
             sender.accept(context);
+            timing.serialized();
+            timing.setError(true);
+            ocppMetrics.record(timing);
             return;
         }
 
         OcppJsonMessage msg = context.getIncomingMessage();
 
-        if (msg instanceof OcppJsonCall) {
-            handler.accept(context);
+        if (msg instanceof OcppJsonCall call) {
+            timing.setAction(call.getAction());
+
+            boolean handled = false;
+            DbTimeListener.startTracking();
+            try {
+                handler.accept(context);
+                handled = true;
+            } finally {
+                timing.dispatched(DbTimeListener.stopTracking());
+
+                // the exception goes up to the session handler, but the call is still counted
+                if (!handled) {
+                    timing.setError(true);
+                    ocppMetrics.record(timing);
+                }
+            }
+
             serializer.accept(context);
             sender.accept(context);
+            timing.serialized();
+            timing.setError(context.isSetOutgoingError());
+            ocppMetrics.record(timing);
 
         } else if (msg instanceof OcppJsonResult) {
+            ocppMetrics.record(context.getFutureResponseContext().getTiming(), OutgoingCallTiming.Outcome.SUCCESS);
             context.getResultHandler()
                    .accept((OcppJsonResult) msg);
 
         } else if (msg instanceof OcppJsonError) {
+            ocppMetrics.record(context.getFutureResponseContext().getTiming(), OutgoingCallTiming.Outcome.ERROR);
             context.getErrorHandler()
                    .accept((OcppJsonError) msg);
         }
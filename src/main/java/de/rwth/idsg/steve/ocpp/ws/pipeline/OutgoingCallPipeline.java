@@ -25,7 +25,8 @@ import org.springframework.stereotype.Component;
 import java.util.function.Consumer;
 
 /**
- * For outgoing CALLs, triggered by the user.
+ * For outgoing CALLs, triggered by the user. The store sends the call, or queues it until the station has answered
+ * the earlier calls.
  *
  * @author Sevket Goekay <sevketgokay@gmail.com>
  * @since 27.03.2015
@@ -37,8 +38,7 @@ public class OutgoingCallPipeline implements Consumer<CommunicationContext> {
 
     public OutgoingCallPipeline(FutureResponseContextStore store) {
         chainedConsumers = OutgoingCallPipeline.start(Serializer.INSTANCE)
-                                               .andThen(Sender.INSTANCE)
-                                               .andThen(saveInStore(store));
+                                               .andThen(store::send);
     }
 
     @Override
@@ -46,15 +46,6 @@ public class OutgoingCallPipeline implements Consumer<CommunicationContext> {
         chainedConsumers.accept(ctx);
     }
 
-    private static Consumer<CommunicationContext> saveInStore(FutureResponseContextStore store) {
-        return context -> {
-            // All went well, and the call is sent. Store the response context for later lookup.
-            store.add(context.getSession(),
-                      context.getOutgoingMessage().getMessageId(),
-                      context.getFutureResponseContext());
-        };
-    }
-
     private static Consumer<CommunicationContext> start(Consumer<CommunicationContext> starter) {
         return starter;
     }
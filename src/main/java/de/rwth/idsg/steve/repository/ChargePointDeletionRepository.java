@@ -0,0 +1,60 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.repository;
+
+import de.rwth.idsg.steve.repository.dto.ChargePointDeletion;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface ChargePointDeletionRepository {
+
+    /**
+     * Rejects the charge box (so that it cannot communicate with us anymore), forgets its endpoint address and
+     * creates a pending deletion job for it. Does not delete anything yet.
+     */
+    int insert(int chargeBoxPk);
+
+    /**
+     * All jobs that are not finished yet, i.e. charge boxes that are about to disappear
+     */
+    List<ChargePointDeletion> getUnfinished();
+
+    /**
+     * The oldest job with status PENDING or RUNNING
+     */
+    Optional<ChargePointDeletion> getNextRunnable();
+
+    long countRowsToDelete(String chargeBoxId);
+
+    void start(int deletionPk, long totalRowCount);
+
+    /**
+     * Deletes at most chunkSize rows of the table that belongs to the step.
+     *
+     * @return number of deleted rows
+     */
+    int deleteChunk(String chargeBoxId, ChargePointDeletion.Step step, int chunkSize);
+
+    void updateProgress(int deletionPk, ChargePointDeletion.Step step, int deletedRowCount);
+
+    void finish(int deletionPk);
+    void fail(int deletionPk, String failReason);
+    void retry(int deletionPk);
+}
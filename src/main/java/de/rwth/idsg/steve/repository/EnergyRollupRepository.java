@@ -0,0 +1,43 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.repository;
+
+import de.rwth.idsg.steve.repository.dto.EnergyReport;
+import de.rwth.idsg.steve.web.dto.EnergyReportQueryForm;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface EnergyRollupRepository {
+
+    /**
+     * Stopped transactions that are not rolled up yet, or whose latest stop event is newer than their roll-up. Only
+     * the ones after the given transaction, in the order of their primary keys, so that the caller can move on past
+     * transactions that cannot be rolled up.
+     */
+    List<Integer> getTransactionsToRollUp(int afterTransactionPk, int limit);
+
+    /**
+     * Calculates energy and duration of the given transactions and adds them to the daily aggregates. Idempotent:
+     * Transactions that are not stopped or already rolled up for their latest stop event are skipped.
+     */
+    void rollUp(Collection<Integer> transactionPks);
+
+    List<EnergyReport> getReport(EnergyReportQueryForm form);
+}
@@ -0,0 +1,30 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.repository;
+
+public interface MeterValueBackfillRepository {
+
+    /**
+     * Classifies (value_numeric and energy_wh) the next chunk of at most about chunkSize meter values, which were
+     * stored before the columns existed, and moves the position of the backfill past them.
+     *
+     * @return false if the backfill is done, i.e. there was nothing left to classify
+     */
+    boolean backfillNextChunk(int chunkSize);
+}
@@ -0,0 +1,39 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.repository;
+
+import de.rwth.idsg.steve.repository.dto.MeterValueSeries;
+import de.rwth.idsg.steve.web.dto.MeterValueQueryForm;
+
+import java.util.List;
+
+/**
+ * Downsampled meter values, such that the size of the result depends on the requested resolution and not on the
+ * sampling rate of the station.
+ */
+public interface MeterValueRepository {
+
+    /**
+     * The meter values of a transaction are found like in {@link TransactionRepository#getDetails(int)}: the ones
+     * sent with the transaction id, and the ones at the connector during the time of the transaction.
+     */
+    List<MeterValueSeries> getTransactionSeries(int transactionPk, MeterValueQueryForm form);
+
+    List<MeterValueSeries> getConnectorSeries(MeterValueQueryForm.ForConnector form);
+}
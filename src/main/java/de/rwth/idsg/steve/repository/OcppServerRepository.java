@@ -21,6 +21,7 @@ package de.rwth.idsg.steve.repository;
 import de.rwth.idsg.steve.ocpp.OcppProtocol;
 import de.rwth.idsg.steve.repository.dto.InsertConnectorStatusParams;
 import de.rwth.idsg.steve.repository.dto.InsertTransactionParams;
+import de.rwth.idsg.steve.repository.dto.TransactionStopBatchResult;
 import de.rwth.idsg.steve.repository.dto.UpdateChargeboxParams;
 import de.rwth.idsg.steve.repository.dto.UpdateTransactionParams;
 import ocpp.cs._2015._10.MeterValue;
@@ -48,4 +49,12 @@ public interface OcppServerRepository {
 
     int insertTransaction(InsertTransactionParams params);
     void updateTransaction(UpdateTransactionParams params);
+
+    /**
+     * Batch version of {@link #updateTransaction(UpdateTransactionParams)} for many transactions. It runs in one
+     * database transaction. If that fails, the transactions are stopped one by one, and the failures are recorded in
+     * transaction_stop_failed like in the single version. Unlike the single version, a transaction that has a stop
+     * event already is skipped, since the values of the batch are only estimated.
+     */
+    TransactionStopBatchResult updateTransactions(List<UpdateTransactionParams> params);
 }
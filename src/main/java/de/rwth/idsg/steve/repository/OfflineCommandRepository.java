@@ -0,0 +1,43 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.repository;
+
+import de.rwth.idsg.steve.repository.dto.OfflineCommand;
+import org.joda.time.DateTime;
+
+import java.util.List;
+
+public interface OfflineCommandRepository {
+
+    int insert(OfflineCommand command);
+
+    /**
+     * The stored commands of the station, in the order they were inserted
+     */
+    List<OfflineCommand> getCommands(String chargeBoxId, int limit);
+
+    /**
+     * @return the primary keys of the commands that expired before the time
+     */
+    List<Integer> getExpired(DateTime time);
+
+    void delete(int offlineCommandPk);
+
+    void delete(List<Integer> offlineCommandPks);
+}
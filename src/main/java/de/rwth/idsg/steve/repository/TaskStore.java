@@ -20,16 +20,36 @@ package de.rwth.idsg.steve.repository;
 
 import de.rwth.idsg.steve.ocpp.CommunicationTask;
 import de.rwth.idsg.steve.repository.dto.TaskOverview;
+import de.rwth.idsg.steve.repository.dto.TaskSummary;
 
 import java.util.List;
+import java.util.Optional;
 
 /**
  * @author Sevket Goekay <sevketgokay@gmail.com>
  * @since 29.12.2014
  */
 public interface TaskStore {
-    List<TaskOverview> getOverview();
+
+    /**
+     * Newest tasks first
+     */
+    List<TaskOverview> getOverview(int offset, int limit);
+
+    int size();
+
+    /**
+     * @throws de.rwth.idsg.steve.SteveException if there is no such task, or it is compacted already
+     */
     CommunicationTask get(Integer taskId);
+
+    /**
+     * Empty, if the task is not compacted (yet)
+     *
+     * @throws de.rwth.idsg.steve.SteveException if there is no such task
+     */
+    Optional<TaskSummary> getSummary(Integer taskId);
+
     Integer add(CommunicationTask task);
     void clearFinished();
     void clearUnfinished();
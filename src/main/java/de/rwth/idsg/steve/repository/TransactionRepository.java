@@ -20,9 +20,11 @@ package de.rwth.idsg.steve.repository;
 
 import de.rwth.idsg.steve.repository.dto.Transaction;
 import de.rwth.idsg.steve.repository.dto.TransactionDetails;
+import de.rwth.idsg.steve.repository.dto.TransactionStopCandidate;
 import de.rwth.idsg.steve.web.dto.TransactionQueryForm;
 
 import java.io.Writer;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -37,4 +39,11 @@ public interface TransactionRepository {
     List<Integer> getActiveTransactionIds(String chargeBoxId);
 
     TransactionDetails getDetails(int transactionPk);
+
+    /**
+     * Set-based alternative to calling {@link #getDetails(int)} for each transaction, when only the data for
+     * stopping the transactions is needed. Unknown transaction pks are not part of the result. The size of the
+     * collection should be bounded by the caller, since it ends up in an IN clause.
+     */
+    List<TransactionStopCandidate> getStopCandidates(Collection<Integer> transactionPks);
 }
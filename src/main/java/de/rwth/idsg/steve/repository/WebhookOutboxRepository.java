@@ -0,0 +1,54 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.repository;
+
+import de.rwth.idsg.steve.repository.dto.WebhookEvent;
+import org.joda.time.DateTime;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface WebhookOutboxRepository {
+
+    void insert(List<WebhookEvent> events);
+
+    /**
+     * The stored events of the target, in the order they were inserted
+     */
+    List<WebhookEvent> getEvents(String target, int limit);
+
+    void delete(List<Long> webhookOutboxPks);
+
+    /**
+     * Increments the attempts of the events, which are not tried again before the time
+     */
+    void markFailed(List<Long> webhookOutboxPks, DateTime nextAttempt, String error);
+
+    /**
+     * Deletes all but the newest events of the target
+     *
+     * @return the number of deleted events
+     */
+    int deleteOldest(String target, int keep);
+
+    /**
+     * @return the number of deleted events, which belonged to targets that are not configured anymore
+     */
+    int deleteOtherTargets(Collection<String> targets);
+}
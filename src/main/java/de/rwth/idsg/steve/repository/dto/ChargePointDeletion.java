@@ -0,0 +1,81 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.repository.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+import org.joda.time.DateTime;
+
+/**
+ * A background job that purges the history of a charge box chunk by chunk, before finally deleting the charge box.
+ */
+@Getter
+@Builder
+public final class ChargePointDeletion {
+    private final int deletionPk, chargeBoxPk;
+    private final String chargeBoxId, failReason;
+    private final Status status;
+    private final Step step;
+    private final Long totalRowCount;
+    private final long deletedRowCount;
+    private final DateTime createdTimestamp, updatedTimestamp;
+
+    public boolean isFinished() {
+        return status == Status.FINISHED;
+    }
+
+    /**
+     * Progress in percent. Null, as long as the job has not started and therefore did not count the rows yet.
+     */
+    public Integer getProgress() {
+        if (totalRowCount == null) {
+            return null;
+        }
+        if (totalRowCount == 0 || isFinished()) {
+            return 100;
+        }
+        return (int) Math.min(99, (deletedRowCount * 100) / totalRowCount);
+    }
+
+    public enum Status {
+        PENDING,    // Charge box is rejected, but the job has not started yet
+        RUNNING,    // History is being purged
+        FINISHED,   // Charge box and its history are gone
+        FAILED      // Stopped because of an error. Can be retried and continues with the step it failed at
+    }
+
+    /**
+     * The order of the steps matters: Rows that reference other rows are deleted first, such that no step
+     * triggers a large ON DELETE CASCADE. The charge box itself (with its connectors, which are only a handful
+     * of rows at this point) is deleted with the last step.
+     */
+    public enum Step {
+        CONNECTOR_METER_VALUE,
+        CONNECTOR_STATUS,
+        RESERVATION,
+        TRANSACTION_STOP,
+        TRANSACTION_START,
+        CHARGE_BOX;
+
+        public Step next() {
+            Step[] values = values();
+            return values[Math.min(ordinal() + 1, values.length - 1)];
+        }
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.repository.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+import org.joda.time.LocalDate;
+
+/**
+ * One row of the energy report. The dimensions that the report is not grouped by are null.
+ */
+@Getter
+@Builder
+@ToString
+public final class EnergyReport {
+
+    @Schema(description = "First day of the period. Null, if the period is TOTAL")
+    private final LocalDate periodStart;
+
+    @Schema(description = "The identifier of the chargebox (i.e. charging station)")
+    private final String chargeBoxId;
+
+    @Schema(description = "ID of the connector")
+    private final Integer connectorId;
+
+    @Schema(description = "The OCPP tag")
+    private final String ocppIdTag;
+
+    @Schema(description = "Number of transactions that stopped in the period")
+    private final int transactionCount;
+
+    @Schema(description = "Consumed energy in Wh. Transactions with unusable meter values do not count")
+    private final long energyWh;
+
+    @Schema(description = "Summed up duration of the transactions in seconds")
+    private final long durationSeconds;
+}
@@ -0,0 +1,69 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.repository.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+import org.joda.time.DateTime;
+
+import java.util.List;
+
+/**
+ * Downsampled meter values of one kind (measurand, phase, location and unit). Instead of the single values, there
+ * is one point per time bucket that summarizes the values in it.
+ */
+@Getter
+@Builder
+@ToString
+public final class MeterValueSeries {
+
+    @Schema(description = "Measurand of the values. Values without measurand are Energy.Active.Import.Register as per OCPP")
+    private final String measurand;
+
+    @Schema(description = "Phase of the values, if any")
+    private final String phase;
+
+    @Schema(description = "Location of the values, if any")
+    private final String location;
+
+    @Schema(description = "Unit of the values, if any")
+    private final String unit;
+
+    @Schema(description = "Length of the time buckets in seconds")
+    private final int bucketSeconds;
+
+    @Schema(description = "One point per time bucket that contains values, in chronological order")
+    private final List<Point> points;
+
+    @Getter
+    @Builder
+    @ToString
+    public static final class Point {
+
+        @Schema(description = "Start of the time bucket")
+        private final DateTime timestamp;
+
+        private final double min, max, avg;
+
+        @Schema(description = "Number of values in the time bucket")
+        private final int count;
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.repository.dto;
+
+import de.rwth.idsg.steve.ocpp.OcppVersion;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+import org.joda.time.DateTime;
+
+/**
+ * A stored command for a JSON station that was not connected
+ */
+@Getter
+@Builder
+@ToString(exclude = "requestPayload")
+public final class OfflineCommand {
+    private final int offlineCommandPk;
+    private final String chargeBoxId;
+    private final OcppVersion version;
+    private final String operationName;
+    private final String requestClass;
+    private final String requestPayload;
+    private final DateTime createdTimestamp;
+    private final DateTime expiryTimestamp;
+}
@@ -0,0 +1,97 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.repository.dto;
+
+import de.rwth.idsg.steve.ocpp.CommunicationTask;
+import de.rwth.idsg.steve.ocpp.RequestResult;
+import de.rwth.idsg.steve.ocpp.TaskOrigin;
+import lombok.Builder;
+import lombok.Getter;
+import org.joda.time.DateTime;
+
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * What is kept of a finished task after compaction: the counts, how often each response came, and the errors per
+ * station. The request, the callbacks and the responses per station are dropped.
+ */
+@Getter
+@Builder
+public final class TaskSummary {
+    private final int taskId;
+    private final String operationName;
+    private final TaskOrigin origin;
+    private final String caller;
+    private final DateTime startTimestamp;
+    private final DateTime endTimestamp;
+    private final int resultSize, responseCount, errorCount;
+    private final boolean cancelled;
+
+    /**
+     * Response -> number of stations that sent it
+     */
+    private final SortedMap<String, Integer> responseCounts;
+
+    /**
+     * chargeBoxId -> error message
+     */
+    private final SortedMap<String, String> errors;
+
+    public static TaskSummary of(int taskId, CommunicationTask<?, ?> task) {
+        SortedMap<String, Integer> responseCounts = new TreeMap<>();
+        SortedMap<String, String> errors = new TreeMap<>();
+
+        for (Map.Entry<String, RequestResult> entry : task.getResultMap().entrySet()) {
+            RequestResult result = entry.getValue();
+            if (result.getErrorMessage() != null) {
+                errors.put(entry.getKey(), result.getErrorMessage());
+            } else if (result.getResponse() != null) {
+                responseCounts.merge(result.getResponse(), 1, Integer::sum);
+            }
+        }
+
+        return TaskSummary.builder()
+                          .taskId(taskId)
+                          .operationName(task.getOperationName())
+                          .origin(task.getOrigin())
+                          .caller(task.getCaller())
+                          .startTimestamp(task.getStartTimestamp())
+                          .endTimestamp(task.getEndTimestamp())
+                          .resultSize(task.getResultSize())
+                          .responseCount(task.getResponseCount().get())
+                          .errorCount(task.getErrorCount().get())
+                          .cancelled(task.isCancelled())
+                          .responseCounts(responseCounts)
+                          .errors(errors)
+                          .build();
+    }
+
+    public TaskOverview toOverview() {
+        return TaskOverview.builder()
+                           .taskId(taskId)
+                           .origin(origin)
+                           .start(startTimestamp)
+                           .end(endTimestamp)
+                           .responseCount(responseCount)
+                           .requestCount(resultSize)
+                           .build();
+    }
+}
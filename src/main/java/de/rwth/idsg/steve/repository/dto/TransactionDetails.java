@@ -52,5 +52,11 @@ public class TransactionDetails {
 
         // New in OCPP 1.6
         private final String phase;
+
+        /**
+         * The value in Wh, normalized at ingest. Only set for readings of the energy register.
+         */
+        @Nullable
+        private final Double energyWh;
     }
 }
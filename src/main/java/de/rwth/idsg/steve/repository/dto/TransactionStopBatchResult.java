@@ -0,0 +1,45 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.repository.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of stopping many transactions at once. The transactions that are in neither collection were stopped.
+ */
+@Getter
+@Builder
+@ToString
+public final class TransactionStopBatchResult {
+
+    /**
+     * Transactions that got a stop event in the meantime (e.g. from the station), and were left as they are
+     */
+    private final List<Integer> alreadyStopped;
+
+    /**
+     * The failures per transaction id
+     */
+    private final Map<Integer, Exception> failures;
+}
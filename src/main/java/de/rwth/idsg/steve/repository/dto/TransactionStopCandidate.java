@@ -0,0 +1,56 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.repository.dto;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+import org.jetbrains.annotations.Nullable;
+import org.joda.time.DateTime;
+
+/**
+ * Everything that is needed to manually stop a transaction, fetched for many transactions at once. This is the
+ * set-based counterpart of {@link TransactionDetails}, which contains all meter values and is meant for one
+ * transaction only.
+ */
+@Getter
+@Builder
+@ToString
+public final class TransactionStopCandidate {
+    private final int transactionPk;
+    private final String chargeBoxId;
+    private final DateTime startTimestamp;
+    private final String startValue;
+
+    /**
+     * Whether the transaction has a stop event already
+     */
+    private final boolean stopped;
+
+    /**
+     * Start of the subsequent transaction at the same chargebox and connector
+     */
+    @Nullable private final DateTime nextStartTimestamp;
+    @Nullable private final String nextStartValue;
+
+    /**
+     * Latest energy reading (see TransactionStopServiceHelper.toEnergyValueInWh) that belongs to the transaction
+     */
+    @Nullable private final TransactionDetails.MeterValues lastEnergyValue;
+}
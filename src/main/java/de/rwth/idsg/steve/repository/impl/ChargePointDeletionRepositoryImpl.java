@@ -0,0 +1,267 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.repository.impl;
+
+import de.rwth.idsg.steve.SteveException;
+import de.rwth.idsg.steve.repository.ChargePointDeletionRepository;
+import de.rwth.idsg.steve.repository.dto.ChargePointDeletion;
+import jooq.steve.db.tables.records.ChargeBoxDeletionRecord;
+import jooq.steve.db.tables.records.ChargeBoxRecord;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import ocpp.cs._2015._10.RegistrationStatus;
+import org.joda.time.DateTime;
+import org.jooq.DSLContext;
+import org.jooq.impl.DSL;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+import static jooq.steve.db.tables.ChargeBox.CHARGE_BOX;
+import static jooq.steve.db.tables.ChargeBoxDeletion.CHARGE_BOX_DELETION;
+import static jooq.steve.db.tables.Connector.CONNECTOR;
+import static jooq.steve.db.tables.ConnectorMeterValue.CONNECTOR_METER_VALUE;
+import static jooq.steve.db.tables.ConnectorStatus.CONNECTOR_STATUS;
+import static jooq.steve.db.tables.Reservation.RESERVATION;
+import static jooq.steve.db.tables.TransactionStart.TRANSACTION_START;
+import static jooq.steve.db.tables.TransactionStop.TRANSACTION_STOP;
+
+/**
+ * All deletes of this class are single-table deletes with a LIMIT, and only touch rows of tables that are not
+ * referenced by other rows anymore (because of the order of {@link ChargePointDeletion.Step}). This way, no delete
+ * holds locks on more than chunkSize rows, in contrast to deleting the charge box row directly and letting
+ * ON DELETE CASCADE do the rest in one huge statement.
+ */
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class ChargePointDeletionRepositoryImpl implements ChargePointDeletionRepository {
+
+    private final DSLContext ctx;
+    private final EndpointAddressCache endpointAddressCache;
+
+    @Override
+    public int insert(int chargeBoxPk) {
+        ChargeBoxDeletionRecord deletion = ctx.transactionResult(configuration -> {
+            DSLContext ctx = DSL.using(configuration);
+
+            ChargeBoxRecord cbr = ctx.selectFrom(CHARGE_BOX)
+                                     .where(CHARGE_BOX.CHARGE_BOX_PK.eq(chargeBoxPk))
+                                     .forUpdate()
+                                     .fetchOne();
+
+            if (cbr == null) {
+                throw new SteveException("Charge point not found");
+            }
+
+            boolean alreadyScheduled = ctx.fetchExists(
+                ctx.selectOne()
+                   .from(CHARGE_BOX_DELETION)
+                   .where(CHARGE_BOX_DELETION.CHARGE_BOX_PK.eq(chargeBoxPk))
+                   .and(CHARGE_BOX_DELETION.STATUS.ne(ChargePointDeletion.Status.FINISHED.name()))
+            );
+
+            if (alreadyScheduled) {
+                throw new SteveException("Deletion of the charge point '%s' is already in progress",
+                                         cbr.getChargeBoxId());
+            }
+
+            // from now on, the station is unknown to us for all practical purposes
+            ctx.update(CHARGE_BOX)
+               .set(CHARGE_BOX.REGISTRATION_STATUS, RegistrationStatus.REJECTED.value())
+               .setNull(CHARGE_BOX.ENDPOINT_ADDRESS)
+               .where(CHARGE_BOX.CHARGE_BOX_PK.eq(chargeBoxPk))
+               .execute();
+
+            return ctx.insertInto(CHARGE_BOX_DELETION)
+                      .set(CHARGE_BOX_DELETION.CHARGE_BOX_PK, chargeBoxPk)
+                      .set(CHARGE_BOX_DELETION.CHARGE_BOX_ID, cbr.getChargeBoxId())
+                      .set(CHARGE_BOX_DELETION.STATUS, ChargePointDeletion.Status.PENDING.name())
+                      .set(CHARGE_BOX_DELETION.STEP, ChargePointDeletion.Step.values()[0].name())
+                      .set(CHARGE_BOX_DELETION.UPDATED_TIMESTAMP, DateTime.now())
+                      .returning(CHARGE_BOX_DELETION.CHARGE_BOX_DELETION_PK, CHARGE_BOX_DELETION.CHARGE_BOX_ID)
+                      .fetchOne();
+        });
+
+        // after the commit, since a message of the station in the meantime could have put the old address back.
+        // since the station is rejected now, the cache stays empty until the station is registered again, and the
+        // address is written to DB with its next message then.
+        endpointAddressCache.remove(deletion.getChargeBoxId());
+
+        return deletion.getChargeBoxDeletionPk();
+    }
+
+    @Override
+    public List<ChargePointDeletion> getUnfinished() {
+        return ctx.selectFrom(CHARGE_BOX_DELETION)
+                  .where(CHARGE_BOX_DELETION.STATUS.ne(ChargePointDeletion.Status.FINISHED.name()))
+                  .orderBy(CHARGE_BOX_DELETION.CHARGE_BOX_DELETION_PK.asc())
+                  .fetch()
+                  .map(ChargePointDeletionRepositoryImpl::map);
+    }
+
+    @Override
+    public Optional<ChargePointDeletion> getNextRunnable() {
+        return ctx.selectFrom(CHARGE_BOX_DELETION)
+                  .where(CHARGE_BOX_DELETION.STATUS.in(ChargePointDeletion.Status.PENDING.name(),
+                                                       ChargePointDeletion.Status.RUNNING.name()))
+                  .orderBy(CHARGE_BOX_DELETION.CHARGE_BOX_DELETION_PK.asc())
+                  .limit(1)
+                  .fetchOptional()
+                  .map(ChargePointDeletionRepositoryImpl::map);
+    }
+
+    @Override
+    public long countRowsToDelete(String chargeBoxId) {
+        List<Integer> connectorPks = getConnectorPks(chargeBoxId);
+        if (connectorPks.isEmpty()) {
+            return 0;
+        }
+
+        long meterValues = ctx.fetchCount(CONNECTOR_METER_VALUE, CONNECTOR_METER_VALUE.CONNECTOR_PK.in(connectorPks));
+        long statuses = ctx.fetchCount(CONNECTOR_STATUS, CONNECTOR_STATUS.CONNECTOR_PK.in(connectorPks));
+        long reservations = ctx.fetchCount(RESERVATION, RESERVATION.CONNECTOR_PK.in(connectorPks));
+        long transactionStops = ctx.fetchCount(TRANSACTION_STOP, TRANSACTION_STOP.TRANSACTION_PK.in(
+            DSL.select(TRANSACTION_START.TRANSACTION_PK)
+               .from(TRANSACTION_START)
+               .where(TRANSACTION_START.CONNECTOR_PK.in(connectorPks))
+        ));
+        long transactionStarts = ctx.fetchCount(TRANSACTION_START, TRANSACTION_START.CONNECTOR_PK.in(connectorPks));
+
+        return meterValues + statuses + reservations + transactionStops + transactionStarts;
+    }
+
+    @Override
+    public void start(int deletionPk, long totalRowCount) {
+        ctx.update(CHARGE_BOX_DELETION)
+           .set(CHARGE_BOX_DELETION.STATUS, ChargePointDeletion.Status.RUNNING.name())
+           .set(CHARGE_BOX_DELETION.TOTAL_ROW_COUNT, totalRowCount)
+           .set(CHARGE_BOX_DELETION.UPDATED_TIMESTAMP, DateTime.now())
+           .where(CHARGE_BOX_DELETION.CHARGE_BOX_DELETION_PK.eq(deletionPk))
+           .execute();
+    }
+
+    @Override
+    public int deleteChunk(String chargeBoxId, ChargePointDeletion.Step step, int chunkSize) {
+        List<Integer> connectorPks = getConnectorPks(chargeBoxId);
+        if (connectorPks.isEmpty()) {
+            return 0;
+        }
+
+        return switch (step) {
+            case CONNECTOR_METER_VALUE -> ctx.delete(CONNECTOR_METER_VALUE)
+                                             .where(CONNECTOR_METER_VALUE.CONNECTOR_PK.in(connectorPks))
+                                             .limit(chunkSize)
+                                             .execute();
+
+            case CONNECTOR_STATUS -> ctx.delete(CONNECTOR_STATUS)
+                                        .where(CONNECTOR_STATUS.CONNECTOR_PK.in(connectorPks))
+                                        .limit(chunkSize)
+                                        .execute();
+
+            case RESERVATION -> ctx.delete(RESERVATION)
+                                   .where(RESERVATION.CONNECTOR_PK.in(connectorPks))
+                                   .limit(chunkSize)
+                                   .execute();
+
+            case TRANSACTION_STOP -> ctx.delete(TRANSACTION_STOP)
+                                        .where(TRANSACTION_STOP.TRANSACTION_PK.in(
+                                            DSL.select(TRANSACTION_START.TRANSACTION_PK)
+                                               .from(TRANSACTION_START)
+                                               .where(TRANSACTION_START.CONNECTOR_PK.in(connectorPks))
+                                        ))
+                                        .limit(chunkSize)
+                                        .execute();
+
+            case TRANSACTION_START -> ctx.delete(TRANSACTION_START)
+                                         .where(TRANSACTION_START.CONNECTOR_PK.in(connectorPks))
+                                         .limit(chunkSize)
+                                         .execute();
+
+            case CHARGE_BOX -> throw new SteveException("The charge box itself is not deleted in chunks");
+        };
+    }
+
+    @Override
+    public void updateProgress(int deletionPk, ChargePointDeletion.Step step, int deletedRowCount) {
+        ctx.update(CHARGE_BOX_DELETION)
+           .set(CHARGE_BOX_DELETION.STEP, step.name())
+           .set(CHARGE_BOX_DELETION.DELETED_ROW_COUNT, CHARGE_BOX_DELETION.DELETED_ROW_COUNT.plus(deletedRowCount))
+           .set(CHARGE_BOX_DELETION.UPDATED_TIMESTAMP, DateTime.now())
+           .where(CHARGE_BOX_DELETION.CHARGE_BOX_DELETION_PK.eq(deletionPk))
+           .execute();
+    }
+
+    @Override
+    public void finish(int deletionPk) {
+        ctx.update(CHARGE_BOX_DELETION)
+           .set(CHARGE_BOX_DELETION.STATUS, ChargePointDeletion.Status.FINISHED.name())
+           .set(CHARGE_BOX_DELETION.UPDATED_TIMESTAMP, DateTime.now())
+           .where(CHARGE_BOX_DELETION.CHARGE_BOX_DELETION_PK.eq(deletionPk))
+           .execute();
+    }
+
+    @Override
+    public void fail(int deletionPk, String failReason) {
+        ctx.update(CHARGE_BOX_DELETION)
+           .set(CHARGE_BOX_DELETION.STATUS, ChargePointDeletion.Status.FAILED.name())
+           .set(CHARGE_BOX_DELETION.FAIL_REASON, failReason)
+           .set(CHARGE_BOX_DELETION.UPDATED_TIMESTAMP, DateTime.now())
+           .where(CHARGE_BOX_DELETION.CHARGE_BOX_DELETION_PK.eq(deletionPk))
+           .execute();
+    }
+
+    @Override
+    public void retry(int deletionPk) {
+        ctx.update(CHARGE_BOX_DELETION)
+           .set(CHARGE_BOX_DELETION.STATUS, ChargePointDeletion.Status.RUNNING.name())
+           .setNull(CHARGE_BOX_DELETION.FAIL_REASON)
+           .set(CHARGE_BOX_DELETION.UPDATED_TIMESTAMP, DateTime.now())
+           .where(CHARGE_BOX_DELETION.CHARGE_BOX_DELETION_PK.eq(deletionPk))
+           .and(CHARGE_BOX_DELETION.STATUS.eq(ChargePointDeletion.Status.FAILED.name()))
+           .execute();
+    }
+
+    // -------------------------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------------------------
+
+    private List<Integer> getConnectorPks(String chargeBoxId) {
+        return ctx.select(CONNECTOR.CONNECTOR_PK)
+                  .from(CONNECTOR)
+                  .where(CONNECTOR.CHARGE_BOX_ID.eq(chargeBoxId))
+                  .fetch(CONNECTOR.CONNECTOR_PK);
+    }
+
+    private static ChargePointDeletion map(ChargeBoxDeletionRecord r) {
+        return ChargePointDeletion.builder()
+                                  .deletionPk(r.getChargeBoxDeletionPk())
+                                  .chargeBoxPk(r.getChargeBoxPk())
+                                  .chargeBoxId(r.getChargeBoxId())
+                                  .status(ChargePointDeletion.Status.valueOf(r.getStatus()))
+                                  .step(ChargePointDeletion.Step.valueOf(r.getStep()))
+                                  .totalRowCount(r.getTotalRowCount())
+                                  .deletedRowCount(r.getDeletedRowCount())
+                                  .createdTimestamp(r.getCreatedTimestamp())
+                                  .updatedTimestamp(r.getUpdatedTimestamp())
+                                  .failReason(r.getFailReason())
+                                  .build();
+    }
+}
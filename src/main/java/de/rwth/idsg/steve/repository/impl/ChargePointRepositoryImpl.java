@@ -23,8 +23,10 @@ import de.rwth.idsg.steve.ocpp.OcppProtocol;
 import de.rwth.idsg.steve.repository.AddressRepository;
 import de.rwth.idsg.steve.repository.ChargePointRepository;
 import de.rwth.idsg.steve.repository.dto.ChargePoint;
+import de.rwth.idsg.steve.repository.dto.ChargePointDeletion;
 import de.rwth.idsg.steve.repository.dto.ChargePointSelect;
 import de.rwth.idsg.steve.repository.dto.ConnectorStatus;
+import de.rwth.idsg.steve.repository.memory.InMemoryDatabase;
 import de.rwth.idsg.steve.utils.DateTimeUtils;
 import de.rwth.idsg.steve.web.dto.ChargePointForm;
 import de.rwth.idsg.steve.web.dto.ChargePointQueryForm;
@@ -46,6 +48,7 @@ import org.jooq.SelectQuery;
 import org.jooq.Table;
 import org.jooq.exception.DataAccessException;
 import org.jooq.impl.DSL;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Repository;
 import org.springframework.util.CollectionUtils;
 
@@ -57,6 +60,7 @@ import java.util.stream.Collectors;
 import static de.rwth.idsg.steve.utils.CustomDSL.date;
 import static de.rwth.idsg.steve.utils.CustomDSL.includes;
 import static jooq.steve.db.tables.ChargeBox.CHARGE_BOX;
+import static jooq.steve.db.tables.ChargeBoxDeletion.CHARGE_BOX_DELETION;
 import static jooq.steve.db.tables.Connector.CONNECTOR;
 import static jooq.steve.db.tables.ConnectorStatus.CONNECTOR_STATUS;
 
@@ -66,11 +70,13 @@ import static jooq.steve.db.tables.ConnectorStatus.CONNECTOR_STATUS;
  */
 @Slf4j
 @Repository
+@Profile("!" + InMemoryDatabase.PROFILE)
 @RequiredArgsConstructor
 public class ChargePointRepositoryImpl implements ChargePointRepository {
 
     private final DSLContext ctx;
     private final AddressRepository addressRepository;
+    private final EndpointAddressCache endpointAddressCache;
 
     @Override
     public Optional<String> getRegistrationStatus(String chargeBoxId) {
@@ -82,6 +88,9 @@ public class ChargePointRepositoryImpl implements ChargePointRepository {
         return Optional.ofNullable(status);
     }
 
+    /**
+     * The last known endpoint address wins over the one in DB, which is written in the background
+     */
     @Override
     public List<ChargePointSelect> getChargePointSelect(OcppProtocol protocol, List<String> inStatusFilter, List<String> chargeBoxIdFilter) {
         Condition chargeBoxIdCondition = CollectionUtils.isEmpty(chargeBoxIdFilter)
@@ -94,14 +103,17 @@ public class ChargePointRepositoryImpl implements ChargePointRepository {
                   .and(CHARGE_BOX.ENDPOINT_ADDRESS.isNotNull())
                   .and(CHARGE_BOX.REGISTRATION_STATUS.in(inStatusFilter))
                   .and(chargeBoxIdCondition)
+                  .and(isNotBeingDeleted())
                   .fetch()
-                  .map(r -> new ChargePointSelect(protocol, r.value1(), r.value2()));
+                  .map(r -> new ChargePointSelect(protocol, r.value1(),
+                                                  endpointAddressCache.getOrDefault(r.value1(), r.value2())));
     }
 
     @Override
     public List<String> getChargeBoxIds() {
         return ctx.select(CHARGE_BOX.CHARGE_BOX_ID)
                   .from(CHARGE_BOX)
+                  .where(isNotBeingDeleted())
                   .fetch(CHARGE_BOX.CHARGE_BOX_ID);
     }
 
@@ -127,6 +139,18 @@ public class ChargePointRepositoryImpl implements ChargePointRepository {
                 );
     }
 
+    /**
+     * Charge points that are being deleted in the background are not listed anymore, and cannot be selected
+     */
+    private static Condition isNotBeingDeleted() {
+        return DSL.notExists(
+                DSL.selectOne()
+                   .from(CHARGE_BOX_DELETION)
+                   .where(CHARGE_BOX_DELETION.CHARGE_BOX_PK.eq(CHARGE_BOX.CHARGE_BOX_PK))
+                   .and(CHARGE_BOX_DELETION.STATUS.ne(ChargePointDeletion.Status.FINISHED.name()))
+        );
+    }
+
     @SuppressWarnings("unchecked")
     private Result<Record5<Integer, String, String, String, DateTime>> getOverviewInternal(ChargePointQueryForm form) {
         SelectQuery selectQuery = ctx.selectQuery();
@@ -139,6 +163,8 @@ public class ChargePointRepositoryImpl implements ChargePointRepository {
                 CHARGE_BOX.LAST_HEARTBEAT_TIMESTAMP
         );
 
+        selectQuery.addConditions(isNotBeingDeleted());
+
         if (form.isSetOcppVersion()) {
 
             // http://dev.mysql.com/doc/refman/5.7/en/pattern-matching.html
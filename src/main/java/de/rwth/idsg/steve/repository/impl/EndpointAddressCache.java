@@ -0,0 +1,69 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.repository.impl;
+
+import org.jetbrains.annotations.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The last known endpoint address ("From" field of the WS-A header) of every SOAP station that sent a message since
+ * the start. It is newer than the endpoint address in DB, which is written only when the address changes, and in
+ * the background.
+ */
+@Component
+public class EndpointAddressCache {
+
+    private final Map<String, String> addresses = new ConcurrentHashMap<>();
+
+    /**
+     * @return true, if the address is different from the last known one (or there is none), i.e. it has to be
+     * written to DB
+     */
+    public boolean update(String chargeBoxId, String endpointAddress) {
+        String previous = addresses.put(chargeBoxId, endpointAddress);
+        return !endpointAddress.equals(previous);
+    }
+
+    @Nullable
+    public String get(String chargeBoxId) {
+        return addresses.get(chargeBoxId);
+    }
+
+    public String getOrDefault(String chargeBoxId, String defaultAddress) {
+        return addresses.getOrDefault(chargeBoxId, defaultAddress);
+    }
+
+    /**
+     * For stations that are not allowed to send messages (anymore), e.g. because they are rejected or deleted, so
+     * that their address is written again, if they come back
+     */
+    public void remove(String chargeBoxId) {
+        addresses.remove(chargeBoxId);
+    }
+
+    /**
+     * Only if the address is still the given one, e.g. after it could not be written to DB
+     */
+    public void remove(String chargeBoxId, String endpointAddress) {
+        addresses.remove(chargeBoxId, endpointAddress);
+    }
+}
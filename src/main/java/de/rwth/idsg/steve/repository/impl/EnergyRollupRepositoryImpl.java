@@ -0,0 +1,266 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.repository.impl;
+
+import de.rwth.idsg.steve.repository.EnergyRollupRepository;
+import de.rwth.idsg.steve.repository.dto.EnergyReport;
+import de.rwth.idsg.steve.web.dto.EnergyReportQueryForm;
+import jooq.steve.db.tables.records.TransactionEnergyRecord;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.joda.time.DateTime;
+import org.joda.time.LocalDate;
+import org.joda.time.Seconds;
+import org.jooq.Condition;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.Query;
+import org.jooq.Record;
+import org.jooq.impl.DSL;
+import org.jooq.impl.SQLDataType;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import static de.rwth.idsg.steve.utils.CustomDSL.firstDayOfMonth;
+import static de.rwth.idsg.steve.utils.TransactionStopServiceHelper.calculateEnergyConsumptionInWh;
+import static jooq.steve.db.tables.Connector.CONNECTOR;
+import static jooq.steve.db.tables.EnergyRollupDaily.ENERGY_ROLLUP_DAILY;
+import static jooq.steve.db.tables.Transaction.TRANSACTION;
+import static jooq.steve.db.tables.TransactionEnergy.TRANSACTION_ENERGY;
+import static jooq.steve.db.tables.TransactionStop.TRANSACTION_STOP;
+
+@Slf4j
+@Repository
+@RequiredArgsConstructor
+public class EnergyRollupRepositoryImpl implements EnergyRollupRepository {
+
+    /**
+     * The stop event timestamps are read and written with full precision, because DateTime only has milliseconds,
+     * but transaction_stop.event_timestamp has microseconds. Otherwise, a rolled up transaction would look like it
+     * has a newer stop event.
+     */
+    private static final Field<Timestamp> STOP_EVENT_TIMESTAMP =
+        DSL.field(TRANSACTION.STOP_EVENT_TIMESTAMP.getQualifiedName(), SQLDataType.TIMESTAMP(6));
+
+    private static final Field<Timestamp> ROLLED_UP_STOP_EVENT_TIMESTAMP =
+        DSL.field(TRANSACTION_ENERGY.STOP_EVENT_TIMESTAMP.getQualifiedName(), SQLDataType.TIMESTAMP(6));
+
+    private final DSLContext ctx;
+
+    @Override
+    public List<Integer> getTransactionsToRollUp(int afterTransactionPk, int limit) {
+        return ctx.selectDistinct(TRANSACTION_STOP.TRANSACTION_PK)
+                  .from(TRANSACTION_STOP)
+                  .leftJoin(TRANSACTION_ENERGY)
+                    .on(TRANSACTION_ENERGY.TRANSACTION_PK.eq(TRANSACTION_STOP.TRANSACTION_PK))
+                    .and(TRANSACTION_ENERGY.STOP_EVENT_TIMESTAMP.greaterOrEqual(TRANSACTION_STOP.EVENT_TIMESTAMP))
+                  .where(TRANSACTION_ENERGY.TRANSACTION_PK.isNull())
+                  .and(TRANSACTION_STOP.TRANSACTION_PK.greaterThan(afterTransactionPk))
+                  .orderBy(TRANSACTION_STOP.TRANSACTION_PK)
+                  .limit(limit)
+                  .fetch(TRANSACTION_STOP.TRANSACTION_PK);
+    }
+
+    @Override
+    public void rollUp(Collection<Integer> transactionPks) {
+        if (transactionPks.isEmpty()) {
+            return;
+        }
+
+        ctx.transaction(configuration -> {
+            DSLContext ctx = DSL.using(configuration);
+
+            Map<Integer, Record> existing =
+                ctx.select(TRANSACTION_ENERGY.fields())
+                   .select(ROLLED_UP_STOP_EVENT_TIMESTAMP)
+                   .from(TRANSACTION_ENERGY)
+                   .where(TRANSACTION_ENERGY.TRANSACTION_PK.in(transactionPks))
+                   .forUpdate()
+                   .fetchMap(TRANSACTION_ENERGY.TRANSACTION_PK);
+
+            var transactions =
+                ctx.select(TRANSACTION.TRANSACTION_PK,
+                           STOP_EVENT_TIMESTAMP,
+                           CONNECTOR.CHARGE_BOX_ID,
+                           CONNECTOR.CONNECTOR_ID,
+                           TRANSACTION.ID_TAG,
+                           TRANSACTION.START_TIMESTAMP,
+                           TRANSACTION.START_VALUE,
+                           TRANSACTION.STOP_TIMESTAMP,
+                           TRANSACTION.STOP_VALUE)
+                   .from(TRANSACTION)
+                   .join(CONNECTOR).on(CONNECTOR.CONNECTOR_PK.eq(TRANSACTION.CONNECTOR_PK))
+                   .where(TRANSACTION.TRANSACTION_PK.in(transactionPks))
+                   .and(TRANSACTION.STOP_TIMESTAMP.isNotNull())
+                   .and(TRANSACTION.STOP_VALUE.isNotNull())
+                   .fetch();
+
+            List<Query> queries = new ArrayList<>();
+
+            for (var r : transactions) {
+                Record old = existing.get(r.value1());
+
+                if (old != null) {
+                    if (r.value2().compareTo(old.get(ROLLED_UP_STOP_EVENT_TIMESTAMP)) <= 0) {
+                        continue; // already rolled up
+                    }
+                    // the latest stop event changed, i.e. the values of the old one are not valid anymore
+                    queries.add(subtractFromDaily(ctx, old.into(TRANSACTION_ENERGY)));
+                }
+
+                TransactionEnergyRecord energy = ctx.newRecord(TRANSACTION_ENERGY)
+                                                    .setTransactionPk(r.value1())
+                                                    .setRollupDate(r.value8().toLocalDate())
+                                                    .setChargeBoxId(r.value3())
+                                                    .setConnectorId(r.value4())
+                                                    .setIdTag(r.value5())
+                                                    .setEnergyWh(calculateEnergyConsumptionInWh(r.value7(), r.value9()))
+                                                    .setDurationSeconds(durationInSeconds(r.value6(), r.value8()));
+
+                queries.add(ctx.insertInto(TRANSACTION_ENERGY)
+                               .set(energy)
+                               .set(ROLLED_UP_STOP_EVENT_TIMESTAMP, r.value2())
+                               .onDuplicateKeyUpdate()
+                               .set(energy)
+                               .set(ROLLED_UP_STOP_EVENT_TIMESTAMP, r.value2()));
+
+                queries.add(addToDaily(ctx, energy));
+            }
+
+            if (!queries.isEmpty()) {
+                ctx.batch(queries).execute();
+            }
+        });
+    }
+
+    @Override
+    public List<EnergyReport> getReport(EnergyReportQueryForm form) {
+        List<Condition> conditions = new ArrayList<>();
+        conditions.add(ENERGY_ROLLUP_DAILY.ROLLUP_DATE.between(form.getFrom(), form.getTo()));
+
+        if (form.getChargeBoxId() != null) {
+            conditions.add(ENERGY_ROLLUP_DAILY.CHARGE_BOX_ID.eq(form.getChargeBoxId()));
+        }
+
+        if (form.getConnectorId() != null) {
+            conditions.add(ENERGY_ROLLUP_DAILY.CONNECTOR_ID.eq(form.getConnectorId()));
+        }
+
+        if (form.getOcppIdTag() != null) {
+            conditions.add(ENERGY_ROLLUP_DAILY.ID_TAG.eq(form.getOcppIdTag()));
+        }
+
+        Field<LocalDate> periodStart = switch (form.getPeriod()) {
+            case DAY -> ENERGY_ROLLUP_DAILY.ROLLUP_DATE;
+            case MONTH -> firstDayOfMonth(ENERGY_ROLLUP_DAILY.ROLLUP_DATE);
+            case TOTAL -> null;
+        };
+
+        var groupBy = form.getGroupBy();
+        boolean byConnector = groupBy.contains(EnergyReportQueryForm.GroupBy.CONNECTOR);
+        boolean byChargeBox = byConnector || groupBy.contains(EnergyReportQueryForm.GroupBy.CHARGE_BOX);
+        boolean byIdTag = groupBy.contains(EnergyReportQueryForm.GroupBy.ID_TAG);
+
+        List<Field<?>> groupFields = new ArrayList<>();
+        if (periodStart != null) {
+            groupFields.add(periodStart);
+        }
+        if (byChargeBox) {
+            groupFields.add(ENERGY_ROLLUP_DAILY.CHARGE_BOX_ID);
+        }
+        if (byConnector) {
+            groupFields.add(ENERGY_ROLLUP_DAILY.CONNECTOR_ID);
+        }
+        if (byIdTag) {
+            groupFields.add(ENERGY_ROLLUP_DAILY.ID_TAG);
+        }
+
+        Field<BigDecimal> transactionCount = DSL.sum(ENERGY_ROLLUP_DAILY.TRANSACTION_COUNT);
+        Field<BigDecimal> energyWh = DSL.sum(ENERGY_ROLLUP_DAILY.ENERGY_WH);
+        Field<BigDecimal> durationSeconds = DSL.sum(ENERGY_ROLLUP_DAILY.DURATION_SECONDS);
+
+        return ctx.select(groupFields)
+                  .select(transactionCount, energyWh, durationSeconds)
+                  .from(ENERGY_ROLLUP_DAILY)
+                  .where(conditions)
+                  .groupBy(groupFields)
+                  .having(transactionCount.gt(BigDecimal.ZERO)) // rows of transactions that moved to another day
+                  .orderBy(groupFields)
+                  .fetch()
+                  .map(r -> EnergyReport.builder()
+                                        .periodStart(periodStart == null ? null : r.get(periodStart))
+                                        .chargeBoxId(byChargeBox ? r.get(ENERGY_ROLLUP_DAILY.CHARGE_BOX_ID) : null)
+                                        .connectorId(byConnector ? r.get(ENERGY_ROLLUP_DAILY.CONNECTOR_ID) : null)
+                                        .ocppIdTag(byIdTag ? r.get(ENERGY_ROLLUP_DAILY.ID_TAG) : null)
+                                        .transactionCount(r.get(transactionCount).intValue())
+                                        .energyWh(r.get(energyWh).longValue())
+                                        .durationSeconds(r.get(durationSeconds).longValue())
+                                        .build());
+    }
+
+    // -------------------------------------------------------------------------
+    // Private helpers
+    // -------------------------------------------------------------------------
+
+    private static Query addToDaily(DSLContext ctx, TransactionEnergyRecord r) {
+        long energyWh = Objects.requireNonNullElse(r.getEnergyWh(), 0L);
+        long durationSeconds = Objects.requireNonNullElse(r.getDurationSeconds(), 0L);
+
+        return ctx.insertInto(ENERGY_ROLLUP_DAILY)
+                  .set(ENERGY_ROLLUP_DAILY.ROLLUP_DATE, r.getRollupDate())
+                  .set(ENERGY_ROLLUP_DAILY.CHARGE_BOX_ID, r.getChargeBoxId())
+                  .set(ENERGY_ROLLUP_DAILY.CONNECTOR_ID, r.getConnectorId())
+                  .set(ENERGY_ROLLUP_DAILY.ID_TAG, r.getIdTag())
+                  .set(ENERGY_ROLLUP_DAILY.TRANSACTION_COUNT, 1)
+                  .set(ENERGY_ROLLUP_DAILY.ENERGY_WH, energyWh)
+                  .set(ENERGY_ROLLUP_DAILY.DURATION_SECONDS, durationSeconds)
+                  .onDuplicateKeyUpdate()
+                  .set(ENERGY_ROLLUP_DAILY.TRANSACTION_COUNT, ENERGY_ROLLUP_DAILY.TRANSACTION_COUNT.plus(1))
+                  .set(ENERGY_ROLLUP_DAILY.ENERGY_WH, ENERGY_ROLLUP_DAILY.ENERGY_WH.plus(energyWh))
+                  .set(ENERGY_ROLLUP_DAILY.DURATION_SECONDS, ENERGY_ROLLUP_DAILY.DURATION_SECONDS.plus(durationSeconds));
+    }
+
+    private static Query subtractFromDaily(DSLContext ctx, TransactionEnergyRecord r) {
+        long energyWh = Objects.requireNonNullElse(r.getEnergyWh(), 0L);
+        long durationSeconds = Objects.requireNonNullElse(r.getDurationSeconds(), 0L);
+
+        return ctx.update(ENERGY_ROLLUP_DAILY)
+                  .set(ENERGY_ROLLUP_DAILY.TRANSACTION_COUNT, ENERGY_ROLLUP_DAILY.TRANSACTION_COUNT.minus(1))
+                  .set(ENERGY_ROLLUP_DAILY.ENERGY_WH, ENERGY_ROLLUP_DAILY.ENERGY_WH.minus(energyWh))
+                  .set(ENERGY_ROLLUP_DAILY.DURATION_SECONDS, ENERGY_ROLLUP_DAILY.DURATION_SECONDS.minus(durationSeconds))
+                  .where(ENERGY_ROLLUP_DAILY.ROLLUP_DATE.eq(r.getRollupDate()))
+                  .and(ENERGY_ROLLUP_DAILY.CHARGE_BOX_ID.eq(r.getChargeBoxId()))
+                  .and(ENERGY_ROLLUP_DAILY.CONNECTOR_ID.eq(r.getConnectorId()))
+                  .and(ENERGY_ROLLUP_DAILY.ID_TAG.eq(r.getIdTag()));
+    }
+
+    private static Long durationInSeconds(DateTime start, DateTime stop) {
+        if (start == null || stop == null || stop.isBefore(start)) {
+            return null;
+        }
+        return (long) Seconds.secondsBetween(start, stop).getSeconds();
+    }
+}
@@ -22,6 +22,7 @@ import de.rwth.idsg.steve.SteveException;
 import de.rwth.idsg.steve.repository.GenericRepository;
 import de.rwth.idsg.steve.repository.ReservationStatus;
 import de.rwth.idsg.steve.repository.dto.DbVersion;
+import de.rwth.idsg.steve.repository.memory.InMemoryDatabase;
 import de.rwth.idsg.steve.utils.DateTimeUtils;
 import de.rwth.idsg.steve.web.dto.Statistics;
 import lombok.RequiredArgsConstructor;
@@ -33,6 +34,7 @@ import org.jooq.Field;
 import org.jooq.Record2;
 import org.jooq.Record8;
 import org.jooq.impl.DSL;
+import org.springframework.context.annotation.Profile;
 import org.springframework.context.event.ContextRefreshedEvent;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Repository;
@@ -55,6 +57,7 @@ import static org.jooq.impl.DSL.select;
  */
 @Slf4j
 @Repository
+@Profile("!" + InMemoryDatabase.PROFILE)
 @RequiredArgsConstructor
 public class GenericRepositoryImpl implements GenericRepository {
 
@@ -0,0 +1,141 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.repository.impl;
+
+import de.rwth.idsg.steve.repository.MeterValueBackfillRepository;
+import lombok.RequiredArgsConstructor;
+import org.jooq.Condition;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.Record2;
+import org.jooq.impl.DSL;
+import org.jooq.impl.SQLDataType;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+
+import static jooq.steve.db.tables.ConnectorMeterValue.CONNECTOR_METER_VALUE;
+import static jooq.steve.db.tables.MeterValueBackfill.METER_VALUE_BACKFILL;
+
+/**
+ * connector_meter_value has no primary key. Therefore, the rows are walked connector by connector, and within a
+ * connector in the order of their timestamps (index cmv_cpk_energy_idx). The rows with a NULL timestamp are done
+ * together with the last chunk of the connector. The classification is idempotent, so a chunk that is repeated
+ * (e.g. because of equal timestamps at the chunk border) does no harm.
+ */
+@Repository
+@RequiredArgsConstructor
+public class MeterValueBackfillRepositoryImpl implements MeterValueBackfillRepository {
+
+    /**
+     * Same rules as in TransactionStopServiceHelper, which classifies the meter values that arrive now
+     */
+    private static final String NUMERIC_REGEX = "^[-+]?([0-9]+[.]?[0-9]*|[.][0-9]+)([eE][-+]?[0-9]+)?$";
+
+    /**
+     * With full precision, because DateTime only has milliseconds, but the timestamps have microseconds
+     */
+    private static final Field<Timestamp> VALUE_TIMESTAMP =
+        DSL.field(CONNECTOR_METER_VALUE.VALUE_TIMESTAMP.getQualifiedName(), SQLDataType.TIMESTAMP(6));
+
+    private static final Field<Timestamp> POSITION_TIMESTAMP =
+        DSL.field(METER_VALUE_BACKFILL.VALUE_TIMESTAMP.getQualifiedName(), SQLDataType.TIMESTAMP(6));
+
+    private final DSLContext ctx;
+
+    @Override
+    public boolean backfillNextChunk(int chunkSize) {
+        return ctx.transactionResult(configuration -> {
+            DSLContext ctx = DSL.using(configuration);
+
+            // the lock keeps several instances of SteVe on the same database from doing the same work
+            Record2<Integer, Timestamp> position = ctx.select(METER_VALUE_BACKFILL.CONNECTOR_PK, POSITION_TIMESTAMP)
+                                                      .from(METER_VALUE_BACKFILL)
+                                                      .forUpdate()
+                                                      .fetchOne();
+
+            if (position == null) {
+                return false;
+            }
+
+            Integer connectorPk = ctx.select(DSL.min(CONNECTOR_METER_VALUE.CONNECTOR_PK))
+                                     .from(CONNECTOR_METER_VALUE)
+                                     .where(CONNECTOR_METER_VALUE.CONNECTOR_PK.greaterOrEqual(position.value1()))
+                                     .fetchOne(0, Integer.class);
+
+            if (connectorPk == null) {
+                ctx.deleteFrom(METER_VALUE_BACKFILL).execute();
+                return false;
+            }
+
+            // the position timestamp only applies to the connector that it was stored for
+            Timestamp after = connectorPk.equals(position.value1()) ? position.value2() : null;
+            Condition afterCondition = after == null ? DSL.noCondition() : VALUE_TIMESTAMP.greaterThan(after);
+
+            Timestamp until = ctx.select(VALUE_TIMESTAMP)
+                                 .from(CONNECTOR_METER_VALUE)
+                                 .where(CONNECTOR_METER_VALUE.CONNECTOR_PK.eq(connectorPk))
+                                 .and(afterCondition)
+                                 .and(VALUE_TIMESTAMP.isNotNull())
+                                 .orderBy(VALUE_TIMESTAMP.asc())
+                                 .limit(1)
+                                 .offset(chunkSize - 1)
+                                 .fetchOne(VALUE_TIMESTAMP);
+
+            Condition chunk;
+            if (until == null) {
+                // the last chunk of this connector
+                Condition rest = after == null ? DSL.noCondition() : afterCondition.or(VALUE_TIMESTAMP.isNull());
+                chunk = CONNECTOR_METER_VALUE.CONNECTOR_PK.eq(connectorPk).and(rest);
+            } else {
+                chunk = CONNECTOR_METER_VALUE.CONNECTOR_PK.eq(connectorPk)
+                                                          .and(afterCondition)
+                                                          .and(VALUE_TIMESTAMP.lessOrEqual(until));
+            }
+
+            ctx.update(CONNECTOR_METER_VALUE)
+               .set(CONNECTOR_METER_VALUE.VALUE_NUMERIC,
+                    DSL.field("{0} + 0e0", SQLDataType.DOUBLE, CONNECTOR_METER_VALUE.VALUE))
+               .where(chunk)
+               .and(CONNECTOR_METER_VALUE.VALUE_NUMERIC.isNull())
+               .and(CONNECTOR_METER_VALUE.VALUE.likeRegex(NUMERIC_REGEX))
+               .and(CONNECTOR_METER_VALUE.FORMAT.isNull().or(CONNECTOR_METER_VALUE.FORMAT.in("", "Raw")))
+               .execute();
+
+            ctx.update(CONNECTOR_METER_VALUE)
+               .set(CONNECTOR_METER_VALUE.ENERGY_WH,
+                    DSL.when(CONNECTOR_METER_VALUE.UNIT.eq("kWh"), CONNECTOR_METER_VALUE.VALUE_NUMERIC.mul(1000))
+                       .otherwise(CONNECTOR_METER_VALUE.VALUE_NUMERIC))
+               .where(chunk)
+               .and(CONNECTOR_METER_VALUE.ENERGY_WH.isNull())
+               .and(CONNECTOR_METER_VALUE.VALUE_NUMERIC.isNotNull())
+               .and(CONNECTOR_METER_VALUE.MEASURAND.isNull()
+                   .or(CONNECTOR_METER_VALUE.MEASURAND.in("", "Energy.Active.Import.Register")))
+               .and(CONNECTOR_METER_VALUE.UNIT.isNull().or(CONNECTOR_METER_VALUE.UNIT.in("", "Wh", "kWh")))
+               .execute();
+
+            ctx.update(METER_VALUE_BACKFILL)
+               .set(METER_VALUE_BACKFILL.CONNECTOR_PK, until == null ? connectorPk + 1 : connectorPk)
+               .set(POSITION_TIMESTAMP, until)
+               .execute();
+
+            return true;
+        });
+    }
+}
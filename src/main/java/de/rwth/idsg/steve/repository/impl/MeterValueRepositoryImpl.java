@@ -0,0 +1,252 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.repository.impl;
+
+import de.rwth.idsg.steve.SteveException;
+import de.rwth.idsg.steve.repository.MeterValueRepository;
+import de.rwth.idsg.steve.repository.dto.MeterValueSeries;
+import de.rwth.idsg.steve.web.dto.MeterValueQueryForm;
+import jooq.steve.db.tables.TransactionStart;
+import jooq.steve.db.tables.records.ConnectorMeterValueRecord;
+import lombok.RequiredArgsConstructor;
+import ocpp.cs._2015._10.Measurand;
+import org.joda.time.DateTime;
+import org.jooq.Condition;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.Record;
+import org.jooq.Table;
+import org.jooq.impl.DSL;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import static de.rwth.idsg.steve.repository.impl.RepositoryUtils.numericMeterValue;
+import static de.rwth.idsg.steve.repository.impl.RepositoryUtils.numericMeterValueCondition;
+import static de.rwth.idsg.steve.utils.CustomDSL.DATE_TIME_TYPE;
+import static jooq.steve.db.tables.Connector.CONNECTOR;
+import static jooq.steve.db.tables.ConnectorMeterValue.CONNECTOR_METER_VALUE;
+import static jooq.steve.db.tables.Transaction.TRANSACTION;
+import static jooq.steve.db.tables.TransactionStart.TRANSACTION_START;
+
+/**
+ * The downsampling happens in the database: The requested time range is divided into buckets of equal length, and
+ * the values are aggregated per kind (measurand, phase, location, unit) and bucket. Only the aggregates are sent
+ * over the wire, and they arrive sorted, so that the series are built in one pass.
+ */
+@Repository
+@RequiredArgsConstructor
+public class MeterValueRepositoryImpl implements MeterValueRepository {
+
+    private final DSLContext ctx;
+
+    @Override
+    public List<MeterValueSeries> getTransactionSeries(int transactionPk, MeterValueQueryForm form) {
+        // "what is the subsequent transaction at the same chargebox and connector?" (same as in getDetails)
+        TransactionStart nextTx = TRANSACTION_START.as("next_tx");
+        Field<DateTime> nextStartTimestamp =
+            DSL.select(nextTx.START_TIMESTAMP)
+               .from(nextTx)
+               .where(nextTx.CONNECTOR_PK.eq(TRANSACTION.CONNECTOR_PK))
+               .and(nextTx.START_TIMESTAMP.greaterThan(TRANSACTION.START_TIMESTAMP))
+               .orderBy(nextTx.START_TIMESTAMP)
+               .limit(1)
+               .asField("next_start_timestamp");
+
+        var transaction = ctx.select(TRANSACTION.CONNECTOR_PK,
+                                     TRANSACTION.START_TIMESTAMP,
+                                     TRANSACTION.STOP_TIMESTAMP,
+                                     nextStartTimestamp)
+                             .from(TRANSACTION)
+                             .where(TRANSACTION.TRANSACTION_PK.eq(transactionPk))
+                             .fetchOne();
+
+        if (transaction == null) {
+            throw new SteveException.NotFound("There is no transaction with id '" + transactionPk + "'");
+        }
+
+        // finished transaction, "zombie" transaction or the last active transaction
+        DateTime from = transaction.value2();
+        DateTime to = Objects.requireNonNullElseGet(
+            transaction.value3() != null ? transaction.value3() : transaction.value4(),
+            DateTime::now
+        );
+
+        Condition valueCondition = getValueCondition(form);
+
+        // Case 1: Station sends meter values with transaction id set
+        //
+        var transactionQuery = ctx.selectFrom(CONNECTOR_METER_VALUE)
+                                  .where(CONNECTOR_METER_VALUE.TRANSACTION_PK.eq(transactionPk))
+                                  .and(valueCondition);
+
+        // Case 2: Fall back to filtering according to time windows
+        //
+        var timestampQuery = ctx.selectFrom(CONNECTOR_METER_VALUE)
+                                .where(CONNECTOR_METER_VALUE.CONNECTOR_PK.eq(transaction.value1()))
+                                .and(CONNECTOR_METER_VALUE.VALUE_TIMESTAMP.between(from, to))
+                                .and(valueCondition);
+
+        // UNION removes the values that match both cases
+        return getSeries(transactionQuery.union(timestampQuery).asTable("t1"), from, to, form.getResolution());
+    }
+
+    @Override
+    public List<MeterValueSeries> getConnectorSeries(MeterValueQueryForm.ForConnector form) {
+        Integer connectorPk = ctx.select(CONNECTOR.CONNECTOR_PK)
+                                 .from(CONNECTOR)
+                                 .where(CONNECTOR.CHARGE_BOX_ID.eq(form.getChargeBoxId()))
+                                 .and(CONNECTOR.CONNECTOR_ID.eq(form.getConnectorId()))
+                                 .fetchOne(CONNECTOR.CONNECTOR_PK);
+
+        if (connectorPk == null) {
+            throw new SteveException.NotFound("There is no connector " + form.getConnectorId()
+                + " at the charge box '" + form.getChargeBoxId() + "'");
+        }
+
+        var query = ctx.selectFrom(CONNECTOR_METER_VALUE)
+                       .where(CONNECTOR_METER_VALUE.CONNECTOR_PK.eq(connectorPk))
+                       .and(CONNECTOR_METER_VALUE.VALUE_TIMESTAMP.between(form.getFrom(), form.getTo()))
+                       .and(getValueCondition(form));
+
+        return getSeries(query.asTable("t1"), form.getFrom(), form.getTo(), form.getResolution());
+    }
+
+    // -------------------------------------------------------------------------
+    // Private helpers
+    // -------------------------------------------------------------------------
+
+    private List<MeterValueSeries> getSeries(Table<ConnectorMeterValueRecord> t1, DateTime from, DateTime to,
+                                             int resolution) {
+        long rangeSeconds = Math.max(1, (to.getMillis() - from.getMillis()) / 1000);
+        int bucketSeconds = (int) Math.max(1, (rangeSeconds + resolution - 1) / resolution);
+        long lastBucket = (rangeSeconds - 1) / bucketSeconds;
+
+        // values that are sent with the transaction id, but have timestamps outside the time range (e.g. because
+        // the clock of the station is off), end up in the first or last bucket
+        Field<Long> bucket = DSL.field("least(greatest(timestampdiff(second, {0}, {1}) div {2}, 0), {3})",
+            Long.class,
+            DSL.val(from, DATE_TIME_TYPE),
+            t1.field(CONNECTOR_METER_VALUE.VALUE_TIMESTAMP),
+            DSL.inline(bucketSeconds),
+            DSL.inline(lastBucket));
+
+        // values without measurand are "Energy.Active.Import.Register" (OCPP 1.6, section 7.31)
+        Field<String> measurand = DSL.coalesce(DSL.nullif(t1.field(CONNECTOR_METER_VALUE.MEASURAND), ""),
+            DSL.inline(Measurand.ENERGY_ACTIVE_IMPORT_REGISTER.value()));
+        Field<String> phase = DSL.nullif(t1.field(CONNECTOR_METER_VALUE.PHASE), "");
+        Field<String> location = DSL.nullif(t1.field(CONNECTOR_METER_VALUE.LOCATION), "");
+        Field<String> unit = DSL.nullif(t1.field(CONNECTOR_METER_VALUE.UNIT), "");
+
+        Field<Double> value = numericMeterValue(t1);
+        Field<Double> min = DSL.min(value);
+        Field<Double> max = DSL.max(value);
+        Field<BigDecimal> avg = DSL.avg(value);
+        Field<Integer> count = DSL.count();
+
+        List<MeterValueSeries> result = new ArrayList<>();
+        SeriesBuilder current = null;
+
+        for (Record r : ctx.select(measurand, phase, location, unit, bucket, min, max, avg, count)
+                           .from(t1)
+                           .groupBy(measurand, phase, location, unit, bucket)
+                           .orderBy(measurand, phase, location, unit, bucket)
+                           .fetch()) {
+
+            if (current == null || !current.isSameKind(r.get(measurand), r.get(phase), r.get(location), r.get(unit))) {
+                if (current != null) {
+                    result.add(current.build());
+                }
+                current = new SeriesBuilder(r.get(measurand), r.get(phase), r.get(location), r.get(unit), bucketSeconds);
+            }
+
+            current.points.add(MeterValueSeries.Point.builder()
+                                                     .timestamp(from.plusSeconds((int) (r.get(bucket) * bucketSeconds)))
+                                                     .min(r.get(min))
+                                                     .max(r.get(max))
+                                                     .avg(r.get(avg).doubleValue())
+                                                     .count(r.get(count))
+                                                     .build());
+        }
+
+        if (current != null) {
+            result.add(current.build());
+        }
+        return result;
+    }
+
+    private static Condition getValueCondition(MeterValueQueryForm form) {
+        List<Condition> conditions = new ArrayList<>();
+
+        // we cannot make sense of SignedData (https://github.com/steve-community/steve/issues/816)
+        conditions.add(numericMeterValueCondition());
+
+        List<String> measurands = form.getMeasurand();
+        if (!measurands.isEmpty()) {
+            Condition measurandCondition = CONNECTOR_METER_VALUE.MEASURAND.in(measurands);
+            if (measurands.contains(Measurand.ENERGY_ACTIVE_IMPORT_REGISTER.value())) {
+                measurandCondition = measurandCondition.or(CONNECTOR_METER_VALUE.MEASURAND.isNull())
+                                                       .or(CONNECTOR_METER_VALUE.MEASURAND.eq(""));
+            }
+            conditions.add(measurandCondition);
+        }
+
+        List<String> phases = form.getPhase();
+        if (!phases.isEmpty()) {
+            conditions.add(CONNECTOR_METER_VALUE.PHASE.in(phases));
+        }
+
+        return DSL.and(conditions);
+    }
+
+    private static final class SeriesBuilder {
+        private final String measurand, phase, location, unit;
+        private final int bucketSeconds;
+        private final List<MeterValueSeries.Point> points = new ArrayList<>();
+
+        private SeriesBuilder(String measurand, String phase, String location, String unit, int bucketSeconds) {
+            this.measurand = measurand;
+            this.phase = phase;
+            this.location = location;
+            this.unit = unit;
+            this.bucketSeconds = bucketSeconds;
+        }
+
+        private boolean isSameKind(String measurand, String phase, String location, String unit) {
+            return Objects.equals(this.measurand, measurand)
+                && Objects.equals(this.phase, phase)
+                && Objects.equals(this.location, location)
+                && Objects.equals(this.unit, unit);
+        }
+
+        private MeterValueSeries build() {
+            return MeterValueSeries.builder()
+                                   .measurand(measurand)
+                                   .phase(phase)
+                                   .location(location)
+                                   .unit(unit)
+                                   .bucketSeconds(bucketSeconds)
+                                   .points(points)
+                                   .build();
+        }
+    }
+}
@@ -27,11 +27,15 @@ import de.rwth.idsg.steve.repository.ReservationRepository;
 import de.rwth.idsg.steve.repository.dto.InsertConnectorStatusParams;
 import de.rwth.idsg.steve.repository.dto.InsertTransactionParams;
 import de.rwth.idsg.steve.repository.dto.TransactionStatusUpdate;
+import de.rwth.idsg.steve.repository.dto.TransactionStopBatchResult;
 import de.rwth.idsg.steve.repository.dto.UpdateChargeboxParams;
 import de.rwth.idsg.steve.repository.dto.UpdateTransactionParams;
+import de.rwth.idsg.steve.repository.memory.InMemoryDatabase;
 import jooq.steve.db.enums.TransactionStopEventActor;
 import jooq.steve.db.enums.TransactionStopFailedEventActor;
 import jooq.steve.db.tables.records.ConnectorMeterValueRecord;
+import jooq.steve.db.tables.records.ConnectorStatusRecord;
+import jooq.steve.db.tables.records.TransactionStopRecord;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -41,13 +45,21 @@ import org.jooq.DSLContext;
 import org.jooq.Record1;
 import org.jooq.SelectConditionStep;
 import org.jooq.impl.DSL;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Repository;
 import org.springframework.util.CollectionUtils;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.locks.Lock;
 import java.util.stream.Collectors;
 
+import static de.rwth.idsg.steve.utils.TransactionStopServiceHelper.toEnergyValueInWh;
+import static de.rwth.idsg.steve.utils.TransactionStopServiceHelper.toNumericValue;
 import static jooq.steve.db.tables.ChargeBox.CHARGE_BOX;
 import static jooq.steve.db.tables.Connector.CONNECTOR;
 import static jooq.steve.db.tables.ConnectorMeterValue.CONNECTOR_METER_VALUE;
@@ -67,6 +79,7 @@ import static jooq.steve.db.tables.TransactionStopFailed.TRANSACTION_STOP_FAILED
  */
 @Slf4j
 @Repository
+@Profile("!" + InMemoryDatabase.PROFILE)
 @RequiredArgsConstructor
 public class OcppServerRepositoryImpl implements OcppServerRepository {
 
@@ -298,6 +311,109 @@ public class OcppServerRepositoryImpl implements OcppServerRepository {
         }
     }
 
+    @Override
+    public TransactionStopBatchResult updateTransactions(List<UpdateTransactionParams> params) {
+        if (params.isEmpty()) {
+            return TransactionStopBatchResult.builder().alreadyStopped(List.of()).failures(Map.of()).build();
+        }
+
+        try {
+            return TransactionStopBatchResult.builder().alreadyStopped(insertStops(params)).failures(Map.of()).build();
+        } catch (Exception e) {
+            // one bad row should not fail the whole batch. find out which one it is.
+            log.warn("Batch stop of {} transactions failed. Falling back to stopping them one by one",
+                params.size(), e);
+        }
+
+        List<Integer> alreadyStopped = new ArrayList<>();
+        Map<Integer, Exception> failures = new LinkedHashMap<>();
+        for (UpdateTransactionParams p : params) {
+            try {
+                alreadyStopped.addAll(insertStops(List.of(p)));
+            } catch (Exception e) {
+                log.error("Exception occurred", e);
+                tryInsertingFailed(p, e);
+                failures.put(p.getTransactionId(), e);
+            }
+        }
+        return TransactionStopBatchResult.builder().alreadyStopped(alreadyStopped).failures(failures).build();
+    }
+
+    /**
+     * @return the transactions that were skipped, since they have a stop event already
+     */
+    private List<Integer> insertStops(List<UpdateTransactionParams> params) {
+        return ctx.transactionResult(configuration -> {
+            DSLContext ctx = DSL.using(configuration);
+
+            // -------------------------------------------------------------------------
+            // Step 1: insert transaction stop data, unless a stop event arrived since the candidates were selected
+            // -------------------------------------------------------------------------
+
+            // the locking read holds the stop rows of these transactions (or the gaps where they would be) until
+            // the commit. a concurrent StopTransaction of a station is either found here, or waits for this batch.
+            Set<Integer> stopped = new HashSet<>(
+                ctx.select(TRANSACTION_STOP.TRANSACTION_PK)
+                   .from(TRANSACTION_STOP)
+                   .where(TRANSACTION_STOP.TRANSACTION_PK.in(
+                       params.stream().map(UpdateTransactionParams::getTransactionId).toList()))
+                   .forUpdate()
+                   .fetch(TRANSACTION_STOP.TRANSACTION_PK)
+            );
+
+            List<UpdateTransactionParams> toStop =
+                params.stream().filter(p -> !stopped.contains(p.getTransactionId())).toList();
+
+            if (toStop.isEmpty()) {
+                return List.copyOf(stopped);
+            }
+
+            List<TransactionStopRecord> stops =
+                toStop.stream()
+                      .map(p -> ctx.newRecord(TRANSACTION_STOP)
+                                   .setTransactionPk(p.getTransactionId())
+                                   .setEventTimestamp(p.getEventTimestamp())
+                                   .setEventActor(p.getEventActor())
+                                   .setStopTimestamp(p.getStopTimestamp())
+                                   .setStopValue(p.getStopMeterValue())
+                                   .setStopReason(p.getStopReason()))
+                      .toList();
+
+            ctx.batchInsert(stops).execute();
+
+            // -------------------------------------------------------------------------
+            // Step 2: Set connector status back, for the charge boxes that want it
+            // -------------------------------------------------------------------------
+
+            List<Integer> transactionPks = toStop.stream().map(UpdateTransactionParams::getTransactionId).toList();
+
+            Map<Integer, Integer> connectorPks =
+                ctx.select(TRANSACTION_START.TRANSACTION_PK, TRANSACTION_START.CONNECTOR_PK)
+                   .from(TRANSACTION_START)
+                   .join(CONNECTOR).on(CONNECTOR.CONNECTOR_PK.eq(TRANSACTION_START.CONNECTOR_PK))
+                   .join(CHARGE_BOX).on(CHARGE_BOX.CHARGE_BOX_ID.eq(CONNECTOR.CHARGE_BOX_ID))
+                   .where(TRANSACTION_START.TRANSACTION_PK.in(transactionPks))
+                   .and(CHARGE_BOX.INSERT_CONNECTOR_STATUS_AFTER_TRANSACTION_MSG.isTrue())
+                   .fetchMap(TRANSACTION_START.TRANSACTION_PK, TRANSACTION_START.CONNECTOR_PK);
+
+            List<ConnectorStatusRecord> statuses =
+                toStop.stream()
+                      .filter(p -> connectorPks.containsKey(p.getTransactionId()))
+                      .map(p -> ctx.newRecord(CONNECTOR_STATUS)
+                                   .setConnectorPk(connectorPks.get(p.getTransactionId()))
+                                   .setStatusTimestamp(p.getStopTimestamp())
+                                   .setStatus(p.getStatusUpdate().getStatus())
+                                   .setErrorCode(p.getStatusUpdate().getErrorCode()))
+                      .toList();
+
+            if (!statuses.isEmpty()) {
+                ctx.batchInsert(statuses).execute();
+            }
+
+            return List.copyOf(stopped);
+        });
+    }
+
     // -------------------------------------------------------------------------
     // Helpers
     // -------------------------------------------------------------------------
@@ -434,18 +550,26 @@ public class OcppServerRepositoryImpl implements OcppServerRepository {
                 list.stream()
                     .flatMap(t -> t.getSampledValue()
                                    .stream()
-                                   .map(k -> ctx.newRecord(CONNECTOR_METER_VALUE)
-                                                .setConnectorPk(connectorPk)
-                                                .setTransactionPk(transactionId)
-                                                .setValueTimestamp(t.getTimestamp())
-                                                .setValue(k.getValue())
-                                                // The following are optional fields!
-                                                .setReadingContext(k.isSetContext() ? k.getContext().value() : null)
-                                                .setFormat(k.isSetFormat() ? k.getFormat().value() : null)
-                                                .setMeasurand(k.isSetMeasurand() ? k.getMeasurand().value() : null)
-                                                .setLocation(k.isSetLocation() ? k.getLocation().value() : null)
-                                                .setUnit(k.isSetUnit() ? k.getUnit().value() : null)
-                                                .setPhase(k.isSetPhase() ? k.getPhase().value() : null)))
+                                   .map(k -> {
+                                       // classify the value once here, so that the readers do not have to
+                                       Double numericValue = toNumericValue(k.getValue(), k.getFormat());
+
+                                       return ctx.newRecord(CONNECTOR_METER_VALUE)
+                                                 .setConnectorPk(connectorPk)
+                                                 .setTransactionPk(transactionId)
+                                                 .setValueTimestamp(t.getTimestamp())
+                                                 .setValue(k.getValue())
+                                                 // The following are optional fields!
+                                                 .setReadingContext(k.isSetContext() ? k.getContext().value() : null)
+                                                 .setFormat(k.isSetFormat() ? k.getFormat().value() : null)
+                                                 .setMeasurand(k.isSetMeasurand() ? k.getMeasurand().value() : null)
+                                                 .setLocation(k.isSetLocation() ? k.getLocation().value() : null)
+                                                 .setUnit(k.isSetUnit() ? k.getUnit().value() : null)
+                                                 .setPhase(k.isSetPhase() ? k.getPhase().value() : null)
+                                                 .setValueNumeric(numericValue)
+                                                 .setEnergyWh(toEnergyValueInWh(numericValue, k.getMeasurand(),
+                                                                                k.getUnit()));
+                                   }))
                     .collect(Collectors.toList());
 
         ctx.batchInsert(batch).execute();
@@ -21,6 +21,7 @@ package de.rwth.idsg.steve.repository.impl;
 import de.rwth.idsg.steve.SteveException;
 import de.rwth.idsg.steve.repository.OcppTagRepository;
 import de.rwth.idsg.steve.repository.dto.OcppTag.OcppTagOverview;
+import de.rwth.idsg.steve.repository.memory.InMemoryDatabase;
 import de.rwth.idsg.steve.web.dto.OcppTagForm;
 import de.rwth.idsg.steve.web.dto.OcppTagQueryForm;
 import jooq.steve.db.tables.OcppTagActivity;
@@ -38,6 +39,7 @@ import org.jooq.Result;
 import org.jooq.SelectQuery;
 import org.jooq.TableField;
 import org.jooq.exception.DataAccessException;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Repository;
 
 import java.sql.SQLIntegrityConstraintViolationException;
@@ -56,6 +58,7 @@ import static jooq.steve.db.tables.UserOcppTag.USER_OCPP_TAG;
  */
 @Slf4j
 @Repository
+@Profile("!" + InMemoryDatabase.PROFILE)
 @RequiredArgsConstructor
 public class OcppTagRepositoryImpl implements OcppTagRepository {
 
@@ -0,0 +1,93 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.repository.impl;
+
+import de.rwth.idsg.steve.ocpp.OcppVersion;
+import de.rwth.idsg.steve.repository.OfflineCommandRepository;
+import de.rwth.idsg.steve.repository.dto.OfflineCommand;
+import lombok.RequiredArgsConstructor;
+import org.joda.time.DateTime;
+import org.jooq.DSLContext;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+import static jooq.steve.db.tables.OfflineCommand.OFFLINE_COMMAND;
+
+@Repository
+@RequiredArgsConstructor
+public class OfflineCommandRepositoryImpl implements OfflineCommandRepository {
+
+    private final DSLContext ctx;
+
+    @Override
+    public int insert(OfflineCommand command) {
+        return ctx.insertInto(OFFLINE_COMMAND)
+                  .set(OFFLINE_COMMAND.CHARGE_BOX_ID, command.getChargeBoxId())
+                  .set(OFFLINE_COMMAND.OCPP_VERSION, command.getVersion().getValue())
+                  .set(OFFLINE_COMMAND.OPERATION_NAME, command.getOperationName())
+                  .set(OFFLINE_COMMAND.REQUEST_CLASS, command.getRequestClass())
+                  .set(OFFLINE_COMMAND.REQUEST_PAYLOAD, command.getRequestPayload())
+                  .set(OFFLINE_COMMAND.CREATED_TIMESTAMP, command.getCreatedTimestamp())
+                  .set(OFFLINE_COMMAND.EXPIRY_TIMESTAMP, command.getExpiryTimestamp())
+                  .returning(OFFLINE_COMMAND.OFFLINE_COMMAND_PK)
+                  .fetchOne()
+                  .getOfflineCommandPk();
+    }
+
+    @Override
+    public List<OfflineCommand> getCommands(String chargeBoxId, int limit) {
+        return ctx.selectFrom(OFFLINE_COMMAND)
+                  .where(OFFLINE_COMMAND.CHARGE_BOX_ID.eq(chargeBoxId))
+                  .orderBy(OFFLINE_COMMAND.OFFLINE_COMMAND_PK)
+                  .limit(limit)
+                  .fetch(r -> OfflineCommand.builder()
+                                            .offlineCommandPk(r.getOfflineCommandPk())
+                                            .chargeBoxId(r.getChargeBoxId())
+                                            .version(OcppVersion.fromValue(r.getOcppVersion()))
+                                            .operationName(r.getOperationName())
+                                            .requestClass(r.getRequestClass())
+                                            .requestPayload(r.getRequestPayload())
+                                            .createdTimestamp(r.getCreatedTimestamp())
+                                            .expiryTimestamp(r.getExpiryTimestamp())
+                                            .build());
+    }
+
+    @Override
+    public List<Integer> getExpired(DateTime time) {
+        return ctx.select(OFFLINE_COMMAND.OFFLINE_COMMAND_PK)
+                  .from(OFFLINE_COMMAND)
+                  .where(OFFLINE_COMMAND.EXPIRY_TIMESTAMP.lessThan(time))
+                  .fetch(OFFLINE_COMMAND.OFFLINE_COMMAND_PK);
+    }
+
+    @Override
+    public void delete(int offlineCommandPk) {
+        ctx.delete(OFFLINE_COMMAND)
+           .where(OFFLINE_COMMAND.OFFLINE_COMMAND_PK.eq(offlineCommandPk))
+           .execute();
+    }
+
+    @Override
+    public void delete(List<Integer> offlineCommandPks) {
+        ctx.delete(OFFLINE_COMMAND)
+           .where(OFFLINE_COMMAND.OFFLINE_COMMAND_PK.in(offlineCommandPks))
+           .execute();
+    }
+}
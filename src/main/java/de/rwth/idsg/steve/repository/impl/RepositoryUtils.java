@@ -20,12 +20,22 @@ package de.rwth.idsg.steve.repository.impl;
 
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
+import ocpp.cs._2015._10.Measurand;
+import ocpp.cs._2015._10.UnitOfMeasure;
+import ocpp.cs._2015._10.ValueFormat;
+import org.jooq.Condition;
 import org.jooq.DSLContext;
+import org.jooq.Field;
 import org.jooq.Record1;
 import org.jooq.Select;
+import org.jooq.Table;
+import org.jooq.impl.DSL;
 
+import static de.rwth.idsg.steve.utils.CustomDSL.isNumeric;
+import static de.rwth.idsg.steve.utils.CustomDSL.toDouble;
 import static jooq.steve.db.Tables.OCPP_TAG;
 import static jooq.steve.db.Tables.USER_OCPP_TAG;
+import static jooq.steve.db.tables.ConnectorMeterValue.CONNECTOR_METER_VALUE;
 
 /**
  * @author Sevket Goekay <sevketgokay@gmail.com>
@@ -40,4 +50,64 @@ public class RepositoryUtils {
             .join(USER_OCPP_TAG).on(USER_OCPP_TAG.OCPP_TAG_PK.eq(OCPP_TAG.OCPP_TAG_PK))
             .where(USER_OCPP_TAG.USER_PK.eq(userId));
     }
+
+    // -------------------------------------------------------------------------
+    // connector_meter_value.value_numeric and energy_wh are set at ingest, and for the rows that were stored before
+    // by the backfill (see MeterValueBackfillService). Until the backfill is done, the remaining rows are classified
+    // from the raw columns with the same rules (see TransactionStopServiceHelper).
+    // -------------------------------------------------------------------------
+
+    /**
+     * Numeric values, which we can make sense of (i.e. not SignedData)
+     */
+    public static Condition numericMeterValueCondition() {
+        return CONNECTOR_METER_VALUE.VALUE_NUMERIC.isNotNull()
+            .or(CONNECTOR_METER_VALUE.VALUE_NUMERIC.isNull().and(rawNumericCondition()));
+    }
+
+    /**
+     * Readings of the energy register
+     */
+    public static Condition energyMeterValueCondition() {
+        return CONNECTOR_METER_VALUE.ENERGY_WH.isNotNull()
+            .or(CONNECTOR_METER_VALUE.VALUE_NUMERIC.isNull()
+                .and(rawNumericCondition())
+                .and(CONNECTOR_METER_VALUE.MEASURAND.isNull()
+                    .or(CONNECTOR_METER_VALUE.MEASURAND.in("", Measurand.ENERGY_ACTIVE_IMPORT_REGISTER.value())))
+                .and(CONNECTOR_METER_VALUE.UNIT.isNull()
+                    .or(CONNECTOR_METER_VALUE.UNIT.in("", UnitOfMeasure.WH.value(), UnitOfMeasure.K_WH.value()))));
+    }
+
+    /**
+     * Only meaningful for the rows that match {@link #numericMeterValueCondition()}
+     *
+     * @param t connector_meter_value, or a derived table with its columns
+     */
+    public static Field<Double> numericMeterValue(Table<?> t) {
+        return DSL.coalesce(
+            t.field(CONNECTOR_METER_VALUE.VALUE_NUMERIC),
+            toDouble(t.field(CONNECTOR_METER_VALUE.VALUE))
+        );
+    }
+
+    /**
+     * Only meaningful for the rows that match {@link #energyMeterValueCondition()}
+     *
+     * @param t connector_meter_value, or a derived table with its columns
+     */
+    public static Field<Double> energyMeterValueInWh(Table<?> t) {
+        Field<Double> value = toDouble(t.field(CONNECTOR_METER_VALUE.VALUE));
+
+        return DSL.coalesce(
+            t.field(CONNECTOR_METER_VALUE.ENERGY_WH),
+            DSL.when(t.field(CONNECTOR_METER_VALUE.UNIT).eq(UnitOfMeasure.K_WH.value()), value.mul(1000))
+               .otherwise(value)
+        );
+    }
+
+    private static Condition rawNumericCondition() {
+        return isNumeric(CONNECTOR_METER_VALUE.VALUE)
+            .and(CONNECTOR_METER_VALUE.FORMAT.isNull()
+                .or(CONNECTOR_METER_VALUE.FORMAT.in("", ValueFormat.RAW.value())));
+    }
 }
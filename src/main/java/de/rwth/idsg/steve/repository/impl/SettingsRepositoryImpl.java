@@ -21,6 +21,7 @@ package de.rwth.idsg.steve.repository.impl;
 import de.rwth.idsg.steve.NotificationFeature;
 import de.rwth.idsg.steve.SteveException;
 import de.rwth.idsg.steve.repository.SettingsRepository;
+import de.rwth.idsg.steve.repository.memory.InMemoryDatabase;
 import de.rwth.idsg.steve.web.dto.SettingsForm;
 import de.rwth.idsg.steve.web.dto.SettingsForm.MailSettings;
 import de.rwth.idsg.steve.web.dto.SettingsForm.OcppSettings;
@@ -29,6 +30,7 @@ import lombok.RequiredArgsConstructor;
 import org.jooq.DSLContext;
 import org.jooq.exception.DataAccessException;
 import org.jooq.impl.DSL;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Repository;
 
 import java.nio.charset.StandardCharsets;
@@ -46,6 +48,7 @@ import static jooq.steve.db.tables.Settings.SETTINGS;
  * @since 06.11.2015
  */
 @Repository
+@Profile("!" + InMemoryDatabase.PROFILE)
 @RequiredArgsConstructor
 public class SettingsRepositoryImpl implements SettingsRepository {
 
@@ -157,14 +160,14 @@ public class SettingsRepositoryImpl implements SettingsRepository {
             .execute();
     }
 
-    private static OcppSettings mapToOcppSettings(SettingsRecord r) {
+    public static OcppSettings mapToOcppSettings(SettingsRecord r) {
         return OcppSettings.builder()
             .heartbeat(toMin(r.getHeartbeatIntervalInSeconds()))
             .expiration(r.getHoursToExpire())
             .build();
     }
 
-    private static MailSettings mapToMailSettings(SettingsRecord r) {
+    public static MailSettings mapToMailSettings(SettingsRecord r) {
         List<String> eMails = splitByComma(r.getMailRecipients());
 
         List<NotificationFeature> features = splitByComma(r.getNotificationFeatures())
@@ -189,7 +192,7 @@ public class SettingsRepositoryImpl implements SettingsRepository {
         return (int) TimeUnit.SECONDS.toMinutes(seconds);
     }
 
-    private static int toSec(int minutes) {
+    public static int toSec(int minutes) {
         return (int) TimeUnit.MINUTES.toSeconds(minutes);
     }
 }
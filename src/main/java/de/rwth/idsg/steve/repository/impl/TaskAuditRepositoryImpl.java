@@ -0,0 +1,75 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.repository.impl;
+
+import de.rwth.idsg.steve.ocpp.CommunicationTask;
+import de.rwth.idsg.steve.ocpp.RequestResult;
+import de.rwth.idsg.steve.repository.TaskAuditRepository;
+import jooq.steve.db.tables.records.TaskAuditResultRecord;
+import lombok.RequiredArgsConstructor;
+import org.jooq.DSLContext;
+import org.jooq.impl.DSL;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static jooq.steve.db.tables.TaskAudit.TASK_AUDIT;
+import static jooq.steve.db.tables.TaskAuditResult.TASK_AUDIT_RESULT;
+
+@Repository
+@RequiredArgsConstructor
+public class TaskAuditRepositoryImpl implements TaskAuditRepository {
+
+    private final DSLContext ctx;
+
+    @Override
+    public void insert(int taskId, CommunicationTask<?, ?> task) {
+        ctx.transaction(configuration -> {
+            DSLContext ctx = DSL.using(configuration);
+
+            int taskAuditPk = ctx.insertInto(TASK_AUDIT)
+                                 .set(TASK_AUDIT.TASK_ID, taskId)
+                                 .set(TASK_AUDIT.OPERATION_NAME, task.getOperationName())
+                                 .set(TASK_AUDIT.ORIGIN, task.getOrigin().name())
+                                 .set(TASK_AUDIT.CALLER, task.getCaller())
+                                 .set(TASK_AUDIT.START_TIMESTAMP, task.getStartTimestamp())
+                                 .set(TASK_AUDIT.END_TIMESTAMP, task.getEndTimestamp())
+                                 .set(TASK_AUDIT.REQUEST_COUNT, task.getResultSize())
+                                 .set(TASK_AUDIT.RESPONSE_COUNT, task.getResponseCount().get())
+                                 .set(TASK_AUDIT.ERROR_COUNT, task.getErrorCount().get())
+                                 .set(TASK_AUDIT.CANCELLED, task.isCancelled())
+                                 .returning(TASK_AUDIT.TASK_AUDIT_PK)
+                                 .fetchOne()
+                                 .getTaskAuditPk();
+
+            List<TaskAuditResultRecord> batch = new ArrayList<>(task.getResultSize());
+            for (Map.Entry<String, RequestResult> entry : task.getResultMap().entrySet()) {
+                batch.add(ctx.newRecord(TASK_AUDIT_RESULT)
+                             .setTaskAuditPk(taskAuditPk)
+                             .setChargeBoxId(entry.getKey())
+                             .setResponse(entry.getValue().getResponse())
+                             .setErrorMessage(entry.getValue().getErrorMessage()));
+            }
+
+            ctx.batchInsert(batch).execute();
+        });
+    }
+}
@@ -19,80 +19,250 @@
 package de.rwth.idsg.steve.repository.impl;
 
 import de.rwth.idsg.steve.SteveException;
+import de.rwth.idsg.steve.config.SteveProperties;
 import de.rwth.idsg.steve.ocpp.CommunicationTask;
+import de.rwth.idsg.steve.repository.TaskAuditRepository;
 import de.rwth.idsg.steve.repository.TaskStore;
 import de.rwth.idsg.steve.repository.dto.TaskOverview;
+import de.rwth.idsg.steve.repository.dto.TaskSummary;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.Nullable;
+import org.joda.time.DateTime;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.stereotype.Repository;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
-import java.util.stream.Collectors;
 
 /**
+ * The tasks are sorted by their id, so that the overview can be paged without sorting all tasks. The retention
+ * rules of {@link SteveProperties.Tasks} are applied periodically, and the capacity after every new task.
+ *
  * @author Sevket Goekay <sevketgokay@gmail.com>
  * @since 29.12.2014
  */
 @Slf4j
 @Repository
+@RequiredArgsConstructor
 public class TaskStoreImpl implements TaskStore {
 
+    private static final Duration HOUSEKEEPING_INTERVAL = Duration.ofMinutes(1);
+
+    private final SteveProperties steveProperties;
+    private final TaskAuditRepository taskAuditRepository;
+    private final TaskScheduler taskScheduler;
+
     private final AtomicInteger atomicInteger = new AtomicInteger(0);
-    private final ConcurrentHashMap<Integer, CommunicationTask> lookupTable = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<Integer, Entry> lookupTable = new ConcurrentSkipListMap<>();
+
+    /**
+     * Tasks that were compacted or removed, but are not written to the audit table yet. Written by the
+     * housekeeping, so that no request thread waits for the database.
+     */
+    private final Queue<Map.Entry<Integer, CommunicationTask>> auditQueue = new ConcurrentLinkedQueue<>();
+
+    private ScheduledFuture<?> scheduledFuture;
+
+    @EventListener
+    public synchronized void afterStart(ContextRefreshedEvent event) {
+        if (scheduledFuture == null) {
+            scheduledFuture = taskScheduler.scheduleWithFixedDelay(this::housekeeping, HOUSEKEEPING_INTERVAL);
+        }
+    }
 
     @Override
-    public List<TaskOverview> getOverview() {
-        return lookupTable.entrySet()
+    public List<TaskOverview> getOverview(int offset, int limit) {
+        return lookupTable.descendingMap()
+                          .entrySet()
                           .stream()
-                          .map(entry -> {
-                              CommunicationTask r = entry.getValue();
-                              return TaskOverview.builder()
-                                                 .taskId(entry.getKey())
-                                                 .origin(r.getOrigin())
-                                                 .start(r.getStartTimestamp())
-                                                 .end(r.getEndTimestamp())
-                                                 .responseCount(r.getResponseCount().get())
-                                                 .requestCount(r.getResultMap().size())
-                                                 .build();
-                          })
-                          .sorted()
-                          .collect(Collectors.toList());
+                          .skip(offset)
+                          .limit(limit)
+                          .map(entry -> entry.getValue().toOverview(entry.getKey()))
+                          .toList();
+    }
+
+    /**
+     * Not a constant-time operation, but the number of tasks is bounded
+     */
+    @Override
+    public int size() {
+        return lookupTable.size();
     }
 
     @Override
     public CommunicationTask get(Integer taskId) {
-        CommunicationTask r = lookupTable.get(taskId);
-        if (r == null) {
-            throw new SteveException("There is no task with taskId '%s'", taskId);
-        } else {
-            return r;
+        Entry entry = getEntry(taskId);
+        if (entry.task == null) {
+            throw new SteveException("The task '%s' is finished, only its summary is kept", taskId);
         }
+        return entry.task;
+    }
+
+    @Override
+    public Optional<TaskSummary> getSummary(Integer taskId) {
+        return Optional.ofNullable(getEntry(taskId).summary);
     }
 
     @Override
     public Integer add(CommunicationTask task) {
         int taskId = atomicInteger.incrementAndGet();
-        lookupTable.put(taskId, task);
+        lookupTable.put(taskId, new Entry(task, null));
+        evictOverCapacity();
         return taskId;
     }
 
     @Override
     public void clearFinished() {
-        removeTasks(entry -> entry.getValue().isFinished());
+        removeTasks(Entry::isFinished);
     }
 
     @Override
     public void clearUnfinished() {
-        removeTasks(entry -> !entry.getValue().isFinished());
+        removeTasks(entry -> !entry.isFinished());
+    }
+
+    private Entry getEntry(Integer taskId) {
+        Entry entry = lookupTable.get(taskId);
+        if (entry == null) {
+            throw new SteveException.NotFound("There is no task with taskId '" + taskId + "'");
+        }
+        return entry;
+    }
+
+    private void removeTasks(Predicate<Entry> filterPredicate) {
+        for (Map.Entry<Integer, Entry> entry : lookupTable.entrySet()) {
+            if (filterPredicate.test(entry.getValue())) {
+                remove(entry.getKey(), entry.getValue());
+            }
+        }
     }
 
-    private void removeTasks(Predicate<Map.Entry<Integer, CommunicationTask>> filterPredicate) {
-        lookupTable.entrySet()
-                   .stream()
-                   .filter(filterPredicate)
-                   .forEach(entry -> lookupTable.remove(entry.getKey()));
+    /**
+     * Oldest first, and finished tasks before unfinished ones
+     */
+    private void evictOverCapacity() {
+        int excess = lookupTable.size() - steveProperties.getTasks().getMaxCount();
+        if (excess <= 0) {
+            return;
+        }
+
+        excess -= removeOldest(excess, Entry::isFinished);
+        if (excess > 0) {
+            removeOldest(excess, entry -> true);
+        }
+    }
+
+    private int removeOldest(int count, Predicate<Entry> filterPredicate) {
+        int removed = 0;
+        for (Map.Entry<Integer, Entry> entry : lookupTable.entrySet()) {
+            if (removed == count) {
+                break;
+            }
+            if (filterPredicate.test(entry.getValue()) && remove(entry.getKey(), entry.getValue())) {
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    private boolean remove(Integer taskId, Entry entry) {
+        boolean removed = lookupTable.remove(taskId, entry);
+        if (removed && entry.task != null) {
+            addToAudit(taskId, entry.task);
+        }
+        return removed;
+    }
+
+    private void addToAudit(Integer taskId, CommunicationTask task) {
+        if (steveProperties.getTasks().isAudit()) {
+            auditQueue.add(Map.entry(taskId, task));
+        }
+    }
+
+    private void housekeeping() {
+        try {
+            applyRetention();
+            evictOverCapacity();
+            writeAudit();
+        } catch (Exception e) {
+            log.error("Housekeeping of the tasks failed", e);
+        }
+    }
+
+    private void applyRetention() {
+        SteveProperties.Tasks properties = steveProperties.getTasks();
+        DateTime now = DateTime.now();
+
+        for (Map.Entry<Integer, Entry> mapEntry : lookupTable.entrySet()) {
+            Integer taskId = mapEntry.getKey();
+            Entry entry = mapEntry.getValue();
+            CommunicationTask<?, ?> task = entry.task;
+
+            if (task == null) {
+                if (isOlderThan(entry.summary.getEndTimestamp(), properties.getFinishedRetention(), now)) {
+                    lookupTable.remove(taskId, entry);
+                }
+            } else if (task.isFinished()) {
+                if (isOlderThan(task.getEndTimestamp(), properties.getCompactAfter(), now)
+                        && lookupTable.replace(taskId, entry, new Entry(null, TaskSummary.of(taskId, task)))) {
+                    addToAudit(taskId, task);
+                }
+            } else if (isOlderThan(task.getStartTimestamp(), properties.getUnfinishedRetention(), now)) {
+                remove(taskId, entry);
+            }
+        }
+    }
+
+    private void writeAudit() {
+        Map.Entry<Integer, CommunicationTask> item;
+        while ((item = auditQueue.poll()) != null) {
+            try {
+                taskAuditRepository.insert(item.getKey(), item.getValue());
+            } catch (Exception e) {
+                log.error("Failed to write the task '{}' to the audit table", item.getKey(), e);
+            }
+        }
+    }
+
+    private static boolean isOlderThan(DateTime timestamp, Duration duration, DateTime now) {
+        return timestamp.plus(duration.toMillis()).isBefore(now);
+    }
+
+    /**
+     * Either the task itself, or its summary after compaction
+     */
+    @RequiredArgsConstructor
+    private static final class Entry {
+        @Nullable private final CommunicationTask<?, ?> task;
+        @Nullable private final TaskSummary summary;
+
+        private boolean isFinished() {
+            return task == null || task.isFinished();
+        }
+
+        private TaskOverview toOverview(int taskId) {
+            if (task == null) {
+                return summary.toOverview();
+            }
+            return TaskOverview.builder()
+                               .taskId(taskId)
+                               .origin(task.getOrigin())
+                               .start(task.getStartTimestamp())
+                               .end(task.getEndTimestamp())
+                               .responseCount(task.getResponseCount().get())
+                               .requestCount(task.getResultSize())
+                               .build();
+        }
     }
 }
@@ -22,26 +22,34 @@ import de.rwth.idsg.steve.SteveException;
 import de.rwth.idsg.steve.repository.TransactionRepository;
 import de.rwth.idsg.steve.repository.dto.Transaction;
 import de.rwth.idsg.steve.repository.dto.TransactionDetails;
+import de.rwth.idsg.steve.repository.dto.TransactionStopCandidate;
 import de.rwth.idsg.steve.utils.DateTimeUtils;
-import de.rwth.idsg.steve.utils.TransactionStopServiceHelper;
 import de.rwth.idsg.steve.web.dto.TransactionQueryForm;
 import jakarta.annotation.Nullable;
+import jooq.steve.db.tables.TransactionStart;
 import jooq.steve.db.tables.records.ConnectorMeterValueRecord;
 import jooq.steve.db.tables.records.TransactionStartRecord;
 import lombok.RequiredArgsConstructor;
-import ocpp.cs._2015._10.UnitOfMeasure;
 import org.joda.time.DateTime;
 import org.jooq.Condition;
 import org.jooq.DSLContext;
 import org.jooq.Field;
+import org.jooq.Record8;
+import org.jooq.SelectConditionStep;
 import org.jooq.SelectQuery;
 import org.jooq.Table;
+import org.jooq.impl.DSL;
 import org.springframework.stereotype.Repository;
 
 import java.io.Writer;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
+import static de.rwth.idsg.steve.repository.impl.RepositoryUtils.energyMeterValueCondition;
+import static de.rwth.idsg.steve.repository.impl.RepositoryUtils.energyMeterValueInWh;
 import static de.rwth.idsg.steve.repository.impl.RepositoryUtils.ocppTagByUserIdQuery;
 import static de.rwth.idsg.steve.utils.CustomDSL.DATE_TIME_TYPE;
 import static de.rwth.idsg.steve.utils.CustomDSL.date;
@@ -52,6 +60,7 @@ import static jooq.steve.db.tables.ConnectorMeterValue.CONNECTOR_METER_VALUE;
 import static jooq.steve.db.tables.OcppTag.OCPP_TAG;
 import static jooq.steve.db.tables.Transaction.TRANSACTION;
 import static jooq.steve.db.tables.TransactionStart.TRANSACTION_START;
+import static jooq.steve.db.tables.TransactionStop.TRANSACTION_STOP;
 
 /**
  * @author Sevket Goekay <sevketgokay@gmail.com>
@@ -211,15 +220,14 @@ public class TransactionRepositoryImpl implements TransactionRepository {
         }
 
         // https://github.com/steve-community/steve/issues/1514
-        Condition unitCondition = CONNECTOR_METER_VALUE.UNIT.isNull()
-            .or(CONNECTOR_METER_VALUE.UNIT.in("", UnitOfMeasure.WH.value(), UnitOfMeasure.K_WH.value()));
+        Condition energyCondition = energyMeterValueCondition();
 
         // Case 1: Ideal and most accurate case. Station sends meter values with transaction id set.
         //
         SelectQuery<ConnectorMeterValueRecord> transactionQuery =
                 ctx.selectFrom(CONNECTOR_METER_VALUE)
                    .where(CONNECTOR_METER_VALUE.TRANSACTION_PK.eq(transactionPk))
-                   .and(unitCondition)
+                   .and(energyCondition)
                    .getQuery();
 
         // Case 2: Fall back to filtering according to time windows
@@ -231,7 +239,7 @@ public class TransactionRepositoryImpl implements TransactionRepository {
                                                                    .where(CONNECTOR.CHARGE_BOX_ID.eq(chargeBoxId))
                                                                    .and(CONNECTOR.CONNECTOR_ID.eq(connectorId))))
                    .and(timestampCondition)
-                   .and(unitCondition)
+                   .and(energyCondition)
                    .getQuery();
 
         // Actually, either case 1 applies or 2. If we retrieved values using 1, case 2 is should not be
@@ -253,7 +261,8 @@ public class TransactionRepositoryImpl implements TransactionRepository {
                         t1.field(6, String.class),
                         t1.field(7, String.class),
                         t1.field(8, String.class),
-                        t1.field(9, String.class))
+                        t1.field(9, String.class),
+                        energyMeterValueInWh(t1))
                    .from(t1)
                    .orderBy(dateTimeField)
                    .fetch()
@@ -266,18 +275,182 @@ public class TransactionRepositoryImpl implements TransactionRepository {
                                                            .location(r.value6())
                                                            .unit(r.value7())
                                                            .phase(r.value8())
-                                                           .build())
-                   .stream()
-                   .filter(TransactionStopServiceHelper::isEnergyValue)
-                   .toList();
+                                                           .energyWh(r.value9())
+                                                           .build());
 
         return new TransactionDetails(transaction, values, nextTx);
     }
 
+    @Override
+    public List<TransactionStopCandidate> getStopCandidates(Collection<Integer> transactionPks) {
+        if (transactionPks.isEmpty()) {
+            return List.of();
+        }
+
+        // -------------------------------------------------------------------------
+        // Step 1: Latest energy meter value per active transaction
+        // -------------------------------------------------------------------------
+
+        Map<Integer, TransactionDetails.MeterValues> lastValues = getLastEnergyValues(transactionPks);
+
+        // -------------------------------------------------------------------------
+        // Step 2: Transactions with the start of their subsequent transaction
+        // -------------------------------------------------------------------------
+
+        return candidatesQuery(transactionPks)
+            .fetch()
+            .map(r -> TransactionStopCandidate.builder()
+                                              .transactionPk(r.value1())
+                                              .chargeBoxId(r.value3())
+                                              .startTimestamp(r.value4())
+                                              .startValue(r.value5())
+                                              .stopped(Boolean.TRUE.equals(r.value6()))
+                                              .nextStartTimestamp(r.value7())
+                                              .nextStartValue(r.value8())
+                                              .lastEnergyValue(lastValues.get(r.value1()))
+                                              .build());
+    }
+
     // -------------------------------------------------------------------------
     // Private helpers
     // -------------------------------------------------------------------------
 
+    /**
+     * The subsequent transaction at the same chargebox and connector is selected with correlated subqueries, which
+     * have the same semantics as the nextTx lookup in getDetails.
+     */
+    private SelectConditionStep<Record8<Integer, Integer, String, DateTime, String, Boolean, DateTime, String>>
+    candidatesQuery(Collection<Integer> transactionPks) {
+        TransactionStart next = TRANSACTION_START.as("next_tx");
+
+        Field<DateTime> nextStartTimestamp =
+            DSL.select(next.START_TIMESTAMP)
+               .from(next)
+               .where(next.CONNECTOR_PK.eq(TRANSACTION_START.CONNECTOR_PK))
+               .and(next.START_TIMESTAMP.greaterThan(TRANSACTION_START.START_TIMESTAMP))
+               .orderBy(next.START_TIMESTAMP, next.TRANSACTION_PK)
+               .limit(1)
+               .asField("next_start_timestamp");
+
+        Field<String> nextStartValue =
+            DSL.select(next.START_VALUE)
+               .from(next)
+               .where(next.CONNECTOR_PK.eq(TRANSACTION_START.CONNECTOR_PK))
+               .and(next.START_TIMESTAMP.greaterThan(TRANSACTION_START.START_TIMESTAMP))
+               .orderBy(next.START_TIMESTAMP, next.TRANSACTION_PK)
+               .limit(1)
+               .asField("next_start_value");
+
+        Field<Boolean> stopped =
+            DSL.field(DSL.exists(DSL.selectOne()
+                                    .from(TRANSACTION_STOP)
+                                    .where(TRANSACTION_STOP.TRANSACTION_PK.eq(TRANSACTION_START.TRANSACTION_PK))))
+               .as("stopped");
+
+        return ctx.select(
+                      TRANSACTION_START.TRANSACTION_PK,
+                      TRANSACTION_START.CONNECTOR_PK,
+                      CONNECTOR.CHARGE_BOX_ID,
+                      TRANSACTION_START.START_TIMESTAMP,
+                      TRANSACTION_START.START_VALUE,
+                      stopped,
+                      nextStartTimestamp,
+                      nextStartValue)
+                  .from(TRANSACTION_START)
+                  .join(CONNECTOR).on(CONNECTOR.CONNECTOR_PK.eq(TRANSACTION_START.CONNECTOR_PK))
+                  .where(TRANSACTION_START.TRANSACTION_PK.in(transactionPks));
+    }
+
+    /**
+     * Set-based version of the meter value lookup in getDetails: The meter values of all active transactions are
+     * collected with the same two cases (by transaction pk, or by connector and time window), and the database
+     * picks the latest energy value per transaction with a window function.
+     */
+    private Map<Integer, TransactionDetails.MeterValues> getLastEnergyValues(Collection<Integer> transactionPks) {
+        var w = candidatesQuery(transactionPks).asTable("w");
+
+        Field<Integer> transactionPk = w.field(TRANSACTION_START.TRANSACTION_PK);
+        Field<Integer> connectorPk = w.field(TRANSACTION_START.CONNECTOR_PK);
+        Field<DateTime> startTimestamp = w.field(TRANSACTION_START.START_TIMESTAMP);
+        Field<DateTime> nextStartTimestamp = w.field("next_start_timestamp", DATE_TIME_TYPE);
+        Condition active = w.field("stopped", Boolean.class).isFalse();
+
+        // Case 1: Station sends meter values with transaction id set
+        //
+        var transactionQuery =
+            DSL.select(meterValueFields(transactionPk))
+               .from(w)
+               .join(CONNECTOR_METER_VALUE).on(CONNECTOR_METER_VALUE.TRANSACTION_PK.eq(transactionPk))
+               .where(active)
+               .and(energyMeterValueCondition());
+
+        // Case 2: Fall back to filtering according to time windows
+        //
+        var timestampQuery =
+            DSL.select(meterValueFields(transactionPk))
+               .from(w)
+               .join(CONNECTOR_METER_VALUE).on(CONNECTOR_METER_VALUE.CONNECTOR_PK.eq(connectorPk))
+               .where(active)
+               .and(CONNECTOR_METER_VALUE.VALUE_TIMESTAMP.greaterOrEqual(startTimestamp))
+               .and(nextStartTimestamp.isNull().or(CONNECTOR_METER_VALUE.VALUE_TIMESTAMP.lessOrEqual(nextStartTimestamp)))
+               .and(energyMeterValueCondition());
+
+        // Duplicates do not matter, since we only pick one row per transaction
+        //
+        var t1 = transactionQuery.unionAll(timestampQuery).asTable("t1");
+
+        Field<Integer> rowNumber = DSL.rowNumber()
+                                      .over(DSL.partitionBy(t1.field(0, Integer.class))
+                                               .orderBy(t1.field(1, DATE_TIME_TYPE).desc()))
+                                      .as("rn");
+
+        var t2 = DSL.select(t1.fields()).select(rowNumber).from(t1).asTable("t2");
+
+        Map<Integer, TransactionDetails.MeterValues> values = new HashMap<>();
+
+        ctx.select(
+                t2.field(0, Integer.class),
+                t2.field(1, DATE_TIME_TYPE),
+                t2.field(2, String.class),
+                t2.field(3, String.class),
+                t2.field(4, String.class),
+                t2.field(5, String.class),
+                t2.field(6, String.class),
+                t2.field(7, String.class),
+                t2.field(8, String.class),
+                t2.field(9, Double.class))
+           .from(t2)
+           .where(t2.field("rn", Integer.class).eq(1))
+           .fetch()
+           .forEach(r -> values.put(r.value1(), TransactionDetails.MeterValues.builder()
+                                                                              .valueTimestamp(r.value2())
+                                                                              .value(r.value3())
+                                                                              .readingContext(r.value4())
+                                                                              .format(r.value5())
+                                                                              .measurand(r.value6())
+                                                                              .location(r.value7())
+                                                                              .unit(r.value8())
+                                                                              .phase(r.value9())
+                                                                              .energyWh(r.value10())
+                                                                              .build()));
+        return values;
+    }
+
+    private static List<Field<?>> meterValueFields(Field<Integer> transactionPk) {
+        return List.of(
+            transactionPk,
+            CONNECTOR_METER_VALUE.VALUE_TIMESTAMP,
+            CONNECTOR_METER_VALUE.VALUE,
+            CONNECTOR_METER_VALUE.READING_CONTEXT,
+            CONNECTOR_METER_VALUE.FORMAT,
+            CONNECTOR_METER_VALUE.MEASURAND,
+            CONNECTOR_METER_VALUE.LOCATION,
+            CONNECTOR_METER_VALUE.UNIT,
+            CONNECTOR_METER_VALUE.PHASE,
+            energyMeterValueInWh(CONNECTOR_METER_VALUE).as(CONNECTOR_METER_VALUE.ENERGY_WH.getUnqualifiedName())
+        );
+    }
+
     private List<Condition> getConditions(TransactionQueryForm form) {
         List<Condition> conditions = new ArrayList<>();
 
@@ -0,0 +1,114 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.repository.impl;
+
+import de.rwth.idsg.steve.repository.WebhookOutboxRepository;
+import de.rwth.idsg.steve.repository.dto.WebhookEvent;
+import jooq.steve.db.tables.records.WebhookOutboxRecord;
+import lombok.RequiredArgsConstructor;
+import org.joda.time.DateTime;
+import org.jooq.DSLContext;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import static jooq.steve.db.tables.WebhookOutbox.WEBHOOK_OUTBOX;
+
+@Repository
+@RequiredArgsConstructor
+public class WebhookOutboxRepositoryImpl implements WebhookOutboxRepository {
+
+    private final DSLContext ctx;
+
+    @Override
+    public void insert(List<WebhookEvent> events) {
+        List<WebhookOutboxRecord> batch =
+                events.stream()
+                      .map(e -> ctx.newRecord(WEBHOOK_OUTBOX)
+                                   .setTarget(e.getTarget())
+                                   .setEventType(e.getEventType())
+                                   .setEventTimestamp(e.getEventTimestamp())
+                                   .setPayload(e.getPayload()))
+                      .toList();
+
+        ctx.batchInsert(batch).execute();
+    }
+
+    @Override
+    public List<WebhookEvent> getEvents(String target, int limit) {
+        return ctx.selectFrom(WEBHOOK_OUTBOX)
+                  .where(WEBHOOK_OUTBOX.TARGET.eq(target))
+                  .orderBy(WEBHOOK_OUTBOX.WEBHOOK_OUTBOX_PK)
+                  .limit(limit)
+                  .fetch(r -> WebhookEvent.builder()
+                                          .webhookOutboxPk(r.getWebhookOutboxPk())
+                                          .target(r.getTarget())
+                                          .eventType(r.getEventType())
+                                          .eventTimestamp(r.getEventTimestamp())
+                                          .payload(r.getPayload())
+                                          .attempts(r.getAttempts())
+                                          .nextAttemptTimestamp(r.getNextAttemptTimestamp())
+                                          .build());
+    }
+
+    @Override
+    public void delete(List<Long> webhookOutboxPks) {
+        ctx.delete(WEBHOOK_OUTBOX)
+           .where(WEBHOOK_OUTBOX.WEBHOOK_OUTBOX_PK.in(webhookOutboxPks))
+           .execute();
+    }
+
+    @Override
+    public void markFailed(List<Long> webhookOutboxPks, DateTime nextAttempt, String error) {
+        ctx.update(WEBHOOK_OUTBOX)
+           .set(WEBHOOK_OUTBOX.ATTEMPTS, WEBHOOK_OUTBOX.ATTEMPTS.plus(1))
+           .set(WEBHOOK_OUTBOX.NEXT_ATTEMPT_TIMESTAMP, nextAttempt)
+           .set(WEBHOOK_OUTBOX.LAST_ERROR, error)
+           .where(WEBHOOK_OUTBOX.WEBHOOK_OUTBOX_PK.in(webhookOutboxPks))
+           .execute();
+    }
+
+    @Override
+    public int deleteOldest(String target, int keep) {
+        Long newestToDelete = ctx.select(WEBHOOK_OUTBOX.WEBHOOK_OUTBOX_PK)
+                                 .from(WEBHOOK_OUTBOX)
+                                 .where(WEBHOOK_OUTBOX.TARGET.eq(target))
+                                 .orderBy(WEBHOOK_OUTBOX.WEBHOOK_OUTBOX_PK.desc())
+                                 .limit(1)
+                                 .offset(keep)
+                                 .fetchOne(WEBHOOK_OUTBOX.WEBHOOK_OUTBOX_PK);
+
+        if (newestToDelete == null) {
+            return 0;
+        }
+
+        return ctx.delete(WEBHOOK_OUTBOX)
+                  .where(WEBHOOK_OUTBOX.TARGET.eq(target))
+                  .and(WEBHOOK_OUTBOX.WEBHOOK_OUTBOX_PK.le(newestToDelete))
+                  .execute();
+    }
+
+    @Override
+    public int deleteOtherTargets(Collection<String> targets) {
+        return ctx.delete(WEBHOOK_OUTBOX)
+                  .where(WEBHOOK_OUTBOX.TARGET.notIn(targets))
+                  .execute();
+    }
+}
@@ -0,0 +1,321 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.repository.memory;
+
+import de.rwth.idsg.steve.SteveException;
+import de.rwth.idsg.steve.ocpp.OcppProtocol;
+import de.rwth.idsg.steve.repository.ChargePointRepository;
+import de.rwth.idsg.steve.repository.dto.ChargePoint;
+import de.rwth.idsg.steve.repository.dto.ChargePointSelect;
+import de.rwth.idsg.steve.repository.dto.ConnectorStatus;
+import de.rwth.idsg.steve.utils.DateTimeUtils;
+import de.rwth.idsg.steve.web.dto.Address;
+import de.rwth.idsg.steve.web.dto.ChargePointForm;
+import de.rwth.idsg.steve.web.dto.ChargePointQueryForm;
+import de.rwth.idsg.steve.web.dto.ConnectorStatusForm;
+import jooq.steve.db.tables.records.AddressRecord;
+import jooq.steve.db.tables.records.ChargeBoxRecord;
+import jooq.steve.db.tables.records.ConnectorStatusRecord;
+import lombok.RequiredArgsConstructor;
+import ocpp.cs._2015._10.RegistrationStatus;
+import org.jetbrains.annotations.Nullable;
+import org.joda.time.DateTime;
+import org.joda.time.LocalDate;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+import org.springframework.util.CollectionUtils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+@Repository
+@Profile(InMemoryDatabase.PROFILE)
+@RequiredArgsConstructor
+public class InMemoryChargePointRepository implements ChargePointRepository {
+
+    private final InMemoryDatabase db;
+
+    @Override
+    public Optional<String> getRegistrationStatus(String chargeBoxId) {
+        ChargeBoxRecord r = db.chargeBoxes.get(chargeBoxId);
+        return Optional.ofNullable(r == null ? null : r.getRegistrationStatus());
+    }
+
+    @Override
+    public List<ChargePointSelect> getChargePointSelect(OcppProtocol protocol, List<String> inStatusFilter, List<String> chargeBoxIdFilter) {
+        return db.chargeBoxes.values()
+                             .stream()
+                             .filter(r -> protocol.getCompositeValue().equals(r.getOcppProtocol()))
+                             .filter(r -> r.getEndpointAddress() != null)
+                             .filter(r -> inStatusFilter.contains(r.getRegistrationStatus()))
+                             .filter(r -> CollectionUtils.isEmpty(chargeBoxIdFilter) || chargeBoxIdFilter.contains(r.getChargeBoxId()))
+                             .map(r -> new ChargePointSelect(protocol, r.getChargeBoxId(), r.getEndpointAddress()))
+                             .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<String> getChargeBoxIds() {
+        return List.copyOf(db.chargeBoxes.keySet());
+    }
+
+    @Override
+    public Map<String, Integer> getChargeBoxIdPkPair(List<String> chargeBoxIdList) {
+        return chargeBoxIdList.stream()
+                              .map(db.chargeBoxes::get)
+                              .filter(Objects::nonNull)
+                              .collect(Collectors.toMap(ChargeBoxRecord::getChargeBoxId, ChargeBoxRecord::getChargeBoxPk));
+    }
+
+    @Override
+    public List<ChargePoint.Overview> getOverview(ChargePointQueryForm form) {
+        LocalDate today = LocalDate.now();
+        LocalDate yesterday = today.minusDays(1);
+
+        Predicate<ChargeBoxRecord> filter = r -> true;
+
+        if (form.isSetOcppVersion()) {
+            filter = filter.and(r -> r.getOcppProtocol() != null
+                && r.getOcppProtocol().startsWith(form.getOcppVersion().getValue()));
+        }
+
+        if (form.isSetDescription()) {
+            filter = filter.and(r -> InMemoryDatabase.includes(r.getDescription(), form.getDescription()));
+        }
+
+        if (form.isSetChargeBoxId()) {
+            filter = filter.and(r -> InMemoryDatabase.includes(r.getChargeBoxId(), form.getChargeBoxId()));
+        }
+
+        if (form.isSetNote()) {
+            filter = filter.and(r -> InMemoryDatabase.includes(r.getNote(), form.getNote()));
+        }
+
+        switch (form.getHeartbeatPeriod()) {
+            case ALL:
+                break;
+
+            case TODAY:
+                filter = filter.and(r -> today.equals(heartbeatDate(r)));
+                break;
+
+            case YESTERDAY:
+                filter = filter.and(r -> yesterday.equals(heartbeatDate(r)));
+                break;
+
+            case EARLIER:
+                filter = filter.and(r -> heartbeatDate(r) != null && heartbeatDate(r).isBefore(yesterday));
+                break;
+
+            default:
+                throw new SteveException("Unknown enum type");
+        }
+
+        return db.chargeBoxes.values()
+                             .stream()
+                             .filter(filter)
+                             .sorted(Comparator.comparing(ChargeBoxRecord::getChargeBoxPk))
+                             .map(r -> ChargePoint.Overview.builder()
+                                                           .chargeBoxPk(r.getChargeBoxPk())
+                                                           .chargeBoxId(r.getChargeBoxId())
+                                                           .description(r.getDescription())
+                                                           .ocppProtocol(r.getOcppProtocol())
+                                                           .lastHeartbeatTimestampDT(r.getLastHeartbeatTimestamp())
+                                                           .lastHeartbeatTimestamp(DateTimeUtils.humanize(r.getLastHeartbeatTimestamp()))
+                                                           .build())
+                             .collect(Collectors.toList());
+    }
+
+    @Override
+    public ChargePoint.Details getDetails(int chargeBoxPk) {
+        ChargeBoxRecord cbr = db.findChargeBox(chargeBoxPk);
+
+        if (cbr == null) {
+            throw new SteveException("Charge point not found");
+        }
+
+        AddressRecord ar = cbr.getAddressPk() == null ? null : db.addresses.get(cbr.getAddressPk());
+
+        return new ChargePoint.Details(InMemoryDatabase.copy(cbr), ar == null ? null : InMemoryDatabase.copy(ar));
+    }
+
+    @Override
+    public List<ConnectorStatus> getChargePointConnectorStatus(@Nullable ConnectorStatusForm form) {
+        List<ConnectorStatus> list = new ArrayList<>();
+
+        for (ChargeBoxRecord cb : db.chargeBoxes.values()) {
+            // https://github.com/steve-community/steve/issues/691
+            if (!RegistrationStatus.ACCEPTED.value().equals(cb.getRegistrationStatus())) {
+                continue;
+            }
+            if (form != null && form.getChargeBoxId() != null && !form.getChargeBoxId().equals(cb.getChargeBoxId())) {
+                continue;
+            }
+
+            Map<Integer, Integer> connectorPks = db.connectors.getOrDefault(cb.getChargeBoxId(), Map.of());
+            for (Map.Entry<Integer, Integer> connector : connectorPks.entrySet()) {
+                ConnectorStatusRecord status = db.latestConnectorStatuses.get(connector.getValue());
+                if (status == null) {
+                    continue;
+                }
+                if (form != null && form.getStatus() != null && !form.getStatus().equals(status.getStatus())) {
+                    continue;
+                }
+
+                list.add(ConnectorStatus.builder()
+                                        .chargeBoxPk(cb.getChargeBoxPk())
+                                        .chargeBoxId(cb.getChargeBoxId())
+                                        .connectorId(connector.getKey())
+                                        .timeStamp(DateTimeUtils.humanize(status.getStatusTimestamp()))
+                                        .statusTimestamp(status.getStatusTimestamp())
+                                        .status(status.getStatus())
+                                        .errorCode(status.getErrorCode())
+                                        .ocppProtocol(cb.getOcppProtocol() == null ? null : OcppProtocol.fromCompositeValue(cb.getOcppProtocol()))
+                                        .build());
+            }
+        }
+
+        list.sort(Comparator.comparing(ConnectorStatus::getStatusTimestamp).reversed());
+        return list;
+    }
+
+    @Override
+    public List<Integer> getNonZeroConnectorIds(String chargeBoxId) {
+        return db.connectors.getOrDefault(chargeBoxId, Map.of())
+                            .keySet()
+                            .stream()
+                            .filter(connectorId -> connectorId != 0)
+                            .collect(Collectors.toList());
+    }
+
+    @Override
+    public void addChargePointList(List<String> chargeBoxIdList) {
+        for (String chargeBoxId : chargeBoxIdList) {
+            ChargeBoxRecord r = newChargeBox(chargeBoxId).setInsertConnectorStatusAfterTransactionMsg(false);
+            if (db.chargeBoxes.putIfAbsent(chargeBoxId, r) != null) {
+                throw new SteveException("Failed to add the charge point with chargeBoxId '%s'", chargeBoxId);
+            }
+        }
+    }
+
+    @Override
+    public int addChargePoint(ChargePointForm form) {
+        Integer addressPk = updateOrInsert(form.getAddress());
+
+        ChargeBoxRecord r = newChargeBox(form.getChargeBoxId())
+            .setDescription(form.getDescription())
+            .setInsertConnectorStatusAfterTransactionMsg(form.getInsertConnectorStatusAfterTransactionMsg())
+            .setRegistrationStatus(form.getRegistrationStatus())
+            .setNote(form.getNote())
+            .setAdminAddress(form.getAdminAddress())
+            .setAddressPk(addressPk);
+
+        if (db.chargeBoxes.putIfAbsent(form.getChargeBoxId(), r) != null) {
+            if (addressPk != null) {
+                db.addresses.remove(addressPk);
+            }
+            throw new SteveException("Failed to add the charge point with chargeBoxId '%s'", form.getChargeBoxId());
+        }
+        return r.getChargeBoxPk();
+    }
+
+    @Override
+    public void updateChargePoint(ChargePointForm form) {
+        ChargeBoxRecord existing = db.findChargeBox(form.getChargeBoxPk());
+        if (existing == null) {
+            return;
+        }
+
+        Integer addressPk = updateOrInsert(form.getAddress());
+        db.chargeBoxes.computeIfPresent(existing.getChargeBoxId(), (k, old) -> InMemoryDatabase.copy(old)
+            .setDescription(form.getDescription())
+            .setInsertConnectorStatusAfterTransactionMsg(form.getInsertConnectorStatusAfterTransactionMsg())
+            .setRegistrationStatus(form.getRegistrationStatus())
+            .setNote(form.getNote())
+            .setAdminAddress(form.getAdminAddress())
+            .setAddressPk(addressPk));
+    }
+
+    @Override
+    public void deleteChargePoint(int chargeBoxPk) {
+        ChargeBoxRecord r = db.findChargeBox(chargeBoxPk);
+        if (r == null) {
+            return;
+        }
+
+        db.chargeBoxes.remove(r.getChargeBoxId());
+        if (r.getAddressPk() != null) {
+            db.addresses.remove(r.getAddressPk());
+        }
+
+        // like ON DELETE CASCADE
+        Map<Integer, Integer> connectorPks = db.connectors.remove(r.getChargeBoxId());
+        if (connectorPks != null) {
+            connectorPks.values().forEach(db.latestConnectorStatuses::remove);
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------------------------
+
+    private ChargeBoxRecord newChargeBox(String chargeBoxId) {
+        return new ChargeBoxRecord()
+            .setChargeBoxPk(db.chargeBoxPkSequence.incrementAndGet())
+            .setChargeBoxId(chargeBoxId)
+            .setRegistrationStatus(RegistrationStatus.ACCEPTED.value());
+    }
+
+    /**
+     * Like AddressRepositoryImpl.updateOrInsert
+     */
+    @Nullable
+    private Integer updateOrInsert(Address address) {
+        if (address.isEmpty()) {
+            return null;
+        }
+
+        int addressPk = address.getAddressPk() == null
+            ? db.addressPkSequence.incrementAndGet()
+            : address.getAddressPk();
+
+        db.addresses.put(addressPk, new AddressRecord()
+            .setAddressPk(addressPk)
+            .setStreet(address.getStreet())
+            .setHouseNumber(address.getHouseNumber())
+            .setZipCode(address.getZipCode())
+            .setCity(address.getCity())
+            .setCountry(address.getCountryAlpha2OrNull())
+            .setLatitude(address.getLatitude())
+            .setLongitude(address.getLongitude()));
+
+        return addressPk;
+    }
+
+    @Nullable
+    private static LocalDate heartbeatDate(ChargeBoxRecord r) {
+        DateTime ts = r.getLastHeartbeatTimestamp();
+        return ts == null ? null : ts.toLocalDate();
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.repository.memory;
+
+import jooq.steve.db.tables.records.AddressRecord;
+import jooq.steve.db.tables.records.ChargeBoxRecord;
+import jooq.steve.db.tables.records.ConnectorStatusRecord;
+import jooq.steve.db.tables.records.OcppTagRecord;
+import jooq.steve.db.tables.records.TransactionStartRecord;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.Nullable;
+import org.jooq.TableRecord;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * The tables that are shared between the in-memory repositories, in place of the database. Rows are jOOQ records,
+ * so that the DTOs can be built like in the jOOQ repositories. A stored row is never modified: an update replaces
+ * it with a modified copy, so that readers do not need locks.
+ *
+ * Only what is needed to serve the charge points is kept. Meter values and stopped transactions are not stored at
+ * all, and of the connector statuses only the latest per connector.
+ */
+@Slf4j
+@Component
+@Profile(InMemoryDatabase.PROFILE)
+public class InMemoryDatabase {
+
+    /**
+     * The Spring profile that replaces the jOOQ implementations of OcppServerRepository, ChargePointRepository,
+     * OcppTagRepository, SettingsRepository, WebUserRepository and GenericRepository with in-memory ones
+     */
+    public static final String PROFILE = "in-memory";
+
+    /**
+     * Key: charge_box_id
+     */
+    final Map<String, ChargeBoxRecord> chargeBoxes = new ConcurrentHashMap<>();
+
+    /**
+     * Key: address_pk
+     */
+    final Map<Integer, AddressRecord> addresses = new ConcurrentHashMap<>();
+
+    /**
+     * Key: charge_box_id, connector_id. Value: connector_pk
+     */
+    final Map<String, Map<Integer, Integer>> connectors = new ConcurrentHashMap<>();
+
+    /**
+     * Key: connector_pk. Value: the status with the latest timestamp
+     */
+    final Map<Integer, ConnectorStatusRecord> latestConnectorStatuses = new ConcurrentHashMap<>();
+
+    /**
+     * Key: id_tag
+     */
+    final Map<String, OcppTagRecord> ocppTags = new ConcurrentHashMap<>();
+
+    /**
+     * Transactions without a stop event. Key: transaction_pk
+     */
+    final Map<Integer, TransactionStartRecord> activeTransactions = new ConcurrentHashMap<>();
+
+    /**
+     * The same transactions, by connector, so that a start does not have to go through all of them. Key:
+     * connector_pk. Value: immutable list, which is replaced on every change
+     */
+    final Map<Integer, List<TransactionStartRecord>> activeTransactionsByConnector = new ConcurrentHashMap<>();
+
+    /**
+     * Key: id_tag. Value: number of active transactions, like in the view ocpp_tag_activity
+     */
+    final Map<String, Integer> activeTransactionCounts = new ConcurrentHashMap<>();
+
+    final AtomicInteger chargeBoxPkSequence = new AtomicInteger();
+    final AtomicInteger addressPkSequence = new AtomicInteger();
+    final AtomicInteger connectorPkSequence = new AtomicInteger();
+    final AtomicInteger ocppTagPkSequence = new AtomicInteger();
+    final AtomicInteger transactionPkSequence = new AtomicInteger();
+
+    /**
+     * Like OcppServerRepositoryImpl.insertIgnoreConnector
+     */
+    int insertIgnoreConnector(String chargeBoxId, int connectorId) {
+        return connectors.computeIfAbsent(chargeBoxId, k -> new ConcurrentHashMap<>())
+                         .computeIfAbsent(connectorId, k -> {
+                             log.info("The connector {}/{} is NEW, and inserted into DB.", chargeBoxId, connectorId);
+                             return connectorPkSequence.incrementAndGet();
+                         });
+    }
+
+    void addActiveTransaction(TransactionStartRecord start) {
+        activeTransactions.put(start.getTransactionPk(), start);
+        activeTransactionsByConnector.compute(start.getConnectorPk(), (k, old) -> {
+            List<TransactionStartRecord> list = old == null ? new ArrayList<>() : new ArrayList<>(old);
+            list.add(start);
+            return List.copyOf(list);
+        });
+    }
+
+    @Nullable
+    TransactionStartRecord removeActiveTransaction(int transactionPk) {
+        TransactionStartRecord start = activeTransactions.remove(transactionPk);
+        if (start != null) {
+            activeTransactionsByConnector.computeIfPresent(start.getConnectorPk(), (k, old) -> {
+                List<TransactionStartRecord> list = old.stream()
+                                                       .filter(r -> r.getTransactionPk() != transactionPk)
+                                                       .toList();
+                return list.isEmpty() ? null : list;
+            });
+        }
+        return start;
+    }
+
+    List<TransactionStartRecord> getActiveTransactions(int connectorPk) {
+        return activeTransactionsByConnector.getOrDefault(connectorPk, List.of());
+    }
+
+    @Nullable
+    ChargeBoxRecord findChargeBox(int chargeBoxPk) {
+        return chargeBoxes.values()
+                          .stream()
+                          .filter(r -> r.getChargeBoxPk() == chargeBoxPk)
+                          .findAny()
+                          .orElse(null);
+    }
+
+    /**
+     * Only the latest status per connector is kept, which is what the readers of the connector statuses are
+     * interested in. Same as in the database, a status with an older timestamp does not replace a newer one.
+     */
+    void insertConnectorStatus(ConnectorStatusRecord status) {
+        latestConnectorStatuses.merge(status.getConnectorPk(), status,
+            (old, neu) -> neu.getStatusTimestamp().isBefore(old.getStatusTimestamp()) ? old : neu);
+    }
+
+    /**
+     * Since the stored rows must not be modified, this is the way to change one
+     */
+    static <R extends TableRecord<R>> R copy(R record) {
+        return record.into(record.getTable());
+    }
+
+    /**
+     * The in-memory counterpart of CustomDSL.includes: case-insensitive, and spaces in the input match anything
+     */
+    static boolean includes(@Nullable String value, String input) {
+        if (value == null) {
+            return false;
+        }
+        String regex = Arrays.stream(input.trim().split("\\s+"))
+                             .map(Pattern::quote)
+                             .collect(Collectors.joining(".*", ".*", ".*"));
+        return Pattern.compile(regex, Pattern.CASE_INSENSITIVE | Pattern.DOTALL).matcher(value).matches();
+    }
+}
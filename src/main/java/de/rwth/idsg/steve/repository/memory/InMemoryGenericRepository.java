@@ -0,0 +1,82 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.repository.memory;
+
+import de.rwth.idsg.steve.repository.GenericRepository;
+import de.rwth.idsg.steve.repository.dto.DbVersion;
+import de.rwth.idsg.steve.utils.DateTimeUtils;
+import de.rwth.idsg.steve.web.dto.Statistics;
+import jooq.steve.db.tables.records.ChargeBoxRecord;
+import lombok.RequiredArgsConstructor;
+import org.joda.time.DateTime;
+import org.joda.time.LocalDate;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.function.Predicate;
+
+@Repository
+@Profile(InMemoryDatabase.PROFILE)
+@RequiredArgsConstructor
+public class InMemoryGenericRepository implements GenericRepository {
+
+    private final InMemoryDatabase db;
+    private final DateTime startTimestamp = DateTime.now();
+
+    /**
+     * There is no database with a time zone of its own
+     */
+    @Override
+    public void checkJavaAndMySQLOffsets() {
+        // no-op
+    }
+
+    @Override
+    public Statistics getStats() {
+        LocalDate today = LocalDate.now();
+        LocalDate yesterday = today.minusDays(1);
+
+        return Statistics.builder()
+                         .numChargeBoxes(db.chargeBoxes.size())
+                         .numOcppTags(db.ocppTags.size())
+                         .numUsers(0)
+                         .numReservations(0)
+                         .numTransactions(db.activeTransactions.size())
+                         .heartbeatToday(countHeartbeats(today::isEqual))
+                         .heartbeatYesterday(countHeartbeats(yesterday::isEqual))
+                         .heartbeatEarlier(countHeartbeats(yesterday::isAfter))
+                         .build();
+    }
+
+    @Override
+    public DbVersion getDBVersion() {
+        return DbVersion.builder()
+                        .version(InMemoryDatabase.PROFILE)
+                        .updateTimestamp(DateTimeUtils.humanize(startTimestamp))
+                        .build();
+    }
+
+    private int countHeartbeats(Predicate<LocalDate> datePredicate) {
+        return (int) db.chargeBoxes.values()
+                                   .stream()
+                                   .map(ChargeBoxRecord::getLastHeartbeatTimestamp)
+                                   .filter(ts -> ts != null && datePredicate.test(ts.toLocalDate()))
+                                   .count();
+    }
+}
@@ -0,0 +1,238 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.repository.memory;
+
+import de.rwth.idsg.steve.ocpp.OcppProtocol;
+import de.rwth.idsg.steve.repository.OcppServerRepository;
+import de.rwth.idsg.steve.repository.dto.InsertConnectorStatusParams;
+import de.rwth.idsg.steve.repository.dto.InsertTransactionParams;
+import de.rwth.idsg.steve.repository.dto.TransactionStatusUpdate;
+import de.rwth.idsg.steve.repository.dto.TransactionStopBatchResult;
+import de.rwth.idsg.steve.repository.dto.UpdateChargeboxParams;
+import de.rwth.idsg.steve.repository.dto.UpdateTransactionParams;
+import jooq.steve.db.tables.records.ChargeBoxRecord;
+import jooq.steve.db.tables.records.ConnectorStatusRecord;
+import jooq.steve.db.tables.records.OcppTagRecord;
+import jooq.steve.db.tables.records.TransactionStartRecord;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import ocpp.cs._2015._10.MeterValue;
+import org.joda.time.DateTime;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.UnaryOperator;
+
+/**
+ * Meter values are not stored, and reservations are not marked as used, since both are not needed to serve the
+ * charge points. Everything else behaves like in OcppServerRepositoryImpl.
+ */
+@Slf4j
+@Repository
+@Profile(InMemoryDatabase.PROFILE)
+@RequiredArgsConstructor
+public class InMemoryOcppServerRepository implements OcppServerRepository {
+
+    private final InMemoryDatabase db;
+
+    @Override
+    public void updateChargebox(UpdateChargeboxParams p) {
+        update(p.getChargeBoxId(), r -> r.setOcppProtocol(p.getOcppProtocol().getCompositeValue())
+                                         .setChargePointVendor(p.getVendor())
+                                         .setChargePointModel(p.getModel())
+                                         .setChargePointSerialNumber(p.getPointSerial())
+                                         .setChargeBoxSerialNumber(p.getBoxSerial())
+                                         .setFwVersion(p.getFwVersion())
+                                         .setIccid(p.getIccid())
+                                         .setImsi(p.getImsi())
+                                         .setMeterType(p.getMeterType())
+                                         .setMeterSerialNumber(p.getMeterSerial())
+                                         .setLastHeartbeatTimestamp(p.getHeartbeatTimestamp()));
+    }
+
+    @Override
+    public void updateOcppProtocol(String chargeBoxIdentity, OcppProtocol protocol) {
+        update(chargeBoxIdentity, r -> r.setOcppProtocol(protocol.getCompositeValue()));
+    }
+
+    @Override
+    public void updateEndpointAddress(String chargeBoxIdentity, String endpointAddress) {
+        update(chargeBoxIdentity, r -> r.setEndpointAddress(endpointAddress));
+    }
+
+    @Override
+    public void updateChargeboxFirmwareStatus(String chargeBoxIdentity, String firmwareStatus) {
+        update(chargeBoxIdentity, r -> r.setFwUpdateStatus(firmwareStatus)
+                                        .setFwUpdateTimestamp(DateTime.now()));
+    }
+
+    @Override
+    public void updateChargeboxDiagnosticsStatus(String chargeBoxIdentity, String status) {
+        update(chargeBoxIdentity, r -> r.setDiagnosticsStatus(status)
+                                        .setDiagnosticsTimestamp(DateTime.now()));
+    }
+
+    @Override
+    public void updateChargeboxHeartbeat(String chargeBoxIdentity, DateTime ts) {
+        update(chargeBoxIdentity, r -> r.setLastHeartbeatTimestamp(ts));
+    }
+
+    @Override
+    public void insertConnectorStatus(InsertConnectorStatusParams p) {
+        int connectorPk = db.insertIgnoreConnector(p.getChargeBoxId(), p.getConnectorId());
+
+        db.insertConnectorStatus(new ConnectorStatusRecord()
+            .setConnectorPk(connectorPk)
+            .setStatusTimestamp(p.getTimestamp())
+            .setStatus(p.getStatus())
+            .setErrorCode(p.getErrorCode())
+            .setErrorInfo(p.getErrorInfo())
+            .setVendorId(p.getVendorId())
+            .setVendorErrorCode(p.getVendorErrorCode()));
+
+        log.debug("Stored a new connector status for {}/{}.", p.getChargeBoxId(), p.getConnectorId());
+    }
+
+    @Override
+    public void insertMeterValues(String chargeBoxIdentity, List<MeterValue> list, int connectorId, Integer transactionId) {
+        db.insertIgnoreConnector(chargeBoxIdentity, connectorId);
+    }
+
+    @Override
+    public void insertMeterValues(String chargeBoxIdentity, List<MeterValue> list, int transactionId) {
+        // not stored
+    }
+
+    @Override
+    public int insertTransaction(InsertTransactionParams p) {
+        int connectorPk = db.insertIgnoreConnector(p.getChargeBoxId(), p.getConnectorId());
+        boolean unknownTagInserted = insertIgnoreIdTag(p);
+
+        // Use case: identical StartTransaction messages that are sent multiple times. The check and the insert
+        // must be atomic per connector, which the lock on the connector map of the charge box gives us.
+        int transactionId;
+        synchronized (db.connectors.get(p.getChargeBoxId())) {
+            TransactionStartRecord existing = db.getActiveTransactions(connectorPk)
+                .stream()
+                .filter(r -> p.getIdTag().equals(r.getIdTag()))
+                .filter(r -> p.getStartTimestamp().isEqual(r.getStartTimestamp()))
+                .filter(r -> Objects.equals(p.getStartMeterValue(), r.getStartValue()))
+                .findAny()
+                .orElse(null);
+
+            if (existing != null) {
+                return existing.getTransactionPk();
+            }
+
+            transactionId = db.transactionPkSequence.incrementAndGet();
+            db.addActiveTransaction(new TransactionStartRecord()
+                .setTransactionPk(transactionId)
+                .setEventTimestamp(p.getEventTimestamp())
+                .setConnectorPk(connectorPk)
+                .setIdTag(p.getIdTag())
+                .setStartTimestamp(p.getStartTimestamp())
+                .setStartValue(p.getStartMeterValue()));
+            db.activeTransactionCounts.merge(p.getIdTag(), 1, Integer::sum);
+        }
+
+        if (unknownTagInserted) {
+            log.warn("The transaction '{}' contains an unknown idTag '{}' which was inserted into DB "
+                    + "to prevent information loss and has been blocked", transactionId, p.getIdTag());
+        }
+
+        if (shouldInsertConnectorStatusAfterTransactionMsg(p.getChargeBoxId())) {
+            insertConnectorStatus(connectorPk, p.getStartTimestamp(), p.getStatusUpdate());
+        }
+
+        return transactionId;
+    }
+
+    @Override
+    public void updateTransaction(UpdateTransactionParams p) {
+        TransactionStartRecord start = db.removeActiveTransaction(p.getTransactionId());
+        if (start == null) {
+            log.warn("Transaction '{}' is not active. Ignoring the stop event.", p.getTransactionId());
+            return;
+        }
+
+        db.activeTransactionCounts.computeIfPresent(start.getIdTag(), (k, count) -> count > 1 ? count - 1 : null);
+
+        if (shouldInsertConnectorStatusAfterTransactionMsg(p.getChargeBoxId())) {
+            insertConnectorStatus(start.getConnectorPk(), p.getStopTimestamp(), p.getStatusUpdate());
+        }
+    }
+
+    @Override
+    public TransactionStopBatchResult updateTransactions(List<UpdateTransactionParams> params) {
+        List<Integer> alreadyStopped = new ArrayList<>();
+        for (UpdateTransactionParams p : params) {
+            if (!db.activeTransactions.containsKey(p.getTransactionId())) {
+                alreadyStopped.add(p.getTransactionId());
+            } else {
+                updateTransaction(p);
+            }
+        }
+        return TransactionStopBatchResult.builder().alreadyStopped(alreadyStopped).failures(Map.of()).build();
+    }
+
+    // -------------------------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------------------------
+
+    private void update(String chargeBoxId, UnaryOperator<ChargeBoxRecord> change) {
+        db.chargeBoxes.computeIfPresent(chargeBoxId, (k, old) -> change.apply(InMemoryDatabase.copy(old)));
+    }
+
+    private void insertConnectorStatus(int connectorPk, DateTime timestamp, TransactionStatusUpdate statusUpdate) {
+        db.insertConnectorStatus(new ConnectorStatusRecord()
+            .setConnectorPk(connectorPk)
+            .setStatusTimestamp(timestamp)
+            .setStatus(statusUpdate.getStatus())
+            .setErrorCode(statusUpdate.getErrorCode()));
+    }
+
+    /**
+     * Like OcppServerRepositoryImpl.insertIgnoreIdTag
+     */
+    private boolean insertIgnoreIdTag(InsertTransactionParams p) {
+        if (db.ocppTags.containsKey(p.getIdTag())) {
+            return false;
+        }
+
+        String note = "This unknown idTag was used in a transaction that started @ " + p.getStartTimestamp()
+                + ". It was reported @ " + DateTime.now() + ".";
+
+        OcppTagRecord r = new OcppTagRecord()
+            .setOcppTagPk(db.ocppTagPkSequence.incrementAndGet())
+            .setIdTag(p.getIdTag())
+            .setNote(note)
+            .setMaxActiveTransactionCount(0);
+
+        return db.ocppTags.putIfAbsent(p.getIdTag(), r) == null;
+    }
+
+    private boolean shouldInsertConnectorStatusAfterTransactionMsg(String chargeBoxId) {
+        ChargeBoxRecord r = db.chargeBoxes.get(chargeBoxId);
+        return r != null && Boolean.TRUE.equals(r.getInsertConnectorStatusAfterTransactionMsg());
+    }
+}
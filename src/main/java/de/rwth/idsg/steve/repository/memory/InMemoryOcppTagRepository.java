@@ -0,0 +1,281 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.repository.memory;
+
+import de.rwth.idsg.steve.SteveException;
+import de.rwth.idsg.steve.repository.OcppTagRepository;
+import de.rwth.idsg.steve.repository.dto.OcppTag.OcppTagOverview;
+import de.rwth.idsg.steve.web.dto.OcppTagForm;
+import de.rwth.idsg.steve.web.dto.OcppTagQueryForm;
+import jooq.steve.db.tables.records.OcppTagActivityRecord;
+import jooq.steve.db.tables.records.OcppTagRecord;
+import lombok.RequiredArgsConstructor;
+import org.jetbrains.annotations.Nullable;
+import org.joda.time.DateTime;
+import org.jooq.DSLContext;
+import org.jooq.Result;
+import org.jooq.SQLDialect;
+import org.jooq.impl.DSL;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static de.rwth.idsg.steve.utils.DateTimeUtils.humanize;
+import static jooq.steve.db.tables.OcppTagActivity.OCPP_TAG_ACTIVITY;
+
+/**
+ * There are no users in memory, so no tag is assigned to a user.
+ */
+@Repository
+@Profile(InMemoryDatabase.PROFILE)
+@RequiredArgsConstructor
+public class InMemoryOcppTagRepository implements OcppTagRepository {
+
+    // only to create result objects, never executes anything
+    private static final DSLContext DETACHED = DSL.using(SQLDialect.MYSQL);
+
+    private final InMemoryDatabase db;
+
+    @Override
+    public List<OcppTagOverview> getOverview(OcppTagQueryForm form) {
+        DateTime now = DateTime.now();
+
+        Predicate<OcppTagActivityRecord> filter = r -> true;
+
+        if (form.isOcppTagPkSet()) {
+            filter = filter.and(r -> r.getOcppTagPk().equals(form.getOcppTagPk()));
+        }
+
+        if (form.isIdTagSet()) {
+            filter = filter.and(r -> r.getIdTag().equals(form.getIdTag()));
+        }
+
+        if (form.isParentIdTagSet()) {
+            filter = filter.and(r -> form.getParentIdTag().equals(r.getParentIdTag()));
+        }
+
+        if (form.isUserIdSet() || form.getUserFilter() == OcppTagQueryForm.UserFilter.OnlyTagsWithUser) {
+            filter = filter.and(r -> false);
+        }
+
+        if (form.isNoteSet()) {
+            filter = filter.and(r -> InMemoryDatabase.includes(r.getNote(), form.getNote()));
+        }
+
+        switch (form.getExpired()) {
+            case ALL:
+                break;
+
+            case TRUE:
+                filter = filter.and(r -> r.getExpiryDate() != null && !r.getExpiryDate().isAfter(now));
+                break;
+
+            case FALSE:
+                filter = filter.and(r -> r.getExpiryDate() == null || r.getExpiryDate().isAfter(now));
+                break;
+
+            default:
+                throw new SteveException("Unknown enum type");
+        }
+
+        if (form.getInTransaction() != OcppTagQueryForm.BooleanType.ALL) {
+            boolean value = form.getInTransaction().getBoolValue();
+            filter = filter.and(r -> r.getInTransaction() == value);
+        }
+
+        if (form.getBlocked() != OcppTagQueryForm.BooleanType.ALL) {
+            boolean value = form.getBlocked().getBoolValue();
+            filter = filter.and(r -> r.getBlocked() == value);
+        }
+
+        return activities().filter(filter)
+                           .sorted(Comparator.comparing(OcppTagActivityRecord::getOcppTagPk))
+                           .map(this::toOverview)
+                           .collect(Collectors.toList());
+    }
+
+    @Override
+    public Result<OcppTagActivityRecord> getRecords() {
+        return toResult(activities());
+    }
+
+    @Override
+    public Result<OcppTagActivityRecord> getRecords(List<String> idTagList) {
+        return toResult(idTagList.stream().map(db.ocppTags::get).filter(Objects::nonNull).map(this::toActivity));
+    }
+
+    @Override
+    public OcppTagActivityRecord getRecord(String idTag) {
+        OcppTagRecord r = db.ocppTags.get(idTag);
+        return r == null ? null : toActivity(r);
+    }
+
+    @Override
+    public OcppTagActivityRecord getRecord(int ocppTagPk) {
+        OcppTagRecord r = findByPk(ocppTagPk);
+        return r == null ? null : toActivity(r);
+    }
+
+    @Override
+    public List<String> getIdTags() {
+        return List.copyOf(db.ocppTags.keySet());
+    }
+
+    @Override
+    public List<String> getIdTagsWithoutUser() {
+        return db.ocppTags.keySet().stream().sorted().collect(Collectors.toList());
+    }
+
+    @Override
+    public List<String> getActiveIdTags() {
+        DateTime now = DateTime.now();
+        return activities().filter(r -> r.getActiveTransactionCount() < r.getMaxActiveTransactionCount()
+                                        || r.getMaxActiveTransactionCount() < 0)
+                           .filter(r -> !r.getBlocked())
+                           .filter(r -> r.getExpiryDate() == null || r.getExpiryDate().isAfter(now))
+                           .map(OcppTagActivityRecord::getIdTag)
+                           .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<String> getParentIdTags() {
+        return db.ocppTags.values()
+                          .stream()
+                          .map(OcppTagRecord::getParentIdTag)
+                          .filter(Objects::nonNull)
+                          .distinct()
+                          .collect(Collectors.toList());
+    }
+
+    @Override
+    public String getParentIdtag(String idTag) {
+        OcppTagRecord r = db.ocppTags.get(idTag);
+        return r == null ? null : r.getParentIdTag();
+    }
+
+    @Override
+    public void addOcppTagList(List<String> idTagList) {
+        for (String idTag : idTagList) {
+            db.ocppTags.computeIfAbsent(idTag, k -> new OcppTagRecord()
+                .setOcppTagPk(db.ocppTagPkSequence.incrementAndGet())
+                .setIdTag(k)
+                .setMaxActiveTransactionCount(1));
+        }
+    }
+
+    @Override
+    public int addOcppTag(OcppTagForm u) {
+        OcppTagRecord r = new OcppTagRecord()
+            .setOcppTagPk(db.ocppTagPkSequence.incrementAndGet())
+            .setIdTag(u.getIdTag())
+            .setParentIdTag(u.getParentIdTag())
+            .setExpiryDate(u.getExpiryDate())
+            .setMaxActiveTransactionCount(u.getMaxActiveTransactionCount())
+            .setNote(u.getNote());
+
+        if (db.ocppTags.putIfAbsent(u.getIdTag(), r) != null) {
+            throw new SteveException.AlreadyExists("A user with idTag '%s' already exists.", u.getIdTag());
+        }
+        return r.getOcppTagPk();
+    }
+
+    @Override
+    public void updateOcppTag(OcppTagForm u) {
+        OcppTagRecord r = findByPk(u.getOcppTagPk());
+        if (r == null) {
+            return;
+        }
+
+        db.ocppTags.computeIfPresent(r.getIdTag(), (k, old) -> InMemoryDatabase.copy(old)
+            .setParentIdTag(u.getParentIdTag())
+            .setExpiryDate(u.getExpiryDate())
+            .setMaxActiveTransactionCount(u.getMaxActiveTransactionCount())
+            .setNote(u.getNote()));
+    }
+
+    @Override
+    public void deleteOcppTag(int ocppTagPk) {
+        db.ocppTags.values().removeIf(r -> r.getOcppTagPk() == ocppTagPk);
+    }
+
+    // -------------------------------------------------------------------------
+    // Private helpers
+    // -------------------------------------------------------------------------
+
+    @Nullable
+    private OcppTagRecord findByPk(int ocppTagPk) {
+        return db.ocppTags.values()
+                          .stream()
+                          .filter(r -> r.getOcppTagPk() == ocppTagPk)
+                          .findAny()
+                          .orElse(null);
+    }
+
+    private Stream<OcppTagActivityRecord> activities() {
+        return db.ocppTags.values().stream().map(this::toActivity);
+    }
+
+    /**
+     * Like the view ocpp_tag_activity
+     */
+    private OcppTagActivityRecord toActivity(OcppTagRecord r) {
+        long activeTransactionCount = db.activeTransactionCounts.getOrDefault(r.getIdTag(), 0);
+
+        return new OcppTagActivityRecord()
+            .setOcppTagPk(r.getOcppTagPk())
+            .setIdTag(r.getIdTag())
+            .setParentIdTag(r.getParentIdTag())
+            .setExpiryDate(r.getExpiryDate())
+            .setMaxActiveTransactionCount(r.getMaxActiveTransactionCount())
+            .setNote(r.getNote())
+            .setActiveTransactionCount(activeTransactionCount)
+            .setInTransaction(activeTransactionCount > 0)
+            .setBlocked(r.getMaxActiveTransactionCount() == 0);
+    }
+
+    private static Result<OcppTagActivityRecord> toResult(Stream<OcppTagActivityRecord> records) {
+        Result<OcppTagActivityRecord> result = DETACHED.newResult(OCPP_TAG_ACTIVITY);
+        records.forEach(result::add);
+        return result;
+    }
+
+    private OcppTagOverview toOverview(OcppTagActivityRecord r) {
+        OcppTagRecord parent = r.getParentIdTag() == null ? null : db.ocppTags.get(r.getParentIdTag());
+
+        return OcppTagOverview.builder()
+                              .ocppTagPk(r.getOcppTagPk())
+                              .parentOcppTagPk(parent == null ? null : parent.getOcppTagPk())
+                              .idTag(r.getIdTag())
+                              .parentIdTag(r.getParentIdTag())
+                              .expiryDate(r.getExpiryDate())
+                              .expiryDateFormatted(humanize(r.getExpiryDate()))
+                              .inTransaction(r.getInTransaction())
+                              .blocked(r.getBlocked())
+                              .maxActiveTransactionCount(r.getMaxActiveTransactionCount())
+                              .activeTransactionCount(r.getActiveTransactionCount())
+                              .note(r.getNote())
+                              .build();
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.repository.memory;
+
+import de.rwth.idsg.steve.repository.SettingsRepository;
+import de.rwth.idsg.steve.repository.impl.SettingsRepositoryImpl;
+import de.rwth.idsg.steve.web.dto.SettingsForm;
+import de.rwth.idsg.steve.web.dto.SettingsForm.MailSettings;
+import de.rwth.idsg.steve.web.dto.SettingsForm.OcppSettings;
+import jooq.steve.db.tables.records.SettingsRecord;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static de.rwth.idsg.steve.utils.StringUtils.joinByComma;
+
+@Repository
+@Profile(InMemoryDatabase.PROFILE)
+public class InMemorySettingsRepository implements SettingsRepository {
+
+    /**
+     * Starts with the values that the database migration inserts
+     */
+    private final AtomicReference<SettingsRecord> settings = new AtomicReference<>(
+        new SettingsRecord()
+            .setHeartbeatIntervalInSeconds(14400)
+            .setHoursToExpire(1)
+            .setMailEnabled(false)
+            .setMailProtocol("smtp")
+            .setMailPort(25)
+    );
+
+    @Override
+    public SettingsForm getForm() {
+        SettingsRecord r = settings.get();
+
+        var form = new SettingsForm();
+        form.setOcppSettings(SettingsRepositoryImpl.mapToOcppSettings(r));
+        form.setMailSettings(SettingsRepositoryImpl.mapToMailSettings(r));
+        return form;
+    }
+
+    @Override
+    public OcppSettings getOcppSettings() {
+        return SettingsRepositoryImpl.mapToOcppSettings(settings.get());
+    }
+
+    @Override
+    public MailSettings getMailSettings() {
+        return SettingsRepositoryImpl.mapToMailSettings(settings.get());
+    }
+
+    @Override
+    public int getHeartbeatIntervalInSeconds() {
+        return settings.get().getHeartbeatIntervalInSeconds();
+    }
+
+    @Override
+    public int getHoursToExpire() {
+        return settings.get().getHoursToExpire();
+    }
+
+    @Override
+    public void update(SettingsForm form) {
+        settings.updateAndGet(r -> apply(apply(InMemoryDatabase.copy(r), form.getOcppSettings()), form.getMailSettings()));
+    }
+
+    @Override
+    public void update(OcppSettings ocppForm) {
+        settings.updateAndGet(r -> apply(InMemoryDatabase.copy(r), ocppForm));
+    }
+
+    @Override
+    public void update(MailSettings mailForm) {
+        settings.updateAndGet(r -> apply(InMemoryDatabase.copy(r), mailForm));
+    }
+
+    // -------------------------------------------------------------------------
+    // Private helpers
+    // -------------------------------------------------------------------------
+
+    private static SettingsRecord apply(SettingsRecord r, OcppSettings ocppForm) {
+        return r.setHeartbeatIntervalInSeconds(SettingsRepositoryImpl.toSec(ocppForm.getHeartbeat()))
+                .setHoursToExpire(ocppForm.getExpiration());
+    }
+
+    private static SettingsRecord apply(SettingsRecord r, MailSettings mailForm) {
+        return r.setMailEnabled(mailForm.getEnabled())
+                .setMailHost(mailForm.getMailHost())
+                .setMailUsername(mailForm.getUsername())
+                .setMailPassword(mailForm.getPassword())
+                .setMailFrom(mailForm.getFrom())
+                .setMailProtocol(mailForm.getProtocol())
+                .setMailPort(mailForm.getPort())
+                .setMailRecipients(joinByComma(mailForm.getRecipients()))
+                .setNotificationFeatures(joinByComma(mailForm.getEnabledFeatures()));
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.repository.memory;
+
+import de.rwth.idsg.steve.repository.WebUserRepository;
+import jooq.steve.db.tables.records.WebUserRecord;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Repository;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+
+/**
+ * Needed, since WebUserService creates the configured admin user at startup
+ */
+@Repository
+@Profile(InMemoryDatabase.PROFILE)
+public class InMemoryWebUserRepository implements WebUserRepository {
+
+    /**
+     * Key: username
+     */
+    private final Map<String, WebUserRecord> users = new ConcurrentHashMap<>();
+    private final AtomicInteger webUserPkSequence = new AtomicInteger();
+
+    @Override
+    public void createUser(WebUserRecord user) {
+        users.putIfAbsent(user.getUsername(), new WebUserRecord()
+            .setWebUserPk(webUserPkSequence.incrementAndGet())
+            .setUsername(user.getUsername())
+            .setPassword(user.getPassword())
+            .setApiPassword(user.getApiPassword())
+            .setEnabled(user.getEnabled())
+            .setAuthorities(user.getAuthorities()));
+    }
+
+    @Override
+    public void updateUser(WebUserRecord user) {
+        update(user.getUsername(), r -> r.setPassword(user.getPassword())
+                                         .setApiPassword(user.getApiPassword())
+                                         .setEnabled(user.getEnabled())
+                                         .setAuthorities(user.getAuthorities()));
+    }
+
+    @Override
+    public void deleteUser(String username) {
+        users.remove(username);
+    }
+
+    @Override
+    public void deleteUser(int webUserPk) {
+        users.values().removeIf(r -> r.getWebUserPk() == webUserPk);
+    }
+
+    @Override
+    public void changeStatusOfUser(String username, boolean enabled) {
+        update(username, r -> r.setEnabled(enabled));
+    }
+
+    @Override
+    public Integer getUserCountWithAuthority(String authority) {
+        String authValue = "\"" + authority + "\"";
+        return (int) users.values()
+                          .stream()
+                          .filter(r -> r.getAuthorities() != null && r.getAuthorities().data().contains(authValue))
+                          .count();
+    }
+
+    @Override
+    public void changePassword(String username, String newPassword) {
+        update(username, r -> r.setPassword(newPassword));
+    }
+
+    @Override
+    public boolean userExists(String username) {
+        return users.containsKey(username);
+    }
+
+    @Override
+    public WebUserRecord loadUserByUsername(String username) {
+        WebUserRecord r = users.get(username);
+        return r == null ? null : InMemoryDatabase.copy(r);
+    }
+
+    private void update(String username, UnaryOperator<WebUserRecord> change) {
+        users.computeIfPresent(username, (k, old) -> change.apply(InMemoryDatabase.copy(old)));
+    }
+}
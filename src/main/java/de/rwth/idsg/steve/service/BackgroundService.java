@@ -18,33 +18,60 @@
  */
 package de.rwth.idsg.steve.service;
 
+import com.google.common.util.concurrent.RateLimiter;
+import de.rwth.idsg.steve.SteveException;
+import de.rwth.idsg.steve.config.SteveProperties;
+import de.rwth.idsg.steve.ocpp.CommunicationTask;
 import de.rwth.idsg.steve.repository.dto.ChargePointSelect;
 import lombok.AccessLevel;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
 
 import java.util.List;
 import java.util.function.Consumer;
 
 /**
+ * Runs the calls of a task to the stations in the background.
+ *
+ * The calls of a task with many stations are spread over two lanes, one per transport, so that slow SOAP endpoints
+ * (every call opens an HTTP connection, which might time out) do not delay the JSON stations, whose calls are only
+ * written to an open session. Each lane has its own threads and an optional rate limit (see
+ * {@link SteveProperties.FanOut}). The calls that did not start yet are skipped, when the task is cancelled.
+ *
  * @author Sevket Goekay <sevketgokay@gmail.com>
  * @since 08.03.2018
  */
-@RequiredArgsConstructor
-public class BackgroundService {
+@Slf4j
+@Service
+public class BackgroundService implements DisposableBean {
 
     private final TaskExecutor taskExecutor;
+    private final Lane soapLane;
+    private final Lane jsonLane;
 
-    public static BackgroundService with(TaskExecutor taskExecutor) {
-        return new BackgroundService(taskExecutor);
+    public BackgroundService(TaskExecutor taskExecutor, SteveProperties steveProperties) {
+        this.taskExecutor = taskExecutor;
+        this.soapLane = new Lane("SOAP", steveProperties.getFanOut().getSoap());
+        this.jsonLane = new Lane("JSON", steveProperties.getFanOut().getJson());
     }
 
     public Runner forFirst(List<ChargePointSelect> list) {
         return new BackgroundSingleRunner(list.get(0));
     }
 
-    public Runner forEach(List<ChargePointSelect> list) {
-        return new BackgroundListRunner(list);
+    public Runner forEach(CommunicationTask<?, ?> task) {
+        return new BackgroundListRunner(task);
+    }
+
+    @Override
+    public void destroy() {
+        soapLane.executor.shutdown();
+        jsonLane.executor.shutdown();
     }
 
     public interface Runner {
@@ -63,11 +90,51 @@ public class BackgroundService {
 
     @RequiredArgsConstructor(access = AccessLevel.PRIVATE)
     private class BackgroundListRunner implements Runner {
-        private final List<ChargePointSelect> list;
+        private final CommunicationTask<?, ?> task;
 
         @Override
         public void execute(Consumer<ChargePointSelect> consumer) {
-            taskExecutor.execute(() -> list.forEach(consumer));
+            for (ChargePointSelect cps : task.getParams().getChargePointSelectList()) {
+                Lane lane = cps.isSoap() ? soapLane : jsonLane;
+                lane.executor.execute(() -> lane.run(task, cps, consumer));
+            }
+        }
+    }
+
+    private static class Lane {
+        private final ThreadPoolTaskExecutor executor;
+        @Nullable private final RateLimiter rateLimiter;
+
+        private Lane(String name, SteveProperties.FanOutLane properties) {
+            executor = new ThreadPoolTaskExecutor();
+            executor.setCorePoolSize(properties.getConcurrency());
+            // bulk operations are rare, the threads do not need to wait for the next one
+            executor.setAllowCoreThreadTimeOut(true);
+            executor.setThreadNamePrefix("SteVe-FanOut-" + name + "-");
+            executor.initialize();
+
+            rateLimiter = properties.getCallsPerSecond() > 0
+                ? RateLimiter.create(properties.getCallsPerSecond())
+                : null;
+        }
+
+        private void run(CommunicationTask<?, ?> task, ChargePointSelect cps, Consumer<ChargePointSelect> consumer) {
+            if (task.isCancelled()) {
+                task.failed(cps.getChargeBoxId(), new SteveException("The task was cancelled"));
+                return;
+            }
+
+            if (rateLimiter != null) {
+                rateLimiter.acquire();
+            }
+
+            try {
+                consumer.accept(cps);
+            } catch (Exception e) {
+                // the other stations of the task are still called
+                log.error("Exception occurred", e);
+                task.failed(cps.getChargeBoxId(), e);
+            }
         }
     }
 }
@@ -25,7 +25,10 @@ import de.rwth.idsg.steve.repository.dto.InsertConnectorStatusParams;
 import de.rwth.idsg.steve.repository.dto.InsertTransactionParams;
 import de.rwth.idsg.steve.repository.dto.UpdateChargeboxParams;
 import de.rwth.idsg.steve.repository.dto.UpdateTransactionParams;
+import de.rwth.idsg.steve.service.notification.DomainEventBus;
 import de.rwth.idsg.steve.service.notification.OccpStationBooted;
+import de.rwth.idsg.steve.service.notification.OcppMeterValuesReceived;
+import de.rwth.idsg.steve.service.notification.OcppStationStatusChanged;
 import de.rwth.idsg.steve.service.notification.OcppStationStatusFailure;
 import de.rwth.idsg.steve.service.notification.OcppStationStatusSuspendedEV;
 import de.rwth.idsg.steve.service.notification.OcppTransactionEnded;
@@ -59,7 +62,6 @@ import ocpp.cs._2015._10.StatusNotificationResponse;
 import ocpp.cs._2015._10.StopTransactionRequest;
 import ocpp.cs._2015._10.StopTransactionResponse;
 import org.joda.time.DateTime;
-import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.Optional;
@@ -76,14 +78,14 @@ public class CentralSystemService16_Service {
     private final OcppServerRepository ocppServerRepository;
     private final SettingsRepository settingsRepository;
     private final OcppTagService ocppTagService;
-    private final ApplicationEventPublisher applicationEventPublisher;
+    private final DomainEventBus domainEventBus;
     private final ChargePointRegistrationService chargePointRegistrationService;
 
     public BootNotificationResponse bootNotification(BootNotificationRequest parameters, String chargeBoxIdentity,
                                                      OcppProtocol ocppProtocol) {
 
         Optional<RegistrationStatus> status = chargePointRegistrationService.getRegistrationStatus(chargeBoxIdentity);
-        applicationEventPublisher.publishEvent(new OccpStationBooted(chargeBoxIdentity, status));
+        domainEventBus.publish(new OccpStationBooted(chargeBoxIdentity, status));
         DateTime now = DateTime.now();
 
         if (status.isEmpty()) {
@@ -142,14 +144,17 @@ public class CentralSystemService16_Service {
                                            .build();
 
         ocppServerRepository.insertConnectorStatus(params);
+        if (domainEventBus.hasListenersFor(OcppStationStatusChanged.class)) {
+            domainEventBus.publish(new OcppStationStatusChanged(params));
+        }
 
         if (parameters.getStatus() == ChargePointStatus.FAULTED) {
-            applicationEventPublisher.publishEvent(new OcppStationStatusFailure(
+            domainEventBus.publish(new OcppStationStatusFailure(
                     chargeBoxIdentity, parameters.getConnectorId(), parameters.getErrorCode().value()));
         }
 
          if (parameters.getStatus() == ChargePointStatus.SUSPENDED_EV) {
-            applicationEventPublisher.publishEvent(new OcppStationStatusSuspendedEV(
+            domainEventBus.publish(new OcppStationStatusSuspendedEV(
                     chargeBoxIdentity, parameters.getConnectorId(), parameters.getTimestamp()));
         }
 
@@ -165,6 +170,10 @@ public class CentralSystemService16_Service {
                 parameters.getConnectorId(),
                 transactionId
         );
+        if (domainEventBus.hasListenersFor(OcppMeterValuesReceived.class)) {
+            domainEventBus.publish(new OcppMeterValuesReceived(
+                    chargeBoxIdentity, parameters.getConnectorId(), transactionId, parameters.getMeterValue()));
+        }
 
         return new MeterValuesResponse();
     }
@@ -199,7 +208,7 @@ public class CentralSystemService16_Service {
 
         int transactionId = ocppServerRepository.insertTransaction(params);
 
-        applicationEventPublisher.publishEvent(new OcppTransactionStarted(transactionId, params));
+        domainEventBus.publish(new OcppTransactionStarted(transactionId, params));
 
         return new StartTransactionResponse()
                 .withIdTagInfo(info)
@@ -234,7 +243,7 @@ public class CentralSystemService16_Service {
 
         ocppServerRepository.insertMeterValues(chargeBoxIdentity, parameters.getTransactionData(), transactionId);
 
-        applicationEventPublisher.publishEvent(new OcppTransactionEnded(params));
+        domainEventBus.publish(new OcppTransactionEnded(params));
 
         return new StopTransactionResponse().withIdTagInfo(idTagInfo);
     }
@@ -0,0 +1,140 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.service;
+
+import com.google.common.base.Throwables;
+import de.rwth.idsg.steve.config.SteveProperties;
+import de.rwth.idsg.steve.metrics.OcppMetrics;
+import de.rwth.idsg.steve.repository.ChargePointDeletionRepository;
+import de.rwth.idsg.steve.repository.ChargePointRepository;
+import de.rwth.idsg.steve.repository.dto.ChargePointDeletion;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Deleting a charge box used to be a single DELETE, which cascaded to all connector statuses, meter values and
+ * transactions of the station in one statement and could lock the tables for minutes. Now, the deletion request
+ * only rejects the station and creates a job. The history is purged in the background, one chunk per run of
+ * the periodic task. The job state is in the database, so that an interrupted deletion continues after a restart.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ChargePointDeletionService {
+
+    private final ChargePointDeletionRepository chargePointDeletionRepository;
+    private final ChargePointRepository chargePointRepository;
+    private final TaskScheduler taskScheduler;
+    private final SteveProperties steveProperties;
+    private final OcppMetrics ocppMetrics;
+
+    /**
+     * Saves us from polling the database when there is nothing to do. Initially true, to pick up the jobs that
+     * were not finished before the last shutdown.
+     */
+    private final AtomicBoolean hasWork = new AtomicBoolean(true);
+
+    private ScheduledFuture<?> scheduledFuture;
+
+    @EventListener
+    public synchronized void afterStart(ContextRefreshedEvent event) {
+        if (scheduledFuture == null) {
+            scheduledFuture = taskScheduler.scheduleWithFixedDelay(this::processNextChunk,
+                steveProperties.getDeletion().getPause());
+        }
+    }
+
+    public void delete(int chargeBoxPk) {
+        int deletionPk = chargePointDeletionRepository.insert(chargeBoxPk);
+        hasWork.set(true);
+        log.info("Scheduled the deletion of the charge point with pk {} (deletion job {})", chargeBoxPk, deletionPk);
+    }
+
+    public void retry(int deletionPk) {
+        chargePointDeletionRepository.retry(deletionPk);
+        hasWork.set(true);
+    }
+
+    public List<ChargePointDeletion> getUnfinished() {
+        return chargePointDeletionRepository.getUnfinished();
+    }
+
+    private void processNextChunk() {
+        // reset before reading from DB, so that a job inserted in the meantime is not missed
+        if (!hasWork.getAndSet(false)) {
+            return;
+        }
+
+        Optional<ChargePointDeletion> job = chargePointDeletionRepository.getNextRunnable();
+        if (job.isEmpty()) {
+            return;
+        }
+
+        // there might be more chunks or jobs
+        hasWork.set(true);
+
+        ChargePointDeletion deletion = job.get();
+        try {
+            processChunk(deletion);
+        } catch (Exception e) {
+            log.error("Deletion of the charge point '{}' failed at step {}", deletion.getChargeBoxId(), deletion.getStep(), e);
+            chargePointDeletionRepository.fail(deletion.getDeletionPk(), Throwables.getRootCause(e).getMessage());
+        }
+    }
+
+    private void processChunk(ChargePointDeletion deletion) {
+        int deletionPk = deletion.getDeletionPk();
+
+        if (deletion.getStatus() == ChargePointDeletion.Status.PENDING) {
+            long totalRowCount = chargePointDeletionRepository.countRowsToDelete(deletion.getChargeBoxId());
+            chargePointDeletionRepository.start(deletionPk, totalRowCount);
+            log.info("Started the deletion of the charge point '{}' with {} rows of history",
+                deletion.getChargeBoxId(), totalRowCount);
+            return;
+        }
+
+        ChargePointDeletion.Step step = deletion.getStep();
+
+        if (step == ChargePointDeletion.Step.CHARGE_BOX) {
+            // only the charge box, its address and its connectors (and the few rows that might have been inserted
+            // for them during the deletion) are left. this is small enough to go in one transaction.
+            chargePointRepository.deleteChargePoint(deletion.getChargeBoxPk());
+            chargePointDeletionRepository.finish(deletionPk);
+            ocppMetrics.removeStation(deletion.getChargeBoxId());
+            log.info("Finished the deletion of the charge point '{}'", deletion.getChargeBoxId());
+            return;
+        }
+
+        int chunkSize = steveProperties.getDeletion().getChunkSize();
+        int count = chargePointDeletionRepository.deleteChunk(deletion.getChargeBoxId(), step, chunkSize);
+
+        // a chunk that is not full means that this table is done for this charge box
+        ChargePointDeletion.Step nextStep = count < chunkSize ? step.next() : step;
+        chargePointDeletionRepository.updateProgress(deletionPk, nextStep, count);
+    }
+}
@@ -22,6 +22,7 @@ import de.rwth.idsg.steve.ocpp.OcppProtocol;
 import de.rwth.idsg.steve.ocpp.OcppTransport;
 import de.rwth.idsg.steve.ocpp.OcppVersion;
 import de.rwth.idsg.steve.ocpp.ws.AbstractWebSocketEndpoint;
+import de.rwth.idsg.steve.ocpp.ws.FutureResponseContextStore;
 import de.rwth.idsg.steve.ocpp.ws.data.SessionContext;
 import de.rwth.idsg.steve.ocpp.ws.ocpp12.Ocpp12WebSocketEndpoint;
 import de.rwth.idsg.steve.ocpp.ws.ocpp15.Ocpp15WebSocketEndpoint;
@@ -71,6 +72,7 @@ public class ChargePointHelperService {
     private final Ocpp12WebSocketEndpoint ocpp12WebSocketEndpoint;
     private final Ocpp15WebSocketEndpoint ocpp15WebSocketEndpoint;
     private final Ocpp16WebSocketEndpoint ocpp16WebSocketEndpoint;
+    private final FutureResponseContextStore futureResponseContextStore;
 
     public Statistics getStats() {
         Statistics stats = genericRepository.getStats();
@@ -184,8 +186,8 @@ public class ChargePointHelperService {
                        .collect(Collectors.toList());
     }
 
-    private static void appendList(Map<String, Deque<SessionContext>> map, List<OcppJsonStatus> returnList,
-                                   DateTime now, OcppVersion version, Map<String, Integer> primaryKeyLookup) {
+    private void appendList(Map<String, Deque<SessionContext>> map, List<OcppJsonStatus> returnList,
+                            DateTime now, OcppVersion version, Map<String, Integer> primaryKeyLookup) {
 
         for (Map.Entry<String, Deque<SessionContext>> entry : map.entrySet()) {
             String chargeBoxId = entry.getKey();
@@ -201,6 +203,8 @@ public class ChargePointHelperService {
                                                       .connectedSince(DateTimeUtils.humanize(openSince))
                                                       .connectionDuration(DateTimeUtils.timeElapsed(openSince, now))
                                                       .version(version)
+                                                      .pendingCallCount(futureResponseContextStore.getPendingCount(ctx.getSession()))
+                                                      .queuedCallCount(futureResponseContextStore.getQueuedCount(ctx.getSession()))
                                                       .build();
 
                 returnList.add(status);
@@ -72,7 +72,6 @@ import lombok.extern.slf4j.Slf4j;
 import ocpp.cp._2015._10.ChargingProfilePurposeType;
 import ocpp.cp._2015._10.GetCompositeScheduleResponse;
 import org.joda.time.DateTime;
-import org.springframework.core.task.TaskExecutor;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -90,7 +89,7 @@ public class ChargePointServiceClient {
     private final ReservationRepository reservationRepository;
     private final OcppTagService ocppTagService;
 
-    private final TaskExecutor taskExecutor;
+    private final BackgroundService backgroundService;
     private final TaskStore taskStore;
     private final ChargePointServiceInvokerImpl invoker;
 
@@ -107,8 +106,7 @@ public class ChargePointServiceClient {
             task.addCallback(callback);
         }
 
-        BackgroundService.with(taskExecutor)
-            .forEach(task.getParams().getChargePointSelectList())
+        backgroundService.forEach(task)
             .execute(c -> invoker.changeAvailability(c, task));
 
         return taskStore.add(task);
@@ -123,8 +121,7 @@ public class ChargePointServiceClient {
             task.addCallback(callback);
         }
 
-        BackgroundService.with(taskExecutor)
-            .forEach(task.getParams().getChargePointSelectList())
+        backgroundService.forEach(task)
             .execute(c -> invoker.changeConfiguration(c, task));
 
         return taskStore.add(task);
@@ -139,8 +136,7 @@ public class ChargePointServiceClient {
             task.addCallback(callback);
         }
 
-        BackgroundService.with(taskExecutor)
-            .forEach(task.getParams().getChargePointSelectList())
+        backgroundService.forEach(task)
             .execute(c -> invoker.clearCache(c, task));
 
         return taskStore.add(task);
@@ -155,8 +151,7 @@ public class ChargePointServiceClient {
             task.addCallback(callback);
         }
 
-        BackgroundService.with(taskExecutor)
-            .forEach(task.getParams().getChargePointSelectList())
+        backgroundService.forEach(task)
             .execute(c -> invoker.getDiagnostics(c, task));
 
         return taskStore.add(task);
@@ -171,8 +166,7 @@ public class ChargePointServiceClient {
             task.addCallback(callback);
         }
 
-        BackgroundService.with(taskExecutor)
-            .forEach(task.getParams().getChargePointSelectList())
+        backgroundService.forEach(task)
             .execute(c -> invoker.reset(c, task));
 
         return taskStore.add(task);
@@ -187,8 +181,7 @@ public class ChargePointServiceClient {
             task.addCallback(callback);
         }
 
-        BackgroundService.with(taskExecutor)
-            .forEach(task.getParams().getChargePointSelectList())
+        backgroundService.forEach(task)
             .execute(c -> invoker.updateFirmware(c, task));
 
         return taskStore.add(task);
@@ -217,8 +210,7 @@ public class ChargePointServiceClient {
             task.addCallback(callback);
         }
 
-        BackgroundService.with(taskExecutor)
-            .forFirst(task.getParams().getChargePointSelectList())
+        backgroundService.forFirst(task.getParams().getChargePointSelectList())
             .execute(c -> invoker.remoteStartTransaction(c, task));
 
         return taskStore.add(task);
@@ -233,8 +225,7 @@ public class ChargePointServiceClient {
             task.addCallback(callback);
         }
 
-        BackgroundService.with(taskExecutor)
-            .forFirst(task.getParams().getChargePointSelectList())
+        backgroundService.forFirst(task.getParams().getChargePointSelectList())
             .execute(c -> invoker.remoteStopTransaction(c, task));
 
         return taskStore.add(task);
@@ -249,8 +240,7 @@ public class ChargePointServiceClient {
             task.addCallback(callback);
         }
 
-        BackgroundService.with(taskExecutor)
-            .forFirst(task.getParams().getChargePointSelectList())
+        backgroundService.forFirst(task.getParams().getChargePointSelectList())
             .execute(c -> invoker.unlockConnector(c, task));
 
         return taskStore.add(task);
@@ -269,8 +259,7 @@ public class ChargePointServiceClient {
             task.addCallback(callback);
         }
 
-        BackgroundService.with(taskExecutor)
-            .forEach(task.getParams().getChargePointSelectList())
+        backgroundService.forEach(task)
             .execute(c -> invoker.dataTransfer(c, task));
 
         return taskStore.add(task);
@@ -285,8 +274,7 @@ public class ChargePointServiceClient {
             task.addCallback(callback);
         }
 
-        BackgroundService.with(taskExecutor)
-            .forEach(task.getParams().getChargePointSelectList())
+        backgroundService.forEach(task)
             .execute(c -> invoker.getConfiguration(c, task));
 
         return taskStore.add(task);
@@ -301,8 +289,7 @@ public class ChargePointServiceClient {
             task.addCallback(callback);
         }
 
-        BackgroundService.with(taskExecutor)
-            .forEach(task.getParams().getChargePointSelectList())
+        backgroundService.forEach(task)
             .execute(c -> invoker.getLocalListVersion(c, task));
 
         return taskStore.add(task);
@@ -317,8 +304,7 @@ public class ChargePointServiceClient {
             task.addCallback(callback);
         }
 
-        BackgroundService.with(taskExecutor)
-            .forEach(task.getParams().getChargePointSelectList())
+        backgroundService.forEach(task)
             .execute(c -> invoker.sendLocalList(c, task));
 
         return taskStore.add(task);
@@ -351,8 +337,7 @@ public class ChargePointServiceClient {
             task.addCallback(callback);
         }
 
-        BackgroundService.with(taskExecutor)
-            .forFirst(task.getParams().getChargePointSelectList())
+        backgroundService.forFirst(task.getParams().getChargePointSelectList())
             .execute(c -> invoker.reserveNow(c, task));
 
         return taskStore.add(task);
@@ -367,8 +352,7 @@ public class ChargePointServiceClient {
             task.addCallback(callback);
         }
 
-        BackgroundService.with(taskExecutor)
-            .forFirst(task.getParams().getChargePointSelectList())
+        backgroundService.forFirst(task.getParams().getChargePointSelectList())
             .execute(c -> invoker.cancelReservation(c, task));
 
         return taskStore.add(task);
@@ -387,8 +371,7 @@ public class ChargePointServiceClient {
             task.addCallback(callback);
         }
 
-        BackgroundService.with(taskExecutor)
-            .forEach(task.getParams().getChargePointSelectList())
+        backgroundService.forEach(task)
             .execute(c -> invoker.triggerMessage(c, task));
 
         return taskStore.add(task);
@@ -401,8 +384,7 @@ public class ChargePointServiceClient {
             task.addCallback(callback);
         }
 
-        BackgroundService.with(taskExecutor)
-            .forEach(task.getParams().getChargePointSelectList())
+        backgroundService.forEach(task)
             .execute(c -> invoker.setChargingProfile(c, task));
 
         return taskStore.add(task);
@@ -427,8 +409,7 @@ public class ChargePointServiceClient {
             task.addCallback(callback);
         }
 
-        BackgroundService.with(taskExecutor)
-            .forEach(task.getParams().getChargePointSelectList())
+        backgroundService.forEach(task)
             .execute(c -> invoker.clearChargingProfile(c, task));
 
         return taskStore.add(task);
@@ -443,8 +424,7 @@ public class ChargePointServiceClient {
             task.addCallback(callback);
         }
 
-        BackgroundService.with(taskExecutor)
-            .forEach(task.getParams().getChargePointSelectList())
+        backgroundService.forEach(task)
             .execute(c -> invoker.getCompositeSchedule(c, task));
 
         return taskStore.add(task);
@@ -0,0 +1,193 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.service;
+
+import de.rwth.idsg.steve.config.SteveProperties;
+import de.rwth.idsg.steve.repository.EnergyRollupRepository;
+import de.rwth.idsg.steve.repository.dto.EnergyReport;
+import de.rwth.idsg.steve.service.notification.DomainEventListener;
+import de.rwth.idsg.steve.service.notification.OcppTransactionEnded;
+import de.rwth.idsg.steve.web.dto.EnergyReportQueryForm;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * Keeps the energy and duration of stopped transactions, and their daily aggregates per charge box, connector and
+ * idTag, up to date. Reports read the aggregates instead of calculating the energy from the transactions and meter
+ * values on the fly.
+ *
+ * Stopped transactions are queued and rolled up in the background, in chunks. After the start, all stopped
+ * transactions that were missed (e.g. rolled up before the feature existed, or queued at shutdown) are caught up
+ * with first.
+ *
+ * When a chunk fails, its transactions are rolled up one by one, and the ones that fail again are queued for the
+ * next run. After maxAttempts, a transaction is skipped until the catch-up after the next start, so that it cannot
+ * hold up the others.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class EnergyRollupService implements DomainEventListener {
+
+    private final EnergyRollupRepository energyRollupRepository;
+    private final TaskScheduler taskScheduler;
+    private final SteveProperties steveProperties;
+
+    private final Set<Integer> pendingTransactionPks = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Failed attempts per transaction. Only accessed by the thread of the scheduled task.
+     */
+    private final Map<Integer, Integer> failedAttempts = new HashMap<>();
+
+    private volatile boolean caughtUp = false;
+
+    /**
+     * The catch-up continues after this transaction
+     */
+    private int catchUpPosition = 0;
+
+    private ScheduledFuture<?> scheduledFuture;
+
+    @EventListener
+    public synchronized void afterStart(ContextRefreshedEvent event) {
+        if (scheduledFuture == null) {
+            scheduledFuture = taskScheduler.scheduleWithFixedDelay(this::processNextChunk,
+                steveProperties.getEnergyRollup().getPause());
+        }
+    }
+
+    @Override
+    public void onEvents(List<Object> events) {
+        for (Object event : events) {
+            if (event instanceof OcppTransactionEnded e) {
+                pendingTransactionPks.add(e.getParams().getTransactionId());
+            }
+        }
+    }
+
+    /**
+     * A dropped event would leave a transaction out of the roll-up, and it only adds to a concurrent set
+     */
+    @Override
+    public boolean isSynchronous() {
+        return true;
+    }
+
+    @Override
+    public boolean isInterestedIn(Class<?> eventType) {
+        return eventType == OcppTransactionEnded.class;
+    }
+
+    /**
+     * For transactions that are stopped without an {@link OcppTransactionEnded} event, e.g. manually
+     */
+    public void rollUpLater(Collection<Integer> transactionPks) {
+        pendingTransactionPks.addAll(transactionPks);
+    }
+
+    public List<EnergyReport> getReport(EnergyReportQueryForm form) {
+        return energyRollupRepository.getReport(form);
+    }
+
+    void processNextChunk() {
+        int chunkSize = steveProperties.getEnergyRollup().getChunkSize();
+
+        try {
+            if (!caughtUp) {
+                List<Integer> missed = energyRollupRepository.getTransactionsToRollUp(catchUpPosition, chunkSize);
+                if (missed.isEmpty()) {
+                    caughtUp = true;
+                    log.info("Energy roll-up caught up with all stopped transactions");
+                } else {
+                    catchUpPosition = missed.get(missed.size() - 1);
+                    rollUp(missed);
+                }
+                return;
+            }
+
+            List<Integer> chunk = drain(chunkSize);
+            if (!chunk.isEmpty()) {
+                rollUp(chunk);
+            }
+        } catch (Exception e) {
+            log.error("Energy roll-up failed", e);
+        }
+    }
+
+    boolean isCaughtUp() {
+        return caughtUp;
+    }
+
+    private void rollUp(List<Integer> chunk) {
+        if (chunk.size() > 1) {
+            try {
+                energyRollupRepository.rollUp(chunk);
+                chunk.forEach(failedAttempts::remove);
+                return;
+            } catch (Exception e) {
+                log.warn("Energy roll-up of {} transactions failed. Rolling them up one by one", chunk.size(), e);
+            }
+        }
+
+        for (Integer transactionPk : chunk) {
+            try {
+                energyRollupRepository.rollUp(List.of(transactionPk));
+                failedAttempts.remove(transactionPk);
+            } catch (Exception e) {
+                retryLater(transactionPk, e);
+            }
+        }
+    }
+
+    private void retryLater(Integer transactionPk, Exception e) {
+        int attempts = failedAttempts.merge(transactionPk, 1, Integer::sum);
+        if (attempts < steveProperties.getEnergyRollup().getMaxAttempts()) {
+            pendingTransactionPks.add(transactionPk);
+        } else {
+            failedAttempts.remove(transactionPk);
+            log.error("Energy roll-up of transaction {} failed {} times. Skipping it until the next start",
+                transactionPk, attempts, e);
+        }
+    }
+
+    private List<Integer> drain(int max) {
+        List<Integer> chunk = new ArrayList<>(Math.min(max, pendingTransactionPks.size()));
+        Iterator<Integer> it = pendingTransactionPks.iterator();
+        while (it.hasNext() && chunk.size() < max) {
+            chunk.add(it.next());
+            it.remove();
+        }
+        return chunk;
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.service;
+
+import de.rwth.idsg.steve.SteveException;
+import de.rwth.idsg.steve.config.SteveProperties;
+import de.rwth.idsg.steve.service.dto.FlightRecordingStatus;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.joda.time.DateTime;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Java Flight Recordings on demand, in order to profile a running instance without attaching tools to it. There is
+ * at most one recording at a time. It is kept after it stops (until the next one starts), so that it can be
+ * downloaded. Besides the JVM events of the "profile" settings, the recording contains the events of SteVe (see
+ * de.rwth.idsg.steve.metrics.jfr).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FlightRecordingService {
+
+    private static final String SETTINGS = "profile";
+
+    private final SteveProperties steveProperties;
+
+    private final Object lock = new Object();
+    private Recording recording;
+
+    public void start(int durationInMinutes) {
+        SteveProperties.FlightRecording properties = steveProperties.getFlightRecording();
+
+        Duration duration = Duration.ofMinutes(durationInMinutes);
+        if (duration.isNegative() || duration.isZero() || duration.compareTo(properties.getMaxDuration()) > 0) {
+            throw new SteveException("The duration must be between 1 and %s minutes", properties.getMaxDuration().toMinutes());
+        }
+
+        synchronized (lock) {
+            if (recording != null && recording.getState() == RecordingState.RUNNING) {
+                throw new SteveException("A flight recording is already running");
+            }
+
+            Recording newRecording;
+            try {
+                newRecording = new Recording(Configuration.getConfiguration(SETTINGS));
+            } catch (IOException | ParseException e) {
+                throw new SteveException("Could not read the settings for the flight recording", e);
+            }
+
+            newRecording.setName("SteVe");
+            newRecording.setToDisk(true);
+            newRecording.setDuration(duration);
+            newRecording.setMaxSize(properties.getMaxSize().toBytes());
+            newRecording.start();
+
+            closeRecording();
+            recording = newRecording;
+        }
+
+        log.info("Started a flight recording for {} minutes", durationInMinutes);
+    }
+
+    public void stop() {
+        synchronized (lock) {
+            if (recording == null || recording.getState() != RecordingState.RUNNING) {
+                throw new SteveException("No flight recording is running");
+            }
+            recording.stop();
+        }
+
+        log.info("Stopped the flight recording");
+    }
+
+    /**
+     * Writes the data of the recording (so far, if it is still running) to a temporary file. The caller is
+     * responsible for deleting the file.
+     */
+    public Path dump() {
+        synchronized (lock) {
+            if (recording == null || !isAvailable(recording)) {
+                throw new SteveException("There is no flight recording to download");
+            }
+
+            try {
+                Path file = Files.createTempFile("steve-", ".jfr");
+                recording.dump(file);
+                return file;
+            } catch (IOException e) {
+                throw new SteveException("Could not write the flight recording", e);
+            }
+        }
+    }
+
+    public FlightRecordingStatus getStatus() {
+        int maxDuration = (int) steveProperties.getFlightRecording().getMaxDuration().toMinutes();
+
+        synchronized (lock) {
+            if (recording == null) {
+                return FlightRecordingStatus.builder()
+                                            .maxDurationInMinutes(maxDuration)
+                                            .build();
+            }
+
+            return FlightRecordingStatus.builder()
+                                        .running(recording.getState() == RecordingState.RUNNING)
+                                        .available(isAvailable(recording))
+                                        .startTimestamp(toDateTime(recording.getStartTime()))
+                                        .stopTimestamp(toDateTime(recording.getStopTime()))
+                                        .sizeInBytes(recording.getSize())
+                                        .maxDurationInMinutes(maxDuration)
+                                        .build();
+        }
+    }
+
+    private void closeRecording() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    private static boolean isAvailable(Recording recording) {
+        return recording.getState() == RecordingState.RUNNING || recording.getState() == RecordingState.STOPPED;
+    }
+
+    private static DateTime toDateTime(Instant instant) {
+        return instant == null ? null : new DateTime(instant.toEpochMilli());
+    }
+}
@@ -0,0 +1,418 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.service;
+
+import com.google.common.base.Strings;
+import de.rwth.idsg.steve.config.SteveProperties;
+import de.rwth.idsg.steve.repository.SettingsRepository;
+import de.rwth.idsg.steve.web.dto.SettingsForm.MailSettings;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import jakarta.mail.Address;
+import jakarta.mail.Authenticator;
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.NoSuchProviderException;
+import jakarta.mail.PasswordAuthentication;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * Sends the notification mails in the background:
+ *
+ * 1. Digest: the first mail for a recipient (or list of recipients) opens a window of digestWindow. All mails for
+ * the same recipients within the window are merged into one, so that an event storm (e.g. many FAULTED connectors
+ * during a power outage) ends up as a few mails instead of hundreds.
+ *
+ * 2. Queue: the mails wait in a bounded queue for the single sender thread. When the queue is full, the mail is
+ * dropped and logged. A mail that could not be sent is tried again after a growing pause, at most maxAttempts times.
+ * If the SMTP server accepted some of the recipients already, only the other ones get the mail again.
+ *
+ * 3. Connection: the sender keeps its SMTP connection open for the next mail, until it was idle for
+ * connectionMaxIdle or the mail settings change, instead of connecting for every mail. With a connectionMaxIdle of
+ * zero, it connects for every mail.
+ */
+@Slf4j
+@Service
+public class MailDispatcher implements DisposableBean {
+
+    private static final String SUBJECT_PREFIX = "[SteVe] ";
+
+    private final SettingsRepository settingsRepository;
+    private final TaskScheduler taskScheduler;
+    private final SteveProperties.Mail properties;
+
+    private final ThreadPoolTaskExecutor sender;
+    private final SmtpConnection connection = new SmtpConnection();
+
+    /**
+     * Open digests per recipient list. The key null stands for the recipients of the mail settings.
+     */
+    private final Map<List<String>, Digest> digests = new HashMap<>();
+
+    private ScheduledFuture<?> scheduledFuture;
+
+    public MailDispatcher(SettingsRepository settingsRepository, TaskScheduler taskScheduler,
+                          SteveProperties steveProperties) {
+        this.settingsRepository = settingsRepository;
+        this.taskScheduler = taskScheduler;
+        this.properties = steveProperties.getMail();
+
+        sender = new ThreadPoolTaskExecutor();
+        sender.setCorePoolSize(1);
+        sender.setMaxPoolSize(1);
+        sender.setQueueCapacity(properties.getQueueCapacity());
+        sender.setAllowCoreThreadTimeOut(true);
+        sender.setWaitForTasksToCompleteOnShutdown(true);
+        sender.setAwaitTerminationSeconds(10);
+        sender.setThreadNamePrefix("SteVe-Mail-");
+        sender.initialize();
+    }
+
+    @EventListener
+    public synchronized void afterStart(ContextRefreshedEvent event) {
+        // nothing to check, if the connection is closed after every mail
+        if (scheduledFuture == null && properties.getConnectionMaxIdle().isPositive()) {
+            scheduledFuture = taskScheduler.scheduleWithFixedDelay(connection::closeIfIdle,
+                properties.getConnectionMaxIdle());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        List<Digest> open;
+        synchronized (digests) {
+            open = new ArrayList<>(digests.values());
+            digests.clear();
+        }
+        open.forEach(digest -> enqueue(digest.toMail()));
+
+        sender.shutdown();
+        connection.close();
+    }
+
+    /**
+     * @param recipients null for the recipients of the mail settings
+     */
+    public void submit(String subject, String body, @Nullable List<String> recipients) {
+        Duration window = properties.getDigestWindow();
+        if (window.isZero()) {
+            enqueue(new OutgoingMail(subject, body, recipients, 1));
+            return;
+        }
+
+        List<String> key = recipients == null ? null : List.copyOf(recipients);
+        synchronized (digests) {
+            Digest digest = digests.get(key);
+            if (digest == null) {
+                digest = new Digest(key);
+                digests.put(key, digest);
+                taskScheduler.schedule(() -> closeDigest(key), Instant.now().plus(window));
+            }
+            digest.add(subject, body);
+        }
+    }
+
+    /**
+     * Right away, with a connection of its own, to report the problems of the current mail settings
+     */
+    public void sendNow(String subject, String body) throws MessagingException {
+        MailSettings settings = settingsRepository.getMailSettings();
+        Session session = createSession(settings);
+
+        try (Transport transport = getTransport(session)) {
+            transport.connect();
+            Message mail = createMessage(session, settings, new OutgoingMail(subject, body, null, 1));
+            transport.sendMessage(mail, mail.getAllRecipients());
+        }
+    }
+
+    /**
+     * Separate, so that the tests can replace the SMTP server
+     */
+    Transport getTransport(Session session) throws NoSuchProviderException {
+        return session.getTransport();
+    }
+
+    // -------------------------------------------------------------------------
+    // Private helpers
+    // -------------------------------------------------------------------------
+
+    private void closeDigest(@Nullable List<String> key) {
+        Digest digest;
+        synchronized (digests) {
+            digest = digests.remove(key);
+        }
+        if (digest != null) {
+            enqueue(digest.toMail());
+        }
+    }
+
+    private void enqueue(OutgoingMail mail) {
+        try {
+            sender.execute(() -> deliver(mail));
+        } catch (TaskRejectedException e) {
+            log.error("The mail queue is full. Dropped the mail '{}'", mail.subject);
+        }
+    }
+
+    private void deliver(OutgoingMail mail) {
+        try {
+            connection.send(mail);
+        } catch (Exception e) {
+            if (mail.attempt >= properties.getMaxAttempts()) {
+                log.error("Failed to send the mail '{}' after {} attempts", mail.subject, mail.attempt, e);
+                return;
+            }
+
+            List<String> recipients = getRecipientsToRetry(mail, e);
+            if (recipients != null && recipients.isEmpty()) {
+                log.warn("Failed to send the mail '{}', but all recipients got it", mail.subject, e);
+                return;
+            }
+
+            // 1x, 2x, 4x, ... of the backoff
+            Duration pause = properties.getRetryBackoff().multipliedBy(1L << Math.min(mail.attempt - 1, 16));
+            log.warn("Failed to send the mail '{}' (attempt {}), trying again in {}",
+                mail.subject, mail.attempt, pause, e);
+
+            OutgoingMail retry = new OutgoingMail(mail.subject, mail.body, recipients, mail.attempt + 1);
+            taskScheduler.schedule(() -> enqueue(retry), Instant.now().plus(pause));
+        }
+    }
+
+    /**
+     * The recipients that the SMTP server did not accept (or that it did not get to), so that the other ones do not
+     * get the mail twice
+     */
+    @Nullable
+    private static List<String> getRecipientsToRetry(OutgoingMail mail, Exception e) {
+        if (!(e instanceof SendFailedException sfe) || isEmpty(sfe.getValidSentAddresses())) {
+            return mail.recipients;
+        }
+
+        List<String> recipients = new ArrayList<>();
+        addAll(recipients, sfe.getValidUnsentAddresses());
+        addAll(recipients, sfe.getInvalidAddresses());
+        return recipients;
+    }
+
+    private static boolean isEmpty(@Nullable Address[] addresses) {
+        return addresses == null || addresses.length == 0;
+    }
+
+    private static void addAll(List<String> recipients, @Nullable Address[] addresses) {
+        if (addresses == null) {
+            return;
+        }
+        for (Address address : addresses) {
+            recipients.add(address instanceof InternetAddress ia ? ia.getAddress() : address.toString());
+        }
+    }
+
+    private static Message createMessage(Session session, MailSettings settings, OutgoingMail mail)
+            throws MessagingException {
+        Message message = new MimeMessage(session);
+        message.setSubject(SUBJECT_PREFIX + mail.subject);
+        message.setContent(mail.body, "text/plain");
+        message.setFrom(new InternetAddress(settings.getFrom()));
+
+        List<String> recipients = mail.recipients == null ? settings.getRecipients() : mail.recipients;
+        for (String rep : recipients) {
+            message.addRecipient(Message.RecipientType.TO, new InternetAddress(rep));
+        }
+        return message;
+    }
+
+    private static Session createSession(MailSettings settings) {
+        Properties props = new Properties();
+        String protocol = settings.getProtocol();
+
+        props.setProperty("mail.host", "" + settings.getMailHost());
+        props.setProperty("mail.transport.protocol", "" + protocol);
+        props.setProperty("mail." + protocol + ".port", "" + settings.getPort());
+
+        if (settings.getPort() == 465) {
+            props.setProperty("mail." + protocol + ".ssl.enable", "" + true);
+
+        } else if (settings.getPort() == 587) {
+            props.setProperty("mail." + protocol + ".starttls.enable", "" + true);
+        }
+
+        boolean isUserSet = !Strings.isNullOrEmpty(settings.getUsername());
+        boolean isPassSet = !Strings.isNullOrEmpty(settings.getPassword());
+
+        if (isUserSet && isPassSet) {
+            props.setProperty("mail." + protocol + ".auth", "" + true);
+            return Session.getInstance(props, getAuth(settings));
+
+        } else {
+            return Session.getInstance(props);
+        }
+    }
+
+    private static Authenticator getAuth(MailSettings settings) {
+        return new Authenticator() {
+            @Override
+            protected PasswordAuthentication getPasswordAuthentication() {
+                return new PasswordAuthentication(settings.getUsername(), settings.getPassword());
+            }
+        };
+    }
+
+    /**
+     * The settings that the connection depends on. The other ones (e.g. recipients) can change without a new one.
+     */
+    private static List<Object> getConnectionKey(MailSettings settings) {
+        return Arrays.asList(settings.getProtocol(), settings.getMailHost(), settings.getPort(),
+            settings.getUsername(), settings.getPassword());
+    }
+
+    @RequiredArgsConstructor
+    private static class OutgoingMail {
+        private final String subject;
+        private final String body;
+        @Nullable private final List<String> recipients;
+        private final int attempt;
+    }
+
+    @RequiredArgsConstructor
+    private class Digest {
+        @Nullable private final List<String> recipients;
+        private final List<String> subjects = new ArrayList<>();
+        private final List<String> bodies = new ArrayList<>();
+        private int omittedCount;
+
+        private void add(String subject, String body) {
+            if (subjects.size() < properties.getMaxDigestSize()) {
+                subjects.add(subject);
+                bodies.add(body);
+            } else {
+                omittedCount++;
+            }
+        }
+
+        private OutgoingMail toMail() {
+            if (subjects.size() == 1 && omittedCount == 0) {
+                return new OutgoingMail(subjects.get(0), bodies.get(0), recipients, 1);
+            }
+
+            String newLine = System.lineSeparator();
+            StringBuilder sb = new StringBuilder();
+            for (int i = 0; i < subjects.size(); i++) {
+                sb.append("### ").append(subjects.get(i)).append(newLine).append(newLine)
+                  .append(bodies.get(i)).append(newLine).append(newLine);
+            }
+            if (omittedCount > 0) {
+                sb.append("... and ").append(omittedCount).append(" more notifications, which are not listed.");
+            }
+
+            int total = subjects.size() + omittedCount;
+            return new OutgoingMail(total + " notifications", sb.toString(), recipients, 1);
+        }
+    }
+
+    /**
+     * Used by the sender thread, and by the idle check of the scheduler
+     */
+    private class SmtpConnection {
+        @Nullable private Session session;
+        @Nullable private Transport transport;
+        @Nullable private List<Object> key;
+        private long lastUsedNanos;
+
+        private synchronized void send(OutgoingMail mail) throws MessagingException {
+            MailSettings settings = settingsRepository.getMailSettings();
+
+            List<Object> newKey = getConnectionKey(settings);
+            if (!newKey.equals(key)) {
+                close();
+                session = createSession(settings);
+                key = newKey;
+            }
+
+            Message message = createMessage(session, settings, mail);
+
+            if (transport == null || !transport.isConnected()) {
+                close(transport);
+                transport = getTransport(session);
+                transport.connect();
+                lastUsedNanos = System.nanoTime();
+            }
+
+            try {
+                transport.sendMessage(message, message.getAllRecipients());
+                lastUsedNanos = System.nanoTime();
+            } catch (MessagingException e) {
+                // do not reuse a connection in an unknown state
+                close();
+                throw e;
+            }
+
+            if (!properties.getConnectionMaxIdle().isPositive()) {
+                close();
+            }
+        }
+
+        private synchronized void closeIfIdle() {
+            if (transport != null && System.nanoTime() - lastUsedNanos > properties.getConnectionMaxIdle().toNanos()) {
+                close(transport);
+                transport = null;
+            }
+        }
+
+        private synchronized void close() {
+            close(transport);
+            transport = null;
+        }
+
+        private static void close(@Nullable Transport transport) {
+            if (transport == null) {
+                return;
+            }
+            try {
+                transport.close();
+            } catch (MessagingException e) {
+                log.debug("Failed to close the SMTP connection", e);
+            }
+        }
+    }
+}
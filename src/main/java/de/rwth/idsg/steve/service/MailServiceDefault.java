@@ -18,39 +18,28 @@
  */
 package de.rwth.idsg.steve.service;
 
-import com.google.common.base.Strings;
 import de.rwth.idsg.steve.SteveException;
 import de.rwth.idsg.steve.repository.SettingsRepository;
 import de.rwth.idsg.steve.web.dto.SettingsForm.MailSettings;
 import lombok.RequiredArgsConstructor;
-import lombok.extern.slf4j.Slf4j;
-import org.springframework.core.task.TaskExecutor;
 import org.springframework.stereotype.Service;
 
-import jakarta.mail.Authenticator;
-import jakarta.mail.Message;
 import jakarta.mail.MessagingException;
-import jakarta.mail.PasswordAuthentication;
-import jakarta.mail.Session;
-import jakarta.mail.Transport;
-import jakarta.mail.internet.InternetAddress;
-import jakarta.mail.internet.MimeMessage;
 
 import java.util.List;
-import java.util.Properties;
-import java.util.function.Function;
 
 /**
+ * The notifications are handed over to {@link MailDispatcher}, which merges and sends them in the background.
+ *
  * @author Sevket Goekay <sevketgokay@gmail.com>
  * @since 24.01.2016
  */
-@Slf4j
 @Service
 @RequiredArgsConstructor
 public class MailServiceDefault implements MailService {
 
     private final SettingsRepository settingsRepository;
-    private final TaskExecutor taskExecutor;
+    private final MailDispatcher mailDispatcher;
 
     @Override
     public MailSettings getSettings() {
@@ -68,85 +57,16 @@ public class MailServiceDefault implements MailService {
 
     @Override
     public void sendAsync(String subject, String body) {
-        taskExecutor.execute(() -> {
-            try {
-                send(subject, body);
-            } catch (MessagingException e) {
-                log.error("Failed to send mail", e);
-            }
-        });
+        mailDispatcher.submit(subject, body, null);
     }
 
     @Override
     public void send(String subject, String body) throws MessagingException {
-        sendInternal(subject, body, MailSettings::getRecipients);
+        mailDispatcher.sendNow(subject, body);
     }
 
     @Override
     public void send(String subject, String body, List<String> eMailAddresses) {
-        try {
-            sendInternal(subject, body, mailSettings -> eMailAddresses);
-        } catch (MessagingException e) {
-            log.error("Failed to send mail", e);
-        }
-    }
-
-    public void sendInternal(String subject, String body, Function<MailSettings, List<String>> emailAddressProvider) throws MessagingException {
-        MailSettings settings = getSettings();
-        Session session = createSession(settings);
-
-        Message mail = new MimeMessage(session);
-        mail.setSubject("[SteVe] " + subject);
-        mail.setContent(body, "text/plain");
-        mail.setFrom(new InternetAddress(settings.getFrom()));
-
-        for (String rep : emailAddressProvider.apply(settings)) {
-            mail.addRecipient(Message.RecipientType.TO, new InternetAddress(rep));
-        }
-
-        try (Transport transport = session.getTransport()) {
-            transport.connect();
-            transport.sendMessage(mail, mail.getAllRecipients());
-        }
-    }
-
-    // -------------------------------------------------------------------------
-    // Private helpers
-    // -------------------------------------------------------------------------
-
-    private static Session createSession(MailSettings settings) {
-        Properties props = new Properties();
-        String protocol = settings.getProtocol();
-
-        props.setProperty("mail.host", "" + settings.getMailHost());
-        props.setProperty("mail.transport.protocol", "" + protocol);
-        props.setProperty("mail." + protocol + ".port", "" + settings.getPort());
-
-        if (settings.getPort() == 465) {
-            props.setProperty("mail." + protocol + ".ssl.enable", "" + true);
-
-        } else if (settings.getPort() == 587) {
-            props.setProperty("mail." + protocol + ".starttls.enable", "" + true);
-        }
-
-        boolean isUserSet = !Strings.isNullOrEmpty(settings.getUsername());
-        boolean isPassSet = !Strings.isNullOrEmpty(settings.getPassword());
-
-        if (isUserSet && isPassSet) {
-            props.setProperty("mail." + protocol + ".auth", "" + true);
-            return Session.getInstance(props, getAuth(settings));
-
-        } else {
-            return Session.getInstance(props);
-        }
-    }
-
-    private static Authenticator getAuth(MailSettings settings) {
-        return new Authenticator() {
-            @Override
-            protected PasswordAuthentication getPasswordAuthentication() {
-                return new PasswordAuthentication(settings.getUsername(), settings.getPassword());
-            }
-        };
+        mailDispatcher.submit(subject, body, eMailAddresses);
     }
 }
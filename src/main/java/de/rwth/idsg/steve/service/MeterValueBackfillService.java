@@ -0,0 +1,81 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.service;
+
+import de.rwth.idsg.steve.config.SteveProperties;
+import de.rwth.idsg.steve.repository.MeterValueBackfillRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * Classifies the meter values that were stored before the columns value_numeric and energy_wh existed. This used
+ * to be one UPDATE over the whole table in the migration, which locked the table for as long as it took. Now, the
+ * rows are classified in the background, one chunk per run of the periodic task. The position is in the database,
+ * so that an interrupted backfill continues after a restart. Until the backfill is done, the old meter values are
+ * missing in the features that read these columns (e.g. the charts of the transactions).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MeterValueBackfillService {
+
+    private final MeterValueBackfillRepository meterValueBackfillRepository;
+    private final TaskScheduler taskScheduler;
+    private final SteveProperties steveProperties;
+
+    private ScheduledFuture<?> scheduledFuture;
+    private long chunkCount;
+
+    @EventListener
+    public synchronized void afterStart(ContextRefreshedEvent event) {
+        if (scheduledFuture == null) {
+            scheduledFuture = taskScheduler.scheduleWithFixedDelay(this::processNextChunk,
+                steveProperties.getMeterValueBackfill().getPause());
+        }
+    }
+
+    private synchronized void processNextChunk() {
+        int chunkSize = steveProperties.getMeterValueBackfill().getChunkSize();
+
+        boolean hasMore;
+        try {
+            hasMore = meterValueBackfillRepository.backfillNextChunk(chunkSize);
+        } catch (Exception e) {
+            // the position did not move, so the chunk is tried again in the next run
+            log.error("Failed to backfill a chunk of meter values", e);
+            return;
+        }
+
+        if (hasMore) {
+            chunkCount++;
+            return;
+        }
+
+        if (chunkCount > 0) {
+            log.info("Finished the backfill of the meter values ({} chunks)", chunkCount);
+        }
+        scheduledFuture.cancel(false);
+    }
+}
@@ -22,6 +22,7 @@ import com.google.common.base.Strings;
 import de.rwth.idsg.steve.NotificationFeature;
 import de.rwth.idsg.steve.repository.dto.InsertTransactionParams;
 import de.rwth.idsg.steve.repository.dto.UpdateTransactionParams;
+import de.rwth.idsg.steve.service.notification.DomainEventListener;
 import de.rwth.idsg.steve.service.notification.OccpStationBooted;
 import de.rwth.idsg.steve.service.notification.OcppStationStatusFailure;
 import de.rwth.idsg.steve.service.notification.OcppStationWebSocketConnected;
@@ -32,9 +33,11 @@ import de.rwth.idsg.steve.web.dto.SettingsForm.MailSettings;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.joda.time.DateTime;
-import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+import java.util.Set;
+
 import static de.rwth.idsg.steve.NotificationFeature.OcppStationBooted;
 import static de.rwth.idsg.steve.NotificationFeature.OcppStationStatusFailure;
 import static de.rwth.idsg.steve.NotificationFeature.OcppStationWebSocketConnected;
@@ -44,19 +47,58 @@ import static de.rwth.idsg.steve.NotificationFeature.OcppTransactionStarted;
 import static java.lang.String.format;
 
 /**
+ * The mail settings are read once per batch of events, instead of once per event.
+ *
  * @author Sevket Goekay <sevketgokay@gmail.com>
  * @since 22.01.2016
  */
 @Slf4j
 @Service
 @RequiredArgsConstructor
-public class NotificationService {
+public class NotificationService implements DomainEventListener {
+
+    private static final Set<Class<?>> EVENT_TYPES = Set.of(
+        OccpStationBooted.class,
+        OcppStationWebSocketConnected.class,
+        OcppStationWebSocketDisconnected.class,
+        OcppStationStatusFailure.class,
+        OcppTransactionStarted.class,
+        OcppTransactionEnded.class
+    );
 
     private final MailService mailService;
 
-    @EventListener
-    public void ocppStationBooted(OccpStationBooted notification) {
-        if (isDisabled(OcppStationBooted)) {
+    @Override
+    public void onEvents(List<Object> events) {
+        MailSettings settings = mailService.getSettings();
+        if (!Boolean.TRUE.equals(settings.getEnabled()) || settings.getRecipients().isEmpty()) {
+            return;
+        }
+
+        for (Object event : events) {
+            if (event instanceof OccpStationBooted e) {
+                ocppStationBooted(settings, e);
+            } else if (event instanceof OcppStationWebSocketConnected e) {
+                ocppStationWebSocketConnected(settings, e);
+            } else if (event instanceof OcppStationWebSocketDisconnected e) {
+                ocppStationWebSocketDisconnected(settings, e);
+            } else if (event instanceof OcppStationStatusFailure e) {
+                ocppStationStatusFailure(settings, e);
+            } else if (event instanceof OcppTransactionStarted e) {
+                ocppTransactionStarted(settings, e);
+            } else if (event instanceof OcppTransactionEnded e) {
+                ocppTransactionEnded(settings, e);
+            }
+        }
+    }
+
+    @Override
+    public boolean isInterestedIn(Class<?> eventType) {
+        return EVENT_TYPES.contains(eventType);
+    }
+
+    private void ocppStationBooted(MailSettings settings, OccpStationBooted notification) {
+        if (isDisabled(settings, OcppStationBooted)) {
             return;
         }
 
@@ -71,9 +113,8 @@ public class NotificationService {
         mailService.sendAsync(subject, addTimestamp(body));
     }
 
-    @EventListener
-    public void ocppStationWebSocketConnected(OcppStationWebSocketConnected notification) {
-        if (isDisabled(OcppStationWebSocketConnected)) {
+    private void ocppStationWebSocketConnected(MailSettings settings, OcppStationWebSocketConnected notification) {
+        if (isDisabled(settings, OcppStationWebSocketConnected)) {
             return;
         }
 
@@ -82,9 +123,9 @@ public class NotificationService {
         mailService.sendAsync(subject, addTimestamp(""));
     }
 
-    @EventListener
-    public void ocppStationWebSocketDisconnected(OcppStationWebSocketDisconnected notification) {
-        if (isDisabled(OcppStationWebSocketDisconnected)) {
+    private void ocppStationWebSocketDisconnected(MailSettings settings,
+                                                  OcppStationWebSocketDisconnected notification) {
+        if (isDisabled(settings, OcppStationWebSocketDisconnected)) {
             return;
         }
 
@@ -93,9 +134,8 @@ public class NotificationService {
         mailService.sendAsync(subject, addTimestamp(""));
     }
 
-    @EventListener
-    public void ocppStationStatusFailure(OcppStationStatusFailure notification) {
-        if (isDisabled(OcppStationStatusFailure)) {
+    private void ocppStationStatusFailure(MailSettings settings, OcppStationStatusFailure notification) {
+        if (isDisabled(settings, OcppStationStatusFailure)) {
             return;
         }
 
@@ -105,9 +145,8 @@ public class NotificationService {
         mailService.sendAsync(subject, addTimestamp(body));
     }
 
-    @EventListener
-    public void ocppTransactionStarted(OcppTransactionStarted notification) {
-        if (isDisabled(OcppTransactionStarted)) {
+    private void ocppTransactionStarted(MailSettings settings, OcppTransactionStarted notification) {
+        if (isDisabled(settings, OcppTransactionStarted)) {
             return;
         }
 
@@ -116,9 +155,8 @@ public class NotificationService {
         mailService.sendAsync(subject, addTimestamp(createContent(notification.getParams())));
     }
 
-    @EventListener
-    public void ocppTransactionEnded(OcppTransactionEnded notification) {
-       if (isDisabled(OcppTransactionEnded)) {
+    private void ocppTransactionEnded(MailSettings settings, OcppTransactionEnded notification) {
+        if (isDisabled(settings, OcppTransactionEnded)) {
             return;
         }
 
@@ -158,14 +196,8 @@ public class NotificationService {
     }
 
 
-    private boolean isDisabled(NotificationFeature f) {
-        MailSettings settings = mailService.getSettings();
-
-        boolean isEnabled = Boolean.TRUE.equals(settings.getEnabled())
-                && settings.getEnabledFeatures().contains(f)
-                && !settings.getRecipients().isEmpty();
-
-        return !isEnabled;
+    private static boolean isDisabled(MailSettings settings, NotificationFeature f) {
+        return !settings.getEnabledFeatures().contains(f);
     }
 
     private static String addTimestamp(String body) {
@@ -23,6 +23,7 @@ import de.rwth.idsg.steve.NotificationFeature;
 import de.rwth.idsg.steve.repository.UserRepository;
 import de.rwth.idsg.steve.repository.dto.Transaction;
 import de.rwth.idsg.steve.repository.dto.User;
+import de.rwth.idsg.steve.service.notification.DomainEventListener;
 import de.rwth.idsg.steve.service.notification.OcppStationStatusFailure;
 import de.rwth.idsg.steve.service.notification.OcppStationStatusSuspendedEV;
 import de.rwth.idsg.steve.service.notification.OcppTransactionEnded;
@@ -32,11 +33,10 @@ import de.rwth.idsg.steve.web.dto.UserQueryForm;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.joda.time.DateTime;
-import org.springframework.context.event.EventListener;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Set;
 
 import static java.lang.String.format;
 
@@ -47,15 +47,45 @@ import static java.lang.String.format;
 @Slf4j
 @Service
 @RequiredArgsConstructor
-public class NotificationServiceForUser {
+public class NotificationServiceForUser implements DomainEventListener {
+
+    private static final Set<Class<?>> EVENT_TYPES = Set.of(
+        OcppStationStatusFailure.class,
+        OcppTransactionStarted.class,
+        OcppStationStatusSuspendedEV.class,
+        OcppTransactionEnded.class
+    );
 
     private final MailService mailService;
     private final TransactionService transactionService;
     private final UserRepository userRepository;
 
-    @Async
-    @EventListener
-    public void ocppStationStatusFailure(OcppStationStatusFailure event) {
+    @Override
+    public void onEvents(List<Object> events) {
+        for (Object event : events) {
+            try {
+                if (event instanceof OcppStationStatusFailure e) {
+                    ocppStationStatusFailure(e);
+                } else if (event instanceof OcppTransactionStarted e) {
+                    ocppTransactionStarted(e);
+                } else if (event instanceof OcppStationStatusSuspendedEV e) {
+                    ocppStationStatusSuspendedEV(e);
+                } else if (event instanceof OcppTransactionEnded e) {
+                    ocppTransactionEnded(e);
+                }
+            } catch (Exception e) {
+                // one event must not prevent the notifications of the others in the batch
+                log.error("Failed to process {}", event, e);
+            }
+        }
+    }
+
+    @Override
+    public boolean isInterestedIn(Class<?> eventType) {
+        return EVENT_TYPES.contains(eventType);
+    }
+
+    private void ocppStationStatusFailure(OcppStationStatusFailure event) {
         log.debug("Processing: {}", event);
 
         var transaction = transactionService.getActiveTransaction(event.getChargeBoxId(), event.getConnectorId());
@@ -85,9 +115,7 @@ public class NotificationServiceForUser {
         mailService.send(subject, addTimestamp(bodyUserMail), List.of(user.getEmail()));
     }
 
-    @Async
-    @EventListener
-    public void ocppTransactionStarted(OcppTransactionStarted event) {
+    private void ocppTransactionStarted(OcppTransactionStarted event) {
         log.debug("Processing: {}", event);
 
         var user = getUserForMail(event.getParams().getIdTag(), NotificationFeature.OcppTransactionStarted);
@@ -113,9 +141,7 @@ public class NotificationServiceForUser {
         mailService.send(subject, addTimestamp(bodyUserMail), List.of(user.getEmail()));
     }
 
-    @Async
-    @EventListener
-    public void ocppStationStatusSuspendedEV(OcppStationStatusSuspendedEV event) {
+    private void ocppStationStatusSuspendedEV(OcppStationStatusSuspendedEV event) {
         log.debug("Processing: {}", event);
 
         var transaction = transactionService.getActiveTransaction(event.getChargeBoxId(), event.getConnectorId());
@@ -144,9 +170,7 @@ public class NotificationServiceForUser {
         mailService.send(subject, addTimestamp(bodyUserMail), List.of(user.getEmail()));
     }
 
-    @Async
-    @EventListener
-    public void ocppTransactionEnded(OcppTransactionEnded event) {
+    private void ocppTransactionEnded(OcppTransactionEnded event) {
         log.debug("Processing: {}", event);
 
         var transaction = transactionService.getTransaction(event.getParams().getTransactionId());
@@ -0,0 +1,229 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.service;
+
+import de.rwth.idsg.steve.ocpp.CommunicationTask;
+import de.rwth.idsg.steve.ocpp.RequestResult;
+import de.rwth.idsg.steve.repository.TaskStore;
+import de.rwth.idsg.steve.repository.dto.TaskSummary;
+import de.rwth.idsg.steve.service.dto.TaskProgress;
+import de.rwth.idsg.steve.service.dto.TaskStationResult;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Streams the progress of a task as Server-Sent Events, so that a client does not have to poll the whole task:
+ *
+ * - "result": the result of one station ({@link TaskStationResult}). First the results so far, then the new ones as
+ *   they arrive.
+ * - "progress": the counters of the task ({@link TaskProgress}), after every batch of results. The stream ends after
+ *   the progress event with finished = true.
+ *
+ * The events are sent by a few threads of this service, not by the threads that receive the responses of the
+ * stations, and not by the shared task executor (a slow client blocks the thread that sends to it). A client that
+ * falls behind by more than {@link #MAX_QUEUED_RESULTS} results is disconnected, and can subscribe again. The same
+ * happens when more than {@link #MAX_QUEUED_SENDS} clients wait for a thread.
+ */
+@Slf4j
+@Service
+public class TaskEventService implements DisposableBean {
+
+    private static final long TIMEOUT_MILLIS = TimeUnit.HOURS.toMillis(1);
+    private static final int MAX_QUEUED_RESULTS = 10_000;
+    private static final int SEND_THREADS = 4;
+    private static final int MAX_QUEUED_SENDS = 1_000;
+
+    private final TaskStore taskStore;
+    private final ThreadPoolTaskExecutor executor;
+
+    public TaskEventService(TaskStore taskStore) {
+        this.taskStore = taskStore;
+
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(SEND_THREADS);
+        executor.setMaxPoolSize(SEND_THREADS);
+        executor.setQueueCapacity(MAX_QUEUED_SENDS);
+        executor.setAllowCoreThreadTimeOut(true);
+        executor.setThreadNamePrefix("SteVe-TaskEvents-");
+        executor.initialize();
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    public SseEmitter subscribe(int taskId) {
+        SseEmitter emitter = new SseEmitter(TIMEOUT_MILLIS);
+
+        // only the counters are left of a compacted task
+        Optional<TaskSummary> summary = taskStore.getSummary(taskId);
+        if (summary.isPresent()) {
+            try {
+                emitter.send(SseEmitter.event().name("progress").data(toProgress(summary.get())));
+                emitter.complete();
+            } catch (IOException e) {
+                emitter.completeWithError(e);
+            }
+            return emitter;
+        }
+
+        CommunicationTask<?, ?> task = taskStore.get(taskId);
+        Subscription subscription = new Subscription(taskId, task, emitter);
+
+        task.addResultListener(subscription);
+        emitter.onCompletion(subscription::close);
+        emitter.onTimeout(subscription::close);
+        emitter.onError(e -> subscription.close());
+
+        for (Map.Entry<String, RequestResult> entry : task.getResultMap().entrySet()) {
+            RequestResult result = entry.getValue();
+            if (result.getResponse() != null || result.getErrorMessage() != null) {
+                subscription.onResult(entry.getKey(), result);
+            }
+        }
+
+        // at least one progress event, even if there is no result yet
+        subscription.scheduleSend();
+        return emitter;
+    }
+
+    private static TaskProgress toProgress(TaskSummary summary) {
+        return TaskProgress.builder()
+                           .taskId(summary.getTaskId())
+                           .requestCount(summary.getResultSize())
+                           .responseCount(summary.getResponseCount())
+                           .errorCount(summary.getErrorCount())
+                           .finished(true)
+                           .cancelled(summary.isCancelled())
+                           .build();
+    }
+
+    @RequiredArgsConstructor
+    private class Subscription implements CommunicationTask.ResultListener {
+        private final int taskId;
+        private final CommunicationTask<?, ?> task;
+        private final SseEmitter emitter;
+
+        private final Queue<TaskStationResult> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger queueSize = new AtomicInteger();
+        private final AtomicBoolean sending = new AtomicBoolean();
+        private final Set<String> sentChargeBoxIds = ConcurrentHashMap.newKeySet();
+        private volatile boolean closed;
+
+        @Override
+        public void onResult(String chargeBoxId, RequestResult result) {
+            if (closed) {
+                return;
+            }
+
+            if (queueSize.incrementAndGet() > MAX_QUEUED_RESULTS) {
+                log.warn("The client of the event stream of task '{}' is too slow, disconnecting it", taskId);
+                close();
+                emitter.complete();
+                return;
+            }
+
+            queue.add(TaskStationResult.builder()
+                                       .chargeBoxId(chargeBoxId)
+                                       .response(result.getResponse())
+                                       .errorMessage(result.getErrorMessage())
+                                       .build());
+            scheduleSend();
+        }
+
+        private void scheduleSend() {
+            if (!closed && sending.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this::send);
+                } catch (TaskRejectedException e) {
+                    log.warn("Too many event streams are waiting, disconnecting the one of task '{}'", taskId);
+                    sending.set(false);
+                    close();
+                    emitter.complete();
+                }
+            }
+        }
+
+        private void send() {
+            try {
+                TaskStationResult result;
+                while ((result = queue.poll()) != null) {
+                    queueSize.decrementAndGet();
+                    // a result that arrived while subscribing is queued twice
+                    if (sentChargeBoxIds.add(result.getChargeBoxId())) {
+                        emitter.send(SseEmitter.event().name("result").data(result));
+                    }
+                }
+
+                // not task.isFinished(), since the listener is called for the last result after the task is finished
+                boolean finished = sentChargeBoxIds.size() == task.getResultSize();
+                emitter.send(SseEmitter.event().name("progress").data(toProgress(finished)));
+
+                if (finished) {
+                    close();
+                    emitter.complete();
+                }
+            } catch (IOException | IllegalStateException e) {
+                // the client is gone
+                log.debug("Failed to send the events of task '{}'", taskId, e);
+                close();
+            } finally {
+                sending.set(false);
+            }
+
+            // results that arrived after the last poll, but before sending was reset
+            if (!queue.isEmpty()) {
+                scheduleSend();
+            }
+        }
+
+        private TaskProgress toProgress(boolean finished) {
+            return TaskProgress.builder()
+                               .taskId(taskId)
+                               .requestCount(task.getResultSize())
+                               .responseCount(task.getResponseCount().get())
+                               .errorCount(task.getErrorCount().get())
+                               .finished(finished)
+                               .cancelled(task.isCancelled())
+                               .build();
+        }
+
+        private void close() {
+            closed = true;
+            task.removeResultListener(this);
+        }
+    }
+}
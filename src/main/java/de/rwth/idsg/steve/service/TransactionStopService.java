@@ -18,27 +18,31 @@
  */
 package de.rwth.idsg.steve.service;
 
+import com.google.common.base.Throwables;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Ordering;
 import de.rwth.idsg.steve.repository.OcppServerRepository;
 import de.rwth.idsg.steve.repository.TransactionRepository;
 import de.rwth.idsg.steve.repository.dto.Transaction;
 import de.rwth.idsg.steve.repository.dto.TransactionDetails;
+import de.rwth.idsg.steve.repository.dto.TransactionStopBatchResult;
+import de.rwth.idsg.steve.repository.dto.TransactionStopCandidate;
 import de.rwth.idsg.steve.repository.dto.UpdateTransactionParams;
-import de.rwth.idsg.steve.utils.TransactionStopServiceHelper;
+import de.rwth.idsg.steve.service.dto.TransactionStopResult;
 import jooq.steve.db.enums.TransactionStopEventActor;
 import jooq.steve.db.tables.records.TransactionStartRecord;
 import lombok.Builder;
 import lombok.RequiredArgsConstructor;
-import ocpp.cs._2012._06.UnitOfMeasure;
 import org.jetbrains.annotations.Nullable;
 import org.joda.time.DateTime;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
-
-import static de.rwth.idsg.steve.utils.TransactionStopServiceHelper.floatingStringToIntString;
-import static de.rwth.idsg.steve.utils.TransactionStopServiceHelper.kWhStringToWhString;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 /**
  * @author Sevket Goekay <sevketgokay@gmail.com>
@@ -48,13 +52,31 @@ import static de.rwth.idsg.steve.utils.TransactionStopServiceHelper.kWhStringToW
 @RequiredArgsConstructor
 public class TransactionStopService {
 
+    /**
+     * Upper bound for the IN clauses of the bulk queries and the size of the insert batches
+     */
+    private static final int BULK_CHUNK_SIZE = 500;
+
     private final TransactionRepository transactionRepository;
     private final OcppServerRepository ocppServerRepository;
+    private final EnergyRollupService energyRollupService;
+
+    /**
+     * Bulk mode for many transactions (e.g. the zombie transactions after an outage of a fleet). Instead of looking
+     * up the details of each transaction separately, the data for stopping is fetched with set-based queries and
+     * the stop rows are inserted in batches, one chunk of transactions at a time.
+     */
+    public List<TransactionStopResult> stop(List<Integer> transactionPkList) {
+        List<Integer> sorted = transactionPkList.stream()
+                                                .distinct()
+                                                .sorted(Ordering.natural())
+                                                .toList();
 
-    public void stop(List<Integer> transactionPkList) {
-        transactionPkList.stream()
-                         .sorted(Ordering.natural())
-                         .forEach(this::stop);
+        List<TransactionStopResult> results = new ArrayList<>(sorted.size());
+        for (List<Integer> chunk : Lists.partition(sorted, BULK_CHUNK_SIZE)) {
+            results.addAll(stopChunk(chunk));
+        }
+        return results;
     }
 
     public void stop(Integer transactionPk) {
@@ -76,22 +98,136 @@ public class TransactionStopService {
                                                                       .eventActor(TransactionStopEventActor.manual)
                                                                       .eventTimestamp(DateTime.now())
                                                                       .build());
+
+        energyRollupService.rollUpLater(List.of(transactionPk));
+    }
+
+    private List<TransactionStopResult> stopChunk(List<Integer> transactionPks) {
+        Map<Integer, TransactionStopCandidate> candidates =
+            transactionRepository.getStopCandidates(transactionPks)
+                                 .stream()
+                                 .collect(Collectors.toMap(TransactionStopCandidate::getTransactionPk, c -> c));
+
+        // keeps the order of the input
+        Map<Integer, TransactionStopResult> results = new LinkedHashMap<>();
+        List<UpdateTransactionParams> paramsList = new ArrayList<>();
+        DateTime now = DateTime.now();
+
+        for (Integer transactionPk : transactionPks) {
+            TransactionStopCandidate candidate = candidates.get(transactionPk);
+
+            if (candidate == null) {
+                results.put(transactionPk, TransactionStopResult.builder()
+                                                                .transactionPk(transactionPk)
+                                                                .outcome(TransactionStopResult.Outcome.NOT_FOUND)
+                                                                .message("There is no transaction with id '"
+                                                                    + transactionPk + "'")
+                                                                .build());
+                continue;
+            }
+
+            if (candidate.isStopped()) {
+                results.put(transactionPk, alreadyStopped(transactionPk));
+                continue;
+            }
+
+            try {
+                TerminationValues values = findNeededValues(candidate);
+
+                paramsList.add(UpdateTransactionParams.builder()
+                                                      .transactionId(transactionPk)
+                                                      .chargeBoxId(candidate.getChargeBoxId())
+                                                      .stopMeterValue(values.stopValue)
+                                                      .stopTimestamp(values.stopTimestamp)
+                                                      .eventActor(TransactionStopEventActor.manual)
+                                                      .eventTimestamp(now)
+                                                      .build());
+
+                results.put(transactionPk, TransactionStopResult.builder()
+                                                                .transactionPk(transactionPk)
+                                                                .outcome(TransactionStopResult.Outcome.STOPPED)
+                                                                .source(values.source)
+                                                                .stopValue(values.stopValue)
+                                                                .stopTimestamp(values.stopTimestamp)
+                                                                .build());
+            } catch (Exception e) {
+                results.put(transactionPk, failed(transactionPk, e));
+            }
+        }
+
+        // the failures are recorded in transaction_stop_failed by the repository
+        TransactionStopBatchResult batchResult = ocppServerRepository.updateTransactions(paramsList);
+        Map<Integer, Exception> failures = batchResult.getFailures();
+        List<Integer> stoppedMeanwhile = batchResult.getAlreadyStopped();
+
+        failures.forEach((transactionPk, e) -> results.put(transactionPk, failed(transactionPk, e)));
+        stoppedMeanwhile.forEach(transactionPk -> results.put(transactionPk, alreadyStopped(transactionPk)));
+
+        energyRollupService.rollUpLater(paramsList.stream()
+                                                  .map(UpdateTransactionParams::getTransactionId)
+                                                  .filter(transactionPk -> !failures.containsKey(transactionPk))
+                                                  .filter(transactionPk -> !stoppedMeanwhile.contains(transactionPk))
+                                                  .toList());
+
+        return new ArrayList<>(results.values());
+    }
+
+    private static TransactionStopResult alreadyStopped(int transactionPk) {
+        return TransactionStopResult.builder()
+                                    .transactionPk(transactionPk)
+                                    .outcome(TransactionStopResult.Outcome.ALREADY_STOPPED)
+                                    .build();
+    }
+
+    private static TransactionStopResult failed(int transactionPk, Exception e) {
+        return TransactionStopResult.builder()
+                                    .transactionPk(transactionPk)
+                                    .outcome(TransactionStopResult.Outcome.FAILED)
+                                    .message(Throwables.getRootCause(e).getMessage())
+                                    .build();
     }
 
     private static TerminationValues findNeededValues(TransactionDetails thisTxDetails) {
         Transaction thisTx = thisTxDetails.getTransaction();
         TransactionStartRecord nextTx = thisTxDetails.getNextTransactionStart();
-        List<TransactionDetails.MeterValues> intermediateValues = thisTxDetails.getValues();
+
+        return findNeededValues(
+            thisTx.getStartValue(),
+            thisTx.getStartTimestamp(),
+            findLastMeterValue(thisTxDetails.getValues()),
+            nextTx == null ? null : nextTx.getStartValue(),
+            nextTx == null ? null : nextTx.getStartTimestamp()
+        );
+    }
+
+    private static TerminationValues findNeededValues(TransactionStopCandidate candidate) {
+        TransactionDetails.MeterValues lastValue = candidate.getLastEnergyValue();
+
+        return findNeededValues(
+            candidate.getStartValue(),
+            candidate.getStartTimestamp(),
+            findLastMeterValue(lastValue == null ? List.of() : List.of(lastValue)),
+            candidate.getNextStartValue(),
+            candidate.getNextStartTimestamp()
+        );
+    }
+
+    private static TerminationValues findNeededValues(String startValue, DateTime startTimestamp,
+                                                      @Nullable TransactionDetails.MeterValues last,
+                                                      @Nullable String nextStartValue,
+                                                      @Nullable DateTime nextStartTimestamp) {
 
         // -------------------------------------------------------------------------
         // 1. intermediate meter values have priority (most accurate data)
         // -------------------------------------------------------------------------
 
-        TransactionDetails.MeterValues last = findLastMeterValue(intermediateValues);
         if (last != null) {
             return TerminationValues.builder()
-                                    .stopValue(floatingStringToIntString(last.getValue()))
+                                    // normalized to Wh at ingest. meter values can be floating, whereas
+                                    // start/end values are int
+                                    .stopValue(Integer.toString((int) Math.ceil(last.getEnergyWh())))
                                     .stopTimestamp(last.getValueTimestamp())
+                                    .source(TransactionStopResult.Source.METER_VALUE)
                                     .build();
         }
 
@@ -99,19 +235,21 @@ public class TransactionStopService {
         // 2. a latest energy meter value does not exist, use data of next tx
         // -------------------------------------------------------------------------
 
-        if (nextTx != null) {
+        if (nextStartTimestamp != null) {
             // some charging stations do not reset the meter value counter after each transaction and
             // continue counting. in such cases, use the value of subsequent transaction's start value
-            if (Integer.parseInt(nextTx.getStartValue()) > Integer.parseInt(thisTx.getStartValue())) {
+            if (Integer.parseInt(nextStartValue) > Integer.parseInt(startValue)) {
                 return TerminationValues.builder()
-                                        .stopValue(nextTx.getStartValue())
-                                        .stopTimestamp(nextTx.getStartTimestamp())
+                                        .stopValue(nextStartValue)
+                                        .stopTimestamp(nextStartTimestamp)
+                                        .source(TransactionStopResult.Source.NEXT_TRANSACTION)
                                         .build();
             } else {
                 // this mix of strategies might be really confusing
                 return TerminationValues.builder()
-                                        .stopValue(thisTx.getStartValue())
-                                        .stopTimestamp(nextTx.getStartTimestamp())
+                                        .stopValue(startValue)
+                                        .stopTimestamp(nextStartTimestamp)
+                                        .source(TransactionStopResult.Source.NEXT_TRANSACTION)
                                         .build();
             }
         }
@@ -121,44 +259,28 @@ public class TransactionStopService {
         // -------------------------------------------------------------------------
 
         return TerminationValues.builder()
-                                .stopValue(thisTx.getStartValue())
-                                .stopTimestamp(thisTx.getStartTimestamp())
+                                .stopValue(startValue)
+                                .stopTimestamp(startTimestamp)
+                                .source(TransactionStopResult.Source.START_VALUES)
                                 .build();
     }
 
+    /**
+     * The values are readings of the energy register already (see TransactionRepository)
+     */
     @Nullable
     private static TransactionDetails.MeterValues findLastMeterValue(List<TransactionDetails.MeterValues> values) {
-        TransactionDetails.MeterValues v =
-                values.stream()
-                      .filter(TransactionStopServiceHelper::isEnergyValue)
-                      .max(Comparator.comparing(TransactionDetails.MeterValues::getValueTimestamp))
-                      .orElse(null);
-
-        // if the list of values is empty, we fall to this case, as well.
-        if (v == null) {
-            return null;
-        }
-
-        // convert kWh to Wh
-        if (UnitOfMeasure.K_WH.value().equals(v.getUnit())) {
-            return TransactionDetails.MeterValues.builder()
-                                                 .value(kWhStringToWhString(v.getValue()))
-                                                 .valueTimestamp(v.getValueTimestamp())
-                                                 .readingContext(v.getReadingContext())
-                                                 .format(v.getFormat())
-                                                 .measurand(v.getMeasurand())
-                                                 .location(v.getLocation())
-                                                 .unit(v.getUnit())
-                                                 .phase(v.getPhase())
-                                                 .build();
-        } else {
-            return v;
-        }
+        // if the list of values is empty, we return null, as well.
+        return values.stream()
+                     .filter(v -> v.getEnergyWh() != null)
+                     .max(Comparator.comparing(TransactionDetails.MeterValues::getValueTimestamp))
+                     .orElse(null);
     }
 
     @Builder
     private static class TerminationValues {
         private final String stopValue;
         private final DateTime stopTimestamp;
+        private final TransactionStopResult.Source source;
     }
 }
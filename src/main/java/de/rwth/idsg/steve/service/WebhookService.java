@@ -0,0 +1,515 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.util.RawValue;
+import com.google.common.base.Strings;
+import com.google.common.util.concurrent.RateLimiter;
+import de.rwth.idsg.steve.SteveException;
+import de.rwth.idsg.steve.config.SteveProperties;
+import de.rwth.idsg.steve.ocpp.ws.JsonObjectMapper;
+import de.rwth.idsg.steve.repository.WebhookOutboxRepository;
+import de.rwth.idsg.steve.repository.dto.InsertConnectorStatusParams;
+import de.rwth.idsg.steve.repository.dto.InsertTransactionParams;
+import de.rwth.idsg.steve.repository.dto.UpdateTransactionParams;
+import de.rwth.idsg.steve.repository.dto.WebhookEvent;
+import de.rwth.idsg.steve.service.notification.DomainEventListener;
+import de.rwth.idsg.steve.service.notification.OcppMeterValuesReceived;
+import de.rwth.idsg.steve.service.notification.OcppStationStatusChanged;
+import de.rwth.idsg.steve.service.notification.OcppStationWebSocketConnected;
+import de.rwth.idsg.steve.service.notification.OcppStationWebSocketDisconnected;
+import de.rwth.idsg.steve.service.notification.OcppTransactionEnded;
+import de.rwth.idsg.steve.service.notification.OcppTransactionStarted;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.Nullable;
+import org.joda.time.DateTime;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Sends the domain events of the stations to the configured webhook targets (steve.webhooks), so that other
+ * systems do not have to poll SteVe:
+ *
+ * 1. Outbox: the events are written to the database (one row per event and target) by the thread that publishes
+ * them, so that the {@link de.rwth.idsg.steve.service.notification.DomainEventBus} cannot drop them. They stay there
+ * until their target accepted them, so that neither a restart of SteVe nor an outage of the target loses them. During
+ * a long outage, only the newest maxEvents of a target are kept.
+ *
+ * 2. Delivery: every pollInterval, the oldest events of every target are posted as one JSON array, in the order they
+ * were inserted. Each target has its own sender, so that a slow target does not hold up the others. A 2xx response
+ * deletes the events. Otherwise, the events (and all later ones, to keep the order) wait for a growing pause.
+ *
+ * Every element of the array has the fields id, type, timestamp and data. The id is unique per target and stays the
+ * same when a batch is sent again, so that the target can recognize duplicates.
+ */
+@Slf4j
+@Service
+public class WebhookService implements DomainEventListener, DisposableBean {
+
+    public static final String SIGNATURE_HEADER = "X-SteVe-Signature";
+
+    /**
+     * Duration of the requests per target. Additionally tagged with the outcome (success or error).
+     */
+    public static final String DELIVERY = "steve.webhooks.delivery";
+
+    /**
+     * Events that were accepted by the target
+     */
+    public static final String DELIVERED = "steve.webhooks.delivered";
+
+    /**
+     * Events that were dropped after maxAttempts, or because there were more than maxEvents
+     */
+    public static final String DROPPED = "steve.webhooks.dropped";
+
+    private static final int MAX_ERROR_LENGTH = 1024;
+
+    private static final Map<Class<?>, EventType> EVENT_TYPES = Map.of(
+        OcppTransactionStarted.class, EventType.TransactionStarted,
+        OcppTransactionEnded.class, EventType.TransactionEnded,
+        OcppStationStatusChanged.class, EventType.StatusChanged,
+        OcppMeterValuesReceived.class, EventType.MeterValues,
+        OcppStationWebSocketConnected.class, EventType.Connected,
+        OcppStationWebSocketDisconnected.class, EventType.Disconnected
+    );
+
+    public enum EventType {
+        TransactionStarted,
+        TransactionEnded,
+        StatusChanged,
+        MeterValues,
+        Connected,
+        Disconnected
+    }
+
+    private final SteveProperties.Webhooks properties;
+    private final WebhookOutboxRepository repository;
+    private final TaskScheduler taskScheduler;
+
+    private final List<Target> targets;
+    private final Set<EventType> subscribedTypes = EnumSet.noneOf(EventType.class);
+    private final HttpClient httpClient;
+    private final ThreadPoolTaskExecutor sender;
+    private final ObjectMapper mapper = JsonObjectMapper.INSTANCE.getMapper();
+    private final RateLimiter errorLogLimiter = RateLimiter.create(0.1);
+
+    private ScheduledFuture<?> scheduledFuture;
+
+    public WebhookService(SteveProperties steveProperties, WebhookOutboxRepository repository,
+                          TaskScheduler taskScheduler, MeterRegistry registry) {
+        this.properties = steveProperties.getWebhooks();
+        this.repository = repository;
+        this.taskScheduler = taskScheduler;
+
+        this.targets = properties.getTargets().stream().map(t -> new Target(t, registry)).toList();
+        targets.forEach(t -> subscribedTypes.addAll(t.eventTypes));
+
+        this.httpClient = HttpClient.newBuilder()
+                                    .connectTimeout(properties.getRequestTimeout())
+                                    .build();
+
+        this.sender = new ThreadPoolTaskExecutor();
+        sender.setCorePoolSize(Math.max(1, targets.size()));
+        sender.setMaxPoolSize(Math.max(1, targets.size()));
+        sender.setAllowCoreThreadTimeOut(true);
+        sender.setAwaitTerminationSeconds(5);
+        sender.setThreadNamePrefix("SteVe-Webhooks-");
+        sender.initialize();
+    }
+
+    @EventListener
+    public synchronized void afterStart(ContextRefreshedEvent event) {
+        if (targets.isEmpty() || scheduledFuture != null) {
+            return;
+        }
+
+        int deleted = repository.deleteOtherTargets(targets.stream().map(t -> t.name).toList());
+        if (deleted > 0) {
+            log.info("Deleted {} webhook events of targets that are not configured anymore", deleted);
+        }
+
+        scheduledFuture = taskScheduler.scheduleWithFixedDelay(this::poll, properties.getPollInterval());
+        log.info("Sending the domain events to {} webhook targets", targets.size());
+    }
+
+    @Override
+    public void destroy() {
+        synchronized (this) {
+            if (scheduledFuture != null) {
+                scheduledFuture.cancel(false);
+            }
+        }
+        // the events that were not delivered stay in the outbox
+        sender.shutdown();
+    }
+
+    @Override
+    public void onEvents(List<Object> events) {
+        if (targets.isEmpty()) {
+            return;
+        }
+
+        List<WebhookEvent> rows = new ArrayList<>();
+        for (Object event : events) {
+            OutgoingEvent outgoing = toOutgoing(event);
+            if (outgoing == null) {
+                continue;
+            }
+
+            String payload = null;
+            for (Target target : targets) {
+                if (!target.eventTypes.contains(outgoing.type)) {
+                    continue;
+                }
+                if (payload == null) {
+                    payload = outgoing.data.toString();
+                }
+                rows.add(WebhookEvent.builder()
+                                     .target(target.name)
+                                     .eventType(outgoing.type.name())
+                                     .eventTimestamp(outgoing.timestamp)
+                                     .payload(payload)
+                                     .build());
+            }
+        }
+
+        if (!rows.isEmpty()) {
+            repository.insert(rows);
+        }
+    }
+
+    /**
+     * The events are written to the outbox before the response to the station, since a dropped event would never
+     * reach the targets
+     */
+    @Override
+    public boolean isSynchronous() {
+        return true;
+    }
+
+    @Override
+    public boolean isInterestedIn(Class<?> eventType) {
+        EventType type = EVENT_TYPES.get(eventType);
+        return type != null && subscribedTypes.contains(type);
+    }
+
+    /**
+     * Sends the pending events of every target in this thread, until they are delivered or have to wait
+     */
+    void deliverAll() {
+        targets.forEach(this::deliverPending);
+    }
+
+    // -------------------------------------------------------------------------
+    // Private helpers
+    // -------------------------------------------------------------------------
+
+    private void poll() {
+        for (Target target : targets) {
+            if (!target.inFlight.compareAndSet(false, true)) {
+                continue;
+            }
+            try {
+                sender.execute(() -> {
+                    try {
+                        deliverPending(target);
+                    } finally {
+                        target.inFlight.set(false);
+                    }
+                });
+            } catch (TaskRejectedException e) {
+                target.inFlight.set(false);
+            }
+        }
+    }
+
+    private void deliverPending(Target target) {
+        int batchSize = properties.getBatchSize();
+        try {
+            dropOverflow(target);
+            while (!Thread.currentThread().isInterrupted()) {
+                List<WebhookEvent> batch = repository.getEvents(target.name, batchSize);
+                if (batch.isEmpty() || isWaiting(batch.get(0))) {
+                    return;
+                }
+                if (!deliver(target, batch) || batch.size() < batchSize) {
+                    return;
+                }
+            }
+        } catch (Exception e) {
+            log.error("Failed to deliver the webhook events of '{}'", target.name, e);
+        }
+    }
+
+    private void dropOverflow(Target target) {
+        int maxEvents = properties.getMaxEvents();
+        if (maxEvents <= 0) {
+            return;
+        }
+
+        int deleted = repository.deleteOldest(target.name, maxEvents);
+        if (deleted > 0) {
+            target.dropped.increment(deleted);
+            log.error("Dropped the {} oldest webhook events of '{}', since there were more than {}", deleted,
+                target.name, maxEvents);
+        }
+    }
+
+    private static boolean isWaiting(WebhookEvent head) {
+        DateTime nextAttempt = head.getNextAttemptTimestamp();
+        return nextAttempt != null && nextAttempt.isAfterNow();
+    }
+
+    /**
+     * @return whether the target accepted the batch
+     */
+    private boolean deliver(Target target, List<WebhookEvent> batch) throws IOException {
+        List<Long> pks = batch.stream().map(WebhookEvent::getWebhookOutboxPk).toList();
+        String body = toBody(batch);
+
+        HttpRequest.Builder request = HttpRequest.newBuilder(target.uri)
+                                                 .timeout(properties.getRequestTimeout())
+                                                 .header("Content-Type", "application/json")
+                                                 .POST(BodyPublishers.ofString(body, StandardCharsets.UTF_8));
+        if (target.secret != null) {
+            request.header(SIGNATURE_HEADER, "sha256=" + sign(target.secret, body));
+        }
+
+        String error;
+        long startNanos = System.nanoTime();
+        try {
+            HttpResponse<Void> response = httpClient.send(request.build(), BodyHandlers.discarding());
+            if (response.statusCode() / 100 == 2) {
+                target.success.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+                repository.delete(pks);
+                target.delivered.increment(batch.size());
+                return true;
+            }
+            error = "HTTP " + response.statusCode();
+        } catch (IOException e) {
+            error = e.toString();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        target.error.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+
+        int attempts = batch.get(0).getAttempts() + 1;
+        int maxAttempts = properties.getMaxAttempts();
+
+        if (maxAttempts > 0 && attempts >= maxAttempts) {
+            repository.delete(pks);
+            target.dropped.increment(batch.size());
+            log.error("Dropped {} webhook events of '{}' after {} attempts: {}", batch.size(), target.name,
+                attempts, error);
+        } else {
+            repository.markFailed(pks, DateTime.now().plus(getBackoff(attempts).toMillis()), truncate(error));
+            if (errorLogLimiter.tryAcquire()) {
+                log.warn("Failed to deliver {} webhook events to '{}' (attempt {}): {}", batch.size(), target.name,
+                    attempts, error);
+            }
+        }
+        return false;
+    }
+
+    private Duration getBackoff(int attempts) {
+        Duration backoff = properties.getRetryBackoff().multipliedBy(1L << Math.min(attempts - 1, 20));
+        Duration maxBackoff = properties.getMaxBackoff();
+        return backoff.compareTo(maxBackoff) > 0 ? maxBackoff : backoff;
+    }
+
+    private String toBody(List<WebhookEvent> batch) throws IOException {
+        ArrayNode array = mapper.createArrayNode();
+        for (WebhookEvent event : batch) {
+            array.addObject()
+                 .put("id", event.getWebhookOutboxPk())
+                 .put("type", event.getEventType())
+                 .put("timestamp", event.getEventTimestamp().toString())
+                 // stored as JSON already, no need to parse it again
+                 .putRawValue("data", new RawValue(event.getPayload()));
+        }
+        return mapper.writeValueAsString(array);
+    }
+
+    private static String sign(String secret, String body) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            return HexFormat.of().formatHex(mac.doFinal(body.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new SteveException("Failed to sign the webhook events", e);
+        }
+    }
+
+    private static String truncate(String error) {
+        return error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+    }
+
+    @Nullable
+    private OutgoingEvent toOutgoing(Object event) {
+        if (event instanceof OcppTransactionStarted e) {
+            InsertTransactionParams params = e.getParams();
+            ObjectNode data = mapper.createObjectNode()
+                                    .put("transactionId", e.getTransactionId())
+                                    .put("chargeBoxId", params.getChargeBoxId())
+                                    .put("connectorId", params.getConnectorId())
+                                    .put("idTag", params.getIdTag())
+                                    .put("startTimestamp", params.getStartTimestamp().toString())
+                                    .put("startMeterValue", params.getStartMeterValue());
+            return new OutgoingEvent(EventType.TransactionStarted, params.getStartTimestamp(), data);
+
+        } else if (event instanceof OcppTransactionEnded e) {
+            UpdateTransactionParams params = e.getParams();
+            ObjectNode data = mapper.createObjectNode()
+                                    .put("transactionId", params.getTransactionId())
+                                    .put("chargeBoxId", params.getChargeBoxId())
+                                    .put("stopTimestamp", params.getStopTimestamp().toString())
+                                    .put("stopMeterValue", params.getStopMeterValue())
+                                    .put("stopReason", params.getStopReason());
+            return new OutgoingEvent(EventType.TransactionEnded, params.getStopTimestamp(), data);
+
+        } else if (event instanceof OcppStationStatusChanged e) {
+            InsertConnectorStatusParams params = e.getParams();
+            ObjectNode data = mapper.createObjectNode()
+                                    .put("chargeBoxId", params.getChargeBoxId())
+                                    .put("connectorId", params.getConnectorId())
+                                    .put("status", params.getStatus())
+                                    .put("errorCode", params.getErrorCode())
+                                    .put("errorInfo", params.getErrorInfo())
+                                    .put("vendorId", params.getVendorId())
+                                    .put("vendorErrorCode", params.getVendorErrorCode());
+            return new OutgoingEvent(EventType.StatusChanged, params.getTimestamp(), data);
+
+        } else if (event instanceof OcppMeterValuesReceived e) {
+            ObjectNode data = mapper.createObjectNode()
+                                    .put("chargeBoxId", e.getChargeBoxId())
+                                    .put("connectorId", e.getConnectorId())
+                                    .put("transactionId", e.getTransactionId());
+            // in the format of OCPP 1.6 JSON
+            data.set("meterValue", mapper.valueToTree(e.getMeterValues()));
+            return new OutgoingEvent(EventType.MeterValues, DateTime.now(), data);
+
+        } else if (event instanceof OcppStationWebSocketConnected e) {
+            ObjectNode data = mapper.createObjectNode().put("chargeBoxId", e.getChargeBoxId());
+            return new OutgoingEvent(EventType.Connected, DateTime.now(), data);
+
+        } else if (event instanceof OcppStationWebSocketDisconnected e) {
+            ObjectNode data = mapper.createObjectNode().put("chargeBoxId", e.getChargeBoxId());
+            return new OutgoingEvent(EventType.Disconnected, DateTime.now(), data);
+        }
+        return null;
+    }
+
+    @RequiredArgsConstructor
+    private static class OutgoingEvent {
+        private final EventType type;
+        private final DateTime timestamp;
+        private final ObjectNode data;
+    }
+
+    private static class Target {
+        private final String name;
+        private final URI uri;
+        private final Set<EventType> eventTypes;
+        @Nullable private final String secret;
+        private final AtomicBoolean inFlight = new AtomicBoolean();
+
+        private final Timer success;
+        private final Timer error;
+        private final Counter delivered;
+        private final Counter dropped;
+
+        private Target(SteveProperties.Webhooks.Target config, MeterRegistry registry) {
+            if (Strings.isNullOrEmpty(config.getName()) || Strings.isNullOrEmpty(config.getUrl())) {
+                throw new SteveException("A webhook target needs a name and a url");
+            }
+
+            this.name = config.getName();
+            this.uri = URI.create(config.getUrl());
+            this.secret = Strings.emptyToNull(config.getSecret());
+
+            if (config.getEvents().isEmpty()) {
+                this.eventTypes = EnumSet.allOf(EventType.class);
+            } else {
+                this.eventTypes = EnumSet.noneOf(EventType.class);
+                for (String type : config.getEvents()) {
+                    try {
+                        eventTypes.add(EventType.valueOf(type));
+                    } catch (IllegalArgumentException e) {
+                        throw new SteveException("Unknown event type '%s' of the webhook target '%s'", type, name);
+                    }
+                }
+            }
+
+            this.success = deliveryTimer(registry, "success");
+            this.error = deliveryTimer(registry, "error");
+            this.delivered = Counter.builder(DELIVERED)
+                                    .description("Webhook events that were accepted by the target")
+                                    .tag("target", name)
+                                    .register(registry);
+            this.dropped = Counter.builder(DROPPED)
+                                  .description("Webhook events that were dropped after the last attempt")
+                                  .tag("target", name)
+                                  .register(registry);
+        }
+
+        private Timer deliveryTimer(MeterRegistry registry, String outcome) {
+            return Timer.builder(DELIVERY)
+                        .description("Duration of the webhook requests per target")
+                        .tag("target", name)
+                        .tag("outcome", outcome)
+                        .register(registry);
+        }
+    }
+}
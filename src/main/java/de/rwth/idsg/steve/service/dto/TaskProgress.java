@@ -0,0 +1,51 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * Counters of a task, sent as "progress" event
+ */
+@Getter
+@Builder
+@ToString
+public final class TaskProgress {
+
+    @Schema(description = "ID of the task")
+    private final int taskId;
+
+    @Schema(description = "Number of stations the task is sent to")
+    private final int requestCount;
+
+    @Schema(description = "Number of stations that responded")
+    private final int responseCount;
+
+    @Schema(description = "Number of stations that could not be reached, or failed")
+    private final int errorCount;
+
+    @Schema(description = "Whether all stations responded or failed. This is the last event of the stream.")
+    private final boolean finished;
+
+    @Schema(description = "Whether the task was cancelled. The stations that were not called yet count as errors.")
+    private final boolean cancelled;
+}
@@ -0,0 +1,68 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.service.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+import org.joda.time.DateTime;
+
+/**
+ * Outcome of manually stopping one transaction in bulk mode
+ */
+@Getter
+@Builder
+@ToString
+public final class TransactionStopResult {
+
+    @Schema(description = "PK of the transaction")
+    private final int transactionPk;
+
+    @Schema(description = "What happened to the transaction")
+    private final Outcome outcome;
+
+    @Schema(description = "Where the stop values come from. Only set, if the transaction was stopped")
+    private final Source source;
+
+    @Schema(description = "The meter value that was used to stop the transaction")
+    private final String stopValue;
+
+    @Schema(description = "The timestamp that was used to stop the transaction")
+    private final DateTime stopTimestamp;
+
+    @Schema(description = "Reason, if the transaction was not found or could not be stopped")
+    private final String message;
+
+    public enum Outcome {
+        STOPPED,
+        ALREADY_STOPPED,
+        NOT_FOUND,
+        FAILED
+    }
+
+    /**
+     * In the order of priority
+     */
+    public enum Source {
+        METER_VALUE,        // Latest energy meter value of the transaction
+        NEXT_TRANSACTION,   // Start of the subsequent transaction at the same connector
+        START_VALUES        // Neither exists, the transaction ends where it started
+    }
+}
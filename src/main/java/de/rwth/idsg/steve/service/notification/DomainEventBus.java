@@ -0,0 +1,328 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.service.notification;
+
+import com.google.common.util.concurrent.RateLimiter;
+import de.rwth.idsg.steve.config.SteveProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.jetbrains.annotations.Nullable;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Delivers the domain events of the stations (e.g. {@link OcppTransactionStarted}) to the
+ * {@link DomainEventListener}s in the background. Unlike the synchronous ApplicationEventPublisher of Spring, the
+ * thread that publishes an event (usually the one that processes an OCPP request) only puts it in a bounded queue,
+ * so that the listeners (e.g. sending mails) cannot add to the response time.
+ *
+ * The events are taken from the queue in batches, and every listener gets the batches in its own lane: a slow or
+ * failing listener does not hold up the others. When the queue (or the lane of a listener) is full, the events are
+ * dropped and counted, instead of blocking the publisher for longer than the configured maxPublishWait.
+ *
+ * Listeners that must not lose events (see {@link DomainEventListener#isSynchronous()}) bypass the queue, and are
+ * called by the publisher instead.
+ */
+@Slf4j
+@Component
+public class DomainEventBus implements DisposableBean {
+
+    /**
+     * Events that were put in the queue
+     */
+    public static final String PUBLISHED = "steve.events.published";
+
+    /**
+     * Events that were dropped. Tagged with the listener, or "none" if the event did not even make it into the queue.
+     */
+    public static final String DROPPED = "steve.events.dropped";
+
+    /**
+     * Time that publishers waited for space in the full queue
+     */
+    public static final String PUBLISH_WAIT = "steve.events.publish.wait";
+
+    public static final String QUEUE_SIZE = "steve.events.queue.size";
+
+    /**
+     * Processing time of the batches per listener. Additionally tagged with the outcome (success or error).
+     */
+    public static final String DELIVERY = "steve.events.delivery";
+
+    private final SteveProperties.Events properties;
+    private final MeterRegistry registry;
+    private final ObjectProvider<DomainEventListener> listenerProvider;
+
+    private final BlockingQueue<Object> queue;
+    private final ThreadPoolTaskExecutor dispatcher;
+    private final Counter published;
+    private final Counter dropped;
+    private final Timer publishWait;
+    private final RateLimiter dropLogLimiter = RateLimiter.create(0.1);
+    private final Map<Class<?>, Boolean> hasListeners = new ConcurrentHashMap<>();
+
+    private volatile List<DomainEventListener> listeners;
+    private volatile List<Lane> lanes;
+    private volatile List<Lane> synchronousLanes;
+
+    public DomainEventBus(SteveProperties steveProperties, MeterRegistry registry,
+                          ObjectProvider<DomainEventListener> listenerProvider) {
+        this.properties = steveProperties.getEvents();
+        this.registry = registry;
+        this.listenerProvider = listenerProvider;
+
+        this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+
+        this.dispatcher = new ThreadPoolTaskExecutor();
+        dispatcher.setCorePoolSize(1);
+        dispatcher.setMaxPoolSize(1);
+        dispatcher.setAwaitTerminationSeconds(5);
+        dispatcher.setThreadNamePrefix("SteVe-Events-");
+        dispatcher.initialize();
+
+        this.published = Counter.builder(PUBLISHED)
+                                .description("Domain events that were queued for the listeners")
+                                .register(registry);
+
+        this.dropped = Counter.builder(DROPPED)
+                              .description("Domain events that were dropped")
+                              .tag("listener", "none")
+                              .register(registry);
+
+        this.publishWait = Timer.builder(PUBLISH_WAIT)
+                                .description("Wait time of publishers for space in the full queue of domain events")
+                                .register(registry);
+
+        Gauge.builder(QUEUE_SIZE, queue, BlockingQueue::size)
+             .description("Domain events in the queue")
+             .register(registry);
+    }
+
+    /**
+     * The listeners are looked up only now, since they might depend on beans that publish events
+     */
+    @EventListener
+    public synchronized void afterStart(ContextRefreshedEvent event) {
+        if (lanes != null) {
+            return;
+        }
+
+        List<Lane> all = listenerProvider.orderedStream().map(Lane::new).toList();
+        lanes = all.stream().filter(lane -> lane.executor != null).toList();
+
+        // the events that were published before are in the queue only, and have to be delivered to the synchronous
+        // listeners as well. no event is published in the meantime, since publish() waits for this lock, as long as
+        // the synchronous lanes are not set.
+        List<Lane> synchronous = all.stream().filter(lane -> lane.executor == null).toList();
+        if (!synchronous.isEmpty() && !queue.isEmpty()) {
+            List<Object> events = List.copyOf(queue);
+            synchronous.forEach(lane -> lane.submit(events));
+        }
+        listeners = all.stream().map(lane -> lane.listener).toList();
+        synchronousLanes = synchronous;
+
+        dispatcher.execute(this::dispatch);
+        log.info("Delivering domain events to {} listeners, {} of them synchronously", all.size(), synchronous.size());
+    }
+
+    @Override
+    public void destroy() {
+        dispatcher.shutdown();
+
+        List<Lane> current = lanes;
+        if (current != null) {
+            current.forEach(lane -> lane.executor.shutdown());
+        }
+    }
+
+    /**
+     * Never blocks longer than maxPublishWait, plus the processing time of the synchronous listeners
+     */
+    public void publish(Object event) {
+        List<Lane> synchronous = synchronousLanes;
+        if (synchronous == null) {
+            synchronized (this) {
+                synchronous = synchronousLanes;
+                if (synchronous == null) {
+                    // not started yet, afterStart() delivers the event to the synchronous listeners
+                    enqueue(event);
+                    return;
+                }
+            }
+        }
+
+        if (!synchronous.isEmpty()) {
+            List<Object> events = List.of(event);
+            synchronous.forEach(lane -> lane.submit(events));
+        }
+        enqueue(event);
+    }
+
+    /**
+     * For the frequent events, so that they are not even created if no listener wants them. Until the start, the
+     * listeners are not known, and every type is wanted.
+     */
+    public boolean hasListenersFor(Class<?> eventType) {
+        List<DomainEventListener> current = listeners;
+        if (current == null) {
+            return true;
+        }
+        return hasListeners.computeIfAbsent(eventType,
+            type -> current.stream().anyMatch(listener -> listener.isInterestedIn(type)));
+    }
+
+    private void enqueue(Object event) {
+        boolean added = queue.offer(event);
+
+        long maxWaitNanos = properties.getMaxPublishWait().toNanos();
+        if (!added && maxWaitNanos > 0) {
+            long startNanos = System.nanoTime();
+            try {
+                added = queue.offer(event, maxWaitNanos, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            publishWait.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+
+        if (added) {
+            published.increment();
+        } else {
+            dropped.increment();
+            if (dropLogLimiter.tryAcquire()) {
+                log.warn("The queue of domain events is full. Dropped: {}", event);
+            }
+        }
+    }
+
+    private void dispatch() {
+        int maxBatchSize = properties.getMaxBatchSize();
+
+        while (!Thread.currentThread().isInterrupted()) {
+            List<Object> batch = new ArrayList<>(maxBatchSize);
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                break;
+            }
+            queue.drainTo(batch, maxBatchSize - 1);
+
+            List<Object> events = List.copyOf(batch);
+            for (Lane lane : lanes) {
+                lane.submit(events);
+            }
+        }
+
+        // shutdown: hand over what is left, the lanes finish their queues before they stop
+        List<Object> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        if (!rest.isEmpty()) {
+            List<Object> events = List.copyOf(rest);
+            lanes.forEach(lane -> lane.submit(events));
+        }
+    }
+
+    private class Lane {
+        private final DomainEventListener listener;
+        private final String name;
+        @Nullable private final ThreadPoolTaskExecutor executor;
+        private final Counter dropped;
+        private final Timer success;
+        private final Timer error;
+
+        private Lane(DomainEventListener listener) {
+            this.listener = listener;
+            this.name = ClassUtils.getUserClass(listener).getSimpleName();
+
+            if (listener.isSynchronous()) {
+                this.executor = null;
+            } else {
+                this.executor = new ThreadPoolTaskExecutor();
+                executor.setCorePoolSize(1);
+                executor.setMaxPoolSize(1);
+                executor.setQueueCapacity(properties.getListenerQueueCapacity());
+                executor.setAllowCoreThreadTimeOut(true);
+                executor.setWaitForTasksToCompleteOnShutdown(true);
+                executor.setAwaitTerminationSeconds(5);
+                executor.setThreadNamePrefix("SteVe-Events-" + name + "-");
+                executor.initialize();
+            }
+
+            this.dropped = Counter.builder(DROPPED)
+                                  .description("Domain events that were dropped")
+                                  .tag("listener", name)
+                                  .register(registry);
+
+            this.success = deliveryTimer("success");
+            this.error = deliveryTimer("error");
+        }
+
+        private Timer deliveryTimer(String outcome) {
+            return Timer.builder(DELIVERY)
+                        .description("Processing time of batches of domain events per listener")
+                        .tag("listener", name)
+                        .tag("outcome", outcome)
+                        .register(registry);
+        }
+
+        private void submit(List<Object> events) {
+            if (executor == null) {
+                deliver(events);
+                return;
+            }
+
+            try {
+                executor.execute(() -> deliver(events));
+            } catch (TaskRejectedException e) {
+                dropped.increment(events.size());
+                if (dropLogLimiter.tryAcquire()) {
+                    log.warn("{} cannot keep up with the domain events. Dropped {} events", name, events.size());
+                }
+            }
+        }
+
+        private void deliver(List<Object> events) {
+            long startNanos = System.nanoTime();
+            try {
+                listener.onEvents(events);
+                success.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+            } catch (Exception e) {
+                error.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+                log.error("{} failed to process {} domain events", name, events.size(), e);
+            }
+        }
+    }
+}
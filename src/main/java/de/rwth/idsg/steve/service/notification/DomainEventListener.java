@@ -0,0 +1,53 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.service.notification;
+
+import java.util.List;
+
+/**
+ * Receives the domain events of {@link DomainEventBus}. Every listener is called from its own thread, one batch after
+ * another, so that an implementation does not have to be thread-safe with regard to itself. Unless it is
+ * synchronous, see {@link #isSynchronous()}.
+ */
+public interface DomainEventListener {
+
+    /**
+     * @param events in the order they were published. Contains all types of events, the listener picks the ones it is
+     *               interested in. An exception is logged, and does not affect the other listeners or the next batch.
+     */
+    void onEvents(List<Object> events);
+
+    /**
+     * The events might be dropped for an asynchronous listener, when it (or the bus) cannot keep up with them, which is
+     * fine for e.g. notification mails. A synchronous listener gets every event, since it is called by the thread that
+     * publishes the event, before {@link DomainEventBus#publish(Object)} returns. Therefore, it has to be quick and
+     * thread-safe.
+     */
+    default boolean isSynchronous() {
+        return false;
+    }
+
+    /**
+     * Lets the publishers skip the events that no listener wants (see {@link DomainEventBus#hasListenersFor(Class)}).
+     * Asked once per type, so the answer must not change later.
+     */
+    default boolean isInterestedIn(Class<?> eventType) {
+        return true;
+    }
+}
@@ -21,6 +21,7 @@ package de.rwth.idsg.steve.utils;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 import org.joda.time.DateTime;
+import org.joda.time.LocalDate;
 import org.jooq.Condition;
 import org.jooq.DataType;
 import org.jooq.DatePart;
@@ -50,6 +51,25 @@ public final class CustomDSL {
         return field("date({0})", DATE_TIME_TYPE, dt);
     }
 
+    /**
+     * Whether the string is a decimal number (optionally with exponent). A bit stricter than Double.parseDouble.
+     */
+    public static Condition isNumeric(Field<String> field) {
+        return field.likeRegex("^[-+]?([0-9]+[.]?[0-9]*|[.][0-9]+)([eE][-+]?[0-9]+)?$");
+    }
+
+    /**
+     * jOOQ renders a cast to double as a cast to decimal (without scale) for MySQL, which would round the values.
+     * Only meaningful for strings that are {@link #isNumeric(Field)}.
+     */
+    public static Field<Double> toDouble(Field<String> field) {
+        return field("({0} + 0e0)", Double.class, field);
+    }
+
+    public static Field<LocalDate> firstDayOfMonth(Field<LocalDate> date) {
+        return field("date_sub({0}, interval dayofmonth({0}) - 1 day)", date.getDataType(), date);
+    }
+
     /**
      * http://dev.mysql.com/doc/refman/5.7/en/pattern-matching.html
      *
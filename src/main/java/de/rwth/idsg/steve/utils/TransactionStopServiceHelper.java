@@ -20,15 +20,24 @@ package de.rwth.idsg.steve.utils;
 
 import com.google.common.base.Strings;
 import de.rwth.idsg.steve.repository.dto.Transaction;
-import de.rwth.idsg.steve.repository.dto.TransactionDetails;
 import lombok.extern.slf4j.Slf4j;
 import ocpp.cs._2015._10.Measurand;
 import ocpp.cs._2015._10.UnitOfMeasure;
 import ocpp.cs._2015._10.ValueFormat;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.regex.Pattern;
 
 @Slf4j
 public class TransactionStopServiceHelper {
 
+    /**
+     * A plain decimal number (optionally with exponent). A bit stricter than Double.parseDouble, which also accepts
+     * e.g. "NaN" or "1d". The same expression is used in SQL for the meter values that were stored before (see
+     * CustomDSL.isNumeric).
+     */
+    private static final Pattern NUMERIC = Pattern.compile("[-+]?([0-9]+[.]?[0-9]*|[.][0-9]+)([eE][-+]?[0-9]+)?");
+
     public static Double calculateEnergyConsumptionInKWh(Transaction t) {
         if (t.getStopValue() == null) {
             return null; // this transaction did not finish yet
@@ -44,74 +53,56 @@ public class TransactionStopServiceHelper {
         }
     }
 
-    public static String floatingStringToIntString(String s) {
-        // meter values can be floating, whereas start/end values are int
-        return Integer.toString((int) Math.ceil(Double.parseDouble(s)));
-    }
-
-    public static String kWhStringToWhString(String s) {
-        double kWhValue = Double.parseDouble(s);
-        return Double.toString(kWhValue * 1000);
-    }
-
-    public static boolean isEnergyValue(TransactionDetails.MeterValues v) {
-        // should not happen, but check it to be safe.
-        // https://github.com/steve-community/steve/issues/249
-        if (Strings.isNullOrEmpty(v.getValue())) {
-            return false;
+    /**
+     * @return consumed energy in Wh, or null if the meter values cannot be parsed or decrease (e.g. the meter was
+     *         replaced during the transaction), since such values would falsify any sum they are part of
+     */
+    public static Long calculateEnergyConsumptionInWh(String startValue, String stopValue) {
+        if (startValue == null || stopValue == null) {
+            return null;
         }
 
-        // is it a proper numeric/decimal value?
         try {
-            Double.parseDouble(v.getValue());
-        } catch (Exception e) {
-            // swallow the exception. we got what we wanted.
-            return false;
+            long energy = Math.round(Double.parseDouble(stopValue) - Double.parseDouble(startValue));
+            return energy < 0 ? null : energy;
+        } catch (NumberFormatException e) {
+            return null;
         }
+    }
 
-        // edge case handling for format
-        {
-            ValueFormat format = Strings.isNullOrEmpty(v.getFormat())
-                ? ValueFormat.RAW
-                : ValueFormat.fromValue(v.getFormat());
-
-            // if the format is "SignedData", we cannot make any sense of this entry. we don't know how to decode it.
-            // https://github.com/steve-community/steve/issues/816
-            if (ValueFormat.SIGNED_DATA == format) {
-                return false;
-            }
+    /**
+     * Classifies a meter value at ingest. The optional fields are already enums (or null, if not set).
+     *
+     * @return the value as number, or null if it is not a number or we cannot decode it (signed data)
+     */
+    @Nullable
+    public static Double toNumericValue(String value, @Nullable ValueFormat format) {
+        if (Strings.isNullOrEmpty(value) || format == ValueFormat.SIGNED_DATA) {
+            return null;
         }
+        return NUMERIC.matcher(value).matches() ? Double.parseDouble(value) : null;
+    }
 
-        // edge case handling for measurand
-        {
-            Measurand measurand = Strings.isNullOrEmpty(v.getMeasurand())
-                ? Measurand.ENERGY_ACTIVE_IMPORT_REGISTER
-                : Measurand.fromValue(v.getMeasurand());
-
-            if (Measurand.ENERGY_ACTIVE_IMPORT_REGISTER != measurand) {
-                return false;
-            }
+    /**
+     * @return the value in Wh, or null if the value is not a reading of the energy register
+     */
+    @Nullable
+    public static Double toEnergyValueInWh(@Nullable Double numericValue, @Nullable Measurand measurand,
+                                           @Nullable UnitOfMeasure unit) {
+        if (numericValue == null) {
+            return null;
         }
 
-        // edge case handling for unit
-        {
-            UnitOfMeasure unit = Strings.isNullOrEmpty(v.getUnit())
-                ? UnitOfMeasure.WH
-                : UnitOfMeasure.fromValue(v.getUnit());
-
-            if (!isWHOrKWH(unit)) {
-                return false;
-            }
+        if (measurand != null && measurand != Measurand.ENERGY_ACTIVE_IMPORT_REGISTER) {
+            return null;
         }
 
-        // at this point, we have a value with
-        // - RAW format
-        // - Wh or kWh unit
-        // - Energy.Active.Import.Register as the measurand
-        return true;
-    }
-
-    private static boolean isWHOrKWH(UnitOfMeasure unit) {
-        return UnitOfMeasure.WH == unit || UnitOfMeasure.K_WH == unit;
+        if (unit == null || unit == UnitOfMeasure.WH) {
+            return numericValue;
+        } else if (unit == UnitOfMeasure.K_WH) {
+            return numericValue * 1000;
+        } else {
+            return null;
+        }
     }
 }
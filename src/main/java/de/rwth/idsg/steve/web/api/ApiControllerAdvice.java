@@ -20,9 +20,11 @@ package de.rwth.idsg.steve.web.api;
 
 import de.rwth.idsg.steve.SteveException;
 import de.rwth.idsg.steve.web.DateTimeEditor;
+import de.rwth.idsg.steve.web.LocalDateEditor;
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
 import org.joda.time.DateTime;
+import org.joda.time.LocalDate;
 import org.springframework.beans.propertyeditors.StringTrimmerEditor;
 import org.springframework.http.HttpStatus;
 import org.springframework.validation.BindException;
@@ -47,6 +49,7 @@ public class ApiControllerAdvice {
     public void binder(WebDataBinder binder) {
         binder.registerCustomEditor(String.class, new StringTrimmerEditor(true));
         binder.registerCustomEditor(DateTime.class, DateTimeEditor.forApi());
+        binder.registerCustomEditor(LocalDate.class, new LocalDateEditor());
     }
 
     @ExceptionHandler(BindException.class)
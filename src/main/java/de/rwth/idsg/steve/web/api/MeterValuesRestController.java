@@ -0,0 +1,99 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.web.api;
+
+import de.rwth.idsg.steve.repository.MeterValueRepository;
+import de.rwth.idsg.steve.repository.dto.MeterValueSeries;
+import de.rwth.idsg.steve.web.api.ApiControllerAdvice.ApiErrorResponse;
+import de.rwth.idsg.steve.web.dto.MeterValueQueryForm;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import jakarta.validation.Valid;
+
+import java.util.List;
+
+@Tag(name = "meter-value-controller",
+    description = """
+        Operations related to meter values as time series.
+        The values are downsampled to the requested resolution: The time range is divided into buckets of equal length,
+        and each bucket contains the min, max and average of the values in it.
+        Only numeric values are considered, signed data is left out.
+        """
+)
+@Slf4j
+@RestController
+@RequestMapping(value = "/api/v1/meter-values", produces = MediaType.APPLICATION_JSON_VALUE)
+@RequiredArgsConstructor
+public class MeterValuesRestController {
+
+    private final MeterValueRepository meterValueRepository;
+
+    @Operation(description = """
+        Returns the meter values of a transaction, one series per measurand, phase, location and unit.
+        The time range is from the start of the transaction until its stop (or now, if it is active).
+        """)
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "OK"),
+        @ApiResponse(responseCode = "400", description = "Bad Request", content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ApiErrorResponse.class))}),
+        @ApiResponse(responseCode = "401", description = "Unauthorized", content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ApiErrorResponse.class))}),
+        @ApiResponse(responseCode = "404", description = "Not Found", content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ApiErrorResponse.class))}),
+        @ApiResponse(responseCode = "500", description = "Internal Server Error", content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ApiErrorResponse.class))})}
+    )
+    @GetMapping(value = "/transaction/{transactionPk}")
+    public List<MeterValueSeries> getTransactionSeries(@PathVariable("transactionPk") Integer transactionPk,
+                                                       @Valid @ParameterObject MeterValueQueryForm params) {
+        log.debug("Read request for transactionPk: {} and query: {}", transactionPk, params);
+
+        var response = meterValueRepository.getTransactionSeries(transactionPk, params);
+        log.debug("Read response for query: {}", response);
+        return response;
+    }
+
+    @Operation(description = """
+        Returns the meter values of a connector within the given time range, one series per measurand, phase, location and unit.
+        """)
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "OK"),
+        @ApiResponse(responseCode = "400", description = "Bad Request", content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ApiErrorResponse.class))}),
+        @ApiResponse(responseCode = "401", description = "Unauthorized", content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ApiErrorResponse.class))}),
+        @ApiResponse(responseCode = "404", description = "Not Found", content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ApiErrorResponse.class))}),
+        @ApiResponse(responseCode = "500", description = "Internal Server Error", content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ApiErrorResponse.class))})}
+    )
+    @GetMapping(value = "/connector")
+    public List<MeterValueSeries> getConnectorSeries(@Valid @ParameterObject MeterValueQueryForm.ForConnector params) {
+        log.debug("Read request for query: {}", params);
+
+        var response = meterValueRepository.getConnectorSeries(params);
+        log.debug("Read response for query: {}", response);
+        return response;
+    }
+}
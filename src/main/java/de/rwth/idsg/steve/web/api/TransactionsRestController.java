@@ -21,8 +21,11 @@ package de.rwth.idsg.steve.web.api;
 import de.rwth.idsg.steve.SteveException;
 import de.rwth.idsg.steve.repository.TransactionRepository;
 import de.rwth.idsg.steve.repository.dto.Transaction;
+import de.rwth.idsg.steve.service.TransactionStopService;
+import de.rwth.idsg.steve.service.dto.TransactionStopResult;
 import de.rwth.idsg.steve.web.api.ApiControllerAdvice.ApiErrorResponse;
 import de.rwth.idsg.steve.web.dto.TransactionQueryForm;
+import de.rwth.idsg.steve.web.dto.TransactionStopForm;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -34,6 +37,8 @@ import lombok.extern.slf4j.Slf4j;
 import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -47,7 +52,7 @@ import java.util.List;
  */
 @Tag(name = "transaction-controller",
     description = """
-        Operations related to querying transactions.
+        Operations related to querying and stopping transactions.
         A transaction represents a charging session at a charge box (i.e. charging station. The notions 'charge box' and 'charging station' are being used interchangeably).
         """
 )
@@ -58,6 +63,7 @@ import java.util.List;
 public class TransactionsRestController {
 
     private final TransactionRepository transactionRepository;
+    private final TransactionStopService transactionStopService;
 
     @Operation(description = """
         Returns a list of transactions based on the query parameters.
@@ -81,4 +87,24 @@ public class TransactionsRestController {
         log.debug("Read response for query: {}", response);
         return response;
     }
+
+    @Operation(description = """
+        Stops the given transactions manually, e.g. the zombie transactions for which the stations did not send a StopTransaction.
+        The stop values are determined like for a single stop in the web interface (latest energy meter value, start of the subsequent transaction or start values).
+        Returns one result per transaction.
+        """)
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "OK"),
+        @ApiResponse(responseCode = "400", description = "Bad Request", content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ApiErrorResponse.class))}),
+        @ApiResponse(responseCode = "401", description = "Unauthorized", content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ApiErrorResponse.class))}),
+        @ApiResponse(responseCode = "500", description = "Internal Server Error", content = {@Content(mediaType = "application/json", schema = @Schema(implementation = ApiErrorResponse.class))})}
+    )
+    @PostMapping(value = "/stop")
+    public List<TransactionStopResult> stop(@RequestBody @Valid TransactionStopForm params) {
+        log.debug("Stop request: {}", params);
+
+        var response = transactionStopService.stop(params.getTransactionPkList());
+        log.debug("Stop response: {}", response);
+        return response;
+    }
 }
@@ -22,6 +22,7 @@ import de.rwth.idsg.steve.NotificationFeature;
 import de.rwth.idsg.steve.config.SteveProperties;
 import de.rwth.idsg.steve.repository.GenericRepository;
 import de.rwth.idsg.steve.repository.SettingsRepository;
+import de.rwth.idsg.steve.service.FlightRecordingService;
 import de.rwth.idsg.steve.service.MailService;
 import de.rwth.idsg.steve.service.ReleaseCheckService;
 import de.rwth.idsg.steve.web.dto.EndpointInfo;
@@ -57,6 +58,7 @@ public class AboutSettingsController {
     private final MailService mailService;
     private final ReleaseCheckService releaseCheckService;
     private final SteveProperties steveProperties;
+    private final FlightRecordingService flightRecordingService;
 
     // -------------------------------------------------------------------------
     // Paths
@@ -81,6 +83,7 @@ public class AboutSettingsController {
         model.addAttribute("systemTimeZone", DateTimeZone.getDefault());
         model.addAttribute("releaseReport", releaseCheckService.check());
         model.addAttribute("endpointInfo", EndpointInfo.fromRequest(scheme, host, contextPath));
+        model.addAttribute("flightRecording", flightRecordingService.getStatus());
         return "about";
     }
 
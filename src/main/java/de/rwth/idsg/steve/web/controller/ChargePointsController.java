@@ -21,6 +21,7 @@ package de.rwth.idsg.steve.web.controller;
 import de.rwth.idsg.steve.ocpp.OcppProtocol;
 import de.rwth.idsg.steve.repository.ChargePointRepository;
 import de.rwth.idsg.steve.repository.dto.ChargePoint;
+import de.rwth.idsg.steve.service.ChargePointDeletionService;
 import de.rwth.idsg.steve.service.ChargePointRegistrationService;
 import de.rwth.idsg.steve.utils.ControllerHelper;
 import de.rwth.idsg.steve.utils.mapper.ChargePointDetailsMapper;
@@ -56,6 +57,7 @@ public class ChargePointsController {
 
     protected final ChargePointRepository chargePointRepository;
     protected final ChargePointRegistrationService chargePointRegistrationService;
+    protected final ChargePointDeletionService chargePointDeletionService;
 
     protected static final String PARAMS = "params";
 
@@ -75,6 +77,7 @@ public class ChargePointsController {
 
     protected static final String DETAILS_PATH = "/details/{chargeBoxPk}";
     protected static final String DELETE_PATH = "/delete/{chargeBoxPk}";
+    protected static final String DELETION_RETRY_PATH = "/deletion/retry/{deletionPk}";
     protected static final String UPDATE_PATH = "/update";
     protected static final String ADD_PATH = "/add";
 
@@ -107,6 +110,7 @@ public class ChargePointsController {
         model.addAttribute(PARAMS, params);
         model.addAttribute("cpList", chargePointRepository.getOverview(params));
         model.addAttribute("unknownList", chargePointRegistrationService.getUnknownChargePoints());
+        model.addAttribute("deletionList", chargePointDeletionService.getUnfinished());
     }
 
     @RequestMapping(value = DETAILS_PATH, method = RequestMethod.GET)
@@ -185,7 +189,13 @@ public class ChargePointsController {
 
     @RequestMapping(value = DELETE_PATH, method = RequestMethod.POST)
     public String delete(@PathVariable("chargeBoxPk") int chargeBoxPk) {
-        chargePointRepository.deleteChargePoint(chargeBoxPk);
+        chargePointDeletionService.delete(chargeBoxPk);
+        return toOverview();
+    }
+
+    @RequestMapping(value = DELETION_RETRY_PATH, method = RequestMethod.POST)
+    public String retryDeletion(@PathVariable("deletionPk") int deletionPk) {
+        chargePointDeletionService.retry(deletionPk);
         return toOverview();
     }
 
@@ -0,0 +1,76 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.web.controller;
+
+import de.rwth.idsg.steve.service.FlightRecordingService;
+import lombok.RequiredArgsConstructor;
+import org.joda.time.DateTime;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Java Flight Recordings for profiling. The status and the buttons are on the about page.
+ */
+@Controller
+@RequiredArgsConstructor
+@RequestMapping(value = "/manager/flight-recording")
+public class FlightRecordingController {
+
+    private final FlightRecordingService flightRecordingService;
+
+    private static final String DOWNLOAD_PATH = "/download";
+    private static final String REDIRECT_ABOUT = "redirect:/manager/about";
+
+    @RequestMapping(params = "start", method = RequestMethod.POST)
+    public String start(@RequestParam("durationInMinutes") int durationInMinutes) {
+        flightRecordingService.start(durationInMinutes);
+        return REDIRECT_ABOUT;
+    }
+
+    @RequestMapping(params = "stop", method = RequestMethod.POST)
+    public String stop() {
+        flightRecordingService.stop();
+        return REDIRECT_ABOUT;
+    }
+
+    @RequestMapping(value = DOWNLOAD_PATH, method = RequestMethod.GET)
+    public void download(HttpServletResponse response) throws IOException {
+        Path file = flightRecordingService.dump();
+        try {
+            String fileName = "steve-" + DateTime.now().toString("yyyyMMdd-HHmmss") + ".jfr";
+            response.setContentType("application/octet-stream");
+            response.setHeader("Content-Disposition", String.format("attachment; filename=\"%s\"", fileName));
+            response.setContentLengthLong(Files.size(file));
+
+            try (OutputStream out = response.getOutputStream()) {
+                Files.copy(file, out);
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.web.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import org.joda.time.LocalDate;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotNull;
+import java.util.List;
+import java.util.Objects;
+
+@Getter
+@Setter
+@ToString
+public class EnergyReportQueryForm {
+
+    @Schema(description = "First day of the report (inclusive). Format: yyyy-MM-dd")
+    @NotNull(message = "'From' is required")
+    private LocalDate from;
+
+    @Schema(description = "Last day of the report (inclusive). Format: yyyy-MM-dd")
+    @NotNull(message = "'To' is required")
+    private LocalDate to;
+
+    @Schema(description = "The identifier of the chargebox (i.e. charging station)")
+    private String chargeBoxId;
+
+    @Schema(description = "ID of the connector")
+    private Integer connectorId;
+
+    @Schema(description = "The OCPP tag")
+    private String ocppIdTag;
+
+    @Schema(description = "Length of the periods the values are summed up for. Defaults to DAY")
+    private Period period = Period.DAY;
+
+    @Schema(description = "Dimensions the values are summed up for, in addition to the period. Defaults to none, i.e. all charge boxes and tags together")
+    private List<GroupBy> groupBy;
+
+    @Schema(hidden = true)
+    @AssertTrue(message = "'To' must not be before 'From'")
+    public boolean isFromToValid() {
+        return from == null || to == null || !to.isBefore(from);
+    }
+
+    public Period getPeriod() {
+        return Objects.requireNonNullElse(period, Period.DAY);
+    }
+
+    public List<GroupBy> getGroupBy() {
+        return Objects.requireNonNullElse(groupBy, List.of());
+    }
+
+    public enum Period {
+        DAY,
+        MONTH,
+        TOTAL   // The whole time range as one period
+    }
+
+    public enum GroupBy {
+        CHARGE_BOX,
+        CONNECTOR,  // Implies CHARGE_BOX
+        ID_TAG
+    }
+}
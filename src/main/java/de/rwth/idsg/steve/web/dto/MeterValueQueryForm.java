@@ -0,0 +1,91 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.web.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+import org.joda.time.DateTime;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import java.util.List;
+import java.util.Objects;
+
+@Getter
+@Setter
+@ToString
+public class MeterValueQueryForm {
+
+    public static final int DEFAULT_RESOLUTION = 500;
+
+    @Schema(description = "Only return values of these measurands, e.g. `Energy.Active.Import.Register`. Defaults to all")
+    private List<String> measurand;
+
+    @Schema(description = "Only return values of these phases, e.g. `L1`. Defaults to all")
+    private List<String> phase;
+
+    @Schema(description = "Maximum number of points per series. The time range is divided into this many buckets of equal length, and the values in a bucket are summarized by min, max and average. Defaults to 500")
+    @Min(value = 1, message = "Resolution must be at least {value}")
+    @Max(value = 5_000, message = "Resolution must be at most {value}")
+    private Integer resolution;
+
+    public List<String> getMeasurand() {
+        return Objects.requireNonNullElse(measurand, List.of());
+    }
+
+    public List<String> getPhase() {
+        return Objects.requireNonNullElse(phase, List.of());
+    }
+
+    public int getResolution() {
+        return Objects.requireNonNullElse(resolution, DEFAULT_RESOLUTION);
+    }
+
+    @Getter
+    @Setter
+    @ToString(callSuper = true)
+    public static class ForConnector extends MeterValueQueryForm {
+
+        @Schema(description = "The identifier of the chargebox (i.e. charging station)")
+        @NotNull(message = "Charge box ID is required")
+        private String chargeBoxId;
+
+        @Schema(description = "ID of the connector")
+        @NotNull(message = "Connector ID is required")
+        private Integer connectorId;
+
+        @Schema(description = "Start of the time range. Format: ISO 8601 with timezone. Example: `2024-08-25T14:30:00.000Z`")
+        @NotNull(message = "'From' is required")
+        private DateTime from;
+
+        @Schema(description = "End of the time range. Format: ISO 8601 with timezone. Example: `2024-08-25T14:30:00.000Z`")
+        @NotNull(message = "'To' is required")
+        private DateTime to;
+
+        @Schema(hidden = true)
+        @AssertTrue(message = "'To' must be after 'From'")
+        public boolean isFromToValid() {
+            return from == null || to == null || to.isAfter(from);
+        }
+    }
+}
@@ -37,4 +37,7 @@ public final class OcppJsonStatus {
     private final String connectionDuration;
     private final OcppVersion version;
     private final DateTime connectedSinceDT;
+
+    // Outgoing calls without response, and calls waiting for them to be answered
+    private final int pendingCallCount, queuedCallCount;
 }
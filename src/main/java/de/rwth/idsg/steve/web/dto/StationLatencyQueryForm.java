@@ -0,0 +1,52 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.web.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import java.util.Objects;
+
+@Getter
+@Setter
+@ToString
+public class StationLatencyQueryForm {
+
+    @Schema(description = "Maximum number of stations to return. Defaults to 20")
+    @Min(value = 1, message = "'Limit' has to be at least 1")
+    @Max(value = 1000, message = "'Limit' has to be at most 1000")
+    private int limit = 20;
+
+    @Schema(description = "What the stations are ranked by, the worst first. Defaults to MEAN")
+    private OrderBy orderBy = OrderBy.MEAN;
+
+    public OrderBy getOrderBy() {
+        return Objects.requireNonNullElse(orderBy, OrderBy.MEAN);
+    }
+
+    public enum OrderBy {
+        MEAN,           // Mean round-trip time
+        MAX,            // Maximum round-trip time
+        FAILURE_RATE    // Share of errors and timeouts
+    }
+}
@@ -0,0 +1,22 @@
+-- background job table for deleting charge boxes together with their history in small chunks.
+--
+-- no foreign key to charge_box on purpose: the charge_box row is the last thing that is deleted, and the job row
+-- should survive it as a record of the deletion.
+--
+CREATE TABLE charge_box_deletion
+(
+    charge_box_deletion_pk INT(11) NOT NULL AUTO_INCREMENT,
+    charge_box_pk INT(11) NOT NULL,
+    charge_box_id VARCHAR(255) NOT NULL,
+    status VARCHAR(255) NOT NULL,
+    step VARCHAR(255) NOT NULL,
+    total_row_count BIGINT NULL DEFAULT NULL,
+    deleted_row_count BIGINT NOT NULL DEFAULT 0,
+    created_timestamp TIMESTAMP(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6),
+    updated_timestamp TIMESTAMP(6) NULL DEFAULT NULL,
+    fail_reason TEXT NULL DEFAULT NULL,
+
+    PRIMARY KEY (charge_box_deletion_pk),
+    INDEX charge_box_deletion_status_idx (status),
+    INDEX charge_box_deletion_cbpk_idx (charge_box_pk)
+);
@@ -0,0 +1,37 @@
+-- precomputed energy and duration of stopped transactions, and daily aggregates of them.
+--
+-- stop_event_timestamp refers to the transaction_stop row the values are calculated from. if a later stop event
+-- arrives for the same transaction, the row is recalculated and the old values are taken out of the aggregates.
+--
+-- the aggregates are not deleted together with the transactions, since they are meant as a record for billing.
+--
+CREATE TABLE transaction_energy
+(
+    transaction_pk INT(10) UNSIGNED NOT NULL,
+    stop_event_timestamp TIMESTAMP(6) NOT NULL,
+    rollup_date DATE NOT NULL,
+    charge_box_id VARCHAR(255) NOT NULL,
+    connector_id INT(11) NOT NULL,
+    id_tag VARCHAR(255) NOT NULL,
+    energy_wh BIGINT NULL DEFAULT NULL,
+    duration_seconds BIGINT NULL DEFAULT NULL,
+
+    PRIMARY KEY (transaction_pk),
+    CONSTRAINT FK_transaction_energy_transaction_pk
+        FOREIGN KEY (transaction_pk) REFERENCES transaction_start (transaction_pk) ON DELETE CASCADE ON UPDATE NO ACTION
+);
+
+CREATE TABLE energy_rollup_daily
+(
+    rollup_date DATE NOT NULL,
+    charge_box_id VARCHAR(255) NOT NULL,
+    connector_id INT(11) NOT NULL,
+    id_tag VARCHAR(255) NOT NULL,
+    transaction_count INT(11) NOT NULL DEFAULT 0,
+    energy_wh BIGINT NOT NULL DEFAULT 0,
+    duration_seconds BIGINT NOT NULL DEFAULT 0,
+
+    PRIMARY KEY (rollup_date, charge_box_id, connector_id, id_tag),
+    INDEX energy_rollup_daily_cbid_idx (charge_box_id, rollup_date),
+    INDEX energy_rollup_daily_idtag_idx (id_tag, rollup_date)
+);
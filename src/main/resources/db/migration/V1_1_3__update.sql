@@ -0,0 +1,22 @@
+-- meter values are classified once when they arrive, instead of every time they are read.
+--
+-- value_numeric: the value as number, if it is a plain decimal number and not signed data. NULL otherwise.
+-- energy_wh: the value in Wh, if it is a reading of the energy register (Energy.Active.Import.Register in Wh or kWh,
+--            where a missing measurand or unit means the default). NULL otherwise.
+--
+ALTER TABLE connector_meter_value
+    ADD COLUMN value_numeric DOUBLE NULL DEFAULT NULL,
+    ADD COLUMN energy_wh DOUBLE NULL DEFAULT NULL,
+    ADD INDEX cmv_tid_energy_idx (transaction_pk, value_timestamp, energy_wh),
+    ADD INDEX cmv_cpk_energy_idx (connector_pk, value_timestamp, energy_wh);
+
+-- the existing rows are classified in the background (MeterValueBackfillService), in chunks of rows of one connector
+-- at a time, instead of one UPDATE over the whole table that would lock it for the duration. the single row of this
+-- table is the position of the backfill, which is deleted when the backfill is done.
+CREATE TABLE meter_value_backfill
+(
+    connector_pk INT(11) UNSIGNED NOT NULL,
+    value_timestamp TIMESTAMP(6) NULL DEFAULT NULL
+);
+
+INSERT INTO meter_value_backfill (connector_pk, value_timestamp) VALUES (0, NULL);
@@ -0,0 +1,32 @@
+-- tasks of the operation pages, written when they are removed from memory or compacted (if steve.tasks.audit is
+-- enabled). task_id is only unique since the last start of SteVe.
+--
+CREATE TABLE task_audit
+(
+    task_audit_pk INT(10) UNSIGNED NOT NULL AUTO_INCREMENT,
+    task_id INT(11) NOT NULL,
+    operation_name VARCHAR(255) NOT NULL,
+    origin VARCHAR(255) NOT NULL,
+    caller VARCHAR(255) NULL DEFAULT NULL,
+    start_timestamp TIMESTAMP(6) NOT NULL,
+    end_timestamp TIMESTAMP(6) NULL DEFAULT NULL,
+    request_count INT(11) NOT NULL,
+    response_count INT(11) NOT NULL,
+    error_count INT(11) NOT NULL,
+    cancelled TINYINT(1) NOT NULL DEFAULT 0,
+
+    PRIMARY KEY (task_audit_pk),
+    INDEX task_audit_start_idx (start_timestamp)
+);
+
+CREATE TABLE task_audit_result
+(
+    task_audit_pk INT(10) UNSIGNED NOT NULL,
+    charge_box_id VARCHAR(255) NOT NULL,
+    response TEXT NULL DEFAULT NULL,
+    error_message TEXT NULL DEFAULT NULL,
+
+    PRIMARY KEY (task_audit_pk, charge_box_id),
+    CONSTRAINT FK_task_audit_result_task_audit_pk
+        FOREIGN KEY (task_audit_pk) REFERENCES task_audit (task_audit_pk) ON DELETE CASCADE ON UPDATE NO ACTION
+);
@@ -0,0 +1,18 @@
+-- commands for JSON stations that were not connected, sent when the station connects (if steve.offline-commands is
+-- enabled). The request is stored as JSON payload together with its JAXB class, in the OCPP version of the station.
+--
+CREATE TABLE offline_command
+(
+    offline_command_pk INT(10) UNSIGNED NOT NULL AUTO_INCREMENT,
+    charge_box_id VARCHAR(255) NOT NULL,
+    ocpp_version VARCHAR(255) NOT NULL,
+    operation_name VARCHAR(255) NOT NULL,
+    request_class VARCHAR(255) NOT NULL,
+    request_payload MEDIUMTEXT NOT NULL,
+    created_timestamp TIMESTAMP(6) NOT NULL,
+    expiry_timestamp TIMESTAMP(6) NOT NULL,
+
+    PRIMARY KEY (offline_command_pk),
+    INDEX offline_command_cbid_idx (charge_box_id, offline_command_pk),
+    INDEX offline_command_expiry_idx (expiry_timestamp)
+);
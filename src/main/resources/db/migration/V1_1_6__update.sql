@@ -0,0 +1,18 @@
+-- outbox of the webhooks (steve.webhooks): the domain events of the stations, one row per event and target, until
+-- the target accepted them. The payload is the JSON of the event data. A failed delivery increments attempts and
+-- postpones the rows of the batch until next_attempt_timestamp.
+--
+CREATE TABLE webhook_outbox
+(
+    webhook_outbox_pk BIGINT UNSIGNED NOT NULL AUTO_INCREMENT,
+    target VARCHAR(255) NOT NULL,
+    event_type VARCHAR(255) NOT NULL,
+    event_timestamp TIMESTAMP(6) NOT NULL,
+    payload MEDIUMTEXT NOT NULL,
+    attempts INT(10) UNSIGNED NOT NULL DEFAULT 0,
+    next_attempt_timestamp TIMESTAMP(6) NULL DEFAULT NULL,
+    last_error VARCHAR(1024) NULL DEFAULT NULL,
+
+    PRIMARY KEY (webhook_outbox_pk),
+    INDEX webhook_outbox_target_idx (target, webhook_outbox_pk)
+);
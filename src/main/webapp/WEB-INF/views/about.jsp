@@ -47,5 +47,32 @@
     </tr>
     </tr>
 </table>
+<section><span>
+    Flight Recording <a class="tooltip" href="#"><img src="${ctxPath}/static/images/info.png" style="vertical-align:middle"><span>Java Flight Recording of this instance for profiling, including the events of SteVe (OCPP messages, outgoing calls, database batches and WebSocket connections). Open the downloaded file with JDK Mission Control.</span></a>
+</span></section>
+<form:form action="${ctxPath}/manager/flight-recording">
+<table class="userInputFullPage">
+    <c:choose>
+        <c:when test="${flightRecording.running}">
+            <tr><td>Status:</td><td>Running since ${flightRecording.startTimestamp}</td></tr>
+            <tr><td>Size:</td><td>${flightRecording.sizeInBytes} bytes</td></tr>
+            <tr><td></td>
+                <td><input type="submit" name="stop" value="Stop">
+                    <a href="${ctxPath}/manager/flight-recording/download">Download (so far)</a></td>
+            </tr>
+        </c:when>
+        <c:otherwise>
+            <c:if test="${flightRecording.available}">
+                <tr><td>Last Recording:</td><td>${flightRecording.startTimestamp} - ${flightRecording.stopTimestamp}
+                    (<a href="${ctxPath}/manager/flight-recording/download">Download</a>)</td></tr>
+            </c:if>
+            <tr><td>Duration (in minutes):</td>
+                <td><input type="number" name="durationInMinutes" value="5" min="1" max="${flightRecording.maxDurationInMinutes}"/></td>
+            </tr>
+            <tr><td></td><td><input type="submit" name="start" value="Start"></td></tr>
+        </c:otherwise>
+    </c:choose>
+</table>
+</form:form>
 </div>
 <%@ include file="00-footer.jsp" %>
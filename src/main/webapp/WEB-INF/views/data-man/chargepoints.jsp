@@ -66,10 +66,53 @@
         </table>
     </div>
 
+    <c:if test="${not empty deletionList}">
+    <section><span>
+    Charge Points Being Deleted
+    <a class="tooltip" href="#"><img src="${ctxPath}/static/images/info.png" style="vertical-align:middle">
+        <span>These charge points are rejected already. Their history is deleted in the background in small chunks, after which the charge points disappear. Reload the page to update the progress.</span>
+    </a>
+    </span></section>
+    <table class="res add-margin-bottom">
+        <thead>
+        <tr>
+            <th>ChargeBox ID</th>
+            <th>Status</th>
+            <th>Step</th>
+            <th>Progress</th>
+            <th>Requested</th>
+            <th>Last Update</th>
+            <th></th>
+        </tr>
+        </thead>
+        <tbody>
+        <c:forEach items="${deletionList}" var="item">
+            <tr>
+                <td><encode:forHtml value="${item.chargeBoxId}" /></td>
+                <td>${item.status}<c:if test="${not empty item.failReason}">: <encode:forHtml value="${item.failReason}" /></c:if></td>
+                <td>${item.step}</td>
+                <td>
+                    <c:if test="${item.progress != null}">${item.progress}% (${item.deletedRowCount} / ${item.totalRowCount} rows)</c:if>
+                </td>
+                <td>${item.createdTimestamp}</td>
+                <td>${item.updatedTimestamp}</td>
+                <td>
+                    <c:if test="${item.status == 'FAILED'}">
+                        <form:form cssClass="inline" action="${ctxPath}/manager/chargepoints/deletion/retry/${item.deletionPk}" method="post">
+                            <input type="submit" class="blueSubmit" value="Retry"/>
+                        </form:form>
+                    </c:if>
+                </td>
+            </tr>
+        </c:forEach>
+        </tbody>
+    </table>
+    </c:if>
+
     <section><span>
     Charge Point Overview
     <a class="tooltip" href="#"><img src="${ctxPath}/static/images/info.png" style="vertical-align:middle">
-        <span>Deleting a charge point causes losing all related information including transactions, reservations, connector status and connector meter values.</span>
+        <span>Deleting a charge point causes losing all related information including transactions, reservations, connector status and connector meter values. The charge point is rejected immediately, and its data is deleted in the background.</span>
     </a>
     </span></section>
     <div id="overview">
@@ -22,12 +22,40 @@
 <div class="content">
 <c:if test="${not task.isFinished()}">
     <script>
-        $(document).ready(
-                setTimeout(function(){
-                    window.location.reload(1);
-                }, 5000));
+        $(document).ready(function() {
+            var rows = {};
+            $("#results tr[data-charge-box-id]").each(function() {
+                rows[this.getAttribute("data-charge-box-id")] = this;
+            });
+
+            var events = new EventSource("${ctxPath}/manager/operations/tasks/${taskId}/events");
+            events.addEventListener("result", function(e) {
+                var result = JSON.parse(e.data);
+                var row = rows[result.chargeBoxId];
+                if (row) {
+                    row.cells[1].textContent = result.response || "";
+                    row.cells[2].textContent = result.errorMessage || "";
+                }
+            });
+            events.addEventListener("progress", function(e) {
+                var progress = JSON.parse(e.data);
+                $("#responseCount").text(progress.responseCount);
+                $("#errorCount").text(progress.errorCount);
+                $("#cancelled").text(progress.cancelled);
+                if (progress.finished) {
+                    events.close();
+                    // for the end timestamp and the links to the details
+                    window.location.reload();
+                }
+            });
+        });
     </script>
-    <div class="info"><b>Info:</b> This page automatically reloads every 5 seconds until the task is finished.</div>
+    <div class="info"><b>Info:</b> This page is updated as the responses arrive, until the task is finished.</div>
+    <c:if test="${not task.cancelled}">
+        <form:form action="${ctxPath}/manager/operations/tasks/${taskId}">
+            <input type="submit" name="cancel" value="Cancel the remaining calls"/>
+        </form:form>
+    </c:if>
 </c:if>
     <center>
         <table id='details' class='cpd'>
@@ -37,17 +65,18 @@
             <tr><td>Start timestamp</td><td>${task.startTimestamp}</td></tr>
             <tr><td>End timestamp</td><td>${task.endTimestamp}</td></tr>
             <tr><td># of charge point requests</td><td>${task.resultMap.size()}</td></tr>
-            <tr><td># of responses</td><td>${task.responseCount}</td></tr>
-            <tr><td># of errors</td><td>${task.errorCount}</td></tr>
+            <tr><td># of responses</td><td id="responseCount">${task.responseCount}</td></tr>
+            <tr><td># of errors</td><td id="errorCount">${task.errorCount}</td></tr>
+            <tr><td>Cancelled</td><td id="cancelled">${task.cancelled}</td></tr>
         </table>
     </center>
     <br>
     <section><span>Task Result</span></section>
-    <table class="res">
+    <table id="results" class="res">
         <thead><tr><th>ChargeBox ID</th><th>Response</th><th>Error</th></tr></thead>
         <tbody>
         <c:forEach items="${task.resultMap}" var="result">
-            <tr>
+            <tr data-charge-box-id="<encode:forHtmlAttribute value="${result.key}" />">
                 <td>${result.key}</td>
                 <td>
                     <c:choose>
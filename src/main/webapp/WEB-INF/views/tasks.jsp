@@ -54,5 +54,15 @@
         </c:forEach>
         </tbody>
     </table>
+    <c:if test="${pageCount > 1}">
+        <br>
+        <c:if test="${page > 1}">
+            <a href="${ctxPath}/manager/operations/tasks?page=${page - 1}">Newer</a>
+        </c:if>
+        Page ${page} of ${pageCount}
+        <c:if test="${page < pageCount}">
+            <a href="${ctxPath}/manager/operations/tasks?page=${page + 1}">Older</a>
+        </c:if>
+    </c:if>
 </div>
 <%@ include file="00-footer.jsp" %>
@@ -25,6 +25,7 @@ import de.rwth.idsg.steve.repository.dto.Transaction;
 import de.rwth.idsg.steve.repository.dto.UpdateTransactionParams;
 import de.rwth.idsg.steve.repository.impl.AddressRepositoryImpl;
 import de.rwth.idsg.steve.repository.impl.ChargePointRepositoryImpl;
+import de.rwth.idsg.steve.repository.impl.EndpointAddressCache;
 import de.rwth.idsg.steve.repository.impl.OcppServerRepositoryImpl;
 import de.rwth.idsg.steve.repository.impl.OcppTagRepositoryImpl;
 import de.rwth.idsg.steve.repository.impl.ReservationRepositoryImpl;
@@ -152,7 +153,7 @@ public class Issue1219 {
     }
 
     private List<String> insertChargeBoxes(int count) {
-        var repository = new ChargePointRepositoryImpl(ctx, new AddressRepositoryImpl());
+        var repository = new ChargePointRepositoryImpl(ctx, new AddressRepositoryImpl(), new EndpointAddressCache());
 
         List<String> ids = IntStream.range(0, count).mapToObj(val -> UUID.randomUUID().toString()).collect(Collectors.toList());
         repository.addChargePointList(ids);
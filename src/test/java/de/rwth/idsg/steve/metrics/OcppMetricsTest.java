@@ -0,0 +1,97 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.metrics;
+
+import de.rwth.idsg.steve.config.SteveProperties;
+import de.rwth.idsg.steve.ocpp.OcppTransport;
+import de.rwth.idsg.steve.ocpp.OcppVersion;
+import de.rwth.idsg.steve.web.dto.StationLatencyQueryForm;
+import io.micrometer.core.instrument.MockClock;
+import io.micrometer.core.instrument.simple.SimpleConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class OcppMetricsTest {
+
+    private final MockClock clock = new MockClock();
+    private final SteveProperties properties = new SteveProperties();
+    private final OcppMetrics metrics;
+
+    public OcppMetricsTest() {
+        properties.getMetrics().setStationStatsWindow(Duration.ofMinutes(10));
+        metrics = new OcppMetrics(new SimpleMeterRegistry(SimpleConfig.DEFAULT, clock), properties);
+    }
+
+    @Test
+    public void testStatsCoverOneToTwoWindows() {
+        record("station-1", OutgoingCallTiming.Outcome.TIMEOUT);
+        clock.add(Duration.ofMinutes(11));
+        record("station-1", OutgoingCallTiming.Outcome.SUCCESS);
+
+        // the previous window is still included
+        StationLatency latency = getOnly();
+        Assertions.assertEquals(2, latency.getCount());
+        Assertions.assertEquals(1, latency.getTimeoutCount());
+
+        // the timeout is in a window that ended more than a window ago
+        clock.add(Duration.ofMinutes(10));
+        latency = getOnly();
+        Assertions.assertEquals(1, latency.getCount());
+        Assertions.assertEquals(0, latency.getTimeoutCount());
+    }
+
+    @Test
+    public void testIdleStationIsForgotten() {
+        record("station-1", OutgoingCallTiming.Outcome.SUCCESS);
+        clock.add(Duration.ofMinutes(20));
+
+        Assertions.assertTrue(metrics.getSlowestStations(new StationLatencyQueryForm()).isEmpty());
+
+        // starts over
+        record("station-1", OutgoingCallTiming.Outcome.SUCCESS);
+        Assertions.assertEquals(1, getOnly().getCount());
+    }
+
+    @Test
+    public void testRemovedStationIsForgotten() {
+        record("station-1", OutgoingCallTiming.Outcome.SUCCESS);
+        record("station-2", OutgoingCallTiming.Outcome.SUCCESS);
+
+        metrics.removeStation("station-1");
+
+        Assertions.assertEquals("station-2", getOnly().getChargeBoxId());
+    }
+
+    private void record(String chargeBoxId, OutgoingCallTiming.Outcome outcome) {
+        OutgoingCallTiming timing = new OutgoingCallTiming(chargeBoxId, OcppTransport.JSON, OcppVersion.V_16, "Reset");
+        clock.add(10, TimeUnit.MILLISECONDS);
+        metrics.record(timing, outcome);
+    }
+
+    private StationLatency getOnly() {
+        List<StationLatency> latencies = metrics.getSlowestStations(new StationLatencyQueryForm());
+        Assertions.assertEquals(1, latencies.size());
+        return latencies.get(0);
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.ocpp.soap;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+public class MediatorInInterceptorTest {
+
+    private static final Map<String, byte[]> NAMESPACES = MediatorInInterceptor.toBytes(
+        List.of("urn://Ocpp/Cs/2010/08/", "urn://Ocpp/Cs/2012/06/", "urn://Ocpp/Cs/2015/10/")
+    );
+
+    @Test
+    public void testFindNamespace() {
+        byte[] msg = ("<soap:Envelope xmlns:soap=\"http://www.w3.org/2003/05/soap-envelope\"><soap:Header>"
+            + "<chargeBoxIdentity xmlns=\"urn://Ocpp/Cs/2012/06/\">cp1</chargeBoxIdentity></soap:Header>")
+            .getBytes(StandardCharsets.UTF_8);
+
+        String namespace = MediatorInInterceptor.findNamespace(NAMESPACES, msg, msg.length);
+        Assertions.assertEquals("urn://Ocpp/Cs/2012/06/", namespace);
+    }
+
+    @Test
+    public void testFindNamespaceIncomplete() {
+        byte[] msg = "<chargeBoxIdentity xmlns=\"urn://Ocpp/Cs/2015/10/\">".getBytes(StandardCharsets.UTF_8);
+
+        // The namespace is cut off, so that more bytes have to be read
+        Assertions.assertNull(MediatorInInterceptor.findNamespace(NAMESPACES, msg, 40));
+    }
+
+    @Test
+    public void testFindNamespaceAmbiguous() {
+        byte[] msg = ("<chargeBoxIdentity xmlns=\"urn://Ocpp/Cs/2015/10/\">cp1</chargeBoxIdentity>"
+            + "<heartbeatRequest xmlns=\"urn://Ocpp/Cs/2010/08/\"/>").getBytes(StandardCharsets.UTF_8);
+
+        Assertions.assertNull(MediatorInInterceptor.findNamespace(NAMESPACES, msg, msg.length));
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.ocpp.ws;
+
+import de.rwth.idsg.steve.SteveException;
+import de.rwth.idsg.steve.config.SteveProperties;
+import de.rwth.idsg.steve.metrics.OcppMetrics;
+import de.rwth.idsg.steve.metrics.OutgoingCallTiming;
+import de.rwth.idsg.steve.ocpp.OcppProtocol;
+import de.rwth.idsg.steve.ocpp.OcppTransport;
+import de.rwth.idsg.steve.ocpp.OcppVersion;
+import de.rwth.idsg.steve.ocpp.task.ResetTask;
+import de.rwth.idsg.steve.ocpp.ws.data.CommunicationContext;
+import de.rwth.idsg.steve.ocpp.ws.data.FutureResponseContext;
+import de.rwth.idsg.steve.ocpp.ws.data.OcppJsonCall;
+import de.rwth.idsg.steve.repository.dto.ChargePointSelect;
+import de.rwth.idsg.steve.web.dto.ocpp.ResetParams;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.adapter.standard.StandardWebSocketSession;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+public class FutureResponseContextStoreImplTest {
+
+    private static final String CHARGE_BOX_ID = "CP-1";
+
+    private final SteveProperties properties = new SteveProperties();
+    private final List<String> sent = new CopyOnWriteArrayList<>();
+
+    private WebSocketSession session;
+    private ResetTask task;
+
+    @BeforeEach
+    public void setup() {
+        // a session that is never opened, the sent messages are collected
+        session = new WebSocketSessionDecorator(new StandardWebSocketSession(new HttpHeaders(), Map.of(), null, null)) {
+            @Override
+            public void sendMessage(WebSocketMessage<?> message) {
+                sent.add((String) message.getPayload());
+            }
+        };
+
+        ResetParams params = new ResetParams();
+        params.setChargePointSelectList(List.of(new ChargePointSelect(OcppProtocol.V_16_JSON, CHARGE_BOX_ID)));
+        task = new ResetTask(params);
+    }
+
+    @Test
+    public void testCallIsQueuedUntilResponse() {
+        FutureResponseContextStoreImpl store = newStore();
+
+        store.send(newCall("1"));
+        store.send(newCall("2"));
+        Assertions.assertEquals(List.of("1"), sent);
+        Assertions.assertEquals(1, store.getPendingCount(session));
+        Assertions.assertEquals(1, store.getQueuedCount(session));
+
+        Assertions.assertNotNull(store.get(session, "1"));
+        Assertions.assertEquals(List.of("1", "2"), sent);
+        Assertions.assertEquals(1, store.getPendingCount(session));
+        Assertions.assertEquals(0, store.getQueuedCount(session));
+    }
+
+    @Test
+    public void testQueueIsBounded() {
+        properties.getCallQueue().setMaxQueued(1);
+        FutureResponseContextStoreImpl store = newStore();
+
+        store.send(newCall("1"));
+        store.send(newCall("2"));
+        Assertions.assertThrows(SteveException.class, () -> store.send(newCall("3")));
+
+        Assertions.assertEquals(List.of("1"), sent);
+        Assertions.assertEquals(1, store.getQueuedCount(session));
+    }
+
+    @Test
+    public void testOverdueCallIsFailed() throws InterruptedException {
+        properties.getCallQueue().setResponseTimeout(Duration.ofMillis(1));
+        FutureResponseContextStoreImpl store = newStore();
+
+        store.send(newCall("1"));
+        store.send(newCall("2"));
+        Thread.sleep(10);
+        store.failOverdueCalls();
+
+        // the first call is failed, and the second one is sent instead
+        Assertions.assertEquals(1, task.getErrorCount().get());
+        Assertions.assertNull(store.get(session, "1"));
+        Assertions.assertEquals(List.of("1", "2"), sent);
+        Assertions.assertEquals(1, store.getPendingCount(session));
+    }
+
+    @Test
+    public void testDisconnectFailsCallsAndRejectsNewOnes() {
+        FutureResponseContextStoreImpl store = newStore();
+
+        store.send(newCall("1"));
+        store.send(newCall("2"));
+        store.removeSession(session);
+
+        // the pending and the queued call are failed
+        Assertions.assertEquals(2, task.getErrorCount().get());
+        Assertions.assertThrows(SteveException.class, () -> store.send(newCall("3")));
+        Assertions.assertEquals(List.of("1"), sent);
+    }
+
+    @Test
+    public void testDisconnectFailsPendingCall() {
+        FutureResponseContextStoreImpl store = newStore();
+
+        store.send(newCall("1"));
+        store.removeSession(session);
+
+        // the task does not wait for a response that cannot arrive anymore
+        Assertions.assertEquals(1, task.getErrorCount().get());
+        Assertions.assertNull(store.get(session, "1"));
+        Assertions.assertEquals(0, store.getPendingCount(session));
+    }
+
+    private FutureResponseContextStoreImpl newStore() {
+        OcppMetrics metrics = new OcppMetrics(new SimpleMeterRegistry(), properties);
+
+        // not started, the timeout check is called by the tests
+        FutureResponseContextStoreImpl store = new FutureResponseContextStoreImpl(metrics, null, properties);
+        store.addSession(session);
+        return store;
+    }
+
+    /**
+     * The outgoing string is the message id only, so that the order of the sent calls is easy to check
+     */
+    private CommunicationContext newCall(String messageId) {
+        OcppJsonCall call = new OcppJsonCall();
+        call.setMessageId(messageId);
+        call.setAction("Reset");
+
+        var timing = new OutgoingCallTiming(CHARGE_BOX_ID, OcppTransport.JSON, OcppVersion.V_16, "Reset");
+
+        CommunicationContext ctx = new CommunicationContext(session, CHARGE_BOX_ID);
+        ctx.setOutgoingMessage(call);
+        ctx.setOutgoingString(messageId);
+        ctx.setFutureResponseContext(new FutureResponseContext(task, ocpp.cp._2015._10.ResetResponse.class, timing));
+        return ctx;
+    }
+}
@@ -0,0 +1,258 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.ocpp.ws;
+
+import de.rwth.idsg.steve.config.SteveProperties;
+import de.rwth.idsg.steve.ocpp.CommunicationTask;
+import de.rwth.idsg.steve.ocpp.OcppProtocol;
+import de.rwth.idsg.steve.ocpp.task.ResetTask;
+import de.rwth.idsg.steve.repository.OfflineCommandRepository;
+import de.rwth.idsg.steve.repository.dto.ChargePointSelect;
+import de.rwth.idsg.steve.repository.dto.OfflineCommand;
+import de.rwth.idsg.steve.web.dto.ocpp.ResetParams;
+import ocpp.cp._2015._10.ResetRequest;
+import ocpp.cp._2015._10.ResetType;
+import org.joda.time.DateTime;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class OfflineCommandQueueTest {
+
+    private static final ChargePointSelect CPS = new ChargePointSelect(OcppProtocol.V_16_JSON, "CP-1");
+
+    private final SteveProperties properties = new SteveProperties();
+    private final FakeRepository repository = new FakeRepository();
+    private final List<CommunicationTask<?, ?>> sent = new CopyOnWriteArrayList<>();
+
+    private OfflineCommandQueue queue;
+
+    @AfterEach
+    public void teardown() {
+        if (queue != null) {
+            queue.destroy();
+        }
+    }
+
+    @Test
+    public void testCommandsAreSentInOrder() throws InterruptedException {
+        OfflineCommandQueue queue = newQueue();
+        List<ResetTask> tasks = List.of(newTask(), newTask(), newTask());
+        tasks.forEach(task -> queue.add(CPS, task, newRequest()));
+
+        CountDownLatch latch = new CountDownLatch(tasks.size());
+        queue.flush(CPS.getChargeBoxId(), (cps, task) -> {
+            sent.add(task);
+            latch.countDown();
+            return true;
+        });
+
+        Assertions.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(tasks, sent);
+        Assertions.assertTrue(awaitAllDeleted());
+    }
+
+    @Test
+    public void testCommandStaysStoredWhenStationDisconnects() throws InterruptedException {
+        OfflineCommandQueue queue = newQueue();
+        queue.add(CPS, newTask(), newRequest());
+
+        CountDownLatch latch = new CountDownLatch(1);
+        queue.flush(CPS.getChargeBoxId(), (cps, task) -> {
+            latch.countDown();
+            return false;
+        });
+
+        Assertions.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(1, repository.commands.size());
+    }
+
+    @Test
+    public void testExpiredCommandIsFailed() {
+        properties.getOfflineCommands().setTtl(Duration.ZERO);
+        OfflineCommandQueue queue = newQueue();
+
+        ResetTask task = newTask();
+        queue.add(CPS, task, newRequest());
+        queue.removeExpired();
+
+        Assertions.assertTrue(repository.commands.isEmpty());
+        Assertions.assertEquals(1, task.getErrorCount().get());
+    }
+
+    @Test
+    public void testCancelledTaskIsNotSent() throws InterruptedException {
+        OfflineCommandQueue queue = newQueue();
+
+        ResetTask cancelled = newTask();
+        ResetTask next = newTask();
+        queue.add(CPS, cancelled, newRequest());
+        queue.add(CPS, next, newRequest());
+        cancelled.cancel();
+
+        CountDownLatch latch = new CountDownLatch(1);
+        queue.flush(CPS.getChargeBoxId(), (cps, task) -> {
+            sent.add(task);
+            latch.countDown();
+            return true;
+        });
+
+        Assertions.assertTrue(latch.await(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(List.of(next), sent);
+        Assertions.assertEquals(1, cancelled.getErrorCount().get());
+        Assertions.assertTrue(awaitAllDeleted());
+    }
+
+    /**
+     * The station connects, and while its stored commands are sent, another command is added. The caller requests
+     * another flush then (see ChargePointServiceJsonInvoker), which must not be lost although one is running.
+     */
+    @Test
+    public void testCommandAddedDuringFlushIsSent() throws InterruptedException {
+        OfflineCommandQueue queue = newQueue();
+
+        ResetTask first = newTask();
+        ResetTask second = newTask();
+        queue.add(CPS, first, newRequest());
+
+        CountDownLatch firstSending = new CountDownLatch(1);
+        CountDownLatch secondAdded = new CountDownLatch(1);
+        CountDownLatch allSent = new CountDownLatch(2);
+
+        OfflineCommandQueue.Sender sender = (cps, task) -> {
+            if (task == first) {
+                firstSending.countDown();
+                await(secondAdded);
+            }
+            sent.add(task);
+            allSent.countDown();
+            return true;
+        };
+
+        queue.flush(CPS.getChargeBoxId(), sender);
+        Assertions.assertTrue(firstSending.await(5, TimeUnit.SECONDS));
+
+        queue.add(CPS, second, newRequest());
+        queue.flush(CPS.getChargeBoxId(), sender);
+        secondAdded.countDown();
+
+        Assertions.assertTrue(allSent.await(5, TimeUnit.SECONDS));
+        Assertions.assertEquals(List.of(first, second), sent);
+        Assertions.assertTrue(awaitAllDeleted());
+    }
+
+    private OfflineCommandQueue newQueue() {
+        properties.getOfflineCommands().setEnabled(true);
+        properties.getOfflineCommands().setCallsPerSecond(0);
+
+        // not started, the expiry check is called by the tests. the task store is only used for the commands that
+        // were stored before a restart
+        queue = new OfflineCommandQueue(repository, null, null, properties);
+        return queue;
+    }
+
+    private static ResetTask newTask() {
+        ResetParams params = new ResetParams();
+        params.setChargePointSelectList(List.of(CPS));
+        return new ResetTask(params);
+    }
+
+    private static ResetRequest newRequest() {
+        return new ResetRequest().withType(ResetType.SOFT);
+    }
+
+    /**
+     * A command is deleted after it was handed to the sender
+     */
+    private boolean awaitAllDeleted() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!repository.commands.isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        return repository.commands.isEmpty();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class FakeRepository implements OfflineCommandRepository {
+        private final Map<Integer, OfflineCommand> commands = new ConcurrentSkipListMap<>();
+        private int sequence;
+
+        @Override
+        public synchronized int insert(OfflineCommand command) {
+            int pk = ++sequence;
+            commands.put(pk, OfflineCommand.builder()
+                                           .offlineCommandPk(pk)
+                                           .chargeBoxId(command.getChargeBoxId())
+                                           .version(command.getVersion())
+                                           .operationName(command.getOperationName())
+                                           .requestClass(command.getRequestClass())
+                                           .requestPayload(command.getRequestPayload())
+                                           .createdTimestamp(command.getCreatedTimestamp())
+                                           .expiryTimestamp(command.getExpiryTimestamp())
+                                           .build());
+            return pk;
+        }
+
+        @Override
+        public List<OfflineCommand> getCommands(String chargeBoxId, int limit) {
+            return commands.values()
+                           .stream()
+                           .filter(c -> c.getChargeBoxId().equals(chargeBoxId))
+                           .limit(limit)
+                           .toList();
+        }
+
+        @Override
+        public List<Integer> getExpired(DateTime time) {
+            List<Integer> expired = new ArrayList<>();
+            for (OfflineCommand c : commands.values()) {
+                if (!c.getExpiryTimestamp().isAfter(time)) {
+                    expired.add(c.getOfflineCommandPk());
+                }
+            }
+            return expired;
+        }
+
+        @Override
+        public void delete(int offlineCommandPk) {
+            commands.remove(offlineCommandPk);
+        }
+
+        @Override
+        public void delete(List<Integer> offlineCommandPks) {
+            offlineCommandPks.forEach(commands::remove);
+        }
+    }
+}
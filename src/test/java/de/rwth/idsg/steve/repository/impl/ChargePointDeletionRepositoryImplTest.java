@@ -0,0 +1,87 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.repository.impl;
+
+import de.rwth.idsg.steve.utils.__DatabasePreparer__;
+import org.jooq.DSLContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.test.context.ActiveProfiles;
+
+import static jooq.steve.db.tables.ChargeBox.CHARGE_BOX;
+
+@ActiveProfiles(profiles = "test")
+@SpringBootTest(webEnvironment = WebEnvironment.DEFINED_PORT)
+public class ChargePointDeletionRepositoryImplTest {
+
+    private static final String CHARGE_BOX_ID = __DatabasePreparer__.getRegisteredChargeBoxId();
+    private static final String ENDPOINT_ADDRESS = "http://localhost:8080/ocpp";
+
+    @Autowired
+    private DSLContext dslContext;
+
+    private __DatabasePreparer__ databasePreparer;
+
+    @BeforeEach
+    public void setup() {
+        databasePreparer = new __DatabasePreparer__(dslContext);
+        databasePreparer.prepare();
+    }
+
+    @AfterEach
+    public void teardown() {
+        databasePreparer.cleanUp();
+    }
+
+    @Test
+    public void testInsertForgetsEndpointAddress() {
+        dslContext.update(CHARGE_BOX)
+                  .set(CHARGE_BOX.ENDPOINT_ADDRESS, ENDPOINT_ADDRESS)
+                  .where(CHARGE_BOX.CHARGE_BOX_ID.eq(CHARGE_BOX_ID))
+                  .execute();
+
+        // own instances, so that the deletion job is not picked up by the running application
+        EndpointAddressCache cache = new EndpointAddressCache();
+        cache.update(CHARGE_BOX_ID, ENDPOINT_ADDRESS);
+        ChargePointDeletionRepositoryImpl repository = new ChargePointDeletionRepositoryImpl(dslContext, cache);
+
+        int chargeBoxPk = dslContext.select(CHARGE_BOX.CHARGE_BOX_PK)
+                                    .from(CHARGE_BOX)
+                                    .where(CHARGE_BOX.CHARGE_BOX_ID.eq(CHARGE_BOX_ID))
+                                    .fetchOne(CHARGE_BOX.CHARGE_BOX_PK);
+
+        repository.insert(chargeBoxPk);
+
+        String addressInDb = dslContext.select(CHARGE_BOX.ENDPOINT_ADDRESS)
+                                       .from(CHARGE_BOX)
+                                       .where(CHARGE_BOX.CHARGE_BOX_PK.eq(chargeBoxPk))
+                                       .fetchOne(CHARGE_BOX.ENDPOINT_ADDRESS);
+
+        Assertions.assertNull(addressInDb);
+        Assertions.assertNull(cache.get(CHARGE_BOX_ID));
+
+        // the same address is written to DB again, when the station comes back
+        Assertions.assertTrue(cache.update(CHARGE_BOX_ID, ENDPOINT_ADDRESS));
+    }
+}
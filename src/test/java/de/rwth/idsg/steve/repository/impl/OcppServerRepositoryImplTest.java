@@ -0,0 +1,136 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.repository.impl;
+
+import de.rwth.idsg.steve.repository.OcppServerRepository;
+import de.rwth.idsg.steve.repository.dto.InsertTransactionParams;
+import de.rwth.idsg.steve.repository.dto.TransactionStopBatchResult;
+import de.rwth.idsg.steve.repository.dto.UpdateTransactionParams;
+import de.rwth.idsg.steve.utils.__DatabasePreparer__;
+import jooq.steve.db.enums.TransactionStopEventActor;
+import org.joda.time.DateTime;
+import org.jooq.DSLContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static jooq.steve.db.tables.TransactionStop.TRANSACTION_STOP;
+import static jooq.steve.db.tables.TransactionStopFailed.TRANSACTION_STOP_FAILED;
+
+@ActiveProfiles(profiles = "test")
+@SpringBootTest(webEnvironment = WebEnvironment.DEFINED_PORT)
+public class OcppServerRepositoryImplTest {
+
+    private static final String CHARGE_BOX_ID = __DatabasePreparer__.getRegisteredChargeBoxId();
+    private static final String OCPP_TAG = __DatabasePreparer__.getRegisteredOcppTag();
+
+    @Autowired
+    private DSLContext dslContext;
+
+    @Autowired
+    private OcppServerRepository repository;
+
+    private __DatabasePreparer__ databasePreparer;
+
+    @BeforeEach
+    public void setup() {
+        databasePreparer = new __DatabasePreparer__(dslContext);
+        databasePreparer.prepare();
+    }
+
+    @AfterEach
+    public void teardown() {
+        databasePreparer.cleanUp();
+    }
+
+    @Test
+    public void testUpdateTransactionsSkipsStoppedTransactions() {
+        int stoppedByStation = startTransaction(1);
+        int open = startTransaction(2);
+
+        repository.updateTransaction(stopParams(stoppedByStation).eventActor(TransactionStopEventActor.station)
+                                                                 .build());
+
+        TransactionStopBatchResult result = repository.updateTransactions(List.of(
+            stopParams(stoppedByStation).build(),
+            stopParams(open).build()
+        ));
+
+        Assertions.assertEquals(List.of(stoppedByStation), result.getAlreadyStopped());
+        Assertions.assertTrue(result.getFailures().isEmpty());
+
+        Assertions.assertEquals(List.of(TransactionStopEventActor.station), stopActorsOf(stoppedByStation));
+        Assertions.assertEquals(List.of(TransactionStopEventActor.manual), stopActorsOf(open));
+    }
+
+    @Test
+    public void testUpdateTransactionsFallsBackToSingleRows() {
+        int open = startTransaction(1);
+        int unknown = open + 1000;
+
+        TransactionStopBatchResult result = repository.updateTransactions(List.of(
+            stopParams(open).build(),
+            stopParams(unknown).build()
+        ));
+
+        Assertions.assertTrue(result.getAlreadyStopped().isEmpty());
+        Assertions.assertEquals(List.of(unknown), List.copyOf(result.getFailures().keySet()));
+
+        Assertions.assertEquals(List.of(TransactionStopEventActor.manual), stopActorsOf(open));
+        Assertions.assertEquals(1, dslContext.fetchCount(TRANSACTION_STOP_FAILED,
+            TRANSACTION_STOP_FAILED.TRANSACTION_PK.eq(unknown)));
+    }
+
+    private int startTransaction(int connectorId) {
+        DateTime start = DateTime.now().minusHours(1);
+        return repository.insertTransaction(InsertTransactionParams.builder()
+                                                                   .chargeBoxId(CHARGE_BOX_ID)
+                                                                   .connectorId(connectorId)
+                                                                   .idTag(OCPP_TAG)
+                                                                   .startTimestamp(start)
+                                                                   .startMeterValue("1000")
+                                                                   .eventTimestamp(start)
+                                                                   .build());
+    }
+
+    private List<TransactionStopEventActor> stopActorsOf(int transactionPk) {
+        return dslContext.select(TRANSACTION_STOP.EVENT_ACTOR)
+                         .from(TRANSACTION_STOP)
+                         .where(TRANSACTION_STOP.TRANSACTION_PK.eq(transactionPk))
+                         .fetch(TRANSACTION_STOP.EVENT_ACTOR);
+    }
+
+    private static UpdateTransactionParams.UpdateTransactionParamsBuilder stopParams(int transactionPk) {
+        DateTime now = DateTime.now();
+        return UpdateTransactionParams.builder()
+                                      .transactionId(transactionPk)
+                                      .chargeBoxId(CHARGE_BOX_ID)
+                                      .stopTimestamp(now)
+                                      .stopMeterValue("2000")
+                                      .eventActor(TransactionStopEventActor.manual)
+                                      .eventTimestamp(now);
+    }
+}
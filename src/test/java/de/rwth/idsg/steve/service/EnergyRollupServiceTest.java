@@ -0,0 +1,108 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.service;
+
+import de.rwth.idsg.steve.config.SteveProperties;
+import de.rwth.idsg.steve.repository.EnergyRollupRepository;
+import de.rwth.idsg.steve.repository.dto.EnergyReport;
+import de.rwth.idsg.steve.web.dto.EnergyReportQueryForm;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+public class EnergyRollupServiceTest {
+
+    private final SteveProperties properties = new SteveProperties();
+    private final FakeRepository repository = new FakeRepository();
+    private final EnergyRollupService service = new EnergyRollupService(repository, null, properties);
+
+    @Test
+    public void testCatchUpMovesPastFailingTransaction() {
+        properties.getEnergyRollup().setChunkSize(2);
+        properties.getEnergyRollup().setMaxAttempts(2);
+        repository.missing.addAll(List.of(1, 2, 3, 4, 5));
+        repository.failing.add(2);
+
+        for (int i = 0; i < 10 && !service.isCaughtUp(); i++) {
+            service.processNextChunk();
+        }
+
+        Assertions.assertTrue(service.isCaughtUp());
+        Assertions.assertEquals(Set.of(1, 3, 4, 5), repository.rolledUp);
+
+        // retried from the queue, until maxAttempts
+        service.processNextChunk();
+        Assertions.assertEquals(2, repository.attemptsOf(2));
+        service.processNextChunk();
+        Assertions.assertEquals(2, repository.attemptsOf(2));
+    }
+
+    @Test
+    public void testFailedChunkIsQueuedAgain() {
+        service.processNextChunk();
+        Assertions.assertTrue(service.isCaughtUp());
+
+        service.rollUpLater(List.of(7, 8));
+        repository.failAll = true;
+        service.processNextChunk();
+        Assertions.assertTrue(repository.rolledUp.isEmpty());
+
+        repository.failAll = false;
+        service.processNextChunk();
+        Assertions.assertEquals(Set.of(7, 8), repository.rolledUp);
+    }
+
+    private static class FakeRepository implements EnergyRollupRepository {
+        private final TreeSet<Integer> missing = new TreeSet<>();
+        private final Set<Integer> failing = new HashSet<>();
+        private final Set<Integer> rolledUp = new HashSet<>();
+        private final List<Collection<Integer>> calls = new ArrayList<>();
+        private boolean failAll;
+
+        @Override
+        public List<Integer> getTransactionsToRollUp(int afterTransactionPk, int limit) {
+            return missing.tailSet(afterTransactionPk, false).stream().limit(limit).toList();
+        }
+
+        @Override
+        public void rollUp(Collection<Integer> transactionPks) {
+            calls.add(List.copyOf(transactionPks));
+            if (failAll || transactionPks.stream().anyMatch(failing::contains)) {
+                throw new IllegalStateException("Failed on purpose");
+            }
+            rolledUp.addAll(transactionPks);
+            missing.removeAll(transactionPks);
+        }
+
+        @Override
+        public List<EnergyReport> getReport(EnergyReportQueryForm form) {
+            return List.of();
+        }
+
+        private long attemptsOf(int transactionPk) {
+            return calls.stream().filter(c -> c.equals(List.of(transactionPk))).count();
+        }
+    }
+}
@@ -0,0 +1,256 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.service;
+
+import de.rwth.idsg.steve.config.SteveProperties;
+import de.rwth.idsg.steve.repository.SettingsRepository;
+import de.rwth.idsg.steve.web.dto.SettingsForm;
+import de.rwth.idsg.steve.web.dto.SettingsForm.MailSettings;
+import de.rwth.idsg.steve.web.dto.SettingsForm.OcppSettings;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import jakarta.mail.Address;
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import jakarta.mail.URLName;
+import jakarta.mail.internet.InternetAddress;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class MailDispatcherTest {
+
+    private final SteveProperties properties = new SteveProperties();
+    private final ThreadPoolTaskScheduler taskScheduler = new ThreadPoolTaskScheduler();
+
+    private final List<ReceivedMail> received = new CopyOnWriteArrayList<>();
+    private final Deque<MessagingException> failures = new ArrayDeque<>();
+    private final AtomicInteger connections = new AtomicInteger();
+
+    private MailDispatcher dispatcher;
+
+    @BeforeEach
+    public void setup() {
+        taskScheduler.initialize();
+        properties.getMail().setDigestWindow(Duration.ZERO);
+        properties.getMail().setRetryBackoff(Duration.ofMillis(10));
+    }
+
+    @AfterEach
+    public void teardown() {
+        if (dispatcher != null) {
+            dispatcher.destroy();
+        }
+        taskScheduler.shutdown();
+    }
+
+    @Test
+    public void testDigest() throws Exception {
+        properties.getMail().setDigestWindow(Duration.ofMillis(200));
+        dispatcher = createDispatcher();
+
+        dispatcher.submit("a", "body a", null);
+        dispatcher.submit("b", "body b", null);
+        dispatcher.submit("c", "body c", null);
+
+        awaitReceived(1);
+        Thread.sleep(100);
+
+        Assertions.assertEquals(1, received.size());
+        Assertions.assertEquals("[SteVe] 3 notifications", received.get(0).subject);
+        Assertions.assertEquals(List.of("a@example.com", "b@example.com", "c@example.com"),
+            received.get(0).recipients);
+    }
+
+    @Test
+    public void testRetryOnlyUnsentRecipients() throws Exception {
+        failures.add(new SendFailedException("Partly sent", null,
+            addresses("a@example.com"), addresses("b@example.com"), addresses("c@example.com")));
+        dispatcher = createDispatcher();
+
+        dispatcher.submit("a", "body a", null);
+
+        awaitReceived(1);
+        Assertions.assertEquals(List.of("b@example.com", "c@example.com"), received.get(0).recipients);
+    }
+
+    @Test
+    public void testRetryAllRecipientsAfterOtherFailure() throws Exception {
+        failures.add(new MessagingException("Connection lost"));
+        dispatcher = createDispatcher();
+
+        dispatcher.submit("a", "body a", List.of("a@example.com", "b@example.com"));
+
+        awaitReceived(1);
+        Assertions.assertEquals(List.of("a@example.com", "b@example.com"), received.get(0).recipients);
+    }
+
+    @Test
+    public void testConnectionIsReused() throws Exception {
+        dispatcher = createDispatcher();
+        dispatcher.afterStart(null);
+
+        dispatcher.submit("a", "body a", null);
+        dispatcher.submit("b", "body b", null);
+
+        awaitReceived(2);
+        Assertions.assertEquals(1, connections.get());
+    }
+
+    @Test
+    public void testConnectionPerMailWithoutMaxIdle() throws Exception {
+        properties.getMail().setConnectionMaxIdle(Duration.ZERO);
+        dispatcher = createDispatcher();
+
+        // must not schedule the idle check with a delay of zero
+        dispatcher.afterStart(null);
+
+        dispatcher.submit("a", "body a", null);
+        dispatcher.submit("b", "body b", null);
+
+        awaitReceived(2);
+        Assertions.assertEquals(2, connections.get());
+    }
+
+    private MailDispatcher createDispatcher() {
+        MailSettings settings = MailSettings.builder()
+                                            .enabled(true)
+                                            .protocol("smtp")
+                                            .mailHost("localhost")
+                                            .port(25)
+                                            .from("steve@example.com")
+                                            .recipients(List.of("a@example.com", "b@example.com", "c@example.com"))
+                                            .build();
+
+        return new MailDispatcher(new FakeSettingsRepository(settings), taskScheduler, properties) {
+            @Override
+            Transport getTransport(Session session) {
+                return new FakeTransport(session);
+            }
+        };
+    }
+
+    private void awaitReceived(int count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (received.size() < count && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assertions.assertEquals(count, received.size());
+    }
+
+    private static Address[] addresses(String... addresses) throws MessagingException {
+        Address[] result = new Address[addresses.length];
+        for (int i = 0; i < addresses.length; i++) {
+            result[i] = new InternetAddress(addresses[i]);
+        }
+        return result;
+    }
+
+    private static class ReceivedMail {
+        private final String subject;
+        private final List<String> recipients;
+
+        private ReceivedMail(Message message, Address[] addresses) throws MessagingException {
+            this.subject = message.getSubject();
+            this.recipients = Arrays.stream(addresses).map(a -> ((InternetAddress) a).getAddress()).toList();
+        }
+    }
+
+    private class FakeTransport extends Transport {
+
+        private FakeTransport(Session session) {
+            super(session, new URLName("smtp://localhost"));
+        }
+
+        @Override
+        protected boolean protocolConnect(String host, int port, String user, String password) {
+            connections.incrementAndGet();
+            return true;
+        }
+
+        @Override
+        public void sendMessage(Message message, Address[] addresses) throws MessagingException {
+            MessagingException failure = failures.poll();
+            if (failure != null) {
+                throw failure;
+            }
+            received.add(new ReceivedMail(message, addresses));
+        }
+    }
+
+    private static class FakeSettingsRepository implements SettingsRepository {
+        private final MailSettings mailSettings;
+
+        private FakeSettingsRepository(MailSettings mailSettings) {
+            this.mailSettings = mailSettings;
+        }
+
+        @Override
+        public MailSettings getMailSettings() {
+            return mailSettings;
+        }
+
+        @Override
+        public SettingsForm getForm() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public OcppSettings getOcppSettings() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int getHeartbeatIntervalInSeconds() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int getHoursToExpire() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void update(SettingsForm settingsForm) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void update(OcppSettings ocppForm) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void update(MailSettings mailForm) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,207 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.service;
+
+import de.rwth.idsg.steve.repository.OcppServerRepository;
+import de.rwth.idsg.steve.repository.TransactionRepository;
+import de.rwth.idsg.steve.repository.dto.TransactionDetails;
+import de.rwth.idsg.steve.repository.dto.TransactionStopBatchResult;
+import de.rwth.idsg.steve.repository.dto.TransactionStopCandidate;
+import de.rwth.idsg.steve.repository.dto.UpdateTransactionParams;
+import de.rwth.idsg.steve.service.dto.TransactionStopResult;
+import de.rwth.idsg.steve.service.dto.TransactionStopResult.Outcome;
+import de.rwth.idsg.steve.service.dto.TransactionStopResult.Source;
+import org.joda.time.DateTime;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class TransactionStopServiceTest {
+
+    private static final DateTime START = new DateTime(2024, 1, 1, 10, 0);
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private OcppServerRepository ocppServerRepository;
+
+    @Mock
+    private EnergyRollupService energyRollupService;
+
+    private TransactionStopService service;
+
+    @BeforeEach
+    public void setup() {
+        service = new TransactionStopService(transactionRepository, ocppServerRepository, energyRollupService);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testChunks() {
+        when(transactionRepository.getStopCandidates(any())).thenReturn(List.of());
+        when(ocppServerRepository.updateTransactions(anyList())).thenReturn(emptyBatchResult());
+
+        // duplicates and the order of the input do not matter
+        List<Integer> pks = IntStream.rangeClosed(1, 1200).boxed().collect(Collectors.toList());
+        pks.add(7);
+        List<TransactionStopResult> results = service.stop(pks.reversed());
+
+        ArgumentCaptor<Collection<Integer>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(transactionRepository, times(3)).getStopCandidates(captor.capture());
+
+        List<Collection<Integer>> chunks = captor.getAllValues();
+        assertEquals(List.of(500, 500, 200), chunks.stream().map(Collection::size).toList());
+        assertEquals(1, chunks.get(0).iterator().next());
+        assertEquals(1001, chunks.get(2).iterator().next());
+
+        assertEquals(1200, results.size());
+        results.forEach(r -> assertEquals(Outcome.NOT_FOUND, r.getOutcome()));
+    }
+
+    @Test
+    public void testCandidates() {
+        when(transactionRepository.getStopCandidates(any())).thenReturn(List.of(
+            candidate(2).stopped(true).build(),
+            candidate(3).lastEnergyValue(energyValue(START.plusHours(1), 1234.2)).build(),
+            candidate(4).nextStartTimestamp(START.plusHours(2)).nextStartValue("2000").build(),
+            candidate(5).nextStartTimestamp(START.plusHours(2)).nextStartValue("0").build(),
+            candidate(6).build()
+        ));
+        when(ocppServerRepository.updateTransactions(anyList())).thenReturn(emptyBatchResult());
+
+        Map<Integer, TransactionStopResult> results = byPk(service.stop(List.of(1, 2, 3, 4, 5, 6)));
+
+        assertEquals(Outcome.NOT_FOUND, results.get(1).getOutcome());
+        assertEquals(Outcome.ALREADY_STOPPED, results.get(2).getOutcome());
+
+        assertStopped(results.get(3), Source.METER_VALUE, "1235", START.plusHours(1));
+        assertStopped(results.get(4), Source.NEXT_TRANSACTION, "2000", START.plusHours(2));
+        // the meter of the station was reset, the stop value falls back to the start value
+        assertStopped(results.get(5), Source.NEXT_TRANSACTION, "1000", START.plusHours(2));
+        assertStopped(results.get(6), Source.START_VALUES, "1000", START);
+
+        assertEquals(List.of(3, 4, 5, 6), updatedPks());
+        verify(energyRollupService).rollUpLater(List.of(3, 4, 5, 6));
+    }
+
+    @Test
+    public void testBatchResult() {
+        when(transactionRepository.getStopCandidates(any())).thenReturn(List.of(
+            candidate(1).build(),
+            candidate(2).build(),
+            candidate(3).build()
+        ));
+        when(ocppServerRepository.updateTransactions(anyList())).thenReturn(
+            TransactionStopBatchResult.builder()
+                                      .alreadyStopped(List.of(1))
+                                      .failures(Map.of(2, new IllegalStateException("Failed on purpose")))
+                                      .build()
+        );
+
+        Map<Integer, TransactionStopResult> results = byPk(service.stop(List.of(1, 2, 3)));
+
+        assertEquals(Outcome.ALREADY_STOPPED, results.get(1).getOutcome());
+        assertEquals(Outcome.FAILED, results.get(2).getOutcome());
+        assertEquals("Failed on purpose", results.get(2).getMessage());
+        assertStopped(results.get(3), Source.START_VALUES, "1000", START);
+
+        // only the ones that were stopped by this call
+        verify(energyRollupService).rollUpLater(List.of(3));
+    }
+
+    @Test
+    public void testInvalidValuesFailOnlyThisTransaction() {
+        when(transactionRepository.getStopCandidates(any())).thenReturn(List.of(
+            candidate(1).nextStartTimestamp(START.plusHours(2)).nextStartValue("not a number").build(),
+            candidate(2).build()
+        ));
+        when(ocppServerRepository.updateTransactions(anyList())).thenReturn(emptyBatchResult());
+
+        Map<Integer, TransactionStopResult> results = byPk(service.stop(List.of(1, 2)));
+
+        assertEquals(Outcome.FAILED, results.get(1).getOutcome());
+        assertStopped(results.get(2), Source.START_VALUES, "1000", START);
+
+        assertEquals(List.of(2), updatedPks());
+        verify(energyRollupService).rollUpLater(List.of(2));
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Integer> updatedPks() {
+        ArgumentCaptor<List<UpdateTransactionParams>> captor = ArgumentCaptor.forClass(List.class);
+        verify(ocppServerRepository).updateTransactions(captor.capture());
+        return captor.getValue().stream().map(UpdateTransactionParams::getTransactionId).toList();
+    }
+
+    private static void assertStopped(TransactionStopResult result, Source source, String stopValue,
+                                      DateTime stopTimestamp) {
+        assertEquals(Outcome.STOPPED, result.getOutcome());
+        assertEquals(source, result.getSource());
+        assertEquals(stopValue, result.getStopValue());
+        assertEquals(stopTimestamp, result.getStopTimestamp());
+        assertNull(result.getMessage());
+    }
+
+    private static Map<Integer, TransactionStopResult> byPk(List<TransactionStopResult> results) {
+        return results.stream().collect(Collectors.toMap(TransactionStopResult::getTransactionPk, Function.identity()));
+    }
+
+    private static TransactionStopCandidate.TransactionStopCandidateBuilder candidate(int transactionPk) {
+        return TransactionStopCandidate.builder()
+                                       .transactionPk(transactionPk)
+                                       .chargeBoxId("charger-1")
+                                       .startTimestamp(START)
+                                       .startValue("1000");
+    }
+
+    private static TransactionDetails.MeterValues energyValue(DateTime timestamp, double energyWh) {
+        return TransactionDetails.MeterValues.builder()
+                                             .valueTimestamp(timestamp)
+                                             .value(Double.toString(energyWh))
+                                             .energyWh(energyWh)
+                                             .build();
+    }
+
+    private static TransactionStopBatchResult emptyBatchResult() {
+        return TransactionStopBatchResult.builder()
+                                         .alreadyStopped(List.of())
+                                         .failures(Map.of())
+                                         .build();
+    }
+}
@@ -0,0 +1,274 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import de.rwth.idsg.steve.config.SteveProperties;
+import de.rwth.idsg.steve.repository.WebhookOutboxRepository;
+import de.rwth.idsg.steve.repository.dto.InsertConnectorStatusParams;
+import de.rwth.idsg.steve.repository.dto.WebhookEvent;
+import de.rwth.idsg.steve.service.notification.OcppMeterValuesReceived;
+import de.rwth.idsg.steve.service.notification.OcppStationStatusChanged;
+import de.rwth.idsg.steve.service.notification.OcppStationStatusFailure;
+import de.rwth.idsg.steve.service.notification.OcppStationWebSocketConnected;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.joda.time.DateTime;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Against a local HTTP stub instead of a real webhook target, and an outbox in memory instead of the database
+ */
+public class WebhookServiceTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final SteveProperties properties = new SteveProperties();
+    private final InMemoryOutbox outbox = new InMemoryOutbox();
+
+    private final List<JsonNode> receivedBodies = new CopyOnWriteArrayList<>();
+    private final List<String> receivedSignatures = new CopyOnWriteArrayList<>();
+    private final AtomicInteger responseStatus = new AtomicInteger(200);
+
+    private HttpServer server;
+
+    @BeforeEach
+    public void startServer() throws Exception {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/events", exchange -> {
+            receivedBodies.add(mapper.readTree(exchange.getRequestBody()));
+            String signature = exchange.getRequestHeaders().getFirst(WebhookService.SIGNATURE_HEADER);
+            if (signature != null) {
+                receivedSignatures.add(signature);
+            }
+            exchange.sendResponseHeaders(responseStatus.get(), -1);
+            exchange.close();
+        });
+        server.start();
+    }
+
+    @AfterEach
+    public void stopServer() {
+        server.stop(0);
+    }
+
+    @Test
+    public void testBatchIsDeliveredAndDeleted() throws Exception {
+        addTarget("all", null, "secret");
+        WebhookService service = createService();
+        try {
+            service.onEvents(List.of(new OcppStationWebSocketConnected("cb-1"), statusChanged("cb-1"), "other"));
+            Assertions.assertEquals(2, outbox.events.size());
+
+            service.deliverAll();
+
+            Assertions.assertEquals(1, receivedBodies.size());
+            JsonNode body = receivedBodies.get(0);
+            Assertions.assertEquals(2, body.size());
+            Assertions.assertEquals("Connected", body.get(0).get("type").asText());
+            Assertions.assertEquals("cb-1", body.get(0).get("data").get("chargeBoxId").asText());
+            Assertions.assertEquals("StatusChanged", body.get(1).get("type").asText());
+            Assertions.assertEquals("Faulted", body.get(1).get("data").get("status").asText());
+
+            Assertions.assertEquals(1, receivedSignatures.size());
+            Assertions.assertTrue(receivedSignatures.get(0).startsWith("sha256="));
+
+            Assertions.assertTrue(outbox.events.isEmpty());
+        } finally {
+            service.destroy();
+        }
+    }
+
+    @Test
+    public void testFailedBatchWaitsForBackoff() throws Exception {
+        responseStatus.set(503);
+        addTarget("failing", null, null);
+        WebhookService service = createService();
+        try {
+            service.onEvents(List.of(new OcppStationWebSocketConnected("cb-1")));
+
+            service.deliverAll();
+            Assertions.assertEquals(1, receivedBodies.size());
+            Assertions.assertEquals(1, outbox.events.size());
+
+            WebhookEvent event = outbox.events.get(0);
+            Assertions.assertEquals(1, event.getAttempts());
+            Assertions.assertTrue(event.getNextAttemptTimestamp().isAfterNow());
+
+            // not due yet
+            responseStatus.set(200);
+            service.deliverAll();
+            Assertions.assertEquals(1, receivedBodies.size());
+            Assertions.assertEquals(1, outbox.events.size());
+        } finally {
+            service.destroy();
+        }
+    }
+
+    @Test
+    public void testTargetGetsOnlyItsEventTypes() {
+        addTarget("all", null, null);
+        addTarget("connections", List.of("Connected"), null);
+        WebhookService service = createService();
+        try {
+            service.onEvents(List.of(new OcppStationWebSocketConnected("cb-1"), statusChanged("cb-1")));
+
+            Assertions.assertEquals(2, outbox.getEvents("all", 10).size());
+            List<WebhookEvent> connections = outbox.getEvents("connections", 10);
+            Assertions.assertEquals(1, connections.size());
+            Assertions.assertEquals("Connected", connections.get(0).getEventType());
+        } finally {
+            service.destroy();
+        }
+    }
+
+    @Test
+    public void testOldestEventsAreDroppedBeyondMaxEvents() {
+        responseStatus.set(503);
+        properties.getWebhooks().setMaxEvents(2);
+        addTarget("failing", null, null);
+        WebhookService service = createService();
+        try {
+            service.onEvents(List.of(new OcppStationWebSocketConnected("cb-1"),
+                                     new OcppStationWebSocketConnected("cb-2"),
+                                     new OcppStationWebSocketConnected("cb-3")));
+            Assertions.assertEquals(3, outbox.events.size());
+
+            service.deliverAll();
+
+            Assertions.assertEquals(1, receivedBodies.size());
+            JsonNode body = receivedBodies.get(0);
+            Assertions.assertEquals(2, body.size());
+            Assertions.assertEquals("cb-2", body.get(0).get("data").get("chargeBoxId").asText());
+            Assertions.assertEquals(2, outbox.events.size());
+        } finally {
+            service.destroy();
+        }
+    }
+
+    @Test
+    public void testInterestedInSubscribedTypesOnly() {
+        addTarget("connections", List.of("Connected"), null);
+        WebhookService service = createService();
+        try {
+            Assertions.assertTrue(service.isInterestedIn(OcppStationWebSocketConnected.class));
+            Assertions.assertFalse(service.isInterestedIn(OcppMeterValuesReceived.class));
+            Assertions.assertFalse(service.isInterestedIn(OcppStationStatusFailure.class));
+        } finally {
+            service.destroy();
+        }
+    }
+
+    private void addTarget(String name, List<String> events, String secret) {
+        SteveProperties.Webhooks.Target target = new SteveProperties.Webhooks.Target();
+        target.setName(name);
+        target.setUrl("http://127.0.0.1:" + server.getAddress().getPort() + "/events");
+        if (events != null) {
+            target.setEvents(events);
+        }
+        target.setSecret(secret);
+        properties.getWebhooks().getTargets().add(target);
+    }
+
+    private WebhookService createService() {
+        // not started, the test delivers in its own thread
+        return new WebhookService(properties, outbox, null, new SimpleMeterRegistry());
+    }
+
+    private static OcppStationStatusChanged statusChanged(String chargeBoxId) {
+        return new OcppStationStatusChanged(InsertConnectorStatusParams.builder()
+                                                                       .chargeBoxId(chargeBoxId)
+                                                                       .connectorId(1)
+                                                                       .status("Faulted")
+                                                                       .errorCode("GroundFailure")
+                                                                       .timestamp(DateTime.now())
+                                                                       .build());
+    }
+
+    private static class InMemoryOutbox implements WebhookOutboxRepository {
+        private final List<WebhookEvent> events = new CopyOnWriteArrayList<>();
+        private final AtomicLong sequence = new AtomicLong();
+
+        @Override
+        public void insert(List<WebhookEvent> newEvents) {
+            for (WebhookEvent e : newEvents) {
+                events.add(copy(e, sequence.incrementAndGet(), 0, null));
+            }
+        }
+
+        @Override
+        public List<WebhookEvent> getEvents(String target, int limit) {
+            return events.stream().filter(e -> e.getTarget().equals(target)).limit(limit).toList();
+        }
+
+        @Override
+        public void delete(List<Long> pks) {
+            events.removeIf(e -> pks.contains(e.getWebhookOutboxPk()));
+        }
+
+        @Override
+        public void markFailed(List<Long> pks, DateTime nextAttempt, String error) {
+            List<WebhookEvent> updated = new ArrayList<>();
+            for (WebhookEvent e : events) {
+                boolean failed = pks.contains(e.getWebhookOutboxPk());
+                updated.add(failed ? copy(e, e.getWebhookOutboxPk(), e.getAttempts() + 1, nextAttempt) : e);
+            }
+            events.clear();
+            events.addAll(updated);
+        }
+
+        @Override
+        public int deleteOldest(String target, int keep) {
+            List<WebhookEvent> ofTarget = events.stream().filter(e -> e.getTarget().equals(target)).toList();
+            List<WebhookEvent> oldest = ofTarget.subList(0, Math.max(0, ofTarget.size() - keep));
+            events.removeAll(oldest);
+            return oldest.size();
+        }
+
+        @Override
+        public int deleteOtherTargets(Collection<String> targets) {
+            int size = events.size();
+            events.removeIf(e -> !targets.contains(e.getTarget()));
+            return size - events.size();
+        }
+
+        private static WebhookEvent copy(WebhookEvent e, long pk, int attempts, DateTime nextAttempt) {
+            return WebhookEvent.builder()
+                               .webhookOutboxPk(pk)
+                               .target(e.getTarget())
+                               .eventType(e.getEventType())
+                               .eventTimestamp(e.getEventTimestamp())
+                               .payload(e.getPayload())
+                               .attempts(attempts)
+                               .nextAttemptTimestamp(nextAttempt)
+                               .build();
+        }
+    }
+}
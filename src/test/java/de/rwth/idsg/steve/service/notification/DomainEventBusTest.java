@@ -0,0 +1,148 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.service.notification;
+
+import de.rwth.idsg.steve.config.SteveProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class DomainEventBusTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final SteveProperties properties = new SteveProperties();
+
+    @Test
+    public void testFailingListenerDoesNotAffectOthers() throws Exception {
+        List<Object> received = new CopyOnWriteArrayList<>();
+        CountDownLatch latch = new CountDownLatch(3);
+
+        DomainEventListener failing = events -> {
+            throw new IllegalStateException("Failed on purpose");
+        };
+        DomainEventListener collecting = events -> {
+            received.addAll(events);
+            events.forEach(event -> latch.countDown());
+        };
+
+        DomainEventBus bus = createBus(failing, collecting);
+        try {
+            bus.afterStart(null);
+            bus.publish("a");
+            bus.publish("b");
+            bus.publish("c");
+
+            Assertions.assertTrue(latch.await(5, TimeUnit.SECONDS));
+            Assertions.assertEquals(List.of("a", "b", "c"), received);
+        } finally {
+            bus.destroy();
+        }
+    }
+
+    @Test
+    public void testDropWhenQueueIsFull() {
+        properties.getEvents().setQueueCapacity(2);
+
+        // not started, so that nothing is taken from the queue
+        DomainEventBus bus = createBus();
+        try {
+            bus.publish("a");
+            bus.publish("b");
+            bus.publish("c");
+
+            double dropped = registry.get(DomainEventBus.DROPPED).tag("listener", "none").counter().count();
+            Assertions.assertEquals(1, dropped);
+            Assertions.assertEquals(2, registry.get(DomainEventBus.PUBLISHED).counter().count());
+        } finally {
+            bus.destroy();
+        }
+    }
+
+    @Test
+    public void testSynchronousListenerGetsAllEvents() {
+        properties.getEvents().setQueueCapacity(1);
+
+        SynchronousListener synchronous = new SynchronousListener();
+        DomainEventBus bus = createBus(synchronous);
+        try {
+            bus.publish("a");
+            Assertions.assertTrue(synchronous.received.isEmpty());
+
+            // the event from before the start is delivered with it
+            bus.afterStart(null);
+            Assertions.assertEquals(List.of("a"), synchronous.received);
+
+            // the queue is full (the dispatcher might have taken "a" already), but nothing is lost
+            bus.publish("b");
+            bus.publish("c");
+            bus.publish("d");
+            Assertions.assertEquals(List.of("a", "b", "c", "d"), synchronous.received);
+        } finally {
+            bus.destroy();
+        }
+    }
+
+    @Test
+    public void testHasListenersFor() {
+        DomainEventBus bus = createBus(new SynchronousListener());
+        try {
+            // the listeners are not known yet
+            Assertions.assertTrue(bus.hasListenersFor(Integer.class));
+
+            bus.afterStart(null);
+            Assertions.assertTrue(bus.hasListenersFor(String.class));
+            Assertions.assertFalse(bus.hasListenersFor(Integer.class));
+        } finally {
+            bus.destroy();
+        }
+    }
+
+    private DomainEventBus createBus(DomainEventListener... listeners) {
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        for (int i = 0; i < listeners.length; i++) {
+            beanFactory.addBean("listener" + i, listeners[i]);
+        }
+        return new DomainEventBus(properties, registry, beanFactory.getBeanProvider(DomainEventListener.class));
+    }
+
+    private static class SynchronousListener implements DomainEventListener {
+        private final List<Object> received = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void onEvents(List<Object> events) {
+            received.addAll(events);
+        }
+
+        @Override
+        public boolean isSynchronous() {
+            return true;
+        }
+
+        @Override
+        public boolean isInterestedIn(Class<?> eventType) {
+            return eventType == String.class;
+        }
+    }
+}
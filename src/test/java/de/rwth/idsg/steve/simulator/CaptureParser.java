@@ -0,0 +1,141 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.simulator;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import de.rwth.idsg.steve.ocpp.ws.JsonObjectMapper;
+import de.rwth.idsg.steve.ocpp.ws.data.MessageType;
+import lombok.extern.slf4j.Slf4j;
+import org.joda.time.format.DateTimeFormat;
+import org.joda.time.format.DateTimeFormatter;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Reads the calls of the stations from SteVe logs (LOG_PATTERN of the logback configurations), i.e. lines like
+ *
+ * [INFO ] 2026-10-19 12:00:00,000 de.rwth.idsg.steve.ocpp.ws.WebSocketLogger (thread) - [chargeBoxId=cb1,
+ * sessionId=abc] Received: [2,"id","Heartbeat",{}]
+ *
+ * The responses of SteVe ("Sending:") are only used to find the transactionIds of the StartTransaction calls. All
+ * other lines are ignored. Rotated files (.gz) can be read as they are.
+ */
+@Slf4j
+public class CaptureParser {
+
+    private static final Pattern LINE_PATTERN = Pattern.compile(
+        "^\\[\\w+\\s*] (\\d{4}-\\d{2}-\\d{2} \\d{2}:\\d{2}:\\d{2},\\d{3}) .*?"
+            + "\\[chargeBoxId=(.*?), sessionId=(.*?)] (Received|Sending): (.*)$");
+
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormat.forPattern("yyyy-MM-dd HH:mm:ss,SSS");
+
+    private final ObjectMapper mapper = JsonObjectMapper.INSTANCE.getMapper();
+
+    /**
+     * Key: chargeBoxId. Value: the calls of the station in the order of the log
+     */
+    private final Map<String, List<CapturedCall>> calls = new LinkedHashMap<>();
+
+    /**
+     * Key: sessionId + messageId. Value: StartTransaction calls that wait for their response
+     */
+    private final Map<String, CapturedCall> startTransactions = new HashMap<>();
+
+    private int lineCount;
+    private int skippedCount;
+
+    /**
+     * The files must be given in chronological order
+     */
+    public Map<String, List<CapturedCall>> parse(List<Path> files) throws IOException {
+        for (Path file : files) {
+            try (BufferedReader reader = open(file)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    parseLine(line);
+                }
+            }
+        }
+
+        log.info("Read {} calls of {} stations from {} lines ({} could not be parsed)",
+            calls.values().stream().mapToInt(List::size).sum(), calls.size(), lineCount, skippedCount);
+        return calls;
+    }
+
+    private void parseLine(String line) {
+        Matcher m = LINE_PATTERN.matcher(line);
+        if (!m.matches()) {
+            return;
+        }
+        lineCount++;
+
+        try {
+            long timestamp = TIMESTAMP_FORMAT.parseMillis(m.group(1));
+            String chargeBoxId = m.group(2);
+            String sessionId = m.group(3);
+            boolean received = "Received".equals(m.group(4));
+
+            JsonNode message = mapper.readTree(m.group(5));
+            MessageType messageType = MessageType.fromTypeNr(message.get(0).asInt());
+            String messageId = message.get(1).asText();
+
+            if (received && messageType == MessageType.CALL) {
+                CapturedCall call = new CapturedCall(timestamp, chargeBoxId, sessionId, messageId,
+                    message.get(2).asText(), message.get(3));
+
+                calls.computeIfAbsent(chargeBoxId, k -> new ArrayList<>()).add(call);
+                if ("StartTransaction".equals(call.getAction())) {
+                    startTransactions.put(sessionId + messageId, call);
+                }
+
+            } else if (!received && messageType == MessageType.CALL_RESULT) {
+                CapturedCall call = startTransactions.remove(sessionId + messageId);
+                if (call != null && message.get(2).hasNonNull("transactionId")) {
+                    call.setTransactionId(message.get(2).get("transactionId").asInt());
+                }
+            }
+        } catch (Exception e) {
+            skippedCount++;
+            log.debug("Could not parse: {}", line, e);
+        }
+    }
+
+    private static BufferedReader open(Path file) throws IOException {
+        InputStream in = Files.newInputStream(file);
+        if (file.getFileName().toString().endsWith(".gz")) {
+            in = new GZIPInputStream(in);
+        }
+        return new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,46 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.simulator;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * A CALL that a station sent, as found in the log of WebSocketLogger
+ */
+@Getter
+@RequiredArgsConstructor
+public class CapturedCall {
+    private final long timestampMillis;
+    private final String chargeBoxId;
+    private final String sessionId;
+    private final String messageId;
+    private final String action;
+    private final JsonNode payload;
+
+    /**
+     * The transactionId in the captured response of a StartTransaction, if the response is in the log as well
+     */
+    @Setter
+    @Nullable
+    private Integer transactionId;
+}
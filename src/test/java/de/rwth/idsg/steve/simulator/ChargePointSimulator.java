@@ -0,0 +1,119 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.simulator;
+
+import de.rwth.idsg.steve.ocpp.OcppTransport;
+import de.rwth.idsg.steve.ocpp.OcppVersion;
+import de.rwth.idsg.steve.utils.Helpers;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import ocpp.cs._2015._10.CentralSystemService;
+import org.eclipse.jetty.websocket.client.WebSocketClient;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Simulates a fleet of OCPP 1.6 stations (JSON or SOAP) against a running SteVe, with one virtual thread per
+ * station. Unlike {@link de.rwth.idsg.steve.StressTest}, it does not start SteVe itself, so that the load generator
+ * and the system under test can run on different machines.
+ *
+ * The stations must either exist in SteVe, or steve.ocpp.auto-register-unknown-stations must be enabled. The idTags
+ * are "{chargeBoxIdPrefix}tag-{i}", and are blocked, unless they exist in SteVe.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class ChargePointSimulator {
+
+    private static final int PROGRESS_INTERVAL_SECONDS = 10;
+
+    private final SimulatorConfig config;
+
+    public static void main(String[] args) throws Exception {
+        new ChargePointSimulator(SimulatorConfig.fromSystemProperties()).run();
+    }
+
+    public void run() throws Exception {
+        log.info("Starting the simulation: {}", config);
+
+        List<String> idTags = new ArrayList<>(config.getIdTagCount());
+        for (int i = 0; i < config.getIdTagCount(); i++) {
+            idTags.add(config.getChargeBoxIdPrefix() + "tag-" + i);
+        }
+
+        LatencyRecorder recorder = new LatencyRecorder();
+        SimulatedStation.Counters counters = new SimulatedStation.Counters();
+
+        WebSocketClient webSocketClient = null;
+        CentralSystemService soapClient = null;
+
+        if (config.getTransport() == OcppTransport.JSON) {
+            webSocketClient = new WebSocketClient();
+            // the stations only send heartbeats when idle
+            webSocketClient.setIdleTimeout(Duration.ofSeconds(3L * config.getBehavior().getHeartbeatIntervalSeconds()));
+            webSocketClient.start();
+        } else {
+            soapClient = Helpers.getForOcpp16(config.getSoapPath());
+        }
+
+        long startNanos = System.nanoTime();
+        long stopAtNanos = startNanos + TimeUnit.SECONDS.toNanos(config.getDurationSeconds());
+        long rampUpNanos = TimeUnit.SECONDS.toNanos(config.getRampUpSeconds());
+
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            for (int i = 0; i < config.getStationCount(); i++) {
+                String chargeBoxId = config.getChargeBoxIdPrefix() + i;
+
+                StationClient client = (webSocketClient != null)
+                    ? new JsonStationClient(webSocketClient, chargeBoxId, config.getJsonPath(), OcppVersion.V_16,
+                                            config.getCallTimeoutSeconds())
+                    : new SoapStationClient(soapClient, chargeBoxId);
+
+                long startAtNanos = startNanos + rampUpNanos * i / config.getStationCount();
+
+                executor.execute(new SimulatedStation(chargeBoxId, client, config.getBehavior(), idTags,
+                    recorder, counters, startAtNanos, stopAtNanos));
+            }
+            executor.shutdown();
+
+            long lastCount = 0;
+            while (!executor.awaitTermination(PROGRESS_INTERVAL_SECONDS, TimeUnit.SECONDS)) {
+                long count = recorder.getTotalCount();
+                log.info("Connected stations: {}, failed stations: {}, active transactions: {}, calls per second: {}",
+                    counters.connected.get(), counters.failed.get(), counters.transactions.get(),
+                    (count - lastCount) / PROGRESS_INTERVAL_SECONDS);
+                lastCount = count;
+            }
+        } finally {
+            executor.shutdownNow();
+            if (webSocketClient != null) {
+                webSocketClient.stop();
+            }
+        }
+
+        double elapsedSeconds = (System.nanoTime() - startNanos) / 1e9;
+        log.info("Finished after {} s. Latencies of {} stations:{}{}",
+            Math.round(elapsedSeconds), config.getStationCount(), System.lineSeparator(), recorder.getReport(elapsedSeconds));
+    }
+}
@@ -0,0 +1,330 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.simulator;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import de.rwth.idsg.steve.SteveApplication;
+import de.rwth.idsg.steve.ocpp.CommunicationTask;
+import de.rwth.idsg.steve.ocpp.OcppCallback;
+import de.rwth.idsg.steve.ocpp.OcppProtocol;
+import de.rwth.idsg.steve.ocpp.OcppVersion;
+import de.rwth.idsg.steve.ocpp.ws.JsonObjectMapper;
+import de.rwth.idsg.steve.ocpp.ws.data.ErrorCode;
+import de.rwth.idsg.steve.ocpp.ws.data.OcppJsonError;
+import de.rwth.idsg.steve.repository.ChargePointRepository;
+import de.rwth.idsg.steve.repository.OcppServerRepository;
+import de.rwth.idsg.steve.repository.TaskStore;
+import de.rwth.idsg.steve.repository.dto.ChargePointSelect;
+import de.rwth.idsg.steve.service.ChargePointServiceClient;
+import de.rwth.idsg.steve.utils.Helpers;
+import de.rwth.idsg.steve.web.dto.ocpp.ChangeConfigurationParams;
+import de.rwth.idsg.steve.web.dto.ocpp.MultipleChargePointSelect;
+import de.rwth.idsg.steve.web.dto.ocpp.ResetParams;
+import de.rwth.idsg.steve.web.dto.ocpp.ResetType;
+import de.rwth.idsg.steve.web.dto.ocpp.SendLocalListParams;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.jetty.websocket.client.WebSocketClient;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures how fast SteVe sends one operation to many stations (the "fan-out" of the operation pages) and collects
+ * the responses. It starts SteVe in this JVM, and simulates the stations in the same JVM as well: SOAP stations with
+ * {@link SoapChargePointServer}, and JSON stations with {@link JsonStationClient}s that answer the calls. Their
+ * response times and error rates are set with {@link ResponseBehavior}, so that slow or unreliable stations can be
+ * simulated without real hardware.
+ *
+ * For every operation, it reports the completion time of the task (from its start until the last station answered),
+ * the throughput in stations per second, and the latencies of the single stations, measured from the start of the
+ * task.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class FanOutBenchmark {
+
+    private static final JsonNode ACCEPTED = JsonObjectMapper.INSTANCE.getMapper()
+                                                                      .createObjectNode()
+                                                                      .put("status", "Accepted");
+
+    private static final int CONNECT_TIMEOUT_SECONDS = 30;
+
+    private final FanOutConfig config;
+
+    private final List<SoapChargePointServer> soapServers = new ArrayList<>();
+    private final List<JsonStationClient> jsonStations = new ArrayList<>();
+    private WebSocketClient webSocketClient;
+
+    public static void main(String[] args) throws Exception {
+        new FanOutBenchmark(FanOutConfig.fromSystemProperties()).run();
+    }
+
+    public void run() throws Exception {
+        log.info("Starting the fan-out benchmark: {}", config);
+        System.setProperty("spring.profiles.active", config.getProfiles());
+
+        ConfigurableApplicationContext app = null;
+        try {
+            app = SteveApplication.start();
+
+            List<ChargePointSelect> stations = new ArrayList<>();
+            stations.addAll(startSoapStations(app));
+            stations.addAll(startJsonStations(app));
+
+            ChargePointServiceClient client = app.getBean(ChargePointServiceClient.class);
+            TaskStore taskStore = app.getBean(TaskStore.class);
+
+            LatencyRecorder recorder = new LatencyRecorder();
+            StringBuilder report = new StringBuilder();
+            report.append(String.format("%-5s %-22s %14s %16s %10s %10s",
+                "round", "action", "completion ms", "stations per s", "responses", "errors"));
+
+            long startNanos = System.nanoTime();
+            for (int round = 1; round <= config.getRounds(); round++) {
+                for (String action : config.getActions()) {
+                    CommunicationTask<?, ?> task = runAction(client, taskStore, action, stations, recorder);
+                    report.append(System.lineSeparator()).append(toReportLine(round, action, task));
+                }
+            }
+
+            double elapsedSeconds = (System.nanoTime() - startNanos) / 1e9;
+            log.info("Finished {} rounds with {} SOAP and {} JSON stations:{}{}{}{}Latencies from the start of the task:{}{}",
+                config.getRounds(), config.getSoapStationCount(), config.getJsonStationCount(),
+                System.lineSeparator(), report, System.lineSeparator(), System.lineSeparator(),
+                System.lineSeparator(), recorder.getReport(elapsedSeconds));
+        } finally {
+            jsonStations.forEach(JsonStationClient::close);
+            if (webSocketClient != null) {
+                webSocketClient.stop();
+            }
+            soapServers.forEach(SoapChargePointServer::stop);
+            if (app != null) {
+                app.close();
+            }
+        }
+    }
+
+    private List<ChargePointSelect> startSoapStations(ConfigurableApplicationContext app) throws Exception {
+        int count = config.getSoapStationCount();
+        if (count == 0) {
+            return List.of();
+        }
+
+        for (int i = 0; i < config.getSoapServerCount(); i++) {
+            SoapChargePointServer server = new SoapChargePointServer(config.getBehavior());
+            server.start();
+            soapServers.add(server);
+        }
+
+        List<String> chargeBoxIds = getChargeBoxIds("soap-", count);
+        register(app, chargeBoxIds);
+
+        OcppServerRepository ocppServerRepository = app.getBean(OcppServerRepository.class);
+
+        List<ChargePointSelect> stations = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String chargeBoxId = chargeBoxIds.get(i);
+            String endpointAddress = soapServers.get(i % soapServers.size()).getEndpointAddress(chargeBoxId);
+
+            ocppServerRepository.updateOcppProtocol(chargeBoxId, OcppProtocol.V_16_SOAP);
+            ocppServerRepository.updateEndpointAddress(chargeBoxId, endpointAddress);
+            stations.add(new ChargePointSelect(OcppProtocol.V_16_SOAP, chargeBoxId, endpointAddress));
+        }
+        return stations;
+    }
+
+    private List<ChargePointSelect> startJsonStations(ConfigurableApplicationContext app) throws Exception {
+        int count = config.getJsonStationCount();
+        if (count == 0) {
+            return List.of();
+        }
+
+        List<String> chargeBoxIds = getChargeBoxIds("json-", count);
+        register(app, chargeBoxIds);
+
+        String jsonPath = Helpers.getJsonPath(app.getBean(ServerProperties.class));
+
+        webSocketClient = new WebSocketClient();
+        webSocketClient.start();
+
+        JsonStationClient.CallHandler handler = this::answer;
+        for (String chargeBoxId : chargeBoxIds) {
+            JsonStationClient station = new JsonStationClient(webSocketClient, chargeBoxId, jsonPath, OcppVersion.V_16,
+                                                              CONNECT_TIMEOUT_SECONDS);
+            station.setCallHandler(handler);
+            jsonStations.add(station);
+        }
+
+        // connect in parallel, but wait for all, so that the first round does not include the connection setup
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> connections = new ArrayList<>(count);
+            for (JsonStationClient station : jsonStations) {
+                connections.add(executor.submit(() -> {
+                    station.connect();
+                    return null;
+                }));
+            }
+            for (Future<?> connection : connections) {
+                connection.get();
+            }
+        }
+
+        List<ChargePointSelect> stations = new ArrayList<>(count);
+        for (String chargeBoxId : chargeBoxIds) {
+            stations.add(new ChargePointSelect(OcppProtocol.V_16_JSON, chargeBoxId));
+        }
+        return stations;
+    }
+
+    /**
+     * Answers on a virtual thread, since the handler must not block the connection while it simulates the latency
+     */
+    private void answer(JsonStationClient station, String messageId, String action, JsonNode payload) {
+        ResponseBehavior behavior = config.getBehavior();
+
+        Thread.startVirtualThread(() -> {
+            try {
+                Thread.sleep(behavior.nextLatencyMillis());
+            } catch (InterruptedException e) {
+                return;
+            }
+
+            if (behavior.nextIsError()) {
+                station.sendError(messageId, ErrorCode.InternalError, "Simulated error");
+            } else {
+                station.sendResult(messageId, ACCEPTED);
+            }
+        });
+    }
+
+    private List<String> getChargeBoxIds(String infix, int count) {
+        List<String> chargeBoxIds = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            chargeBoxIds.add(config.getChargeBoxIdPrefix() + infix + i);
+        }
+        return chargeBoxIds;
+    }
+
+    /**
+     * The stations of a previous run stay in the database, if the profile uses one
+     */
+    private static void register(ConfigurableApplicationContext app, List<String> chargeBoxIds) {
+        ChargePointRepository chargePointRepository = app.getBean(ChargePointRepository.class);
+
+        Set<String> existing = chargePointRepository.getChargeBoxIdPkPair(chargeBoxIds).keySet();
+        List<String> missing = chargeBoxIds.stream()
+                                           .filter(chargeBoxId -> !existing.contains(chargeBoxId))
+                                           .toList();
+        if (!missing.isEmpty()) {
+            chargePointRepository.addChargePointList(missing);
+        }
+    }
+
+    private CommunicationTask<?, ?> runAction(ChargePointServiceClient client, TaskStore taskStore, String action,
+                                              List<ChargePointSelect> stations, LatencyRecorder recorder)
+            throws InterruptedException {
+        OcppCallback<String> callback = new LatencyCallback(action, System.nanoTime(), recorder);
+
+        int taskId = switch (action) {
+            case "Reset" -> {
+                ResetParams params = new ResetParams();
+                params.setChargePointSelectList(stations);
+                params.setResetType(ResetType.SOFT);
+                yield client.reset(params, callback);
+            }
+            case "ChangeConfiguration" -> {
+                ChangeConfigurationParams params = new ChangeConfigurationParams();
+                params.setChargePointSelectList(stations);
+                params.setConfKey("HeartbeatInterval");
+                params.setValue("60");
+                yield client.changeConfiguration(params, callback);
+            }
+            case "SendLocalList" -> {
+                SendLocalListParams params = new SendLocalListParams();
+                params.setChargePointSelectList(stations);
+                params.setListVersion(1);
+                yield client.sendLocalList(params, callback);
+            }
+            case "ClearCache" -> {
+                MultipleChargePointSelect params = new MultipleChargePointSelect();
+                params.setChargePointSelectList(stations);
+                yield client.clearCache(params, callback);
+            }
+            default -> throw new IllegalArgumentException("Unsupported action: " + action);
+        };
+
+        CommunicationTask<?, ?> task = taskStore.get(taskId);
+
+        long deadlineNanos = System.nanoTime() + TimeUnit.SECONDS.toNanos(config.getTaskTimeoutSeconds());
+        while (!task.isFinished()) {
+            if (System.nanoTime() > deadlineNanos) {
+                log.warn("{} did not finish within {} s: {} responses, {} errors", action,
+                    config.getTaskTimeoutSeconds(), task.getResponseCount().get(), task.getErrorCount().get());
+                break;
+            }
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        return task;
+    }
+
+    private static String toReportLine(int round, String action, CommunicationTask<?, ?> task) {
+        int stationCount = task.getResultSize();
+
+        String completionMillis = "-";
+        String stationsPerSecond = "-";
+        if (task.isFinished()) {
+            long millis = Math.max(1, task.getEndTimestamp().getMillis() - task.getStartTimestamp().getMillis());
+            completionMillis = Long.toString(millis);
+            stationsPerSecond = String.format("%.1f", stationCount * 1000.0 / millis);
+        }
+
+        return String.format("%-5d %-22s %14s %16s %10d %10d", round, action, completionMillis, stationsPerSecond,
+            task.getResponseCount().get(), task.getErrorCount().get());
+    }
+
+    @RequiredArgsConstructor
+    private static class LatencyCallback implements OcppCallback<String> {
+        private final String action;
+        private final long startNanos;
+        private final LatencyRecorder recorder;
+
+        @Override
+        public void success(String chargeBoxId, String response) {
+            recorder.recordSuccess(action, System.nanoTime() - startNanos);
+        }
+
+        @Override
+        public void success(String chargeBoxId, OcppJsonError error) {
+            recorder.recordError(action);
+        }
+
+        @Override
+        public void failed(String chargeBoxId, Exception e) {
+            recorder.recordError(action);
+        }
+    }
+}
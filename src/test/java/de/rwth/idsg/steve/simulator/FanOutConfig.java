@@ -0,0 +1,98 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.simulator;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * All settings can be given as system properties with the prefix "fanout.", e.g. -Dfanout.jsonStations=5000
+ */
+@Getter
+@Builder
+@ToString
+public final class FanOutConfig {
+
+    private static final String PREFIX = "fanout.";
+
+    /**
+     * Spring profiles of the SteVe instance that is started for the benchmark. With "in-memory", no database is needed.
+     */
+    private final String profiles;
+
+    private final int soapStationCount;
+    private final int jsonStationCount;
+
+    /**
+     * The SOAP stations are spread over this many HTTP servers, i.e. ports
+     */
+    private final int soapServerCount;
+
+    private final String chargeBoxIdPrefix;
+
+    /**
+     * The operations that are sent to all stations, one after another. Supported are Reset, ChangeConfiguration,
+     * SendLocalList and ClearCache.
+     */
+    private final List<String> actions;
+
+    /**
+     * How many times the list of actions is repeated. The first round includes the warm-up of SteVe.
+     */
+    private final int rounds;
+
+    /**
+     * How long to wait for the responses of all stations to one operation
+     */
+    private final int taskTimeoutSeconds;
+
+    private final ResponseBehavior behavior;
+
+    public static FanOutConfig fromSystemProperties() {
+        ResponseBehavior behavior = ResponseBehavior.builder()
+            .latencyMillis(getInt("latency", 50))
+            .latencyJitterMillis(getInt("latencyJitter", 50))
+            .errorRate(Double.parseDouble(get("errorRate", "0")))
+            .build();
+
+        return FanOutConfig.builder()
+            .profiles(get("profiles", "test,in-memory"))
+            .soapStationCount(getInt("soapStations", 500))
+            .jsonStationCount(getInt("jsonStations", 500))
+            .soapServerCount(getInt("soapServers", 4))
+            .chargeBoxIdPrefix(get("chargeBoxIdPrefix", "fanout-"))
+            .actions(Arrays.asList(get("actions", "Reset,ChangeConfiguration,SendLocalList").split(",")))
+            .rounds(getInt("rounds", 3))
+            .taskTimeoutSeconds(getInt("taskTimeout", 300))
+            .behavior(behavior)
+            .build();
+    }
+
+    private static String get(String key, String defaultValue) {
+        return System.getProperty(PREFIX + key, defaultValue);
+    }
+
+    private static int getInt(String key, int defaultValue) {
+        return Integer.parseInt(get(key, Integer.toString(defaultValue)));
+    }
+}
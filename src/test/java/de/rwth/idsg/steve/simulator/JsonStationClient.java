@@ -0,0 +1,244 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.simulator;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import de.rwth.idsg.ocpp.jaxb.RequestType;
+import de.rwth.idsg.ocpp.jaxb.ResponseType;
+import de.rwth.idsg.steve.SteveException;
+import de.rwth.idsg.steve.ocpp.OcppVersion;
+import de.rwth.idsg.steve.ocpp.ws.JsonObjectMapper;
+import de.rwth.idsg.steve.ocpp.ws.data.CommunicationContext;
+import de.rwth.idsg.steve.ocpp.ws.data.ErrorCode;
+import de.rwth.idsg.steve.ocpp.ws.data.MessageType;
+import de.rwth.idsg.steve.ocpp.ws.data.OcppJsonCall;
+import de.rwth.idsg.steve.ocpp.ws.pipeline.Serializer;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.jetty.websocket.api.Callback;
+import org.eclipse.jetty.websocket.api.Session;
+import org.eclipse.jetty.websocket.api.StatusCode;
+import org.eclipse.jetty.websocket.api.annotations.OnWebSocketClose;
+import org.eclipse.jetty.websocket.api.annotations.OnWebSocketError;
+import org.eclipse.jetty.websocket.api.annotations.OnWebSocketMessage;
+import org.eclipse.jetty.websocket.api.annotations.OnWebSocketOpen;
+import org.eclipse.jetty.websocket.api.annotations.WebSocket;
+import org.eclipse.jetty.websocket.client.ClientUpgradeRequest;
+import org.eclipse.jetty.websocket.client.WebSocketClient;
+import org.jetbrains.annotations.Nullable;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A lean version of {@link de.rwth.idsg.steve.utils.OcppJsonChargePoint} for many stations: all stations share one
+ * {@link WebSocketClient}, and a call blocks only the virtual thread of its station. Calls of the central system are
+ * passed to the {@link CallHandler}, or answered with a CALLERROR if there is none.
+ */
+@Slf4j
+@WebSocket
+public class JsonStationClient implements StationClient {
+
+    private final WebSocketClient client;
+    private final String chargeBoxId;
+    private final URI uri;
+    private final OcppVersion version;
+    private final int timeoutSeconds;
+
+    private final Map<String, CompletableFuture<JsonNode>> pendingCalls = new ConcurrentHashMap<>();
+
+    @Setter
+    @Nullable
+    private CallHandler callHandler;
+
+    private volatile Session session;
+
+    public JsonStationClient(WebSocketClient client, String chargeBoxId, String pathPrefix, OcppVersion version,
+                             int timeoutSeconds) {
+        this.client = client;
+        this.chargeBoxId = chargeBoxId;
+        this.uri = URI.create(pathPrefix + chargeBoxId);
+        this.version = version;
+        this.timeoutSeconds = timeoutSeconds;
+    }
+
+    @OnWebSocketOpen
+    public void onOpen(Session session) {
+        this.session = session;
+    }
+
+    @OnWebSocketClose
+    public void onClose(Session session, int statusCode, String reason) {
+        this.session = null;
+
+        SteveException e = new SteveException("Connection of '%s' closed: %s", chargeBoxId, statusCode + " " + reason);
+        pendingCalls.values().forEach(call -> call.completeExceptionally(e));
+        pendingCalls.clear();
+    }
+
+    @OnWebSocketError
+    public void onError(Session session, Throwable throwable) {
+        log.debug("Error at '{}'", chargeBoxId, throwable);
+    }
+
+    @OnWebSocketMessage
+    public void onMessage(Session session, String msg) {
+        try {
+            ObjectMapper mapper = JsonObjectMapper.INSTANCE.getMapper();
+            JsonNode node = mapper.readTree(msg);
+
+            MessageType messageType = MessageType.fromTypeNr(node.get(0).asInt());
+            String messageId = node.get(1).asText();
+
+            switch (messageType) {
+                case CALL_RESULT -> {
+                    CompletableFuture<JsonNode> call = pendingCalls.remove(messageId);
+                    if (call != null) {
+                        call.complete(node.get(2));
+                    }
+                }
+                case CALL_ERROR -> {
+                    CompletableFuture<JsonNode> call = pendingCalls.remove(messageId);
+                    if (call != null) {
+                        call.completeExceptionally(
+                            new SteveException("%s: %s", node.get(2).asText(), node.get(3).asText()));
+                    }
+                }
+                case CALL -> {
+                    String action = node.get(2).asText();
+                    if (callHandler == null) {
+                        sendError(messageId, ErrorCode.NotImplemented, "The simulator does not implement " + action);
+                    } else {
+                        callHandler.onCall(this, messageId, action, node.get(3));
+                    }
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Failed to handle the message of '{}': {}", chargeBoxId, msg, e);
+        }
+    }
+
+    @Override
+    public void connect() throws Exception {
+        ClientUpgradeRequest request = new ClientUpgradeRequest();
+        request.setSubProtocols(version.getValue());
+
+        client.connect(this, uri, request).get(timeoutSeconds, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public <T extends ResponseType> T call(RequestType request, Class<T> responseClass) throws Exception {
+        String messageId = UUID.randomUUID().toString();
+
+        OcppJsonCall call = new OcppJsonCall();
+        call.setMessageId(messageId);
+        call.setPayload(request);
+        call.setAction(getAction(request));
+
+        // session is null, because we do not need org.springframework.web.socket.WebSocketSession
+        CommunicationContext ctx = new CommunicationContext(null, chargeBoxId);
+        ctx.setOutgoingMessage(call);
+        Serializer.INSTANCE.accept(ctx);
+
+        JsonNode payload = call(messageId, ctx.getOutgoingString());
+        return JsonObjectMapper.INSTANCE.getMapper().treeToValue(payload, responseClass);
+    }
+
+    /**
+     * Sends a CALL that is serialized already, and waits for its CALLRESULT
+     *
+     * @return the payload of the CALLRESULT
+     */
+    public JsonNode call(String messageId, String text) throws Exception {
+        Session s = session;
+        if (s == null) {
+            throw new SteveException("'%s' is not connected", chargeBoxId);
+        }
+
+        CompletableFuture<JsonNode> pending = new CompletableFuture<>();
+        pendingCalls.put(messageId, pending);
+
+        s.sendText(text, Callback.from(() -> { }, pending::completeExceptionally));
+
+        try {
+            return pending.get(timeoutSeconds, TimeUnit.SECONDS);
+        } finally {
+            pendingCalls.remove(messageId);
+        }
+    }
+
+    @Override
+    public void close() {
+        Session s = session;
+        if (s != null) {
+            s.close(StatusCode.NORMAL, "Finished", Callback.NOOP);
+        }
+    }
+
+    /**
+     * Like OcppJsonChargePoint: the action is the name of the request class without the suffix
+     */
+    static String getAction(RequestType request) {
+        String s = request.getClass().getSimpleName();
+        if (s.endsWith("Request")) {
+            s = s.substring(0, s.length() - 7);
+        }
+        return s;
+    }
+
+    public void sendResult(String messageId, JsonNode payload) {
+        ArrayNode result = JsonObjectMapper.INSTANCE.getMapper()
+                                                    .createArrayNode()
+                                                    .add(MessageType.CALL_RESULT.getTypeNr())
+                                                    .add(messageId)
+                                                    .add(payload);
+        send(result);
+    }
+
+    public void sendError(String messageId, ErrorCode errorCode, String description) {
+        ArrayNode error = JsonObjectMapper.INSTANCE.getMapper()
+                                                   .createArrayNode()
+                                                   .add(MessageType.CALL_ERROR.getTypeNr())
+                                                   .add(messageId)
+                                                   .add(errorCode.toString())
+                                                   .add(description);
+        error.addObject();
+        send(error);
+    }
+
+    private void send(ArrayNode message) {
+        Session s = session;
+        if (s != null) {
+            s.sendText(message.toString(), Callback.NOOP);
+        }
+    }
+
+    /**
+     * Must not block, since it is called from the thread that reads the messages of the connection
+     */
+    public interface CallHandler {
+        void onCall(JsonStationClient client, String messageId, String action, JsonNode payload);
+    }
+}
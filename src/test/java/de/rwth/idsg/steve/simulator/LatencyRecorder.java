@@ -0,0 +1,94 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.simulator;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies of the calls per action, in microseconds. Recording is lock-free, so that thousands of stations can
+ * record at the same time.
+ */
+public class LatencyRecorder {
+
+    /**
+     * Slower calls are recorded with this value
+     */
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+    private final Map<String, ActionStats> stats = new ConcurrentHashMap<>();
+
+    public void recordSuccess(String action, long durationNanos) {
+        long micros = Math.min(TimeUnit.NANOSECONDS.toMicros(durationNanos), HIGHEST_TRACKABLE_MICROS);
+        get(action).histogram.recordValue(micros);
+    }
+
+    public void recordError(String action) {
+        get(action).errors.increment();
+    }
+
+    public long getTotalCount() {
+        return stats.values().stream().mapToLong(s -> s.histogram.getTotalCount() + s.errors.sum()).sum();
+    }
+
+    /**
+     * @param elapsedSeconds to calculate the throughput
+     */
+    public String getReport(double elapsedSeconds) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%-20s %10s %8s %10s %10s %10s %10s %10s %10s %10s%n",
+            "Action", "Count", "Errors", "Per sec", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "Max ms", "Mean ms"));
+
+        for (Map.Entry<String, ActionStats> entry : new TreeMap<>(stats).entrySet()) {
+            Histogram h = entry.getValue().histogram.copy();
+            long errors = entry.getValue().errors.sum();
+            sb.append(String.format("%-20s %10d %8d %10.1f %10.2f %10.2f %10.2f %10.2f %10.2f %10.2f%n",
+                entry.getKey(),
+                h.getTotalCount(),
+                errors,
+                h.getTotalCount() / elapsedSeconds,
+                toMillis(h.getValueAtPercentile(50)),
+                toMillis(h.getValueAtPercentile(90)),
+                toMillis(h.getValueAtPercentile(99)),
+                toMillis(h.getValueAtPercentile(99.9)),
+                toMillis(h.getMaxValue()),
+                h.getMean() / 1000));
+        }
+        return sb.toString();
+    }
+
+    private ActionStats get(String action) {
+        return stats.computeIfAbsent(action, k -> new ActionStats());
+    }
+
+    private static double toMillis(long micros) {
+        return micros / 1000.0;
+    }
+
+    private static class ActionStats {
+        private final ConcurrentHistogram histogram = new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3);
+        private final LongAdder errors = new LongAdder();
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.simulator;
+
+import de.rwth.idsg.steve.config.SteveProperties;
+import de.rwth.idsg.steve.ocpp.OcppVersion;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * All settings can be given as system properties with the prefix "replay.", e.g. -Dreplay.speed=10
+ */
+@Getter
+@Builder
+@ToString
+public final class ReplayConfig {
+
+    private static final String PREFIX = "replay.";
+
+    /**
+     * The log files, in chronological order
+     */
+    private final List<Path> files;
+
+    /**
+     * Base URL of the SteVe instance, including the context path
+     */
+    private final String url;
+
+    /**
+     * The log does not contain the version that the stations negotiated
+     */
+    private final OcppVersion ocppVersion;
+
+    /**
+     * Time scale: with 10, one hour of the log is replayed in six minutes
+     */
+    private final double speed;
+
+    /**
+     * How many times each station of the log is replayed, at the same time and with different chargeBoxIds
+     */
+    private final int stationCopies;
+
+    /**
+     * Prepended to the chargeBoxIds of the log, to keep the replayed stations apart from real ones
+     */
+    private final String chargeBoxIdPrefix;
+
+    private final int callTimeoutSeconds;
+
+    public static ReplayConfig fromSystemProperties() {
+        String files = System.getProperty(PREFIX + "files");
+        if (files == null) {
+            throw new IllegalArgumentException("-D" + PREFIX + "files=<comma separated log files> is required");
+        }
+
+        return ReplayConfig.builder()
+            .files(Arrays.stream(files.split(",")).map(String::trim).map(Path::of).toList())
+            .url(get("url", "http://localhost:8080/steve"))
+            .ocppVersion(OcppVersion.fromValue(get("ocppVersion", OcppVersion.V_16.getValue())))
+            .speed(Double.parseDouble(get("speed", "1.0")))
+            .stationCopies(Integer.parseInt(get("stationCopies", "1")))
+            .chargeBoxIdPrefix(get("chargeBoxIdPrefix", "replay-"))
+            .callTimeoutSeconds(Integer.parseInt(get("callTimeout", "30")))
+            .build();
+    }
+
+    public String getJsonPath() {
+        return url.replaceFirst("^http", "ws") + "/websocket" + SteveProperties.ROUTER_ENDPOINT_PATH + "/";
+    }
+
+    public String getChargeBoxId(String capturedChargeBoxId, int copy) {
+        String id = chargeBoxIdPrefix + capturedChargeBoxId;
+        return (stationCopies == 1) ? id : id + "-" + copy;
+    }
+
+    private static String get(String key, String defaultValue) {
+        return System.getProperty(PREFIX + key, defaultValue);
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.simulator;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import de.rwth.idsg.steve.ocpp.ws.JsonObjectMapper;
+import de.rwth.idsg.steve.ocpp.ws.data.MessageType;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.jetty.websocket.client.WebSocketClient;
+import org.joda.time.DateTime;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Replays the calls of one captured station in their order, one at a time, like a station would. A call is sent at
+ * its (scaled) time in the log, or right after the response to the previous one, if that took longer.
+ *
+ * The calls are changed where the captured values would not fit the replay:
+ * - the transactionIds that SteVe returned in the capture are replaced by the ones it returns now
+ * - timestamps in the payloads are moved to the time of the replay, scaled like the time between the calls
+ *
+ * A new sessionId in the log means that the station reconnected, which is replayed as well.
+ */
+@Slf4j
+public class ReplayedStation implements Runnable {
+
+    private final String chargeBoxId;
+    private final List<CapturedCall> calls;
+    private final ReplayConfig config;
+    private final WebSocketClient webSocketClient;
+    private final LatencyRecorder recorder;
+    private final AtomicInteger unmappedTransactionIds;
+
+    private final long captureStartMillis;
+    private final long replayStartMillis;
+    private final long replayStartNanos;
+
+    /**
+     * Key: transactionId in the capture. Value: transactionId in the replay
+     */
+    private final Map<Integer, Integer> transactionIds = new HashMap<>();
+
+    public ReplayedStation(String chargeBoxId, List<CapturedCall> calls, ReplayConfig config,
+                           WebSocketClient webSocketClient, LatencyRecorder recorder,
+                           AtomicInteger unmappedTransactionIds, long captureStartMillis, long replayStartMillis,
+                           long replayStartNanos) {
+        this.chargeBoxId = chargeBoxId;
+        this.calls = calls;
+        this.config = config;
+        this.webSocketClient = webSocketClient;
+        this.recorder = recorder;
+        this.unmappedTransactionIds = unmappedTransactionIds;
+        this.captureStartMillis = captureStartMillis;
+        this.replayStartMillis = replayStartMillis;
+        this.replayStartNanos = replayStartNanos;
+    }
+
+    @Override
+    public void run() {
+        JsonStationClient client = null;
+        String sessionId = null;
+
+        try {
+            for (CapturedCall call : calls) {
+                sleepUntil(replayStartNanos + TimeUnit.MILLISECONDS.toNanos(scale(call.getTimestampMillis())));
+
+                if (!call.getSessionId().equals(sessionId)) {
+                    if (client != null) {
+                        client.close();
+                    }
+                    client = connect();
+                    sessionId = call.getSessionId();
+                }
+
+                if (client != null) {
+                    replay(client, call);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            if (client != null) {
+                client.close();
+            }
+        }
+    }
+
+    /**
+     * @return null, if the connection failed. The calls of this session are skipped then.
+     */
+    private JsonStationClient connect() {
+        JsonStationClient client = new JsonStationClient(webSocketClient, chargeBoxId, config.getJsonPath(),
+            config.getOcppVersion(), config.getCallTimeoutSeconds());
+
+        long start = System.nanoTime();
+        try {
+            client.connect();
+            recorder.recordSuccess("Connect", System.nanoTime() - start);
+            return client;
+        } catch (Exception e) {
+            recorder.recordError("Connect");
+            log.debug("'{}' failed to connect", chargeBoxId, e);
+            return null;
+        }
+    }
+
+    private void replay(JsonStationClient client, CapturedCall call) {
+        ObjectNode payload = call.getPayload().isObject()
+            ? ((ObjectNode) call.getPayload()).deepCopy()
+            : JsonObjectMapper.INSTANCE.getMapper().createObjectNode();
+
+        rewriteTimestamps(payload);
+        if (!rewriteTransactionId(payload)) {
+            unmappedTransactionIds.incrementAndGet();
+        }
+
+        String messageId = UUID.randomUUID().toString();
+        ArrayNode message = JsonObjectMapper.INSTANCE.getMapper()
+                                                     .createArrayNode()
+                                                     .add(MessageType.CALL.getTypeNr())
+                                                     .add(messageId)
+                                                     .add(call.getAction())
+                                                     .add(payload);
+
+        long start = System.nanoTime();
+        try {
+            JsonNode result = client.call(messageId, message.toString());
+            recorder.recordSuccess(call.getAction(), System.nanoTime() - start);
+
+            if (call.getTransactionId() != null && result.hasNonNull("transactionId")) {
+                transactionIds.put(call.getTransactionId(), result.get("transactionId").asInt());
+            }
+        } catch (Exception e) {
+            recorder.recordError(call.getAction());
+            log.debug("'{}' failed to send {}", chargeBoxId, call.getAction(), e);
+        }
+    }
+
+    /**
+     * MeterValues and StopTransaction refer to the transaction with the id of the capture
+     *
+     * @return false, if the payload has a transactionId that is not known from a replayed StartTransaction
+     */
+    private boolean rewriteTransactionId(ObjectNode payload) {
+        JsonNode captured = payload.get("transactionId");
+        if (captured == null || !captured.isInt()) {
+            return true;
+        }
+
+        Integer replayed = transactionIds.get(captured.asInt());
+        if (replayed == null) {
+            return false;
+        }
+
+        payload.put("transactionId", replayed);
+        return true;
+    }
+
+    private void rewriteTimestamps(JsonNode node) {
+        if (node instanceof ObjectNode object) {
+            Iterator<Map.Entry<String, JsonNode>> fields = object.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                if ("timestamp".equals(field.getKey()) && field.getValue().isTextual()) {
+                    field.setValue(object.textNode(rewriteTimestamp(field.getValue().asText())));
+                } else {
+                    rewriteTimestamps(field.getValue());
+                }
+            }
+        } else if (node instanceof ArrayNode array) {
+            array.forEach(this::rewriteTimestamps);
+        }
+    }
+
+    private String rewriteTimestamp(String timestamp) {
+        try {
+            long captured = DateTime.parse(timestamp).getMillis();
+            return new DateTime(replayStartMillis + scale(captured)).toString();
+        } catch (IllegalArgumentException e) {
+            return timestamp;
+        }
+    }
+
+    /**
+     * @return the time from the start of the replay, for a time in the capture
+     */
+    private long scale(long capturedMillis) {
+        return (long) ((capturedMillis - captureStartMillis) / config.getSpeed());
+    }
+
+    private static void sleepUntil(long nanos) throws InterruptedException {
+        long remaining = nanos - System.nanoTime();
+        if (remaining > 0) {
+            TimeUnit.NANOSECONDS.sleep(remaining);
+        }
+    }
+}
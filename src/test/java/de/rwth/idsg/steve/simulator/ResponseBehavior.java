@@ -0,0 +1,53 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.simulator;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * How a simulated station answers the calls of the central system
+ */
+@Getter
+@Builder
+@ToString
+public final class ResponseBehavior {
+
+    /**
+     * Processing time of the station, plus a uniformly distributed jitter
+     */
+    @Builder.Default private final int latencyMillis = 50;
+    @Builder.Default private final int latencyJitterMillis = 50;
+
+    /**
+     * Share of the calls that are answered with an error (SOAP fault or CALLERROR), between 0 and 1
+     */
+    @Builder.Default private final double errorRate = 0;
+
+    public long nextLatencyMillis() {
+        return latencyMillis + ThreadLocalRandom.current().nextInt(latencyJitterMillis + 1);
+    }
+
+    public boolean nextIsError() {
+        return errorRate > 0 && ThreadLocalRandom.current().nextDouble() < errorRate;
+    }
+}
@@ -0,0 +1,364 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.simulator;
+
+import de.rwth.idsg.ocpp.jaxb.RequestType;
+import de.rwth.idsg.ocpp.jaxb.ResponseType;
+import lombok.extern.slf4j.Slf4j;
+import ocpp.cs._2015._10.AuthorizeRequest;
+import ocpp.cs._2015._10.AuthorizeResponse;
+import ocpp.cs._2015._10.BootNotificationRequest;
+import ocpp.cs._2015._10.BootNotificationResponse;
+import ocpp.cs._2015._10.ChargePointErrorCode;
+import ocpp.cs._2015._10.ChargePointStatus;
+import ocpp.cs._2015._10.HeartbeatRequest;
+import ocpp.cs._2015._10.HeartbeatResponse;
+import ocpp.cs._2015._10.Measurand;
+import ocpp.cs._2015._10.MeterValue;
+import ocpp.cs._2015._10.MeterValuesRequest;
+import ocpp.cs._2015._10.MeterValuesResponse;
+import ocpp.cs._2015._10.Reason;
+import ocpp.cs._2015._10.RegistrationStatus;
+import ocpp.cs._2015._10.SampledValue;
+import ocpp.cs._2015._10.StartTransactionRequest;
+import ocpp.cs._2015._10.StartTransactionResponse;
+import ocpp.cs._2015._10.StatusNotificationRequest;
+import ocpp.cs._2015._10.StatusNotificationResponse;
+import ocpp.cs._2015._10.StopTransactionRequest;
+import ocpp.cs._2015._10.StopTransactionResponse;
+import ocpp.cs._2015._10.UnitOfMeasure;
+import org.joda.time.DateTime;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One station: connects after its ramp-up delay, boots, and then follows the {@link StationBehavior} until the end
+ * of the run. Meant to run on its own virtual thread, since it sleeps until its next event and blocks in calls.
+ */
+@Slf4j
+public class SimulatedStation implements Runnable {
+
+    private final String chargeBoxId;
+    private final StationClient client;
+    private final StationBehavior behavior;
+    private final List<String> idTags;
+    private final LatencyRecorder recorder;
+    private final Counters counters;
+
+    private final long startAtNanos;
+    private final long stopAtNanos;
+
+    private final Connector[] connectors;
+
+    private long nextHeartbeatNanos;
+    private long nextStatusNanos;
+
+    public SimulatedStation(String chargeBoxId, StationClient client, StationBehavior behavior, List<String> idTags,
+                            LatencyRecorder recorder, Counters counters, long startAtNanos, long stopAtNanos) {
+        this.chargeBoxId = chargeBoxId;
+        this.client = client;
+        this.behavior = behavior;
+        this.idTags = idTags;
+        this.recorder = recorder;
+        this.counters = counters;
+        this.startAtNanos = startAtNanos;
+        this.stopAtNanos = stopAtNanos;
+
+        this.connectors = new Connector[behavior.getConnectorCount()];
+        for (int i = 0; i < connectors.length; i++) {
+            connectors[i] = new Connector(i + 1);
+        }
+    }
+
+    @Override
+    public void run() {
+        try {
+            sleepUntil(startAtNanos);
+
+            if (!connect() || !boot()) {
+                return;
+            }
+
+            counters.connected.incrementAndGet();
+            try {
+                loop();
+            } finally {
+                counters.connected.decrementAndGet();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            client.close();
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Lifecycle
+    // -------------------------------------------------------------------------
+
+    private boolean connect() {
+        long start = System.nanoTime();
+        try {
+            client.connect();
+            recorder.recordSuccess("Connect", System.nanoTime() - start);
+            return true;
+        } catch (Exception e) {
+            recorder.recordError("Connect");
+            counters.failed.incrementAndGet();
+            log.debug("'{}' failed to connect", chargeBoxId, e);
+            return false;
+        }
+    }
+
+    private boolean boot() {
+        BootNotificationResponse boot = call(
+            new BootNotificationRequest()
+                .withChargePointVendor("SteVe")
+                .withChargePointModel("Simulator"),
+            BootNotificationResponse.class
+        );
+
+        if (boot == null || boot.getStatus() != RegistrationStatus.ACCEPTED) {
+            counters.failed.incrementAndGet();
+            log.debug("'{}' was not accepted: {}", chargeBoxId, boot == null ? null : boot.getStatus());
+            return false;
+        }
+
+        for (int connectorId = 0; connectorId <= connectors.length; connectorId++) {
+            sendStatus(connectorId, ChargePointStatus.AVAILABLE);
+        }
+
+        long now = System.nanoTime();
+        nextHeartbeatNanos = now + seconds(behavior.getHeartbeatIntervalSeconds());
+        nextStatusNanos = now + randomDelay(behavior.getStatusIntervalSeconds());
+        for (Connector c : connectors) {
+            c.scheduleNextStart(now);
+        }
+        return true;
+    }
+
+    private void loop() throws InterruptedException {
+        while (true) {
+            long next = Math.min(stopAtNanos, Math.min(nextHeartbeatNanos, nextStatusNanos));
+            for (Connector c : connectors) {
+                next = Math.min(next, c.nextEventNanos);
+            }
+
+            sleepUntil(next);
+
+            long now = System.nanoTime();
+            if (now - stopAtNanos >= 0) {
+                return;
+            }
+
+            if (now - nextHeartbeatNanos >= 0) {
+                call(new HeartbeatRequest(), HeartbeatResponse.class);
+                nextHeartbeatNanos = now + seconds(behavior.getHeartbeatIntervalSeconds());
+            }
+
+            if (now - nextStatusNanos >= 0) {
+                Connector c = connectors[ThreadLocalRandom.current().nextInt(connectors.length)];
+                sendStatus(c.connectorId, c.isCharging() ? ChargePointStatus.CHARGING : ChargePointStatus.AVAILABLE);
+                nextStatusNanos = now + seconds(behavior.getStatusIntervalSeconds());
+            }
+
+            for (Connector c : connectors) {
+                if (now - c.nextEventNanos >= 0) {
+                    c.onEvent(now);
+                }
+            }
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Calls
+    // -------------------------------------------------------------------------
+
+    /**
+     * @return null, if the call failed
+     */
+    private <T extends ResponseType> T call(RequestType request, Class<T> responseClass) {
+        String action = JsonStationClient.getAction(request);
+        long start = System.nanoTime();
+        try {
+            T response = client.call(request, responseClass);
+            recorder.recordSuccess(action, System.nanoTime() - start);
+            return response;
+        } catch (Exception e) {
+            recorder.recordError(action);
+            log.debug("'{}' failed to send {}", chargeBoxId, action, e);
+            return null;
+        }
+    }
+
+    private void sendStatus(int connectorId, ChargePointStatus status) {
+        call(
+            new StatusNotificationRequest()
+                .withConnectorId(connectorId)
+                .withStatus(status)
+                .withErrorCode(ChargePointErrorCode.NO_ERROR)
+                .withTimestamp(DateTime.now()),
+            StatusNotificationResponse.class
+        );
+    }
+
+    private class Connector {
+        private final int connectorId;
+
+        private long nextEventNanos;
+
+        // only set while charging
+        private Integer transactionId;
+        private String idTag;
+        private long stopNanos;
+
+        private int meterValueWh;
+
+        private Connector(int connectorId) {
+            this.connectorId = connectorId;
+        }
+
+        private boolean isCharging() {
+            return transactionId != null;
+        }
+
+        private void scheduleNextStart(long now) {
+            double rate = behavior.getTransactionsPerHour();
+            if (rate <= 0) {
+                nextEventNanos = stopAtNanos;
+                return;
+            }
+            // exponentially distributed, i.e. the starts are a Poisson process
+            double hours = -Math.log(1 - ThreadLocalRandom.current().nextDouble()) / rate;
+            nextEventNanos = now + (long) (hours * TimeUnit.HOURS.toNanos(1));
+        }
+
+        private void onEvent(long now) {
+            if (!isCharging()) {
+                start(now);
+            } else if (now - stopNanos >= 0) {
+                stop(now);
+            } else {
+                sendMeterValues(now);
+            }
+        }
+
+        private void start(long now) {
+            String tag = idTags.get(ThreadLocalRandom.current().nextInt(idTags.size()));
+
+            call(new AuthorizeRequest().withIdTag(tag), AuthorizeResponse.class);
+
+            StartTransactionResponse response = call(
+                new StartTransactionRequest()
+                    .withConnectorId(connectorId)
+                    .withIdTag(tag)
+                    .withTimestamp(DateTime.now())
+                    .withMeterStart(meterValueWh),
+                StartTransactionResponse.class
+            );
+
+            if (response == null) {
+                scheduleNextStart(now);
+                return;
+            }
+
+            transactionId = response.getTransactionId();
+            idTag = tag;
+            counters.transactions.incrementAndGet();
+
+            double factor = 0.5 + ThreadLocalRandom.current().nextDouble();
+            stopNanos = now + (long) (factor * seconds(behavior.getTransactionDurationSeconds()));
+            nextEventNanos = Math.min(stopNanos, now + seconds(behavior.getMeterValueIntervalSeconds()));
+
+            sendStatus(connectorId, ChargePointStatus.CHARGING);
+        }
+
+        private void sendMeterValues(long now) {
+            meterValueWh += (int) ((long) behavior.getPowerInWatts() * behavior.getMeterValueIntervalSeconds() / 3600);
+
+            call(
+                new MeterValuesRequest()
+                    .withConnectorId(connectorId)
+                    .withTransactionId(transactionId)
+                    .withMeterValue(new MeterValue()
+                        .withTimestamp(DateTime.now())
+                        .withSampledValue(new SampledValue()
+                            .withValue(Integer.toString(meterValueWh))
+                            .withMeasurand(Measurand.ENERGY_ACTIVE_IMPORT_REGISTER)
+                            .withUnit(UnitOfMeasure.WH))),
+                MeterValuesResponse.class
+            );
+
+            nextEventNanos = Math.min(stopNanos, now + seconds(behavior.getMeterValueIntervalSeconds()));
+        }
+
+        private void stop(long now) {
+            call(
+                new StopTransactionRequest()
+                    .withTransactionId(transactionId)
+                    .withIdTag(idTag)
+                    .withTimestamp(DateTime.now())
+                    .withMeterStop(meterValueWh)
+                    .withReason(Reason.LOCAL),
+                StopTransactionResponse.class
+            );
+
+            transactionId = null;
+            idTag = null;
+            counters.transactions.decrementAndGet();
+
+            sendStatus(connectorId, ChargePointStatus.AVAILABLE);
+            scheduleNextStart(now);
+        }
+    }
+
+    // -------------------------------------------------------------------------
+    // Helpers
+    // -------------------------------------------------------------------------
+
+    /**
+     * Numbers of the whole run, for the progress log
+     */
+    public static class Counters {
+        final AtomicInteger connected = new AtomicInteger();
+        final AtomicInteger failed = new AtomicInteger();
+        final AtomicInteger transactions = new AtomicInteger();
+    }
+
+    private static long seconds(int seconds) {
+        return TimeUnit.SECONDS.toNanos(seconds);
+    }
+
+    /**
+     * To spread periodic events of the stations, so that they do not all happen at once after the ramp-up
+     */
+    private static long randomDelay(int seconds) {
+        return ThreadLocalRandom.current().nextLong(seconds(seconds) + 1);
+    }
+
+    private static void sleepUntil(long nanos) throws InterruptedException {
+        long remaining = nanos - System.nanoTime();
+        if (remaining > 0) {
+            TimeUnit.NANOSECONDS.sleep(remaining);
+        }
+    }
+}
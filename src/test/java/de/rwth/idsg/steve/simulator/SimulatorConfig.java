@@ -0,0 +1,105 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.simulator;
+
+import de.rwth.idsg.steve.config.SteveProperties;
+import de.rwth.idsg.steve.ocpp.OcppTransport;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Locale;
+
+/**
+ * All settings can be given as system properties with the prefix "simulator.", e.g. -Dsimulator.stations=50000
+ */
+@Getter
+@Builder
+@ToString
+public final class SimulatorConfig {
+
+    private static final String PREFIX = "simulator.";
+
+    /**
+     * Base URL of the SteVe instance, including the context path
+     */
+    private final String url;
+    private final OcppTransport transport;
+
+    private final int stationCount;
+    private final String chargeBoxIdPrefix;
+    private final int idTagCount;
+
+    /**
+     * The stations connect evenly spread over this time
+     */
+    private final int rampUpSeconds;
+
+    /**
+     * Time from the start of the run until all stations disconnect, including the ramp-up
+     */
+    private final int durationSeconds;
+
+    /**
+     * How long a station waits for a response
+     */
+    private final int callTimeoutSeconds;
+
+    private final StationBehavior behavior;
+
+    public static SimulatorConfig fromSystemProperties() {
+        StationBehavior behavior = StationBehavior.builder()
+            .connectorCount(getInt("connectors", 2))
+            .heartbeatIntervalSeconds(getInt("heartbeatInterval", 60))
+            .statusIntervalSeconds(getInt("statusInterval", 300))
+            .transactionsPerHour(Double.parseDouble(get("transactionsPerHour", "1.0")))
+            .transactionDurationSeconds(getInt("transactionDuration", 1800))
+            .meterValueIntervalSeconds(getInt("meterValueInterval", 60))
+            .powerInWatts(getInt("power", 11_000))
+            .build();
+
+        return SimulatorConfig.builder()
+            .url(get("url", "http://localhost:8080/steve"))
+            .transport(OcppTransport.fromName(get("transport", "JSON").toUpperCase(Locale.ROOT)))
+            .stationCount(getInt("stations", 1000))
+            .chargeBoxIdPrefix(get("chargeBoxIdPrefix", "sim-"))
+            .idTagCount(getInt("idTags", 100))
+            .rampUpSeconds(getInt("rampUp", 60))
+            .durationSeconds(getInt("duration", 600))
+            .callTimeoutSeconds(getInt("callTimeout", 30))
+            .behavior(behavior)
+            .build();
+    }
+
+    public String getSoapPath() {
+        return url + "/services" + SteveProperties.ROUTER_ENDPOINT_PATH;
+    }
+
+    public String getJsonPath() {
+        return url.replaceFirst("^http", "ws") + "/websocket" + SteveProperties.ROUTER_ENDPOINT_PATH + "/";
+    }
+
+    private static String get(String key, String defaultValue) {
+        return System.getProperty(PREFIX + key, defaultValue);
+    }
+
+    private static int getInt(String key, int defaultValue) {
+        return Integer.parseInt(get(key, Integer.toString(defaultValue)));
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.simulator;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The charge point side of OCPP 1.6 SOAP for many simulated stations: one HTTP server, where the path is the
+ * chargeBoxId. It does not unmarshal the requests, but only reads the name of the operation and the WS-Addressing
+ * MessageID, and answers every operation with status "Accepted". Therefore, only the operations with such a response
+ * (e.g. Reset, ChangeConfiguration, SendLocalList, ClearCache) can be benchmarked.
+ *
+ * There is no CXF server transport in the dependencies of SteVe, so this uses the HTTP server of the JDK, with one
+ * virtual thread per request.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class SoapChargePointServer {
+
+    private static final Pattern OPERATION = Pattern.compile("<(?:[\\w-]+:)?Body[^>]*>\\s*<(?:[\\w-]+:)?(\\w+)Request\\b");
+    private static final Pattern NAMESPACE = Pattern.compile("urn://Ocpp/Cp/\\d{4}/\\d{2}/");
+    private static final Pattern MESSAGE_ID = Pattern.compile("<(?:[\\w-]+:)?MessageID[^>]*>([^<]+)<");
+
+    private final ResponseBehavior behavior;
+
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder faults = new LongAdder();
+
+    private HttpServer server;
+
+    public void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    public void stop() {
+        if (server != null) {
+            server.stop(0);
+        }
+    }
+
+    public String getEndpointAddress(String chargeBoxId) {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/" + chargeBoxId;
+    }
+
+    public long getRequestCount() {
+        return requests.sum();
+    }
+
+    public long getFaultCount() {
+        return faults.sum();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            requests.increment();
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+
+            Matcher operation = OPERATION.matcher(body);
+            Matcher namespace = NAMESPACE.matcher(body);
+            if (!operation.find() || !namespace.find()) {
+                log.warn("Cannot read the operation of the request at '{}'", exchange.getRequestURI());
+                send(exchange, 400, "");
+                return;
+            }
+
+            Matcher messageId = MESSAGE_ID.matcher(body);
+            String relatesTo = messageId.find() ? messageId.group(1).trim() : null;
+
+            Thread.sleep(behavior.nextLatencyMillis());
+
+            if (behavior.nextIsError()) {
+                faults.increment();
+                send(exchange, 500, createFault(relatesTo));
+            } else {
+                send(exchange, 200, createResponse(operation.group(1), namespace.group(), relatesTo));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/soap+xml; charset=UTF-8");
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        if (bytes.length > 0) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+
+    private static String createResponse(String operation, String namespace, String relatesTo) {
+        // like the soapAction "/Reset" in the WSDL of OCPP
+        String action = "/" + Character.toUpperCase(operation.charAt(0)) + operation.substring(1) + "Response";
+        return envelope(action, relatesTo,
+            "<" + operation + "Response xmlns=\"" + namespace + "\"><status>Accepted</status></" + operation + "Response>");
+    }
+
+    private static String createFault(String relatesTo) {
+        return envelope("http://www.w3.org/2005/08/addressing/soap/fault", relatesTo,
+            "<soap:Fault><soap:Code><soap:Value>soap:Receiver</soap:Value></soap:Code>"
+                + "<soap:Reason><soap:Text xml:lang=\"en\">Simulated error</soap:Text></soap:Reason></soap:Fault>");
+    }
+
+    private static String envelope(String action, String relatesTo, String body) {
+        StringBuilder sb = new StringBuilder(512)
+            .append("<soap:Envelope xmlns:soap=\"http://www.w3.org/2003/05/soap-envelope\"")
+            .append(" xmlns:wsa=\"http://www.w3.org/2005/08/addressing\"><soap:Header>")
+            .append("<wsa:Action>").append(action).append("</wsa:Action>")
+            .append("<wsa:MessageID>urn:uuid:").append(UUID.randomUUID()).append("</wsa:MessageID>");
+
+        if (relatesTo != null) {
+            sb.append("<wsa:RelatesTo>").append(relatesTo).append("</wsa:RelatesTo>");
+        }
+
+        return sb.append("</soap:Header><soap:Body>")
+                 .append(body)
+                 .append("</soap:Body></soap:Envelope>")
+                 .toString();
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.simulator;
+
+import de.rwth.idsg.steve.SteveApplication;
+import de.rwth.idsg.steve.repository.ChargePointRepository;
+import de.rwth.idsg.steve.utils.Helpers;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.joda.time.DateTime;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Measures how many SOAP messages of stations SteVe ingests per second. It starts SteVe in this JVM, and posts raw
+ * OCPP 1.6 messages over HTTP, so that the measurement does not include the marshalling of a CXF client. The same
+ * messages are sent to the router endpoint (/CentralSystemService), which has to find out the OCPP version of every
+ * message in {@link de.rwth.idsg.steve.ocpp.soap.MediatorInInterceptor}, and to the endpoint of OCPP 1.6, which does
+ * not. The difference is the cost of the routing.
+ *
+ * For every round and target, it reports the messages per second, and at the end the latencies of the messages.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class SoapIngestBenchmark {
+
+    private static final String NAMESPACE = "urn://Ocpp/Cs/2015/10/";
+
+    private final SoapIngestConfig config;
+
+    public static void main(String[] args) throws Exception {
+        new SoapIngestBenchmark(SoapIngestConfig.fromSystemProperties()).run();
+    }
+
+    public void run() throws Exception {
+        log.info("Starting the SOAP ingest benchmark: {}", config);
+        System.setProperty("spring.profiles.active", config.getProfiles());
+
+        ConfigurableApplicationContext app = null;
+        try {
+            app = SteveApplication.start();
+
+            List<String> chargeBoxIds = getChargeBoxIds();
+            register(app, chargeBoxIds);
+
+            String routerPath = Helpers.getPath(app.getBean(ServerProperties.class));
+
+            HttpClient httpClient = HttpClient.newBuilder()
+                                              .version(HttpClient.Version.HTTP_1_1)
+                                              .connectTimeout(Duration.ofSeconds(config.getRequestTimeoutSeconds()))
+                                              .build();
+
+            LatencyRecorder recorder = new LatencyRecorder();
+            StringBuilder report = new StringBuilder();
+            report.append(String.format("%-5s %-8s %10s %10s %16s", "round", "target", "messages", "errors",
+                "messages per s"));
+
+            long startNanos = System.nanoTime();
+            for (int round = 1; round <= config.getRounds(); round++) {
+                for (String target : config.getTargets()) {
+                    URI uri = URI.create(getAddress(routerPath, target));
+                    report.append(System.lineSeparator())
+                          .append(runTarget(round, target, uri, httpClient, chargeBoxIds, recorder));
+                }
+            }
+
+            double elapsedSeconds = (System.nanoTime() - startNanos) / 1e9;
+            log.info("Finished {} rounds with {} messages per target:{}{}{}{}Latencies of the messages:{}{}",
+                config.getRounds(), config.getMessagesPerRound(),
+                System.lineSeparator(), report, System.lineSeparator(), System.lineSeparator(),
+                System.lineSeparator(), recorder.getReport(elapsedSeconds));
+        } finally {
+            if (app != null) {
+                app.close();
+            }
+        }
+    }
+
+    private String runTarget(int round, String target, URI uri, HttpClient httpClient, List<String> chargeBoxIds,
+                             LatencyRecorder recorder) throws InterruptedException {
+        int messageCount = config.getMessagesPerRound();
+        List<String> actions = config.getActions();
+
+        Semaphore inFlight = new Semaphore(config.getConcurrency());
+        LongAdder errors = new LongAdder();
+
+        long startNanos = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < messageCount; i++) {
+                String chargeBoxId = chargeBoxIds.get(i % chargeBoxIds.size());
+                String action = actions.get(i % actions.size());
+                HttpRequest request = buildRequest(uri, chargeBoxId, action);
+
+                inFlight.acquire();
+                executor.execute(() -> {
+                    try {
+                        send(httpClient, request, target + " " + action, recorder);
+                    } catch (Exception e) {
+                        errors.increment();
+                        recorder.recordError(target + " " + action);
+                        log.debug("Failed to send {} of '{}'", action, chargeBoxId, e);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+        double elapsedSeconds = (System.nanoTime() - startNanos) / 1e9;
+
+        return String.format("%-5d %-8s %10d %10d %16.1f", round, target, messageCount, errors.sum(),
+            messageCount / elapsedSeconds);
+    }
+
+    private static void send(HttpClient httpClient, HttpRequest request, String name, LatencyRecorder recorder)
+            throws Exception {
+        long startNanos = System.nanoTime();
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+
+        // A SOAP fault comes with 500, but also a well-formed response has to contain the namespace of the version
+        if (response.statusCode() != 200 || !response.body().contains(NAMESPACE)) {
+            throw new IllegalStateException("Unexpected response " + response.statusCode() + ": " + response.body());
+        }
+        recorder.recordSuccess(name, System.nanoTime() - startNanos);
+    }
+
+    private HttpRequest buildRequest(URI uri, String chargeBoxId, String action) {
+        String body = switch (action) {
+            case "Heartbeat" -> "<heartbeatRequest xmlns=\"" + NAMESPACE + "\"/>";
+            case "StatusNotification" -> "<statusNotificationRequest xmlns=\"" + NAMESPACE + "\">"
+                + "<connectorId>1</connectorId>"
+                + "<status>Available</status>"
+                + "<errorCode>NoError</errorCode>"
+                + "<timestamp>" + DateTime.now() + "</timestamp>"
+                + "</statusNotificationRequest>";
+            default -> throw new IllegalArgumentException("Unsupported action: " + action);
+        };
+
+        String envelope = "<soap:Envelope xmlns:soap=\"http://www.w3.org/2003/05/soap-envelope\">"
+            + "<soap:Header>"
+            + "<Action xmlns=\"http://www.w3.org/2005/08/addressing\">/" + action + "</Action>"
+            + "<MessageID xmlns=\"http://www.w3.org/2005/08/addressing\">urn:uuid:" + UUID.randomUUID() + "</MessageID>"
+            + "<To xmlns=\"http://www.w3.org/2005/08/addressing\">" + uri + "</To>"
+            + "<chargeBoxIdentity xmlns=\"" + NAMESPACE + "\">" + chargeBoxId + "</chargeBoxIdentity>"
+            + "</soap:Header>"
+            + "<soap:Body>" + body + "</soap:Body>"
+            + "</soap:Envelope>";
+
+        return HttpRequest.newBuilder(uri)
+                          .timeout(Duration.ofSeconds(config.getRequestTimeoutSeconds()))
+                          .header("Content-Type", "application/soap+xml; charset=utf-8; action=\"/" + action + "\"")
+                          .POST(HttpRequest.BodyPublishers.ofString(envelope))
+                          .build();
+    }
+
+    private static String getAddress(String routerPath, String target) {
+        return switch (target) {
+            case "router" -> routerPath;
+            case "direct" -> routerPath + "OCPP16";
+            default -> throw new IllegalArgumentException("Unsupported target: " + target);
+        };
+    }
+
+    private List<String> getChargeBoxIds() {
+        List<String> chargeBoxIds = new ArrayList<>(config.getStationCount());
+        for (int i = 0; i < config.getStationCount(); i++) {
+            chargeBoxIds.add(config.getChargeBoxIdPrefix() + i);
+        }
+        return chargeBoxIds;
+    }
+
+    /**
+     * The stations of a previous run stay in the database, if the profile uses one
+     */
+    private static void register(ConfigurableApplicationContext app, List<String> chargeBoxIds) {
+        ChargePointRepository chargePointRepository = app.getBean(ChargePointRepository.class);
+
+        Set<String> existing = chargePointRepository.getChargeBoxIdPkPair(chargeBoxIds).keySet();
+        List<String> missing = chargeBoxIds.stream()
+                                           .filter(chargeBoxId -> !existing.contains(chargeBoxId))
+                                           .toList();
+        if (!missing.isEmpty()) {
+            chargePointRepository.addChargePointList(missing);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.simulator;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * All settings can be given as system properties with the prefix "ingest.", e.g. -Dingest.concurrency=200
+ */
+@Getter
+@Builder
+@ToString
+public final class SoapIngestConfig {
+
+    private static final String PREFIX = "ingest.";
+
+    /**
+     * Spring profiles of the SteVe instance that is started for the benchmark. With "in-memory", no database is needed.
+     */
+    private final String profiles;
+
+    /**
+     * The messages are sent by this many stations, round robin
+     */
+    private final int stationCount;
+
+    private final String chargeBoxIdPrefix;
+
+    /**
+     * The endpoints that receive the messages, one after another: "router" is /CentralSystemService, which finds the
+     * OCPP version of a message by its namespace, and "direct" is /CentralSystemServiceOCPP16, to compare against.
+     */
+    private final List<String> targets;
+
+    /**
+     * The messages that are sent in turns. Supported are Heartbeat and StatusNotification.
+     */
+    private final List<String> actions;
+
+    /**
+     * How many messages are sent to every target per round
+     */
+    private final int messagesPerRound;
+
+    /**
+     * How many messages are in flight at the same time
+     */
+    private final int concurrency;
+
+    /**
+     * How many times the list of targets is repeated. The first round includes the warm-up of SteVe.
+     */
+    private final int rounds;
+
+    private final int requestTimeoutSeconds;
+
+    public static SoapIngestConfig fromSystemProperties() {
+        return SoapIngestConfig.builder()
+            .profiles(get("profiles", "test,in-memory"))
+            .stationCount(getInt("stations", 100))
+            .chargeBoxIdPrefix(get("chargeBoxIdPrefix", "ingest-"))
+            .targets(Arrays.asList(get("targets", "router,direct").split(",")))
+            .actions(Arrays.asList(get("actions", "Heartbeat,StatusNotification").split(",")))
+            .messagesPerRound(getInt("messages", 50_000))
+            .concurrency(getInt("concurrency", 100))
+            .rounds(getInt("rounds", 3))
+            .requestTimeoutSeconds(getInt("requestTimeout", 30))
+            .build();
+    }
+
+    private static String get(String key, String defaultValue) {
+        return System.getProperty(PREFIX + key, defaultValue);
+    }
+
+    private static int getInt(String key, int defaultValue) {
+        return Integer.parseInt(get(key, Integer.toString(defaultValue)));
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.simulator;
+
+import de.rwth.idsg.ocpp.jaxb.RequestType;
+import de.rwth.idsg.ocpp.jaxb.ResponseType;
+import lombok.RequiredArgsConstructor;
+import ocpp.cs._2015._10.AuthorizeRequest;
+import ocpp.cs._2015._10.BootNotificationRequest;
+import ocpp.cs._2015._10.CentralSystemService;
+import ocpp.cs._2015._10.HeartbeatRequest;
+import ocpp.cs._2015._10.MeterValuesRequest;
+import ocpp.cs._2015._10.StartTransactionRequest;
+import ocpp.cs._2015._10.StatusNotificationRequest;
+import ocpp.cs._2015._10.StopTransactionRequest;
+
+/**
+ * SOAP does not have connections, therefore all stations share one client proxy and only differ in the
+ * chargeBoxIdentity header.
+ */
+@RequiredArgsConstructor
+public class SoapStationClient implements StationClient {
+
+    private final CentralSystemService client;
+    private final String chargeBoxId;
+
+    @Override
+    public void connect() {
+        // nothing to do
+    }
+
+    @Override
+    public <T extends ResponseType> T call(RequestType request, Class<T> responseClass) {
+        Object response = switch (request) {
+            case BootNotificationRequest r -> client.bootNotification(r, chargeBoxId);
+            case HeartbeatRequest r -> client.heartbeat(r, chargeBoxId);
+            case StatusNotificationRequest r -> client.statusNotification(r, chargeBoxId);
+            case AuthorizeRequest r -> client.authorize(r, chargeBoxId);
+            case StartTransactionRequest r -> client.startTransaction(r, chargeBoxId);
+            case MeterValuesRequest r -> client.meterValues(r, chargeBoxId);
+            case StopTransactionRequest r -> client.stopTransaction(r, chargeBoxId);
+            default -> throw new IllegalArgumentException("Unexpected request: " + request.getClass().getSimpleName());
+        };
+        return responseClass.cast(response);
+    }
+
+    @Override
+    public void close() {
+        // nothing to do
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.simulator;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * What a simulated station does after its boot, and how often. All stations of a run share one behavior, but draw
+ * their own random times from it, so that they do not act in lockstep.
+ */
+@Getter
+@Builder
+@ToString
+public final class StationBehavior {
+
+    @Builder.Default private final int connectorCount = 2;
+
+    @Builder.Default private final int heartbeatIntervalSeconds = 60;
+
+    /**
+     * Every interval, the status of one random connector is sent again, as some stations do
+     */
+    @Builder.Default private final int statusIntervalSeconds = 300;
+
+    /**
+     * Mean rate of transaction starts at an idle connector. The time between transactions is exponentially
+     * distributed.
+     */
+    @Builder.Default private final double transactionsPerHour = 1.0;
+
+    /**
+     * Mean duration of a transaction. The actual duration is drawn uniformly from 50% to 150% of it.
+     */
+    @Builder.Default private final int transactionDurationSeconds = 1800;
+
+    @Builder.Default private final int meterValueIntervalSeconds = 60;
+
+    /**
+     * Charging power, for the meter values
+     */
+    @Builder.Default private final int powerInWatts = 11_000;
+}
@@ -0,0 +1,111 @@
+/*
+ * SteVe - SteckdosenVerwaltung - https://github.com/steve-community/steve
+ * Copyright (C) 2013-2025 SteVe Community Team
+ * All Rights Reserved.
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package de.rwth.idsg.steve.simulator;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.jetty.websocket.client.WebSocketClient;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Replays the OCPP-J traffic of the stations from SteVe logs (see {@link CaptureParser}) against a running SteVe,
+ * with one virtual thread per station. The time can be scaled and the stations can be multiplied, to benchmark a
+ * release with the traffic shape of a real installation.
+ *
+ * As with {@link ChargePointSimulator}, the stations must either exist in SteVe, or
+ * steve.ocpp.auto-register-unknown-stations must be enabled.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class TrafficReplayer {
+
+    private static final int PROGRESS_INTERVAL_SECONDS = 10;
+
+    private final ReplayConfig config;
+
+    public static void main(String[] args) throws Exception {
+        new TrafficReplayer(ReplayConfig.fromSystemProperties()).run();
+    }
+
+    public void run() throws Exception {
+        log.info("Starting the replay: {}", config);
+
+        Map<String, List<CapturedCall>> capture = new CaptureParser().parse(config.getFiles());
+        if (capture.isEmpty()) {
+            log.warn("Nothing to replay");
+            return;
+        }
+
+        long captureStartMillis = capture.values()
+                                         .stream()
+                                         .mapToLong(calls -> calls.get(0).getTimestampMillis())
+                                         .min()
+                                         .getAsLong();
+
+        LatencyRecorder recorder = new LatencyRecorder();
+        AtomicInteger unmappedTransactionIds = new AtomicInteger();
+
+        WebSocketClient webSocketClient = new WebSocketClient();
+        // a station of the log might be idle for a long time, if its heartbeat interval is long
+        webSocketClient.setIdleTimeout(Duration.ofHours(1));
+        webSocketClient.start();
+
+        long replayStartMillis = System.currentTimeMillis();
+        long replayStartNanos = System.nanoTime();
+
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            for (Map.Entry<String, List<CapturedCall>> entry : capture.entrySet()) {
+                for (int copy = 0; copy < config.getStationCopies(); copy++) {
+                    executor.execute(new ReplayedStation(config.getChargeBoxId(entry.getKey(), copy), entry.getValue(),
+                        config, webSocketClient, recorder, unmappedTransactionIds,
+                        captureStartMillis, replayStartMillis, replayStartNanos));
+                }
+            }
+            executor.shutdown();
+
+            long lastCount = 0;
+            while (!executor.awaitTermination(PROGRESS_INTERVAL_SECONDS, TimeUnit.SECONDS)) {
+                long count = recorder.getTotalCount();
+                log.info("Calls per second: {}", (count - lastCount) / PROGRESS_INTERVAL_SECONDS);
+                lastCount = count;
+            }
+        } finally {
+            executor.shutdownNow();
+            webSocketClient.stop();
+        }
+
+        if (unmappedTransactionIds.get() > 0) {
+            log.warn("{} calls were sent with the transactionId of the capture, since the StartTransaction of it "
+                + "was not in the log or failed", unmappedTransactionIds.get());
+        }
+
+        double elapsedSeconds = (System.nanoTime() - replayStartNanos) / 1e9;
+        log.info("Finished after {} s. Latencies of {} stations:{}{}",
+            Math.round(elapsedSeconds), capture.size() * config.getStationCopies(), System.lineSeparator(),
+            recorder.getReport(elapsedSeconds));
+    }
+}
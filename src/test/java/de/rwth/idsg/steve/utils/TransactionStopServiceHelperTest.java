@@ -18,148 +18,60 @@
  */
 package de.rwth.idsg.steve.utils;
 
-import de.rwth.idsg.steve.repository.dto.TransactionDetails;
+import ocpp.cs._2015._10.Measurand;
+import ocpp.cs._2015._10.UnitOfMeasure;
+import ocpp.cs._2015._10.ValueFormat;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 public class TransactionStopServiceHelperTest {
 
     @Test
-    public void testFloatingStringToIntString() {
-        String actual = TransactionStopServiceHelper.floatingStringToIntString("11.01");
-
-        Assertions.assertEquals("12", actual);
+    public void testCalculateEnergyConsumptionInWh() {
+        Assertions.assertEquals(1500L, TransactionStopServiceHelper.calculateEnergyConsumptionInWh("1000", "2500"));
     }
 
     @Test
-    public void testFloatingStringToIntString2() {
-        String actual = TransactionStopServiceHelper.floatingStringToIntString("234.678");
-
-        Assertions.assertEquals("235", actual);
+    public void testCalculateEnergyConsumptionInWh_floating() {
+        Assertions.assertEquals(1501L, TransactionStopServiceHelper.calculateEnergyConsumptionInWh("1000.2", "2500.9"));
     }
 
     @Test
-    public void testKWhStringToWhString() {
-        String actual = TransactionStopServiceHelper.kWhStringToWhString("12");
-
-        Assertions.assertEquals("12000.0", actual);
+    public void testCalculateEnergyConsumptionInWh_decreasing() {
+        Assertions.assertNull(TransactionStopServiceHelper.calculateEnergyConsumptionInWh("2500", "1000"));
     }
 
     @Test
-    public void testIsEnergy_empty() {
-        var value = TransactionDetails.MeterValues.builder()
-            .build();
-
-        Assertions.assertFalse(TransactionStopServiceHelper.isEnergyValue(value));
+    public void testCalculateEnergyConsumptionInWh_invalid() {
+        Assertions.assertNull(TransactionStopServiceHelper.calculateEnergyConsumptionInWh("abc", "1000"));
+        Assertions.assertNull(TransactionStopServiceHelper.calculateEnergyConsumptionInWh(null, "1000"));
     }
 
     @Test
-    public void testIsEnergy_onlyValue() {
-        var value = TransactionDetails.MeterValues.builder()
-            .value("22")
-            .build();
-
-        Assertions.assertTrue(TransactionStopServiceHelper.isEnergyValue(value));
+    public void testToNumericValue() {
+        Assertions.assertEquals(22.5, TransactionStopServiceHelper.toNumericValue("22.5", null));
+        Assertions.assertEquals(100.0, TransactionStopServiceHelper.toNumericValue("1e2", ValueFormat.RAW));
     }
 
     @Test
-    public void testIsEnergy_onlyValueDecimal() {
-        var value = TransactionDetails.MeterValues.builder()
-            .value("22.5")
-            .build();
-
-        Assertions.assertTrue(TransactionStopServiceHelper.isEnergyValue(value));
+    public void testToNumericValue_notNumeric() {
+        Assertions.assertNull(TransactionStopServiceHelper.toNumericValue(null, null));
+        Assertions.assertNull(TransactionStopServiceHelper.toNumericValue("22a819()b", null));
+        Assertions.assertNull(TransactionStopServiceHelper.toNumericValue("NaN", null));
+        Assertions.assertNull(TransactionStopServiceHelper.toNumericValue("22", ValueFormat.SIGNED_DATA));
     }
 
     @Test
-    public void testIsEnergy_signedData() {
-        var value = TransactionDetails.MeterValues.builder()
-            .value("some gibberish that is not an energy value")
-            .format("SignedData")
-            .build();
-
-        Assertions.assertFalse(TransactionStopServiceHelper.isEnergyValue(value));
+    public void testToEnergyValueInWh() {
+        Assertions.assertEquals(22.0, TransactionStopServiceHelper.toEnergyValueInWh(22.0, null, null));
+        Assertions.assertEquals(22.0, TransactionStopServiceHelper.toEnergyValueInWh(22.0, Measurand.ENERGY_ACTIVE_IMPORT_REGISTER, UnitOfMeasure.WH));
+        Assertions.assertEquals(1500.0, TransactionStopServiceHelper.toEnergyValueInWh(1.5, null, UnitOfMeasure.K_WH));
     }
 
     @Test
-    public void testIsEnergy_notEnergyUnit() {
-        var value = TransactionDetails.MeterValues.builder()
-            .value("22")
-            .format("Raw")
-            .unit("Celsius")
-            .build();
-
-        Assertions.assertFalse(TransactionStopServiceHelper.isEnergyValue(value));
-    }
-
-
-    @Test
-    public void testIsEnergy_notActiveImportMeasurand() {
-        var value = TransactionDetails.MeterValues.builder()
-            .value("22")
-            .format("Raw")
-            .unit("Wh")
-            .measurand("Current.Export")
-            .build();
-
-        Assertions.assertFalse(TransactionStopServiceHelper.isEnergyValue(value));
-    }
-
-    @Test
-    public void testIsEnergy_nullFormat() {
-        var value = TransactionDetails.MeterValues.builder()
-            .value("22")
-            .format(null)
-            .unit("Wh")
-            .measurand("Energy.Active.Import.Register")
-            .build();
-
-        Assertions.assertTrue(TransactionStopServiceHelper.isEnergyValue(value));
-    }
-
-    @Test
-    public void testIsEnergy_rawFormat() {
-        var value = TransactionDetails.MeterValues.builder()
-            .value("22")
-            .format("Raw")
-            .unit("Wh")
-            .measurand("Energy.Active.Import.Register")
-            .build();
-
-        Assertions.assertTrue(TransactionStopServiceHelper.isEnergyValue(value));
-    }
-
-    @Test
-    public void testIsEnergy_kWhUnit() {
-        var value = TransactionDetails.MeterValues.builder()
-            .value("22")
-            .format("Raw")
-            .unit("kWh")
-            .measurand("Energy.Active.Import.Register")
-            .build();
-
-        Assertions.assertTrue(TransactionStopServiceHelper.isEnergyValue(value));
-    }
-
-    @Test
-    public void testIsEnergy_nonNumericValue() {
-        var value = TransactionDetails.MeterValues.builder()
-            .value("22a819()b")
-            .format("Raw")
-            .unit("Wh")
-            .measurand("Energy.Active.Import.Register")
-            .build();
-
-        Assertions.assertFalse(TransactionStopServiceHelper.isEnergyValue(value));
-    }
-
-    @Test
-    public void testIsEnergy_valueAndUnit() {
-        var value = TransactionDetails.MeterValues.builder()
-            .value("22")
-            .unit("Wh")
-            .build();
-
-        Assertions.assertTrue(TransactionStopServiceHelper.isEnergyValue(value));
+    public void testToEnergyValueInWh_notEnergy() {
+        Assertions.assertNull(TransactionStopServiceHelper.toEnergyValueInWh(null, null, null));
+        Assertions.assertNull(TransactionStopServiceHelper.toEnergyValueInWh(22.0, Measurand.POWER_ACTIVE_IMPORT, UnitOfMeasure.W));
+        Assertions.assertNull(TransactionStopServiceHelper.toEnergyValueInWh(22.0, null, UnitOfMeasure.CELSIUS));
     }
 }